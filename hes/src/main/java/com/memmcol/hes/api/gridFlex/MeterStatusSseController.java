@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/realtime/meter-status")
@@ -42,6 +43,19 @@ public class MeterStatusSseController {
         );
     }
 
+    /**
+     * Same feed as {@code /stream}, but one SSE event per flush interval carrying all status
+     * changes in it; preferred by dashboards following the whole fleet.
+     */
+    @GetMapping(value = "/stream/batches", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<List<MeterStatusEvent>>> streamMeterStatusBatches() {
+        return publisher.getBatchStream()
+                .map(batch -> ServerSentEvent.<List<MeterStatusEvent>>builder()
+                        .event("meter-status-batch")
+                        .data(batch)
+                        .build());
+    }
+
 //    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
 //    public Flux<ServerSentEvent<MeterStatusEvent>> streamMeterStatus() {
 //
@@ -4,9 +4,9 @@ package com.memmcol.hes.application.port.out;
  * 2. Port Interfaces (Application Layer Contracts)
  */
 public interface ProfileMetricsPort {
-    void recordBatch(String meterSerial, String profileObis, int rowsSaved, long millis);
+    void recordBatch(String meterSerial, String meterModel, String profileObis, int rowsSaved, long millis);
 
-    void recordFailure(String meterSerial, String profileObis, String cause);
+    void recordFailure(String meterSerial, String meterModel, String profileObis, String cause);
 
-    void recordRecovery(String meterSerial, String profileObis, int salvaged);
+    void recordRecovery(String meterSerial, String meterModel, String profileObis, int salvaged);
 }
@@ -1,6 +1,13 @@
 package com.memmcol.hes.application.port.out;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 public interface TxRxService {
+
+    /** Timeout used when the transport has nothing better for the meter. */
+    long DEFAULT_TIMEOUT_MS = 20_000;
+
     /**
      * Send request bytes to meter and receive response.
      * @param meterSerial Serial number of meter
@@ -10,4 +17,35 @@ public interface TxRxService {
      * @throws Exception if TX/RX fails
      */
     byte[] sendReceiveWithContext(String meterSerial, byte[] request, long timeoutMs) throws Exception;
+
+    /**
+     * Non-blocking variant of {@link #sendReceiveWithContext}: the stage completes with the
+     * response frame, or exceptionally on timeout / channel loss, without holding a thread
+     * while the meter answers.
+     * <p>
+     * The default runs the blocking call on the caller's thread, which is enough for mocks
+     * and simulators; the Netty transport overrides it.
+     */
+    default CompletionStage<byte[]> sendReceiveAsync(String meterSerial, byte[] request, long timeoutMs) {
+        try {
+            return CompletableFuture.completedFuture(sendReceiveWithContext(meterSerial, request, timeoutMs));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Like {@link #sendReceiveWithContext(String, byte[], long)}, but the transport picks the
+     * timeout for this meter (the Netty transport adapts it to the meter's measured round-trip time).
+     */
+    default byte[] sendReceiveWithContext(String meterSerial, byte[] request) throws Exception {
+        return sendReceiveWithContext(meterSerial, request, DEFAULT_TIMEOUT_MS);
+    }
+
+    /**
+     * Non-blocking variant of {@link #sendReceiveWithContext(String, byte[])}.
+     */
+    default CompletionStage<byte[]> sendReceiveAsync(String meterSerial, byte[] request) {
+        return sendReceiveAsync(meterSerial, request, DEFAULT_TIMEOUT_MS);
+    }
 }
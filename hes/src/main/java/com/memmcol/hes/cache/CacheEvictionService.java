@@ -27,6 +27,9 @@ public class CacheEvictionService {
         if (cacheManager.getCache("lastProfileTimestamp") != null) {
             Objects.requireNonNull(cacheManager.getCache("lastProfileTimestamp")).clear();  // Clears all entries in that Caffeine cache
         }
+        if (cacheManager.getCache("profileState") != null) {
+            Objects.requireNonNull(cacheManager.getCache("profileState")).clear();
+        }
     }
 
 
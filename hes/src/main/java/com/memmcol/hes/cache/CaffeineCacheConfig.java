@@ -49,6 +49,13 @@ public class CaffeineCacheConfig {
                 .expireAfterWrite(12, TimeUnit.HOURS)
                 .recordStats());
 
+        // Profile read cursors (meter_profile_state), one entry per meter/OBIS. Expire after write
+        // so a row changed outside CachedProfileStateAdapter is picked up within the TTL.
+        specs.put("profileState", Caffeine.newBuilder()
+                .maximumSize(200_000)
+                .expireAfterWrite(6, TimeUnit.HOURS)
+                .recordStats());
+
         specs.put("profileCapturePeriod", Caffeine.newBuilder()
                 .maximumSize(500)
                 .expireAfterWrite(12, TimeUnit.HOURS)
@@ -12,6 +12,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -31,25 +32,29 @@ public class EventCodeLookupCacheService {
     private final EventCodeLookupRepository eventCodeLookupRepository;
     private final EventTypeRepository eventTypeRepository;
 
-    private EventType undefinedEventType;
-
-    /** MD/CT {@code event_log}: OBIS → event_type.id (undefined fallback). */
-    private final Map<String, Long> obisToEventTypeId = new HashMap<>();
-
-    /** profile_obis (normalized) → event_type.id from {@code event_type.obis_code}. */
-    private final Map<String, Long> eventTypeIdByProfileObis = new HashMap<>();
-
-    /** MD/CT: event_type_id + code → name (no meter_model filter). */
-    private final Map<String, CachedEventCode> eventCodeByTypeAndCode = new HashMap<>();
-
     /**
-     * Household: profile_obis + code → lookup row (event_name + meter_model scope).
-     * Built from event_code_lookup joined to event_type on event_type_id.
+     * Everything the lookups read, built off to the side and published in one volatile write,
+     * so readers on the event ingestion path never see a half-refreshed cache.
+     *
+     * @param obisToEventTypeId        MD/CT {@code event_log}: OBIS → event_type.id (undefined fallback)
+     * @param eventTypeIdByProfileObis profile_obis (normalized) → event_type.id from {@code event_type.obis_code}
+     * @param eventCodeByTypeAndCode   MD/CT: packed (event_type_id, code) → name (no meter_model filter)
+     * @param householdByProfileObis   household: profile_obis → code → lookup row (event_name + meter_model scope),
+     *                                 built from event_code_lookup joined to event_type on event_type_id
      */
-    private final Map<String, CachedEventCode> householdEventNameByProfileObisAndCode = new HashMap<>();
+    private record Snapshot(Map<String, Long> obisToEventTypeId,
+                            Map<String, Long> eventTypeIdByProfileObis,
+                            LongKeyedTable<CachedEventCode> eventCodeByTypeAndCode,
+                            Map<String, LongKeyedTable<CachedEventCode>> householdByProfileObis,
+                            Long undefinedEventTypeId) {
+    }
+
+    private volatile Snapshot snapshot;
 
     @PostConstruct
     public void loadCacheAtStartup() {
+        Map<String, Long> obisToEventTypeId = new HashMap<>();
+        Map<String, Long> eventTypeIdByProfileObis = new HashMap<>();
         for (EventType type : eventTypeRepository.findAll()) {
             String obis = type.getObisCode();
             String normalized = ObisCodeNormalizer.normalize(obis);
@@ -57,45 +62,68 @@ public class EventCodeLookupCacheService {
             eventTypeIdByProfileObis.put(normalized, type.getId());
         }
 
+        LongKeyedTable.Builder<CachedEventCode> byTypeAndCode = LongKeyedTable.builder();
+        Map<String, LongKeyedTable.Builder<CachedEventCode>> household = new HashMap<>();
+        int codes = 0;
         for (EventCodeLookup lookup : eventCodeLookupRepository.findAll()) {
             EventType eventType = lookup.getEventType();
-            Long eventTypeId = eventType.getId();
             int code = lookup.getCode();
             CachedEventCode cached = new CachedEventCode(lookup.getEventName(), lookup.getMeterModel());
 
-            eventCodeByTypeAndCode.put(compositeTypeAndCode(eventTypeId, code), cached);
+            byTypeAndCode.put(typeAndCode(eventType.getId(), code), cached);
 
             String profileObis = ObisCodeNormalizer.normalize(eventType.getObisCode());
-            householdEventNameByProfileObisAndCode.put(compositeProfileObisAndCode(profileObis, code), cached);
+            household.computeIfAbsent(profileObis, k -> LongKeyedTable.builder()).put(code, cached);
+            codes++;
         }
 
-        undefinedEventType = eventTypeRepository.findById(5L)
+        EventType undefinedEventType = eventTypeRepository.findById(5L)
                 .orElseThrow(() -> new IllegalStateException("Undefined EventType (id=5) missing in DB"));
 
-        log.info("✅ EventCodeLookup cache: {} event types, {} codes, {} household name keys",
-                eventTypeIdByProfileObis.size(), eventCodeByTypeAndCode.size(),
-                householdEventNameByProfileObisAndCode.size());
+        Map<String, LongKeyedTable<CachedEventCode>> householdTables = new HashMap<>();
+        household.forEach((obis, builder) -> householdTables.put(obis, builder.build()));
+        LongKeyedTable<CachedEventCode> eventCodes = byTypeAndCode.build();
+
+        snapshot = new Snapshot(Collections.unmodifiableMap(obisToEventTypeId),
+                Collections.unmodifiableMap(eventTypeIdByProfileObis),
+                eventCodes, Collections.unmodifiableMap(householdTables), undefinedEventType.getId());
+
+        log.info("✅ EventCodeLookup cache: {} event types, {} codes, {} lookup rows",
+                eventTypeIdByProfileObis.size(), eventCodes.size(), codes);
     }
 
     /**
      * MD/CT tier only: resolves event_type.id with undefined-event fallback.
      */
     public Long getEventTypeIdByObis(String obisCode) {
-        return obisToEventTypeId.getOrDefault(obisCode, undefinedEventType.getId());
+        Snapshot s = snapshot;
+        return s.obisToEventTypeId().getOrDefault(obisCode, s.undefinedEventTypeId());
     }
 
     /**
      * {@code event_type.id} for a profile OBIS via {@code event_type.obis_code} (no undefined fallback).
      */
     public Optional<Long> findEventTypeIdByProfileObis(String profileObis) {
-        return Optional.ofNullable(eventTypeIdByProfileObis.get(ObisCodeNormalizer.normalize(profileObis)));
+        return Optional.ofNullable(snapshot.eventTypeIdByProfileObis().get(ObisCodeNormalizer.normalize(profileObis)));
     }
 
     /**
      * MD/CT {@code event_log} event name (event_type_id + code, all meter models).
      */
     public Optional<String> getEventName(Long eventTypeId, int eventCode) {
-        return getEventNameForCached(eventCodeByTypeAndCode.get(compositeTypeAndCode(eventTypeId, eventCode)), null);
+        return Optional.ofNullable(getEventNameOrDefault(eventTypeId, eventCode, null));
+    }
+
+    /**
+     * Allocation-free variant of {@link #getEventName(Long, int)} for per-row ingestion loops.
+     */
+    public String getEventNameOrDefault(long eventTypeId, int eventCode, String fallback) {
+        CachedEventCode cached = snapshot.eventCodeByTypeAndCode().get(typeAndCode(eventTypeId, eventCode));
+        if (cached == null || cached.eventName() == null
+                || !EventCodeLookupMeterModelMatcher.applies(cached.meterModels(), null)) {
+            return fallback;
+        }
+        return cached.eventName();
     }
 
     /**
@@ -103,8 +131,9 @@ public class EventCodeLookupCacheService {
      * to {@code event_type.obis_code} + {@code event_code_lookup}.
      */
     public String resolveHouseholdEventName(String profileObis, int eventCode, String meterModel) {
-        String key = compositeProfileObisAndCode(ObisCodeNormalizer.normalize(profileObis), eventCode);
-        return getEventNameForCached(householdEventNameByProfileObisAndCode.get(key), meterModel)
+        LongKeyedTable<CachedEventCode> codes = snapshot.householdByProfileObis().get(ObisCodeNormalizer.normalize(profileObis));
+        CachedEventCode cached = codes == null ? null : codes.get(eventCode);
+        return getEventNameForCached(cached, meterModel)
                 .orElse("Undefined Event");
     }
 
@@ -118,19 +147,14 @@ public class EventCodeLookupCacheService {
         return Optional.ofNullable(cached.eventName());
     }
 
-    private static String compositeTypeAndCode(Long eventTypeId, int eventCode) {
-        return eventTypeId + "_" + eventCode;
-    }
-
-    private static String compositeProfileObisAndCode(String profileObis, int eventCode) {
-        return profileObis + "_" + eventCode;
+    private static long typeAndCode(long eventTypeId, int eventCode) {
+        return LongKeyedTable.pack(Math.toIntExact(eventTypeId), eventCode);
     }
 
+    /**
+     * Rebuilds the snapshot and swaps it in; readers keep using the previous one until then.
+     */
     public void refreshCache() {
-        obisToEventTypeId.clear();
-        eventTypeIdByProfileObis.clear();
-        eventCodeByTypeAndCode.clear();
-        householdEventNameByProfileObisAndCode.clear();
         loadCacheAtStartup();
     }
 
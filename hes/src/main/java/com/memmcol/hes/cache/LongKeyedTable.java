@@ -0,0 +1,110 @@
+package com.memmcol.hes.cache;
+
+import java.util.Arrays;
+
+/**
+ * Read-only open-addressing map from primitive {@code long} keys to values.
+ * <p>
+ * Built once through {@link Builder} and never mutated afterwards, so it can be shared by any
+ * number of reader threads without locking. Lookups do not box the key or allocate.
+ */
+public final class LongKeyedTable<V> {
+
+    private final long[] keys;
+    private final Object[] values;
+    private final boolean[] used;
+    private final int mask;
+    private final int size;
+
+    private LongKeyedTable(long[] keys, Object[] values, boolean[] used, int size) {
+        this.keys = keys;
+        this.values = values;
+        this.used = used;
+        this.mask = keys.length - 1;
+        this.size = size;
+    }
+
+    /** Packs two ints into one key, e.g. {@code (eventTypeId << 32) | eventCode}. */
+    public static long pack(int high, int low) {
+        return ((long) high << 32) | (low & 0xFFFF_FFFFL);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int i = slot(key, mask);
+        while (used[i]) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E37_79B9_7F4A_7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    public static <V> Builder<V> builder() {
+        return new Builder<>();
+    }
+
+    /** Single-threaded builder; later puts for the same key replace earlier ones. */
+    public static final class Builder<V> {
+        private long[] keys = new long[16];
+        private Object[] values = new Object[16];
+        private boolean[] used = new boolean[16];
+        private int size;
+
+        public Builder<V> put(long key, V value) {
+            // Keep the load factor at or below 0.5 so probe chains stay short
+            if ((size + 1) * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+            if (insert(keys, values, used, key, value)) {
+                size++;
+            }
+            return this;
+        }
+
+        private static boolean insert(long[] ks, Object[] vs, boolean[] us, long key, Object value) {
+            int mask = ks.length - 1;
+            int i = slot(key, mask);
+            while (us[i]) {
+                if (ks[i] == key) {
+                    vs[i] = value;
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+            us[i] = true;
+            ks[i] = key;
+            vs[i] = value;
+            return true;
+        }
+
+        private void rehash(int capacity) {
+            long[] ks = new long[capacity];
+            Object[] vs = new Object[capacity];
+            boolean[] us = new boolean[capacity];
+            for (int i = 0; i < keys.length; i++) {
+                if (used[i]) {
+                    insert(ks, vs, us, keys[i], values[i]);
+                }
+            }
+            keys = ks;
+            values = vs;
+            used = us;
+        }
+
+        public LongKeyedTable<V> build() {
+            return new LongKeyedTable<>(Arrays.copyOf(keys, keys.length), Arrays.copyOf(values, values.length),
+                    Arrays.copyOf(used, used.length), size);
+        }
+    }
+}
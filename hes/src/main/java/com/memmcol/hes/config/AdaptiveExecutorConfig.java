@@ -1,9 +1,12 @@
 package com.memmcol.hes.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -12,7 +15,12 @@ import java.util.concurrent.TimeUnit;
 public class AdaptiveExecutorConfig {
 
     @Bean(name = "meterReadAdaptiveExecutor")
-    public ThreadPoolExecutor meterReadAdaptiveExecutor() {
+    public ExecutorService meterReadAdaptiveExecutor(@Value("${hes.executor.mode:platform}") String mode) {
+        if (ExecutorMode.from(mode) == ExecutorMode.VIRTUAL) {
+            // Concurrency is bounded by MeterReadLimiter, not by a thread count
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("meter-read-vt-", 0).factory());
+        }
+
         int cores = Runtime.getRuntime().availableProcessors();
 
         // start conservative, scale with load
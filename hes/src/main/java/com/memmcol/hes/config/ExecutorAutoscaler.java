@@ -6,6 +6,7 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.lang.management.ManagementFactory;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 
 @Component
@@ -14,12 +15,16 @@ public class ExecutorAutoscaler {
 
     private final ThreadPoolExecutor executor;
 
-    public ExecutorAutoscaler(@Qualifier("meterReadAdaptiveExecutor") ThreadPoolExecutor executor) {
-        this.executor = executor;
+    public ExecutorAutoscaler(@Qualifier("meterReadAdaptiveExecutor") ExecutorService executor) {
+        // Virtual-thread mode has no pool to resize
+        this.executor = executor instanceof ThreadPoolExecutor pool ? pool : null;
     }
 
     @Scheduled(fixedRate = 5000*3600) // check every 5s
     public void adjustPoolSize() {
+        if (executor == null) {
+            return;
+        }
         double load = ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage();
         long freeMem = Runtime.getRuntime().freeMemory();
         int queueSize = executor.getQueue().size();
@@ -9,21 +9,28 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.Collections;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 public class ExecutorConfig {
 
     @Bean(name = "meterReadExecutor")
     public ExecutorService meterReadExecutor(MeterRegistry registry,
+                                             @Value("${hes.executor.mode:platform}") String mode,
                                              @Value("${hes.meter.executor.size:50}") int poolSize) {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(poolSize);
-        executor.setMaxPoolSize(poolSize);
-        executor.setQueueCapacity(1000);
-        executor.setThreadNamePrefix("meter-read-");
-        executor.initialize();
-
-        ExecutorService executorService = executor.getThreadPoolExecutor();
+        ExecutorService executorService;
+        if (ExecutorMode.from(mode) == ExecutorMode.VIRTUAL) {
+            executorService = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("meter-read-", 0).factory());
+        } else {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(poolSize);
+            executor.setMaxPoolSize(poolSize);
+            executor.setQueueCapacity(1000);
+            executor.setThreadNamePrefix("meter-read-");
+            executor.initialize();
+
+            executorService = executor.getThreadPoolExecutor();
+        }
 
         ExecutorServiceMetrics.monitor(
                 registry,
@@ -36,7 +43,12 @@ public class ExecutorConfig {
     }
 
     @Bean(name = "realtimeStreamExecutor")
-    public ExecutorService realtimeStreamExecutor(@Value("${hes.realtime-read.stream-executor.size:10}") int poolSize) {
+    public ExecutorService realtimeStreamExecutor(@Value("${hes.executor.mode:platform}") String mode,
+                                                  @Value("${hes.realtime-read.stream-executor.size:10}") int poolSize) {
+        if (ExecutorMode.from(mode) == ExecutorMode.VIRTUAL) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("realtime-stream-", 0).factory());
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(poolSize);
         executor.setMaxPoolSize(poolSize);
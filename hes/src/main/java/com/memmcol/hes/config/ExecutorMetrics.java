@@ -6,34 +6,48 @@ import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 
 @Component
 public class ExecutorMetrics implements MeterBinder {
 
-    private final ThreadPoolExecutor executor;
+    private final ExecutorService executor;
+    private final MeterReadLimiter limiter;
 
-    public ExecutorMetrics(@Qualifier("meterReadAdaptiveExecutor") ThreadPoolExecutor executor) {
+    public ExecutorMetrics(@Qualifier("meterReadAdaptiveExecutor") ExecutorService executor,
+                           MeterReadLimiter limiter) {
         this.executor = executor;
+        this.limiter = limiter;
     }
 
     @Override
     public void bindTo(MeterRegistry registry) {
-        Gauge.builder("hes.executor.pool.size", executor, ThreadPoolExecutor::getPoolSize)
-                .description("Current number of threads in meterReadExecutor pool")
+        if (executor instanceof ThreadPoolExecutor pool) {
+            Gauge.builder("hes.executor.pool.size", pool, ThreadPoolExecutor::getPoolSize)
+                    .description("Current number of threads in meterReadExecutor pool")
+                    .register(registry);
+
+            Gauge.builder("hes.executor.active.threads", pool, ThreadPoolExecutor::getActiveCount)
+                    .description("Number of active threads running meter tasks")
+                    .register(registry);
+
+            Gauge.builder("hes.executor.queue.size", pool, e -> e.getQueue().size())
+                    .description("Number of meter tasks waiting in the queue")
+                    .register(registry);
+
+            Gauge.builder("hes.executor.completed.tasks", pool, e -> e.getCompletedTaskCount())
+                    .description("Total number of completed meter tasks")
+                    .register(registry);
+        }
+
+        // Counted in both modes; in virtual-thread mode permits, not threads, are the scarce resource
+        Gauge.builder("hes.executor.inflight", limiter, MeterReadLimiter::inFlight)
+                .description("Meter reads currently running")
                 .register(registry);
 
-        Gauge.builder("hes.executor.active.threads", executor, ThreadPoolExecutor::getActiveCount)
-                .description("Number of active threads running meter tasks")
-                .register(registry);
-
-        Gauge.builder("hes.executor.queue.size", executor, e -> e.getQueue().size())
-                .description("Number of meter tasks waiting in the queue")
-                .register(registry);
-
-        Gauge.builder("hes.executor.completed.tasks", executor, e -> e.getCompletedTaskCount())
-                .description("Total number of completed meter tasks")
+        Gauge.builder("hes.executor.waiting", limiter, MeterReadLimiter::waiting)
+                .description("Meter reads waiting for a per-meter or global permit")
                 .register(registry);
     }
 }
-
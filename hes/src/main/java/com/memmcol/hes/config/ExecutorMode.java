@@ -0,0 +1,15 @@
+package com.memmcol.hes.config;
+
+/**
+ * Thread model used by the meter-read executors ({@code hes.executor.mode}).
+ */
+public enum ExecutorMode {
+    /** Fixed/adaptive platform-thread pools; pool size bounds concurrency. */
+    PLATFORM,
+    /** One virtual thread per task; concurrency is bounded by {@link MeterReadLimiter} instead. */
+    VIRTUAL;
+
+    public static ExecutorMode from(String value) {
+        return "virtual".equalsIgnoreCase(value == null ? "" : value.trim()) ? VIRTUAL : PLATFORM;
+    }
+}
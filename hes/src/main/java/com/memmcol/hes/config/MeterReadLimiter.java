@@ -0,0 +1,129 @@
+package com.memmcol.hes.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounds concurrent meter conversations when reads run on virtual threads.
+ * <p>
+ * With one virtual thread per task the executor no longer caps how many meters are talked to
+ * at once, so a global semaphore limits total in-flight reads and a per-meter semaphore keeps
+ * jobs from interleaving requests on the same association. In {@link ExecutorMode#PLATFORM}
+ * mode the pool size is the limit and {@link #call} runs the task directly; in-flight reads are
+ * counted in both modes.
+ * <p>
+ * A meter's semaphore is dropped once it is idle: callers are counted in and out under
+ * {@code perMeter.compute}, and the last one out removes the entry. Removing on
+ * {@code availablePermits() == perMeterPermits} alone would race a caller that has looked the
+ * semaphore up but not acquired it yet, letting a second semaphore admit a parallel read.
+ */
+@Slf4j
+@Component
+public class MeterReadLimiter {
+
+    private final boolean enabled;
+    private final int perMeterPermits;
+    private final Semaphore global;
+    private final Map<String, MeterPermits> perMeter = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private static final class MeterPermits {
+        final Semaphore semaphore;
+        /** Callers holding or waiting for a permit; only changed inside {@code perMeter.compute}. */
+        int users;
+
+        MeterPermits(int permits) {
+            this.semaphore = new Semaphore(permits, true);
+        }
+    }
+
+    public MeterReadLimiter(@Value("${hes.executor.mode:platform}") String mode,
+                            @Value("${hes.executor.max-in-flight:2000}") int maxInFlight,
+                            @Value("${hes.executor.max-in-flight-per-meter:1}") int maxInFlightPerMeter) {
+        this.enabled = ExecutorMode.from(mode) == ExecutorMode.VIRTUAL;
+        this.perMeterPermits = Math.max(1, maxInFlightPerMeter);
+        this.global = new Semaphore(Math.max(1, maxInFlight), true);
+        if (enabled) {
+            log.info("🧵 Virtual-thread meter reads enabled: maxInFlight={}, perMeter={}", maxInFlight, perMeterPermits);
+        }
+    }
+
+    /**
+     * Runs {@code task} once a per-meter and a global permit are available. The per-meter permit
+     * is taken first so a meter queued behind itself does not hold a global slot.
+     */
+    public <T> T call(String meterSerial, Callable<T> task) throws Exception {
+        if (!enabled) {
+            // The pool bounds concurrency; still count the read so the in-flight gauge is meaningful
+            inFlight.incrementAndGet();
+            try {
+                return task.call();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+        Semaphore meterPermit = perMeter.compute(meterSerial, (k, current) -> {
+            MeterPermits p = current != null ? current : new MeterPermits(perMeterPermits);
+            p.users++;
+            return p;
+        }).semaphore;
+        waiting.incrementAndGet();
+        boolean waitingCounted = true;
+        try {
+            meterPermit.acquire();
+            try {
+                global.acquire();
+                waiting.decrementAndGet();
+                waitingCounted = false;
+                inFlight.incrementAndGet();
+                try {
+                    return task.call();
+                } finally {
+                    inFlight.decrementAndGet();
+                    global.release();
+                }
+            } finally {
+                meterPermit.release();
+            }
+        } finally {
+            if (waitingCounted) {
+                waiting.decrementAndGet();
+            }
+            perMeter.computeIfPresent(meterSerial, (k, p) -> --p.users == 0 ? null : p);
+        }
+    }
+
+    public void run(String meterSerial, Runnable task) throws Exception {
+        call(meterSerial, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Meter reads currently running (holding a permit in virtual mode). */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /** Meter reads blocked on a per-meter or global permit; always 0 in platform mode. */
+    public int waiting() {
+        return waiting.get();
+    }
+
+    /** Meters with a read running or queued; their semaphores are the only ones kept. */
+    int trackedMeters() {
+        return perMeter.size();
+    }
+}
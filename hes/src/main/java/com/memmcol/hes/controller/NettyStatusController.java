@@ -32,7 +32,8 @@ public class NettyStatusController {
     public ResponseEntity<Map<String, Object>> status() {
         return ResponseEntity.ok(Map.of(
                 "status", holder.isRunning() ? "RUNNING" : "STOPPED",
-                "connectedMeters", holder.getActiveMeterCount()
+                "connectedMeters", holder.getActiveMeterCount(),
+                "openConnections", holder.getConnectionCount()
         ));
     }
 
@@ -52,6 +53,7 @@ public class NettyStatusController {
     public ResponseEntity<?> metrics() {
         return ResponseEntity.ok(Map.of(
                 "connectedMeters", holder.getActiveMeterCount(),
+                "openConnections", holder.getConnectionCount(),
                 "meterSerials", holder.getActiveMeters()
         ));
     }
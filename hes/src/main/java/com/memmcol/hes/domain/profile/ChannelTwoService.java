@@ -40,11 +40,11 @@ public class ChannelTwoService implements ProfileSyncUseCase {
         } catch (IllegalStateException e2) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e2.getMessage(), e2);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "Server restarted");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "Server restarted");
         } catch (Exception e) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e.getMessage(), e);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "lock_or_sync_error");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "lock_or_sync_error");
         }
     }
 
@@ -130,7 +130,7 @@ public class ChannelTwoService implements ProfileSyncUseCase {
             long dt2 = System.currentTimeMillis() - t0;
 
             int saved = syncResult.getInsertedCount();
-            metricsPort.recordBatch(serial, profileObis, saved, dt2);
+            metricsPort.recordBatch(serial, model, profileObis, saved, dt2);
 
             ProfileTimestamp resumeFrom = ProfileTimestamp.ofNullable(syncResult.getAdvanceTo());
             cursor = (resumeFrom != null ? resumeFrom.plus(cp) : cursor.plus(cp));
@@ -151,10 +151,10 @@ public class ChannelTwoService implements ProfileSyncUseCase {
                 throw new IllegalArgumentException("No adapter found for: " + recoveryAdapter);
             }
             List<ProfileRow> salvaged = recoveryAdapter.recoverPartial(serial, profileObis);
-            metricsPort.recordRecovery(serial, profileObis, salvaged.size());
+            metricsPort.recordRecovery(serial, model, profileObis, salvaged.size());
             return salvaged;
         } catch (ProfileReadException e) {
-            metricsPort.recordFailure(serial, profileObis, "recovery_failed");
+            metricsPort.recordFailure(serial, model, profileObis, "recovery_failed");
             log.error("Partial recovery failed meter={} profile={}", serial, profileObis, e);
             return List.of();
         }
@@ -32,7 +32,7 @@ public class DailyBillingDataHouseholdService {
         try {
             final String safeObis = (profileObis == null || profileObis.isBlank()) ? "unknown" : profileObis;
             if (profileObis == null || profileObis.isBlank()) {
-                metricsPort.recordFailure(meterSerial, safeObis, "missing_profile_obis");
+                metricsPort.recordFailure(meterSerial, model, safeObis, "missing_profile_obis");
                 return;
             }
 
@@ -59,7 +59,7 @@ public class DailyBillingDataHouseholdService {
                 try {
                     metadataResult = metadataProvider.resolve(meterSerial, profileObis, model);
                 } catch (Exception metaEx) {
-                    metricsPort.recordFailure(meterSerial, safeObis, "metadata_resolve_failed");
+                    metricsPort.recordFailure(meterSerial, model, safeObis, "metadata_resolve_failed");
                     return;
                 }
 
@@ -89,7 +89,7 @@ public class DailyBillingDataHouseholdService {
                 }
                 persistenceAdapter.createPartitionsIfMissing(dtos);
                 ProfileSyncResult syncResult = persistenceAdapter.saveBatchAndAdvanceCursor(meterSerial, profileObis, dtos, cp);
-                metricsPort.recordBatch(meterSerial, profileObis, syncResult.getInsertedCount(), 0);
+                metricsPort.recordBatch(meterSerial, model, profileObis, syncResult.getInsertedCount(), 0);
 
                 ProfileTimestamp resume = HouseholdDayWindowIngestionSupport.nextCursorAfterBatch(syncResult);
                 if (resume == null) {
@@ -105,7 +105,7 @@ public class DailyBillingDataHouseholdService {
             }
         } catch (Exception ex) {
             String safeObis = (profileObis == null || profileObis.isBlank()) ? "unknown" : profileObis;
-            metricsPort.recordFailure(meterSerial, safeObis, "unhandled_exception");
+            metricsPort.recordFailure(meterSerial, model, safeObis, "unhandled_exception");
         }
     }
 
@@ -113,7 +113,7 @@ public class DailyBillingDataHouseholdService {
         try {
             return dlmsReaderUtils.recoverPartial(serial, profileObis, model, metadataResult);
         } catch (ProfileReadException e) {
-            metricsPort.recordFailure(serial, profileObis, "recovery_failed");
+            metricsPort.recordFailure(serial, model, profileObis, "recovery_failed");
             return List.of();
         }
     }
@@ -37,7 +37,7 @@ public class DailyBillingEnergyHouseholdService {
         try {
             final String safeObis = (profileObis == null || profileObis.isBlank()) ? "unknown" : profileObis;
             if (profileObis == null || profileObis.isBlank()) {
-                metricsPort.recordFailure(meterSerial, safeObis, "missing_profile_obis");
+                metricsPort.recordFailure(meterSerial, model, safeObis, "missing_profile_obis");
                 return;
             }
 
@@ -67,7 +67,7 @@ public class DailyBillingEnergyHouseholdService {
                 try {
                     metadataResult = metadataProvider.resolve(meterSerial, profileObis, model);
                 } catch (Exception metaEx) {
-                    metricsPort.recordFailure(meterSerial, safeObis, "metadata_resolve_failed");
+                    metricsPort.recordFailure(meterSerial, model, safeObis, "metadata_resolve_failed");
                     return;
                 }
 
@@ -80,7 +80,7 @@ public class DailyBillingEnergyHouseholdService {
                         log.warn(
                                 "Capture column mismatch meter={} profile={} model={}; refreshing metadata from meter",
                                 meterSerial, profileObis, model);
-                        metricsPort.recordFailure(meterSerial, profileObis, "metadata_refresh_column_mismatch");
+                        metricsPort.recordFailure(meterSerial, model, profileObis, "metadata_refresh_column_mismatch");
                         try {
                             metadataResult = metadataProvider.refreshFromMeter(meterSerial, profileObis, model);
                             rawRows = dlmsReaderUtils.readRange(
@@ -119,7 +119,7 @@ public class DailyBillingEnergyHouseholdService {
                 persistenceAdapter.createPartitionsIfMissing(dtos);
                 ProfileSyncResult syncResult = persistenceAdapter.saveBatchAndAdvanceCursor(
                         meterSerial, profileObis, dtos, cp);
-                metricsPort.recordBatch(meterSerial, profileObis, syncResult.getInsertedCount(), 0);
+                metricsPort.recordBatch(meterSerial, model, profileObis, syncResult.getInsertedCount(), 0);
 
                 ProfileTimestamp resume = HouseholdDayWindowIngestionSupport.nextCursorAfterBatch(syncResult);
                 if (resume == null) {
@@ -135,7 +135,7 @@ public class DailyBillingEnergyHouseholdService {
             }
         } catch (Exception ex) {
             String safeObis = (profileObis == null || profileObis.isBlank()) ? "unknown" : profileObis;
-            metricsPort.recordFailure(meterSerial, safeObis, "unhandled_exception");
+            metricsPort.recordFailure(meterSerial, model, safeObis, "unhandled_exception");
         }
     }
 
@@ -144,7 +144,7 @@ public class DailyBillingEnergyHouseholdService {
         try {
             return dlmsReaderUtils.recoverPartial(serial, profileObis, model, metadataResult);
         } catch (ProfileReadException e) {
-            metricsPort.recordFailure(serial, profileObis, "recovery_failed");
+            metricsPort.recordFailure(serial, model, profileObis, "recovery_failed");
             return List.of();
         }
     }
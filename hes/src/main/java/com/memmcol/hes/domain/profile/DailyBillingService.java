@@ -39,7 +39,7 @@ public class DailyBillingService {
             // Guard: OBIS must be present
             if (profileObis == null || profileObis.isBlank()) {
                 log.error("Profile OBIS is null/blank; skipping read meter={} model={}", meterSerial, model);
-                metricsPort.recordFailure(meterSerial, safeObis, "missing_profile_obis");
+                metricsPort.recordFailure(meterSerial, model, safeObis, "missing_profile_obis");
                 return;
             }
 
@@ -86,7 +86,7 @@ public class DailyBillingService {
                 } catch (Exception metaEx) {
                     log.error("Metadata resolve failed meter={} profile={} model={} cause={}",
                             meterSerial, profileObis, model, metaEx.getMessage(), metaEx);
-                    metricsPort.recordFailure(meterSerial, safeObis, "metadata_resolve_failed");
+                    metricsPort.recordFailure(meterSerial, model, safeObis, "metadata_resolve_failed");
                     return;
                 }
 
@@ -120,7 +120,7 @@ public class DailyBillingService {
                         meterSerial, profileObis, dtos, cp);
 
                 long t1 = System.currentTimeMillis() - t0;
-                metricsPort.recordBatch(meterSerial, profileObis, syncResult.getInsertedCount(), t1);
+                metricsPort.recordBatch(meterSerial, model, profileObis, syncResult.getInsertedCount(), t1);
 
                 // Persist new cursor — null-safe, consistent with Methods 1 & 2
                 ProfileTimestamp resume = ProfileTimestamp.ofNullable(syncResult.getAdvanceTo());
@@ -139,7 +139,7 @@ public class DailyBillingService {
             log.error("Fatal exception while reading profile, meter={}, profile={}: {}",
                     meterSerial, profileObis, ex.getMessage(), ex);
             String safeObis = (profileObis == null || profileObis.isBlank()) ? "unknown" : profileObis;
-            metricsPort.recordFailure(meterSerial, safeObis, "unhandled_exception");
+            metricsPort.recordFailure(meterSerial, model, safeObis, "unhandled_exception");
         }
     }
 
@@ -152,10 +152,10 @@ public class DailyBillingService {
          * */
         try {
             List<ProfileRowGeneric> salvaged = dlmsReaderUtils.recoverPartial(serial, profileObis, model, captureObjects);
-            metricsPort.recordRecovery(serial, profileObis, salvaged.size());
+            metricsPort.recordRecovery(serial, model, profileObis, salvaged.size());
             return salvaged;
         } catch (ProfileReadException e) {
-            metricsPort.recordFailure(serial, profileObis, "recovery_failed");
+            metricsPort.recordFailure(serial, model, profileObis, "recovery_failed");
             log.error("Partial recovery failed meter={} profile={}", serial, profileObis, e);
             return List.of();
         }
@@ -41,7 +41,7 @@ public class EventLogService {
             // Guard: OBIS must be present
             if (profileObis == null || profileObis.isBlank()) {
                 log.error("Profile OBIS is null/blank; skipping read meter={} model={}", meterSerial, model);
-                metricsPort.recordFailure(meterSerial, safeObis, "missing_profile_obis");
+                metricsPort.recordFailure(meterSerial, model, safeObis, "missing_profile_obis");
                 return;
             }
 
@@ -88,7 +88,7 @@ public class EventLogService {
                 } catch (Exception metaEx) {
                     log.error("Metadata resolve failed meter={} profile={} model={} cause={}",
                             meterSerial, profileObis, model, metaEx.getMessage(), metaEx);
-                    metricsPort.recordFailure(meterSerial, safeObis, "metadata_resolve_failed");
+                    metricsPort.recordFailure(meterSerial, model, safeObis, "metadata_resolve_failed");
                     return;
                 }
 
@@ -122,7 +122,7 @@ public class EventLogService {
                 ProfileSyncResult syncResult = eventLogPersistenceAdapter.saveBatch(meterSerial, profileObis, eventDtos);
 
                 long t1 = System.currentTimeMillis() - t0;
-                metricsPort.recordBatch(meterSerial, profileObis, syncResult.getInsertedCount(), t1);
+                metricsPort.recordBatch(meterSerial, model, profileObis, syncResult.getInsertedCount(), t1);
 
                 // Persist new cursor — null-safe
                 ProfileTimestamp resume = ProfileTimestamp.ofNullable(syncResult.getAdvanceTo());
@@ -145,7 +145,7 @@ public class EventLogService {
             log.error("Fatal exception while reading profile, meter={}, profile={}: {}",
                     meterSerial, profileObis, ex.getMessage(), ex);
             String safeObis = (profileObis == null || profileObis.isBlank()) ? "unknown" : profileObis;
-            metricsPort.recordFailure(meterSerial, safeObis, "unhandled_exception");
+            metricsPort.recordFailure(meterSerial, model, safeObis, "unhandled_exception");
         }
     }
 
@@ -159,10 +159,10 @@ public class EventLogService {
          * */
         try {
             List<ProfileRowGeneric> salvaged = dlmsReaderUtils.recoverPartial(serial, profileObis, model, captureObjects);
-            metricsPort.recordRecovery(serial, profileObis, salvaged.size());
+            metricsPort.recordRecovery(serial, model, profileObis, salvaged.size());
             return salvaged;
         } catch (ProfileReadException e) {
-            metricsPort.recordFailure(serial, profileObis, "recovery_failed");
+            metricsPort.recordFailure(serial, model, profileObis, "recovery_failed");
             log.error("Partial recovery failed meter={} profile={}", serial, profileObis, e);
             return List.of();
         }
@@ -52,7 +52,7 @@ public class HouseholdExtendedEventService {
         if (profileObis == null || profileObis.isBlank()) {
             log.error("Household extended event profile OBIS is blank; skipping meter={} model={} kind={}",
                     meterSerial, model, kind);
-            metricsPort.recordFailure(meterSerial, "unknown", "missing_profile_obis");
+            metricsPort.recordFailure(meterSerial, model, "unknown", "missing_profile_obis");
             return;
         }
 
@@ -90,7 +90,7 @@ public class HouseholdExtendedEventService {
                 } catch (Exception metaEx) {
                     log.error("Metadata resolve failed meter={} profile={} model={} cause={}",
                             meterSerial, profileObis, model, metaEx.getMessage(), metaEx);
-                    metricsPort.recordFailure(meterSerial, profileObis, "metadata_resolve_failed");
+                    metricsPort.recordFailure(meterSerial, model, profileObis, "metadata_resolve_failed");
                     return;
                 }
 
@@ -128,7 +128,7 @@ public class HouseholdExtendedEventService {
                 }
 
                 long t1 = System.currentTimeMillis() - t0;
-                metricsPort.recordBatch(meterSerial, profileObis, syncResult.getInsertedCount(), t1);
+                metricsPort.recordBatch(meterSerial, model, profileObis, syncResult.getInsertedCount(), t1);
 
                 ProfileTimestamp resume = HouseholdDayWindowIngestionSupport.nextCursorAfterBatch(syncResult);
                 if (resume == null || !resume.value().isAfter(from)) {
@@ -147,7 +147,7 @@ public class HouseholdExtendedEventService {
         } catch (Exception ex) {
             log.error("Fatal exception while reading household extended event profile, meter={}, profile={}: {}",
                     meterSerial, profileObis, ex.getMessage(), ex);
-            metricsPort.recordFailure(meterSerial, profileObis, "unhandled_exception");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "unhandled_exception");
         }
     }
 
@@ -39,11 +39,11 @@ public class MetersLockService {
         } catch (IllegalStateException e2) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e2.getMessage(), e2);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "Server restarted");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "Server restarted");
         } catch (Exception e) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e.getMessage(), e);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "lock_or_sync_error");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "lock_or_sync_error");
         }
     }
 
@@ -58,11 +58,11 @@ public class MetersLockService {
         } catch (IllegalStateException e2) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e2.getMessage(), e2);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "Server restarted");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "Server restarted");
         } catch (Exception e) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e.getMessage(), e);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "lock_or_sync_error");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "lock_or_sync_error");
         }
     }
 
@@ -77,11 +77,11 @@ public class MetersLockService {
         } catch (IllegalStateException e2) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e2.getMessage(), e2);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "Server restarted");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "Server restarted");
         } catch (Exception e) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e.getMessage(), e);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "lock_or_sync_error");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "lock_or_sync_error");
         }
     }
 
@@ -96,11 +96,11 @@ public class MetersLockService {
         } catch (IllegalStateException e2) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e2.getMessage(), e2);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "Server restarted");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "Server restarted");
         } catch (Exception e) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e.getMessage(), e);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "lock_or_sync_error");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "lock_or_sync_error");
         }
     }
 
@@ -115,11 +115,11 @@ public class MetersLockService {
         } catch (IllegalStateException e2) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e2.getMessage(), e2);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "Server restarted");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "Server restarted");
         } catch (Exception e) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e.getMessage(), e);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "lock_or_sync_error");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "lock_or_sync_error");
         }
     }
 
@@ -134,11 +134,11 @@ public class MetersLockService {
         } catch (IllegalStateException e2) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e2.getMessage(), e2);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "Server restarted");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "Server restarted");
         } catch (Exception e) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e.getMessage(), e);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "lock_or_sync_error");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "lock_or_sync_error");
         }
     }
 
@@ -153,11 +153,11 @@ public class MetersLockService {
         } catch (IllegalStateException e2) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e2.getMessage(), e2);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "Server restarted");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "Server restarted");
         } catch (Exception e) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e.getMessage(), e);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "lock_or_sync_error");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "lock_or_sync_error");
         }
     }
 
@@ -172,11 +172,11 @@ public class MetersLockService {
         } catch (IllegalStateException e2) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e2.getMessage(), e2);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "Server restarted");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "Server restarted");
         } catch (Exception e) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e.getMessage(), e);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "lock_or_sync_error");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "lock_or_sync_error");
         }
     }
 
@@ -191,11 +191,11 @@ public class MetersLockService {
         } catch (IllegalStateException e2) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e2.getMessage(), e2);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "Server restarted");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "Server restarted");
         } catch (Exception e) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e.getMessage(), e);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "lock_or_sync_error");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "lock_or_sync_error");
         }
     }
 
@@ -211,11 +211,11 @@ public class MetersLockService {
         } catch (IllegalStateException e2) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e2.getMessage(), e2);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "Server restarted");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "Server restarted");
         } catch (Exception e) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e.getMessage(), e);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "lock_or_sync_error");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "lock_or_sync_error");
         }
     }
 
@@ -230,11 +230,11 @@ public class MetersLockService {
         } catch (IllegalStateException e2) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e2.getMessage(), e2);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "Server restarted");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "Server restarted");
         } catch (Exception e) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e.getMessage(), e);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "lock_or_sync_error");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "lock_or_sync_error");
         }
     }
 
@@ -249,11 +249,11 @@ public class MetersLockService {
         } catch (IllegalStateException e2) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e2.getMessage(), e2);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "Server restarted");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "Server restarted");
         } catch (Exception e) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e.getMessage(), e);
             assert metricsPort != null;
-            metricsPort.recordFailure(meterSerial, profileObis, "lock_or_sync_error");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "lock_or_sync_error");
         }
     }
 
@@ -266,10 +266,10 @@ public class MetersLockService {
             });
         } catch (IllegalStateException e2) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e2.getMessage(), e2);
-            metricsPort.recordFailure(meterSerial, profileObis, "Server restarted");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "Server restarted");
         } catch (Exception e) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e.getMessage(), e);
-            metricsPort.recordFailure(meterSerial, profileObis, "lock_or_sync_error");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "lock_or_sync_error");
         }
     }
 
@@ -282,10 +282,10 @@ public class MetersLockService {
             });
         } catch (IllegalStateException e2) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e2.getMessage(), e2);
-            metricsPort.recordFailure(meterSerial, profileObis, "Server restarted");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "Server restarted");
         } catch (Exception e) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e.getMessage(), e);
-            metricsPort.recordFailure(meterSerial, profileObis, "lock_or_sync_error");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "lock_or_sync_error");
         }
     }
 
@@ -298,10 +298,10 @@ public class MetersLockService {
             });
         } catch (IllegalStateException e2) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e2.getMessage(), e2);
-            metricsPort.recordFailure(meterSerial, profileObis, "Server restarted");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "Server restarted");
         } catch (Exception e) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e.getMessage(), e);
-            metricsPort.recordFailure(meterSerial, profileObis, "lock_or_sync_error");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "lock_or_sync_error");
         }
     }
 
@@ -314,10 +314,10 @@ public class MetersLockService {
             });
         } catch (IllegalStateException e2) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e2.getMessage(), e2);
-            metricsPort.recordFailure(meterSerial, profileObis, "Server restarted");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "Server restarted");
         } catch (Exception e) {
             log.error("Sync fatal meter={} profile={} reason={}", meterSerial, profileObis, e.getMessage(), e);
-            metricsPort.recordFailure(meterSerial, profileObis, "lock_or_sync_error");
+            metricsPort.recordFailure(meterSerial, model, profileObis, "lock_or_sync_error");
         }
     }
 
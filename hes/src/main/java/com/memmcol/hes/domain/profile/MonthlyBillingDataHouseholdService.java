@@ -36,7 +36,7 @@ public class MonthlyBillingDataHouseholdService {
             final String safeObis = (profileObis == null || profileObis.isBlank()) ? "unknown" : profileObis;
 
             if (profileObis == null || profileObis.isBlank()) {
-                metricsPort.recordFailure(meterSerial, safeObis, "missing_profile_obis");
+                metricsPort.recordFailure(meterSerial, model, safeObis, "missing_profile_obis");
                 return;
             }
 
@@ -67,7 +67,7 @@ public class MonthlyBillingDataHouseholdService {
                 try {
                     metadataResult = metadataProvider.resolve(meterSerial, profileObis, model);
                 } catch (Exception metaEx) {
-                    metricsPort.recordFailure(meterSerial, safeObis, "metadata_resolve_failed");
+                    metricsPort.recordFailure(meterSerial, model, safeObis, "metadata_resolve_failed");
                     return;
                 }
 
@@ -105,7 +105,7 @@ public class MonthlyBillingDataHouseholdService {
                         );
 
                 metricsPort.recordBatch(
-                        meterSerial,
+                        meterSerial, model,
                         profileObis,
                         syncResult.getInsertedCount(),
                         0
@@ -123,7 +123,7 @@ public class MonthlyBillingDataHouseholdService {
             String safeObis = (profileObis == null || profileObis.isBlank()) ? "unknown" : profileObis;
             log.error("MonthlyBillingDataHousehold unhandled exception meter={} obis={}",
                     meterSerial, safeObis, ex);
-            metricsPort.recordFailure(meterSerial, safeObis, "unhandled_exception");
+            metricsPort.recordFailure(meterSerial, model, safeObis, "unhandled_exception");
         }
     }
 
@@ -131,7 +131,7 @@ public class MonthlyBillingDataHouseholdService {
         try {
             return dlmsReaderUtils.recoverPartial(serial, profileObis, model, metadataResult);
         } catch (ProfileReadException e) {
-            metricsPort.recordFailure(serial, profileObis, "recovery_failed");
+            metricsPort.recordFailure(serial, model, profileObis, "recovery_failed");
             return List.of();
         }
     }
@@ -36,7 +36,7 @@ public class MonthlyBillingEnergyHouseholdService {
             final String safeObis = (profileObis == null || profileObis.isBlank()) ? "unknown" : profileObis;
 
             if (profileObis == null || profileObis.isBlank()) {
-                metricsPort.recordFailure(meterSerial, safeObis, "missing_profile_obis");
+                metricsPort.recordFailure(meterSerial, model, safeObis, "missing_profile_obis");
                 return;
             }
 
@@ -63,7 +63,7 @@ public class MonthlyBillingEnergyHouseholdService {
                 try {
                     metadataResult = metadataProvider.resolve(meterSerial, profileObis, model);
                 } catch (Exception metaEx) {
-                    metricsPort.recordFailure(meterSerial, safeObis, "metadata_resolve_failed");
+                    metricsPort.recordFailure(meterSerial, model, safeObis, "metadata_resolve_failed");
                     return;
                 }
 
@@ -100,7 +100,7 @@ public class MonthlyBillingEnergyHouseholdService {
                         );
 
                 metricsPort.recordBatch(
-                        meterSerial,
+                        meterSerial, model,
                         profileObis,
                         syncResult.getInsertedCount(),
                         0
@@ -116,7 +116,7 @@ public class MonthlyBillingEnergyHouseholdService {
 
         } catch (Exception ex) {
             String safeObis = (profileObis == null || profileObis.isBlank()) ? "unknown" : profileObis;
-            metricsPort.recordFailure(meterSerial, safeObis, "unhandled_exception");
+            metricsPort.recordFailure(meterSerial, model, safeObis, "unhandled_exception");
         }
     }
 
@@ -124,7 +124,7 @@ public class MonthlyBillingEnergyHouseholdService {
         try {
             return dlmsReaderUtils.recoverPartial(serial, profileObis, model, metadataResult);
         } catch (ProfileReadException e) {
-            metricsPort.recordFailure(serial, profileObis, "recovery_failed");
+            metricsPort.recordFailure(serial, model, profileObis, "recovery_failed");
             return List.of();
         }
     }
@@ -37,7 +37,7 @@ public class MonthlyBillingService {
 
             if (profileObis == null || profileObis.isBlank()) {
                 log.error("Profile OBIS is null/blank; skipping read meter={} model={}", meterSerial, model);
-                metricsPort.recordFailure(meterSerial, safeObis, "missing_profile_obis");
+                metricsPort.recordFailure(meterSerial, model, safeObis, "missing_profile_obis");
                 return;
             }
 
@@ -72,7 +72,7 @@ public class MonthlyBillingService {
                 } catch (Exception metaEx) {
                     log.error("Metadata resolve failed meter={} profile={} model={}",
                             meterSerial, profileObis, model, metaEx);
-                    metricsPort.recordFailure(meterSerial, safeObis, "metadata_resolve_failed");
+                    metricsPort.recordFailure(meterSerial, model, safeObis, "metadata_resolve_failed");
                     return;
                 }
 
@@ -112,7 +112,7 @@ public class MonthlyBillingService {
                         );
 
                 metricsPort.recordBatch(
-                        meterSerial,
+                        meterSerial, model,
                         profileObis,
                         syncResult.getInsertedCount(),
                         System.currentTimeMillis() - t0
@@ -131,17 +131,17 @@ public class MonthlyBillingService {
                     meterSerial, profileObis, ex);
 
             String safeObis = (profileObis == null || profileObis.isBlank()) ? "unknown" : profileObis;
-            metricsPort.recordFailure(meterSerial, safeObis, "unhandled_exception");
+            metricsPort.recordFailure(meterSerial, model, safeObis, "unhandled_exception");
         }
     }
 
     private List<ProfileRowGeneric> attemptRecovery(String model, String serial, String profileObis, ProfileMetadataResult metadataResult) {
         try {
             List<ProfileRowGeneric> salvaged = dlmsReaderUtils.recoverPartial(serial, profileObis, model, metadataResult);
-            metricsPort.recordRecovery(serial, profileObis, salvaged.size());
+            metricsPort.recordRecovery(serial, model, profileObis, salvaged.size());
             return salvaged;
         } catch (ProfileReadException e) {
-            metricsPort.recordFailure(serial, profileObis, "recovery_failed");
+            metricsPort.recordFailure(serial, model, profileObis, "recovery_failed");
             log.error("Partial recovery failed meter={} profile={}", serial, profileObis, e);
             return List.of();
         }
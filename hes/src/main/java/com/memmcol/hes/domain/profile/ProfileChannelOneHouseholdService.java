@@ -41,7 +41,7 @@ public class ProfileChannelOneHouseholdService {
         try {
             if (profileObis == null || profileObis.isBlank()) {
                 log.error("Profile OBIS is null/blank; skipping read meter={} model={}", meterSerial, model);
-                metricsPort.recordFailure(meterSerial, safeObis, "missing_profile_obis");
+                metricsPort.recordFailure(meterSerial, model, safeObis, "missing_profile_obis");
                 return;
             }
 
@@ -88,7 +88,7 @@ public class ProfileChannelOneHouseholdService {
                 } catch (Exception metaEx) {
                     log.error("Metadata resolve failed meter={} profile={} model={} cause={}",
                             meterSerial, profileObis, model, metaEx.getMessage(), metaEx);
-                    metricsPort.recordFailure(meterSerial, safeObis, "metadata_resolve_failed");
+                    metricsPort.recordFailure(meterSerial, model, safeObis, "metadata_resolve_failed");
                     return;
                 }
 
@@ -125,7 +125,7 @@ public class ProfileChannelOneHouseholdService {
                 ProfileSyncResult syncResult = persistAdapter.saveBatchAndAdvanceCursor(meterSerial, profileObis, dtos, cp);
 
                 long duration = System.currentTimeMillis() - t0;
-                metricsPort.recordBatch(meterSerial, profileObis, syncResult.getInsertedCount(), duration);
+                metricsPort.recordBatch(meterSerial, model, profileObis, syncResult.getInsertedCount(), duration);
 
                 ProfileTimestamp resume = ProfileTimestamp.ofNullable(syncResult.getAdvanceTo());
                 if (resume == null || resume.value() == null) {
@@ -146,7 +146,7 @@ public class ProfileChannelOneHouseholdService {
         } catch (Exception ex) {
             log.error("Fatal exception while reading household profile1HH meter={} profile={} cause={}",
                     meterSerial, profileObis, ex.getMessage(), ex);
-            metricsPort.recordFailure(meterSerial, safeObis, "unhandled_exception");
+            metricsPort.recordFailure(meterSerial, model, safeObis, "unhandled_exception");
         }
     }
 
@@ -154,11 +154,11 @@ public class ProfileChannelOneHouseholdService {
         try {
             List<ProfileRowGeneric> salvaged = dlmsReaderUtils.recoverPartial(serial, profileObis, model, metadataResult);
             String safeObis = (profileObis == null || profileObis.isBlank()) ? "unknown" : profileObis;
-            metricsPort.recordRecovery(serial, safeObis, salvaged.size());
+            metricsPort.recordRecovery(serial, model, safeObis, salvaged.size());
             return salvaged;
         } catch (ProfileReadException e) {
             String safeObis = (profileObis == null || profileObis.isBlank()) ? "unknown" : profileObis;
-            metricsPort.recordFailure(serial, safeObis, "recovery_failed");
+            metricsPort.recordFailure(serial, model, safeObis, "recovery_failed");
             log.error("Partial recovery failed meter={} profile={}", serial, profileObis, e);
             return List.of();
         }
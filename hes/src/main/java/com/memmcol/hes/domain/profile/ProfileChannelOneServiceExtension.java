@@ -35,7 +35,7 @@ public class ProfileChannelOneServiceExtension {
             final String safeObis = (profileObis == null || profileObis.isBlank()) ? "unknown" : profileObis;
             if (profileObis == null || profileObis.isBlank()) {
                 log.error("Profile OBIS is null/blank; skipping read meter={} model={}", meterSerial, model);
-                metricsPort.recordFailure(meterSerial, safeObis, "missing_profile_obis");
+                metricsPort.recordFailure(meterSerial, model, safeObis, "missing_profile_obis");
                 return;
             }
 
@@ -83,7 +83,7 @@ public class ProfileChannelOneServiceExtension {
                 } catch (Exception metaEx) {
                     log.error("Metadata resolve failed meter={} profile={} model={} cause={}",
                             meterSerial, profileObis, model, metaEx.getMessage(), metaEx);
-                    metricsPort.recordFailure(meterSerial, safeObis, "metadata_resolve_failed");
+                    metricsPort.recordFailure(meterSerial, model, safeObis, "metadata_resolve_failed");
                     return;
                 }
                 List<ProfileRowGeneric> rawRows;
@@ -120,7 +120,7 @@ public class ProfileChannelOneServiceExtension {
                         meterSerial, profileObis, dtos, cp);
 
                 long t1 = System.currentTimeMillis() - t0;
-                metricsPort.recordBatch(meterSerial, profileObis, syncResult.getInsertedCount(), t1);
+                metricsPort.recordBatch(meterSerial, model, profileObis, syncResult.getInsertedCount(), t1);
 
                 // Persist new cursor
                 ProfileTimestamp resume =
@@ -141,7 +141,7 @@ public class ProfileChannelOneServiceExtension {
             log.error("Fatal exception while reading profile, meter={}, profile={}: {}",
                     meterSerial, profileObis, ex.getMessage(), ex);
             String safeObis = (profileObis == null || profileObis.isBlank()) ? "unknown" : profileObis;
-            metricsPort.recordFailure(meterSerial, safeObis, "unhandled_exception");
+            metricsPort.recordFailure(meterSerial, model, safeObis, "unhandled_exception");
         }
     }
 
@@ -154,11 +154,11 @@ public class ProfileChannelOneServiceExtension {
         try {
             List<ProfileRowGeneric> salvaged = dlmsReaderUtils.recoverPartial(serial, profileObis, model, metadataResult);
             String safeObis = (profileObis == null || profileObis.isBlank()) ? "unknown" : profileObis;
-            metricsPort.recordRecovery(serial, safeObis, salvaged.size());
+            metricsPort.recordRecovery(serial, model, safeObis, salvaged.size());
             return salvaged;
         } catch (ProfileReadException e) {
             String safeObis = (profileObis == null || profileObis.isBlank()) ? "unknown" : profileObis;
-            metricsPort.recordFailure(serial, safeObis, "recovery_failed");
+            metricsPort.recordFailure(serial, model, safeObis, "recovery_failed");
             log.error("Partial recovery failed meter={} profile={}", serial, profileObis, e);
             return List.of();
         }
@@ -50,7 +50,7 @@ public class ProfileChannelThreeHouseholdService {
                         meterSerial, model);
 
                 metricsPort.recordFailure(
-                        meterSerial,
+                        meterSerial, model,
                         safeObis,
                         "missing_profile_obis"
                 );
@@ -138,7 +138,7 @@ public class ProfileChannelThreeHouseholdService {
                             meterSerial, profileObis, model, ex);
 
                     metricsPort.recordFailure(
-                            meterSerial,
+                            meterSerial, model,
                             safeObis,
                             "metadata_resolve_failed"
                     );
@@ -224,7 +224,7 @@ public class ProfileChannelThreeHouseholdService {
                 long duration = System.currentTimeMillis() - t0;
 
                 metricsPort.recordBatch(
-                        meterSerial,
+                        meterSerial, model,
                         profileObis,
                         syncResult.getInsertedCount(),
                         duration
@@ -253,7 +253,7 @@ public class ProfileChannelThreeHouseholdService {
                     meterSerial, profileObis, ex);
 
             metricsPort.recordFailure(
-                    meterSerial,
+                    meterSerial, model,
                     safeObis,
                     "unhandled_exception"
             );
@@ -266,7 +266,7 @@ public class ProfileChannelThreeHouseholdService {
 
             if (profileObis == null || profileObis.isBlank()) {
                 log.error("Profile OBIS is null/blank; skipping read meter={} model={}", meterSerial, model);
-                metricsPort.recordFailure(meterSerial, safeObis, "missing_profile_obis");
+                metricsPort.recordFailure(meterSerial, model, safeObis, "missing_profile_obis");
                 return;
             }
 
@@ -306,7 +306,7 @@ public class ProfileChannelThreeHouseholdService {
                 } catch (Exception metaEx) {
                     log.error("Metadata resolve failed meter={} profile={} model={} cause={}",
                             meterSerial, profileObis, model, metaEx.getMessage(), metaEx);
-                    metricsPort.recordFailure(meterSerial, safeObis, "metadata_resolve_failed");
+                    metricsPort.recordFailure(meterSerial, model, safeObis, "metadata_resolve_failed");
                     return;
                 }
 
@@ -338,7 +338,7 @@ public class ProfileChannelThreeHouseholdService {
                 ProfileSyncResult syncResult = persistenceAdapter.saveBatchAndAdvanceCursor(meterSerial, profileObis, dtos, cp);
 
                 long duration = System.currentTimeMillis() - t0;
-                metricsPort.recordBatch(meterSerial, profileObis, syncResult.getInsertedCount(), duration);
+                metricsPort.recordBatch(meterSerial, model, profileObis, syncResult.getInsertedCount(), duration);
 
                 ProfileTimestamp resume = ProfileTimestamp.ofNullable(syncResult.getAdvanceTo());
                 cursor = (resume != null) ? resume.plus(cp) : new ProfileTimestamp(to);
@@ -353,17 +353,17 @@ public class ProfileChannelThreeHouseholdService {
             log.error("Fatal exception while reading household profile, meter={}, profile={}: {}",
                     meterSerial, profileObis, ex.getMessage(), ex);
             String safeObis = (profileObis == null || profileObis.isBlank()) ? "unknown" : profileObis;
-            metricsPort.recordFailure(meterSerial, safeObis, "unhandled_exception");
+            metricsPort.recordFailure(meterSerial, model, safeObis, "unhandled_exception");
         }
     }
 
     private List<ProfileRowGeneric> attemptRecovery(String model, String serial, String profileObis, ProfileMetadataResult metadataResult) {
         try {
             List<ProfileRowGeneric> salvaged = dlmsReaderUtils.recoverPartial(serial, profileObis, model, metadataResult);
-            metricsPort.recordRecovery(serial, profileObis, salvaged.size());
+            metricsPort.recordRecovery(serial, model, profileObis, salvaged.size());
             return salvaged;
         } catch (ProfileReadException e) {
-            metricsPort.recordFailure(serial, profileObis, "recovery_failed");
+            metricsPort.recordFailure(serial, model, profileObis, "recovery_failed");
             log.error("Partial recovery failed meter={} profile={}", serial, profileObis, e);
             return List.of();
         }
@@ -50,7 +50,7 @@ public class ProfileChannelTwoHouseholdService {
                         meterSerial, model);
 
                 metricsPort.recordFailure(
-                        meterSerial,
+                        meterSerial, model,
                         safeObis,
                         "missing_profile_obis"
                 );
@@ -138,7 +138,7 @@ public class ProfileChannelTwoHouseholdService {
                             meterSerial, profileObis, model, ex);
 
                     metricsPort.recordFailure(
-                            meterSerial,
+                            meterSerial, model,
                             safeObis,
                             "metadata_resolve_failed"
                     );
@@ -226,7 +226,7 @@ public class ProfileChannelTwoHouseholdService {
                 long duration = System.currentTimeMillis() - t0;
 
                 metricsPort.recordBatch(
-                        meterSerial,
+                        meterSerial, model,
                         profileObis,
                         syncResult.getInsertedCount(),
                         duration
@@ -255,7 +255,7 @@ public class ProfileChannelTwoHouseholdService {
                     meterSerial, profileObis, ex);
 
             metricsPort.recordFailure(
-                    meterSerial,
+                    meterSerial, model,
                     safeObis,
                     "unhandled_exception"
             );
@@ -268,7 +268,7 @@ public class ProfileChannelTwoHouseholdService {
 
             if (profileObis == null || profileObis.isBlank()) {
                 log.error("Profile OBIS is null/blank; skipping read meter={} model={}", meterSerial, model);
-                metricsPort.recordFailure(meterSerial, safeObis, "missing_profile_obis");
+                metricsPort.recordFailure(meterSerial, model, safeObis, "missing_profile_obis");
                 return;
             }
 
@@ -308,7 +308,7 @@ public class ProfileChannelTwoHouseholdService {
                 } catch (Exception metaEx) {
                     log.error("Metadata resolve failed meter={} profile={} model={} cause={}",
                             meterSerial, profileObis, model, metaEx.getMessage(), metaEx);
-                    metricsPort.recordFailure(meterSerial, safeObis, "metadata_resolve_failed");
+                    metricsPort.recordFailure(meterSerial, model, safeObis, "metadata_resolve_failed");
                     return;
                 }
 
@@ -339,7 +339,7 @@ public class ProfileChannelTwoHouseholdService {
                 ProfileSyncResult syncResult = persistenceAdapter.saveBatchAndAdvanceCursor(meterSerial, profileObis, dtos, cp);
 
                 long duration = System.currentTimeMillis() - t0;
-                metricsPort.recordBatch(meterSerial, profileObis, syncResult.getInsertedCount(), duration);
+                metricsPort.recordBatch(meterSerial, model, profileObis, syncResult.getInsertedCount(), duration);
 
                 ProfileTimestamp resume = ProfileTimestamp.ofNullable(syncResult.getAdvanceTo());
                 cursor = (resume != null) ? resume
@@ -355,17 +355,17 @@ public class ProfileChannelTwoHouseholdService {
             log.error("Fatal exception while reading household profile, meter={}, profile={}: {}",
                     meterSerial, profileObis, ex.getMessage(), ex);
             String safeObis = (profileObis == null || profileObis.isBlank()) ? "unknown" : profileObis;
-            metricsPort.recordFailure(meterSerial, safeObis, "unhandled_exception");
+            metricsPort.recordFailure(meterSerial, model, safeObis, "unhandled_exception");
         }
     }
 
     private List<ProfileRowGeneric> attemptRecovery(String model, String serial, String profileObis, ProfileMetadataResult metadataResult) {
         try {
             List<ProfileRowGeneric> salvaged = dlmsReaderUtils.recoverPartial(serial, profileObis, model, metadataResult);
-            metricsPort.recordRecovery(serial, profileObis, salvaged.size());
+            metricsPort.recordRecovery(serial, model, profileObis, salvaged.size());
             return salvaged;
         } catch (ProfileReadException e) {
-            metricsPort.recordFailure(serial, profileObis, "recovery_failed");
+            metricsPort.recordFailure(serial, model, profileObis, "recovery_failed");
             log.error("Partial recovery failed meter={} profile={}", serial, profileObis, e);
             return List.of();
         }
@@ -1,9 +1,9 @@
 package com.memmcol.hes.domain.profile;
 
+import com.memmcol.hes.application.port.out.ProfileStatePort;
 import com.memmcol.hes.application.port.out.ProfileTimestampPort;
 import com.memmcol.hes.infrastructure.dlms.DlmsReaderUtils;
 import com.memmcol.hes.nettyUtils.SessionManager;
-import com.memmcol.hes.trackByTimestamp.MeterProfileState;
 import com.memmcol.hes.trackByTimestamp.MeterProfileStateRepository;
 import gurux.dlms.GXDLMSClient;
 import gurux.dlms.GXReplyData;
@@ -27,6 +27,7 @@ public class ProfileTimestampPortImpl implements ProfileTimestampPort {
 
     private static final String CACHE_NAME = "lastProfileTimestamp"; // define in Caffeine config
     private final MeterProfileStateRepository stateRepo;
+    private final ProfileStatePort statePort;
     private final CacheManager cacheManager;
     private final SessionManager sessionManager;          // your existing DLMS session helper
     private final DlmsReaderUtils dlmsReaderUtils;
@@ -79,22 +80,13 @@ public class ProfileTimestampPortImpl implements ProfileTimestampPort {
         return CACHE_PREFIX + meterSerial + "::" + obis;
     }
 
+    /**
+     * Through the cursor port, so the cached cursor moves with the row.
+     */
     protected void upsertLastTimestamp(String meterSerial,
                                        String profileObis,
                                        LocalDateTime ts) {
-
-        MeterProfileState state = stateRepo
-                .findByMeterSerialAndProfileObis(meterSerial, profileObis)
-                .orElseGet(() -> MeterProfileState.builder()
-                        .meterSerial(meterSerial)
-                        .profileObis(profileObis)
-                        .capturePeriodSec(null)      // leave unknown
-                        .build());
-
-        state.setLastTimestamp(ts);
-        state.setUpdatedAt(LocalDateTime.now());
-
-        stateRepo.save(state);  // insert or update
+        statePort.upsertState(meterSerial, profileObis, new ProfileTimestamp(ts), null);
     }
 
     /**
@@ -41,9 +41,7 @@ public class ReadCTPT {
             GXReplyData reply = new GXReplyData();
             byte[] response = txRxService.sendReceiveWithContext(
                     meterSerial,
-                    readListReq[0],
-                    20000
-            );
+                    readListReq[0]);
             if (sessionManager.isAssociationLost(response)) {
                 throw new AssociationLostException("Association lost on first frame");
             }
@@ -2,7 +2,6 @@ package com.memmcol.hes.domain.profile.mappers;
 
 import com.memmcol.hes.application.port.out.GenericDtoMappers;
 import com.memmcol.hes.domain.profile.MeterRatios;
-import com.memmcol.hes.domain.profile.ObisObjectType;
 import com.memmcol.hes.domain.profile.ProfileMetadataResult;
 import com.memmcol.hes.domain.profile.ProfileRowGeneric;
 import com.memmcol.hes.dto.ProfileChannelOneHouseholdDTO;
@@ -15,10 +14,7 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -36,8 +32,9 @@ public class ProfileChannelOneHouseholdMapper implements GenericDtoMappers<Profi
                                                      boolean mdMeter,
                                                      ProfileMetadataResult metadataResult) throws Exception {
         MeterRatios meterRatios = mdMeter ? ratioService.readMeterRatios(modelNumber, meterSerial) : null;
+        ProfileColumnPlan<ProfileChannelOneHouseholdDTO> plan = columnPlan(metadataResult, mdMeter, meterRatios);
         return rawRows.stream()
-                .map(raw -> mapRow(raw, meterSerial, modelNumber, mdMeter, metadataResult, meterRatios))
+                .map(raw -> mapRow(raw, meterSerial, modelNumber, plan))
                 .collect(Collectors.toList());
     }
 
@@ -48,88 +45,51 @@ public class ProfileChannelOneHouseholdMapper implements GenericDtoMappers<Profi
                                                 boolean mdMeter,
                                                 ProfileMetadataResult metadataResult,
                                                 MeterRatios meterRatios) {
+        return mapRow(raw, meterSerial, modelNumber, columnPlan(metadataResult, mdMeter, meterRatios));
+    }
+
+    private ProfileChannelOneHouseholdDTO mapRow(ProfileRowGeneric raw,
+                                                 String meterSerial,
+                                                 String modelNumber,
+                                                 ProfileColumnPlan<ProfileChannelOneHouseholdDTO> plan) {
         ProfileChannelOneHouseholdDTO dto = new ProfileChannelOneHouseholdDTO();
         dto.setMeterSerial(meterSerial);
         dto.setModelNumber(modelNumber);
-
-        for (Map.Entry<String, Object> entry : raw.getValues().entrySet()) {
-            String obisWithAttr = entry.getKey();
-            String obisCode = obisWithAttr.split("-")[0];
-            Object rawValue = entry.getValue();
-            if (rawValue == null) continue;
-
-            ProfileMetadataResult.ProfilePersistenceInfo persistenceInfo = metadataResult.forPersistence(obisCode);
-            if (persistenceInfo == null) continue;
-
-            ObisObjectType objectType = persistenceInfo.getType();
-
-            if (objectType == ObisObjectType.CLOCK) {
-                LocalDateTime tsInstant;
-                switch (rawValue) {
-                    case LocalDateTime localDateTime -> tsInstant = localDateTime;
-                    case String s -> tsInstant = LocalDateTime.parse(s);
-                    case byte[] bytes -> tsInstant = dlmsTimestampDecoder.decode(bytes);
-                    default -> {
-                        log.warn("Unexpected timestamp type: {} for OBIS={}, using fallback",
-                                rawValue.getClass().getName(), obisCode);
-                        tsInstant = LocalDateTime.ofInstant(raw.getTimestamp(), ZoneId.systemDefault());
-                    }
-                }
-                dto.setEntryTimestamp(tsInstant.truncatedTo(ChronoUnit.SECONDS));
-                continue;
-            }
-
-            double scaler = persistenceInfo.getScaler();
-            String multiplyBy = persistenceInfo.getMultiplyBy();
-
-            try {
-                BigDecimal value = new BigDecimal(rawValue.toString());
-                BigDecimal finalValue;
-
-                if (objectType == ObisObjectType.NON_SCALER) {
-                    finalValue = value;
-                } else if (mdMeter) {
-                    switch (multiplyBy.toUpperCase()) {
-                        case "CTPT" -> finalValue = value.multiply(BigDecimal.valueOf(scaler))
-                                .multiply(BigDecimal.valueOf(meterRatios.getCtptRatio()));
-                        case "CT" -> finalValue = value.multiply(BigDecimal.valueOf(scaler))
-                                .multiply(BigDecimal.valueOf(meterRatios.getCtRatio()));
-                        case "PT" -> finalValue = value.multiply(BigDecimal.valueOf(scaler))
-                                .multiply(BigDecimal.valueOf(meterRatios.getPtRatio()));
-                        default -> finalValue = value.multiply(BigDecimal.valueOf(scaler));
-                    }
-                } else {
-                    finalValue = value.multiply(BigDecimal.valueOf(scaler));
-                }
-
-                finalValue = finalValue.setScale(2, RoundingMode.HALF_UP);
-
-                ProfileMetadataResult.ProfileMappingInfo mappingInfo = metadataResult.forMapping(obisCode);
-                if (mappingInfo != null) {
-                    setDtoField(dto, mappingInfo.getColumnName(), finalValue);
-                }
-            } catch (NumberFormatException e) {
-                log.error("NumberFormatException for obis={} multiplyBy={} type={} value={}",
-                        obisCode, multiplyBy, objectType, rawValue);
-            }
-        }
-
+        plan.apply(raw, dto);
         dto.setReceivedAt(LocalDateTime.now());
         return dto;
     }
 
+    private ProfileColumnPlan<ProfileChannelOneHouseholdDTO> columnPlan(ProfileMetadataResult metadataResult, boolean mdMeter, MeterRatios meterRatios) {
+        return ProfileColumnPlan.compile(metadataResult, mdMeter, meterRatios,
+                this::setterFor, ProfileChannelOneHouseholdDTO::setEntryTimestamp, dlmsTimestampDecoder);
+    }
+
     @Override
     public void setDtoField(ProfileChannelOneHouseholdDTO dto, String columnName, BigDecimal value) {
-        BigDecimal normalized = value.divide(THOUSAND, 2, RoundingMode.HALF_UP);
-        switch (columnName.toLowerCase()) {
-            case "active_energy_import" -> dto.setActiveEnergyImport(normalized.doubleValue());
-            case "active_energy_import_ongrid" -> dto.setActiveEnergyImportOnGrid(normalized.doubleValue());
-            case "active_energy_import_offgrid" -> dto.setActiveEnergyImportOffGrid(normalized.doubleValue());
-            case "active_energy_export" -> dto.setActiveEnergyExport(normalized.doubleValue());
-            case "active_energy_export_ongrid" -> dto.setActiveEnergyExportOnGrid(normalized.doubleValue());
-            case "active_energy_export_offgrid" -> dto.setActiveEnergyExportOffGrid(normalized.doubleValue());
-            default -> log.warn("Unknown column mapping (hh ch1): {}", columnName);
+        ProfileColumnPlan.ColumnSetter<ProfileChannelOneHouseholdDTO> setter = setterFor(columnName);
+        if (setter != null) {
+            setter.set(dto, value);
         }
     }
-}
 
+    private ProfileColumnPlan.ColumnSetter<ProfileChannelOneHouseholdDTO> setterFor(String columnName) {
+        return switch (columnName.toLowerCase()) {
+            case "active_energy_import" -> (dto, value) -> dto.setActiveEnergyImport(normalized(value));
+            case "active_energy_import_ongrid" -> (dto, value) -> dto.setActiveEnergyImportOnGrid(normalized(value));
+            case "active_energy_import_offgrid" -> (dto, value) -> dto.setActiveEnergyImportOffGrid(normalized(value));
+            case "active_energy_export" -> (dto, value) -> dto.setActiveEnergyExport(normalized(value));
+            case "active_energy_export_ongrid" -> (dto, value) -> dto.setActiveEnergyExportOnGrid(normalized(value));
+            case "active_energy_export_offgrid" -> (dto, value) -> dto.setActiveEnergyExportOffGrid(normalized(value));
+            default -> {
+                log.warn("Unknown column mapping (hh ch1): {}", columnName);
+                yield null;
+            }
+        };
+    }
+
+    /** Wh → kWh, two decimals. */
+    private static double normalized(BigDecimal value) {
+        return value.divide(THOUSAND, 2, RoundingMode.HALF_UP).doubleValue();
+    }
+}
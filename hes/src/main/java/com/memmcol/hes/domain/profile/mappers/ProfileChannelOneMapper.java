@@ -2,7 +2,6 @@ package com.memmcol.hes.domain.profile.mappers;
 
 import com.memmcol.hes.application.port.out.GenericDtoMappers;
 import com.memmcol.hes.domain.profile.MeterRatios;
-import com.memmcol.hes.domain.profile.ObisObjectType;
 import com.memmcol.hes.domain.profile.ProfileMetadataResult;
 import com.memmcol.hes.domain.profile.ProfileRowGeneric;
 import com.memmcol.hes.dto.ProfileChannelOneDTO;
@@ -14,14 +13,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.temporal.ChronoUnit;
-import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -36,127 +31,61 @@ public class ProfileChannelOneMapper implements GenericDtoMappers<ProfileChannel
     public List<ProfileChannelOneDTO> toDTO(List<ProfileRowGeneric> rawRows, String meterSerial, String modelNumber, boolean mdMeter, ProfileMetadataResult metadataResult) throws Exception {
         // Pre-fetch meter ratios if MD
         MeterRatios meterRatios = mdMeter ? ratioService.readMeterRatios(modelNumber, meterSerial) : null;
+        ProfileColumnPlan<ProfileChannelOneDTO> plan = columnPlan(metadataResult, mdMeter, meterRatios);
 
         return rawRows.stream()
-                .map(raw -> mapRow(raw, meterSerial, modelNumber, mdMeter, metadataResult, meterRatios))
+                .map(raw -> mapRow(raw, meterSerial, modelNumber, plan))
                 .collect(Collectors.toList());
     }
 
     @Override
     public ProfileChannelOneDTO mapRow(ProfileRowGeneric raw, String meterSerial, String modelNumber, boolean mdMeter, ProfileMetadataResult metadataResult, MeterRatios meterRatios) {
+        return mapRow(raw, meterSerial, modelNumber, columnPlan(metadataResult, mdMeter, meterRatios));
+    }
+
+    private ProfileChannelOneDTO mapRow(ProfileRowGeneric raw, String meterSerial, String modelNumber, ProfileColumnPlan<ProfileChannelOneDTO> plan) {
         ProfileChannelOneDTO dto = new ProfileChannelOneDTO();
         dto.setMeterSerial(meterSerial);
         dto.setModelNumber(modelNumber);
-
-        // Iterate over all OBIS values
-        for (Map.Entry<String, Object> entry : raw.getValues().entrySet()) {
-            String obisWithAttr = entry.getKey();                     // e.g. 1.0.129.6.0.255-2
-            String obisCode = obisWithAttr.split("-")[0];         // e.g. 1.0.129.6.0.255
-            Object rawValue = entry.getValue();
-
-            /*
-            *
-            * String obisWithAttr = entry.getKey();                     // e.g. 1.0.129.6.0.255-2
-            String baseObis     = obisWithAttr.split("-")[0];         // e.g. 1.0.129.6.0.255
-            Object rawValue     = entry.getValue();
-*/
-
-            if (rawValue == null) continue;
-
-            // Get persistence info (scaler, multiplyBy)
-            ProfileMetadataResult.ProfilePersistenceInfo persistenceInfo = metadataResult.forPersistence(obisCode);
-            if (persistenceInfo == null) continue;
-
-            double scaler = persistenceInfo.getScaler();
-            String multiplyBy = persistenceInfo.getMultiplyBy();
-            ObisObjectType objectType = persistenceInfo.getType();  //1️⃣ Identify object type from metadata. Possible: CLOCK, NON_SCALER, SCALER
-
-            // Set entry timestamp from CLOCK OBIS
-            if (objectType == ObisObjectType.CLOCK) {
-                LocalDateTime tsInstant;
-                switch (rawValue) {
-                    case LocalDateTime localDateTime ->
-                        // Already a LocalDateTime
-                            tsInstant = localDateTime;
-                    case String s ->
-                        // ISO-8601 date string (e.g., 2025-08-01T00:00)
-                            tsInstant = LocalDateTime.parse(s);
-                    case byte[] bytes ->
-                        // Raw bytes → decode to LocalDateTime
-                            tsInstant = dlmsTimestampDecoder.decode(bytes);
-                    default -> {
-                        // Fallback: unexpected type
-                        log.warn("Unexpected timestamp type: {} for OBIS={}, using fallback",
-                                rawValue.getClass().getName(), obisCode);
-                        tsInstant = LocalDateTime.ofInstant(raw.getTimestamp(), ZoneId.systemDefault());
-                    }
-                }
-                dto.setEntryTimestamp(tsInstant.truncatedTo(ChronoUnit.SECONDS));
-                continue;
-            }
-
-            BigDecimal finalValue;
-            try {
-                BigDecimal value = new BigDecimal(rawValue.toString());
-
-                // 2️⃣ If NON_SCALER → keep value as-is
-                if (objectType == ObisObjectType.NON_SCALER) {
-                    finalValue = value;
-
-                    // 3️⃣ If SCALER → apply scaler and CT/PT logic
-                } else {
-                    if (mdMeter) {
-                        switch (multiplyBy.toUpperCase()) {
-                            case "CTPT" -> finalValue = value.multiply(BigDecimal.valueOf(scaler))
-                                    .multiply(BigDecimal.valueOf(meterRatios.getCtptRatio()));
-                            case "CT" -> finalValue = value.multiply(BigDecimal.valueOf(scaler))
-                                    .multiply(BigDecimal.valueOf(meterRatios.getCtRatio()));
-                            case "PT" -> finalValue = value.multiply(BigDecimal.valueOf(scaler))
-                                    .multiply(BigDecimal.valueOf(meterRatios.getPtRatio()));
-                            default -> finalValue = value.multiply(BigDecimal.valueOf(scaler));
-                        }
-                    } else {
-                        finalValue = value.multiply(BigDecimal.valueOf(scaler));
-                    }
-                }
-
-                // 4️⃣ Round final value
-                finalValue = finalValue.setScale(2, RoundingMode.HALF_UP);
-
-                // 5️⃣ Map to DTO
-                ProfileMetadataResult.ProfileMappingInfo mappingInfo = metadataResult.forMapping(obisCode);
-                if (mappingInfo != null) {
-                    setDtoField(dto, mappingInfo.getColumnName(), finalValue);
-                }
-            } catch (NumberFormatException e) {
-                log.error("Obis code: {}, multiplyBy: {}, objectType: {}, NumberFormatException {}", obisCode, multiplyBy, objectType, e.getMessage());
-            }
-        }
+        plan.apply(raw, dto);
         dto.setReceivedAt(LocalDateTime.now());
         return dto;
     }
 
+    private ProfileColumnPlan<ProfileChannelOneDTO> columnPlan(ProfileMetadataResult metadataResult, boolean mdMeter, MeterRatios meterRatios) {
+        return ProfileColumnPlan.compile(metadataResult, mdMeter, meterRatios,
+                this::setterFor, ProfileChannelOneDTO::setEntryTimestamp, dlmsTimestampDecoder);
+    }
+
     @Override
     public void setDtoField(ProfileChannelOneDTO dto, String columnName, BigDecimal value) {
-//        log.info("column mapping: {}, value: {}", columnName, value);
-        switch (columnName.toLowerCase()) {
-            case "entry_timestamp" -> dto.setEntryTimestamp(asDateTime(value));
-            case "profile_status" -> dto.setMeterHealthIndicator(value.intValue());
-            case "instantaneous_voltage_l1" -> dto.setInstantaneousVoltageL1(value.doubleValue());
-            case "instantaneous_voltage_l2" -> dto.setInstantaneousVoltageL2(value.doubleValue());
-            case "instantaneous_voltage_l3" -> dto.setInstantaneousVoltageL3(value.doubleValue());
-            case "instantaneous_current_l1" -> dto.setInstantaneousCurrentL1(value.doubleValue());
-            case "instantaneous_current_l2" -> dto.setInstantaneousCurrentL2(value.doubleValue());
-            case "instantaneous_current_l3" -> dto.setInstantaneousCurrentL3(value.doubleValue());
-            case "instantaneous_active_power" -> dto.setInstantaneousActivePower(value.doubleValue());
-            case "instantaneous_reactive_import" -> dto.setInstantaneousReactiveImport(value.doubleValue());
-            case "instantaneous_reactive_export" -> dto.setInstantaneousReactiveExport(value.doubleValue());
-            case "instantaneous_power_factor" -> dto.setInstantaneousPowerFactor(value.doubleValue());
-            case "instantaneous_apparent_power" -> dto.setInstantaneousApparentPower(value.doubleValue());
-            case "instantaneous_net_frequency" -> dto.setInstantaneousNetFrequency(value.doubleValue());
-            default -> log.warn("Unknown column mapping: {}", columnName);
+        ProfileColumnPlan.ColumnSetter<ProfileChannelOneDTO> setter = setterFor(columnName);
+        if (setter != null) {
+            setter.set(dto, value);
         }
+    }
 
+    private ProfileColumnPlan.ColumnSetter<ProfileChannelOneDTO> setterFor(String columnName) {
+        return switch (columnName.toLowerCase()) {
+            case "entry_timestamp" -> (dto, value) -> dto.setEntryTimestamp(asDateTime(value));
+            case "profile_status" -> (dto, value) -> dto.setMeterHealthIndicator(value.intValue());
+            case "instantaneous_voltage_l1" -> (dto, value) -> dto.setInstantaneousVoltageL1(value.doubleValue());
+            case "instantaneous_voltage_l2" -> (dto, value) -> dto.setInstantaneousVoltageL2(value.doubleValue());
+            case "instantaneous_voltage_l3" -> (dto, value) -> dto.setInstantaneousVoltageL3(value.doubleValue());
+            case "instantaneous_current_l1" -> (dto, value) -> dto.setInstantaneousCurrentL1(value.doubleValue());
+            case "instantaneous_current_l2" -> (dto, value) -> dto.setInstantaneousCurrentL2(value.doubleValue());
+            case "instantaneous_current_l3" -> (dto, value) -> dto.setInstantaneousCurrentL3(value.doubleValue());
+            case "instantaneous_active_power" -> (dto, value) -> dto.setInstantaneousActivePower(value.doubleValue());
+            case "instantaneous_reactive_import" -> (dto, value) -> dto.setInstantaneousReactiveImport(value.doubleValue());
+            case "instantaneous_reactive_export" -> (dto, value) -> dto.setInstantaneousReactiveExport(value.doubleValue());
+            case "instantaneous_power_factor" -> (dto, value) -> dto.setInstantaneousPowerFactor(value.doubleValue());
+            case "instantaneous_apparent_power" -> (dto, value) -> dto.setInstantaneousApparentPower(value.doubleValue());
+            case "instantaneous_net_frequency" -> (dto, value) -> dto.setInstantaneousNetFrequency(value.doubleValue());
+            default -> {
+                log.warn("Unknown column mapping: {}", columnName);
+                yield null;
+            }
+        };
     }
 
     private LocalDateTime asDateTime(Object value) {
@@ -2,7 +2,6 @@ package com.memmcol.hes.domain.profile.mappers;
 
 import com.memmcol.hes.application.port.out.GenericDtoMappers;
 import com.memmcol.hes.domain.profile.MeterRatios;
-import com.memmcol.hes.domain.profile.ObisObjectType;
 import com.memmcol.hes.domain.profile.ProfileMetadataResult;
 import com.memmcol.hes.domain.profile.ProfileRowGeneric;
 import com.memmcol.hes.dto.ProfileChannelThreeHouseholdDTO;
@@ -13,12 +12,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -38,8 +33,9 @@ public class ProfileChannelThreeHouseholdMapper implements GenericDtoMappers<Pro
                                                        boolean mdMeter,
                                                        ProfileMetadataResult metadataResult) throws Exception {
         MeterRatios meterRatios = mdMeter ? ratioService.readMeterRatios(modelNumber, meterSerial) : null;
+        ProfileColumnPlan<ProfileChannelThreeHouseholdDTO> plan = columnPlan(metadataResult, modelNumber, mdMeter, meterRatios);
         return rawRows.stream()
-                .map(raw -> mapRow(raw, meterSerial, modelNumber, mdMeter, metadataResult, meterRatios))
+                .map(raw -> mapRow(raw, meterSerial, modelNumber, plan))
                 .collect(Collectors.toList());
     }
 
@@ -50,99 +46,56 @@ public class ProfileChannelThreeHouseholdMapper implements GenericDtoMappers<Pro
                                                   boolean mdMeter,
                                                   ProfileMetadataResult metadataResult,
                                                   MeterRatios meterRatios) {
+        return mapRow(raw, meterSerial, modelNumber, columnPlan(metadataResult, modelNumber, mdMeter, meterRatios));
+    }
+
+    private ProfileChannelThreeHouseholdDTO mapRow(ProfileRowGeneric raw,
+                                                   String meterSerial,
+                                                   String modelNumber,
+                                                   ProfileColumnPlan<ProfileChannelThreeHouseholdDTO> plan) {
         ProfileChannelThreeHouseholdDTO dto = new ProfileChannelThreeHouseholdDTO();
         dto.setMeterSerial(meterSerial);
         dto.setModelNumber(modelNumber);
-
-        boolean singlePhase = isSinglePhaseModel(modelNumber);
-
-        for (Map.Entry<String, Object> entry : raw.getValues().entrySet()) {
-            String obisWithAttr = entry.getKey();
-            String obisCode = obisWithAttr.split("-")[0];
-            Object rawValue = entry.getValue();
-            if (rawValue == null) continue;
-
-            ProfileMetadataResult.ProfilePersistenceInfo persistenceInfo = metadataResult.forPersistence(obisCode);
-            if (persistenceInfo == null) continue;
-
-            ObisObjectType objectType = persistenceInfo.getType();
-            if (objectType == ObisObjectType.CLOCK) {
-                LocalDateTime tsInstant;
-                switch (rawValue) {
-                    case LocalDateTime localDateTime -> tsInstant = localDateTime;
-                    case String s -> tsInstant = LocalDateTime.parse(s);
-                    case byte[] bytes -> tsInstant = dlmsTimestampDecoder.decode(bytes);
-                    default -> {
-                        log.warn("Unexpected timestamp type: {} for OBIS={}, using fallback",
-                                rawValue.getClass().getName(), obisCode);
-                        tsInstant = LocalDateTime.ofInstant(raw.getTimestamp(), ZoneId.systemDefault());
-                    }
-                }
-                dto.setEntryTimestamp(tsInstant.truncatedTo(ChronoUnit.SECONDS));
-                continue;
-            }
-
-            double scaler = persistenceInfo.getScaler();
-            String multiplyBy = persistenceInfo.getMultiplyBy();
-
-            try {
-                BigDecimal value = new BigDecimal(rawValue.toString());
-                BigDecimal finalValue;
-
-                if (objectType == ObisObjectType.NON_SCALER) {
-                    finalValue = value;
-                } else if (mdMeter) {
-                    switch (multiplyBy.toUpperCase()) {
-                        case "CTPT" -> finalValue = value.multiply(BigDecimal.valueOf(scaler))
-                                .multiply(BigDecimal.valueOf(meterRatios.getCtptRatio()));
-                        case "CT" -> finalValue = value.multiply(BigDecimal.valueOf(scaler))
-                                .multiply(BigDecimal.valueOf(meterRatios.getCtRatio()));
-                        case "PT" -> finalValue = value.multiply(BigDecimal.valueOf(scaler))
-                                .multiply(BigDecimal.valueOf(meterRatios.getPtRatio()));
-                        default -> finalValue = value.multiply(BigDecimal.valueOf(scaler));
-                    }
-                } else {
-                    finalValue = value.multiply(BigDecimal.valueOf(scaler));
-                }
-
-                finalValue = finalValue.setScale(2, RoundingMode.HALF_UP);
-
-                ProfileMetadataResult.ProfileMappingInfo mappingInfo = metadataResult.forMapping(obisCode);
-                if (mappingInfo != null) {
-                    setDtoField(dto, mappingInfo.getColumnName(), finalValue, singlePhase);
-                }
-            } catch (NumberFormatException e) {
-                log.error("NumberFormatException for obis={} multiplyBy={} type={} value={}",
-                        obisCode, multiplyBy, objectType, rawValue);
-            }
-        }
-
+        plan.apply(raw, dto);
         dto.setReceivedAt(LocalDateTime.now());
         return dto;
     }
 
+    private ProfileColumnPlan<ProfileChannelThreeHouseholdDTO> columnPlan(ProfileMetadataResult metadataResult, String modelNumber,
+                                                                          boolean mdMeter, MeterRatios meterRatios) {
+        boolean singlePhase = isSinglePhaseModel(modelNumber);
+        return ProfileColumnPlan.compile(metadataResult, mdMeter, meterRatios,
+                columnName -> setterFor(columnName, singlePhase), ProfileChannelThreeHouseholdDTO::setEntryTimestamp, dlmsTimestampDecoder);
+    }
+
     @Override
     public void setDtoField(ProfileChannelThreeHouseholdDTO dto, String columnName, BigDecimal value) {
-        setDtoField(dto, columnName, value, false);
+        ProfileColumnPlan.ColumnSetter<ProfileChannelThreeHouseholdDTO> setter = setterFor(columnName, false);
+        if (setter != null) {
+            setter.set(dto, value);
+        }
     }
 
-    private void setDtoField(ProfileChannelThreeHouseholdDTO dto, String columnName, BigDecimal value, boolean singlePhase) {
+    private ProfileColumnPlan.ColumnSetter<ProfileChannelThreeHouseholdDTO> setterFor(String columnName, boolean singlePhase) {
         String normalized = columnName.toLowerCase();
 
         if (singlePhase && !isSinglePhaseAllowedColumn(normalized)) {
-            return;
+            return null;
         }
 
-        switch (normalized) {
-            case "active_power_l1" -> dto.setActivePowerL1(value.doubleValue());
-            case "active_power_l2" -> dto.setActivePowerL2(value.doubleValue());
-            case "active_power_l3" -> dto.setActivePowerL3(value.doubleValue());
-            case "power_factor_l1" -> dto.setPowerFactorL1(value.doubleValue());
-            case "power_factor_l2" -> dto.setPowerFactorL2(value.doubleValue());
-            case "power_factor_l3" -> dto.setPowerFactorL3(value.doubleValue());
-            case "grid_frequency" -> dto.setGridFrequency(value.doubleValue());
-            default -> log.warn("Unknown column mapping (hh ch3): {}", columnName);
-        }
+        return switch (normalized) {
+            case "active_power_l1" -> (dto, value) -> dto.setActivePowerL1(value.doubleValue());
+            case "active_power_l2" -> (dto, value) -> dto.setActivePowerL2(value.doubleValue());
+            case "active_power_l3" -> (dto, value) -> dto.setActivePowerL3(value.doubleValue());
+            case "power_factor_l1" -> (dto, value) -> dto.setPowerFactorL1(value.doubleValue());
+            case "power_factor_l2" -> (dto, value) -> dto.setPowerFactorL2(value.doubleValue());
+            case "power_factor_l3" -> (dto, value) -> dto.setPowerFactorL3(value.doubleValue());
+            case "grid_frequency" -> (dto, value) -> dto.setGridFrequency(value.doubleValue());
+            default -> {
+                log.warn("Unknown column mapping (hh ch3): {}", columnName);
+                yield null;
+            }
+        };
     }
 
     private boolean isSinglePhaseAllowedColumn(String columnName) {
@@ -2,7 +2,6 @@ package com.memmcol.hes.domain.profile.mappers;
 
 import com.memmcol.hes.application.port.out.GenericDtoMappers;
 import com.memmcol.hes.domain.profile.MeterRatios;
-import com.memmcol.hes.domain.profile.ObisObjectType;
 import com.memmcol.hes.domain.profile.ProfileMetadataResult;
 import com.memmcol.hes.domain.profile.ProfileRowGeneric;
 import com.memmcol.hes.dto.ProfileChannelTwoHouseholdDTO;
@@ -13,12 +12,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -35,8 +30,9 @@ public class ProfileChannelTwoHouseholdMapper implements GenericDtoMappers<Profi
                                                      boolean mdMeter,
                                                      ProfileMetadataResult metadataResult) throws Exception {
         MeterRatios meterRatios = mdMeter ? ratioService.readMeterRatios(modelNumber, meterSerial) : null;
+        ProfileColumnPlan<ProfileChannelTwoHouseholdDTO> plan = columnPlan(metadataResult, mdMeter, meterRatios);
         return rawRows.stream()
-                .map(raw -> mapRow(raw, meterSerial, modelNumber, mdMeter, metadataResult, meterRatios))
+                .map(raw -> mapRow(raw, meterSerial, modelNumber, plan))
                 .collect(Collectors.toList());
     }
 
@@ -47,88 +43,48 @@ public class ProfileChannelTwoHouseholdMapper implements GenericDtoMappers<Profi
                                                 boolean mdMeter,
                                                 ProfileMetadataResult metadataResult,
                                                 MeterRatios meterRatios) {
+        return mapRow(raw, meterSerial, modelNumber, columnPlan(metadataResult, mdMeter, meterRatios));
+    }
+
+    private ProfileChannelTwoHouseholdDTO mapRow(ProfileRowGeneric raw,
+                                                 String meterSerial,
+                                                 String modelNumber,
+                                                 ProfileColumnPlan<ProfileChannelTwoHouseholdDTO> plan) {
         ProfileChannelTwoHouseholdDTO dto = new ProfileChannelTwoHouseholdDTO();
         dto.setMeterSerial(meterSerial);
         dto.setModelNumber(modelNumber);
-
-        for (Map.Entry<String, Object> entry : raw.getValues().entrySet()) {
-            String obisWithAttr = entry.getKey();
-            String obisCode = obisWithAttr.split("-")[0];
-            Object rawValue = entry.getValue();
-            if (rawValue == null) continue;
-
-            ProfileMetadataResult.ProfilePersistenceInfo persistenceInfo = metadataResult.forPersistence(obisCode);
-            if (persistenceInfo == null) continue;
-
-            ObisObjectType objectType = persistenceInfo.getType();
-            if (objectType == ObisObjectType.CLOCK) {
-                LocalDateTime tsInstant;
-                switch (rawValue) {
-                    case LocalDateTime localDateTime -> tsInstant = localDateTime;
-                    case String s -> tsInstant = LocalDateTime.parse(s);
-                    case byte[] bytes -> tsInstant = dlmsTimestampDecoder.decode(bytes);
-                    default -> {
-                        log.warn("Unexpected timestamp type: {} for OBIS={}, using fallback",
-                                rawValue.getClass().getName(), obisCode);
-                        tsInstant = LocalDateTime.ofInstant(raw.getTimestamp(), ZoneId.systemDefault());
-                    }
-                }
-                dto.setEntryTimestamp(tsInstant.truncatedTo(ChronoUnit.SECONDS));
-                continue;
-            }
-
-            double scaler = persistenceInfo.getScaler();
-            String multiplyBy = persistenceInfo.getMultiplyBy();
-
-            try {
-                BigDecimal value = new BigDecimal(rawValue.toString());
-                BigDecimal finalValue;
-
-                if (objectType == ObisObjectType.NON_SCALER) {
-                    finalValue = value;
-                } else if (mdMeter) {
-                    switch (multiplyBy.toUpperCase()) {
-                        case "CTPT" -> finalValue = value.multiply(BigDecimal.valueOf(scaler))
-                                .multiply(BigDecimal.valueOf(meterRatios.getCtptRatio()));
-                        case "CT" -> finalValue = value.multiply(BigDecimal.valueOf(scaler))
-                                .multiply(BigDecimal.valueOf(meterRatios.getCtRatio()));
-                        case "PT" -> finalValue = value.multiply(BigDecimal.valueOf(scaler))
-                                .multiply(BigDecimal.valueOf(meterRatios.getPtRatio()));
-                        default -> finalValue = value.multiply(BigDecimal.valueOf(scaler));
-                    }
-                } else {
-                    finalValue = value.multiply(BigDecimal.valueOf(scaler));
-                }
-
-                finalValue = finalValue.setScale(2, RoundingMode.HALF_UP);
-
-                ProfileMetadataResult.ProfileMappingInfo mappingInfo = metadataResult.forMapping(obisCode);
-                if (mappingInfo != null) {
-                    setDtoField(dto, mappingInfo.getColumnName(), finalValue);
-                }
-            } catch (NumberFormatException e) {
-                log.error("NumberFormatException for obis={} multiplyBy={} type={} value={}",
-                        obisCode, multiplyBy, objectType, rawValue);
-            }
-        }
-
+        plan.apply(raw, dto);
         dto.setReceivedAt(LocalDateTime.now());
         return dto;
     }
 
+    private ProfileColumnPlan<ProfileChannelTwoHouseholdDTO> columnPlan(ProfileMetadataResult metadataResult, boolean mdMeter, MeterRatios meterRatios) {
+        return ProfileColumnPlan.compile(metadataResult, mdMeter, meterRatios,
+                this::setterFor, ProfileChannelTwoHouseholdDTO::setEntryTimestamp, dlmsTimestampDecoder);
+    }
+
     @Override
     public void setDtoField(ProfileChannelTwoHouseholdDTO dto, String columnName, BigDecimal value) {
-        switch (columnName.toLowerCase()) {
-            case "voltage_l1" -> dto.setVoltageL1(value.doubleValue());
-            case "voltage_l2" -> dto.setVoltageL2(value.doubleValue());
-            case "voltage_l3" -> dto.setVoltageL3(value.doubleValue());
-            case "current_l1" -> dto.setCurrentL1(value.doubleValue());
-            case "current_l2" -> dto.setCurrentL2(value.doubleValue());
-            case "current_l3" -> dto.setCurrentL3(value.doubleValue());
-            case "volt_angle_l1_l2" -> dto.setVoltAngleL1L2(value.doubleValue());
-            case "volt_angle_l1_l3" -> dto.setVoltAngleL1L3(value.doubleValue());
-            default -> log.warn("Unknown column mapping (hh ch2): {}", columnName);
+        ProfileColumnPlan.ColumnSetter<ProfileChannelTwoHouseholdDTO> setter = setterFor(columnName);
+        if (setter != null) {
+            setter.set(dto, value);
         }
     }
-}
 
+    private ProfileColumnPlan.ColumnSetter<ProfileChannelTwoHouseholdDTO> setterFor(String columnName) {
+        return switch (columnName.toLowerCase()) {
+            case "voltage_l1" -> (dto, value) -> dto.setVoltageL1(value.doubleValue());
+            case "voltage_l2" -> (dto, value) -> dto.setVoltageL2(value.doubleValue());
+            case "voltage_l3" -> (dto, value) -> dto.setVoltageL3(value.doubleValue());
+            case "current_l1" -> (dto, value) -> dto.setCurrentL1(value.doubleValue());
+            case "current_l2" -> (dto, value) -> dto.setCurrentL2(value.doubleValue());
+            case "current_l3" -> (dto, value) -> dto.setCurrentL3(value.doubleValue());
+            case "volt_angle_l1_l2" -> (dto, value) -> dto.setVoltAngleL1L2(value.doubleValue());
+            case "volt_angle_l1_l3" -> (dto, value) -> dto.setVoltAngleL1L3(value.doubleValue());
+            default -> {
+                log.warn("Unknown column mapping (hh ch2): {}", columnName);
+                yield null;
+            }
+        };
+    }
+}
@@ -2,7 +2,6 @@ package com.memmcol.hes.domain.profile.mappers;
 
 import com.memmcol.hes.application.port.out.GenericDtoMappers;
 import com.memmcol.hes.domain.profile.MeterRatios;
-import com.memmcol.hes.domain.profile.ObisObjectType;
 import com.memmcol.hes.domain.profile.ProfileMetadataResult;
 import com.memmcol.hes.domain.profile.ProfileRowGeneric;
 import com.memmcol.hes.dto.ProfileChannelTwoDTO;
@@ -13,12 +12,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -32,115 +27,58 @@ public class ProfileChannelTwoMapper implements GenericDtoMappers<ProfileChannel
     public List<ProfileChannelTwoDTO> toDTO(List<ProfileRowGeneric> rawRows, String meterSerial, String modelNumber, boolean mdMeter, ProfileMetadataResult captureObjects) throws Exception {
         // Pre-fetch meter ratios if MD
         MeterRatios meterRatios = mdMeter ? ratioService.readMeterRatios(modelNumber, meterSerial) : null;
+        ProfileColumnPlan<ProfileChannelTwoDTO> plan = columnPlan(captureObjects, mdMeter, meterRatios);
 
         return rawRows.stream()
-                .map(raw -> mapRow(raw, meterSerial, modelNumber, mdMeter, captureObjects, meterRatios))
+                .map(raw -> mapRow(raw, meterSerial, modelNumber, plan))
                 .collect(Collectors.toList());
     }
 
     @Override
     public ProfileChannelTwoDTO mapRow(ProfileRowGeneric raw, String meterSerial, String modelNumber, boolean mdMeter, ProfileMetadataResult captureObjects, MeterRatios meterRatios) {
+        return mapRow(raw, meterSerial, modelNumber, columnPlan(captureObjects, mdMeter, meterRatios));
+    }
+
+    private ProfileChannelTwoDTO mapRow(ProfileRowGeneric raw, String meterSerial, String modelNumber, ProfileColumnPlan<ProfileChannelTwoDTO> plan) {
         ProfileChannelTwoDTO dto = new ProfileChannelTwoDTO();
         dto.setMeterSerial(meterSerial);
         dto.setModelNumber(modelNumber);
-
-        // Iterate over all OBIS values
-        for (Map.Entry<String, Object> entry : raw.getValues().entrySet()) {
-            String obisWithAttr = entry.getKey();                     // e.g. 1.0.129.6.0.255-2
-            String obisCode = obisWithAttr.split("-")[0];         // e.g. 1.0.129.6.0.255
-            Object rawValue = entry.getValue();
-
-            if (rawValue == null) continue;
-
-            // Get persistence info (scaler, multiplyBy)
-            ProfileMetadataResult.ProfilePersistenceInfo persistenceInfo = captureObjects.forPersistence(obisCode);
-            if (persistenceInfo == null) continue;
-
-            double scaler = persistenceInfo.getScaler();
-            String multiplyBy = persistenceInfo.getMultiplyBy();
-            ObisObjectType objectType = persistenceInfo.getType();  //1️⃣ Identify object type from metadata. Possible: CLOCK, NON_SCALER, SCALER
-
-            // Set entry timestamp from CLOCK OBIS
-            if (objectType == ObisObjectType.CLOCK) {
-                LocalDateTime tsInstant;
-                switch (rawValue) {
-                    case LocalDateTime localDateTime ->
-                        // Already a LocalDateTime
-                            tsInstant = localDateTime;
-                    case String s ->
-                        // ISO-8601 date string (e.g., 2025-08-01T00:00)
-                            tsInstant = LocalDateTime.parse(s);
-                    case byte[] bytes ->
-                        // Raw bytes → decode to LocalDateTime
-                            tsInstant = dlmsTimestampDecoder.decode(bytes);
-                    default -> {
-                        // Fallback: unexpected type
-                        log.warn("Unexpected timestamp type: {} for OBIS={}, using fallback",
-                                rawValue.getClass().getName(), obisCode);
-                        tsInstant = LocalDateTime.ofInstant(raw.getTimestamp(), ZoneId.systemDefault());
-                    }
-                }
-                dto.setEntryTimestamp(tsInstant.truncatedTo(ChronoUnit.SECONDS));
-                continue;
-            }
-
-            BigDecimal finalValue;
-            try {
-                BigDecimal value = new BigDecimal(rawValue.toString());
-
-                // 2️⃣ If NON_SCALER → keep value as-is
-                if (objectType == ObisObjectType.NON_SCALER) {
-                    finalValue = value;
-
-                    // 3️⃣ If SCALER → apply scaler and CT/PT logic
-                } else {
-                    if (mdMeter) {
-                        switch (multiplyBy.toUpperCase()) {
-                            case "CTPT" -> finalValue = value.multiply(BigDecimal.valueOf(scaler))
-                                    .multiply(BigDecimal.valueOf(meterRatios.getCtptRatio()));
-                            case "CT" -> finalValue = value.multiply(BigDecimal.valueOf(scaler))
-                                    .multiply(BigDecimal.valueOf(meterRatios.getCtRatio()));
-                            case "PT" -> finalValue = value.multiply(BigDecimal.valueOf(scaler))
-                                    .multiply(BigDecimal.valueOf(meterRatios.getPtRatio()));
-                            default -> finalValue = value.multiply(BigDecimal.valueOf(scaler));
-                        }
-                    } else {
-                        finalValue = value.multiply(BigDecimal.valueOf(scaler));
-                    }
-                }
-
-                // 4️⃣ Round final value
-                finalValue = finalValue.setScale(2, RoundingMode.HALF_UP);
-
-                // 5️⃣ Map to DTO
-                ProfileMetadataResult.ProfileMappingInfo mappingInfo = captureObjects.forMapping(obisCode);
-                if (mappingInfo != null) {
-                    setDtoField(dto, mappingInfo.getColumnName(), finalValue);
-                }
-            } catch (NumberFormatException e) {
-                log.error("Obis code: {}, multiplyBy: {}, objectType: {}, NumberFormatException {}", obisCode, multiplyBy, objectType, e.getMessage());
-            }
-        }
+        plan.apply(raw, dto);
         dto.setReceivedAt(LocalDateTime.now());
         return dto;
     }
 
+    private ProfileColumnPlan<ProfileChannelTwoDTO> columnPlan(ProfileMetadataResult captureObjects, boolean mdMeter, MeterRatios meterRatios) {
+        return ProfileColumnPlan.compile(captureObjects, mdMeter, meterRatios,
+                this::setterFor, ProfileChannelTwoDTO::setEntryTimestamp, dlmsTimestampDecoder);
+    }
+
     @Override
     public void setDtoField(ProfileChannelTwoDTO dto, String columnName, BigDecimal value) {
-        switch (columnName.toLowerCase()) {
-            case "meter_health_indicator" -> dto.setMeterHealthIndicator(value.intValue());
-            case "active_energy_import" -> dto.setActiveEnergyImport(value.doubleValue());
-            case "active_energy_import_rate1" -> dto.setActiveEnergyImportRate1(value.doubleValue());
-            case "active_energy_import_rate2" -> dto.setActiveEnergyImportRate2(value.doubleValue());
-            case "active_energy_import_rate3" -> dto.setActiveEnergyImportRate3(value.doubleValue());
-            case "active_energy_import_rate4" -> dto.setActiveEnergyImportRate4(value.doubleValue());
-            case "active_energy_combined_total" -> dto.setActiveEnergyCombinedTotal(value.doubleValue());
-            case "active_energy_export" -> dto.setActiveEnergyExport(value.doubleValue());
-            case "reactive_energy_import" -> dto.setReactiveEnergyImport(value.doubleValue());
-            case "reactive_energy_export" -> dto.setReactiveEnergyExport(value.doubleValue());
-            case "apparent_energy_import" -> dto.setApparentEnergyImport(value.doubleValue());
-            case "apparent_energy_export" -> dto.setApparentEnergyExport(value.doubleValue());
-            default -> log.warn("Unknown column mapping: {}", columnName);
+        ProfileColumnPlan.ColumnSetter<ProfileChannelTwoDTO> setter = setterFor(columnName);
+        if (setter != null) {
+            setter.set(dto, value);
         }
     }
+
+    private ProfileColumnPlan.ColumnSetter<ProfileChannelTwoDTO> setterFor(String columnName) {
+        return switch (columnName.toLowerCase()) {
+            case "meter_health_indicator" -> (dto, value) -> dto.setMeterHealthIndicator(value.intValue());
+            case "active_energy_import" -> (dto, value) -> dto.setActiveEnergyImport(value.doubleValue());
+            case "active_energy_import_rate1" -> (dto, value) -> dto.setActiveEnergyImportRate1(value.doubleValue());
+            case "active_energy_import_rate2" -> (dto, value) -> dto.setActiveEnergyImportRate2(value.doubleValue());
+            case "active_energy_import_rate3" -> (dto, value) -> dto.setActiveEnergyImportRate3(value.doubleValue());
+            case "active_energy_import_rate4" -> (dto, value) -> dto.setActiveEnergyImportRate4(value.doubleValue());
+            case "active_energy_combined_total" -> (dto, value) -> dto.setActiveEnergyCombinedTotal(value.doubleValue());
+            case "active_energy_export" -> (dto, value) -> dto.setActiveEnergyExport(value.doubleValue());
+            case "reactive_energy_import" -> (dto, value) -> dto.setReactiveEnergyImport(value.doubleValue());
+            case "reactive_energy_export" -> (dto, value) -> dto.setReactiveEnergyExport(value.doubleValue());
+            case "apparent_energy_import" -> (dto, value) -> dto.setApparentEnergyImport(value.doubleValue());
+            case "apparent_energy_export" -> (dto, value) -> dto.setApparentEnergyExport(value.doubleValue());
+            default -> {
+                log.warn("Unknown column mapping: {}", columnName);
+                yield null;
+            }
+        };
+    }
 }
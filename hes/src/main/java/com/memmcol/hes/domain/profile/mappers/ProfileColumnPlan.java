@@ -0,0 +1,208 @@
+package com.memmcol.hes.domain.profile.mappers;
+
+import com.memmcol.hes.domain.profile.MeterRatios;
+import com.memmcol.hes.domain.profile.ObisObjectType;
+import com.memmcol.hes.domain.profile.ProfileMetadataResult;
+import com.memmcol.hes.domain.profile.ProfileMetadataResult.ProfileMappingInfo;
+import com.memmcol.hes.domain.profile.ProfileMetadataResult.ProfilePersistenceInfo;
+import com.memmcol.hes.domain.profile.ProfileRowGeneric;
+import com.memmcol.hes.infrastructure.dlms.DlmsTimestampDecoder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Column plan for interval-profile rows, compiled once per {@link ProfileMetadataResult} and meter ratios.
+ * <p>
+ * Each {@code "obis-attr"} key is resolved once into a slot. A slot holds the DTO setter, the
+ * scaler already multiplied by the CT / PT / CTPT ratio, and the rounding. After that the values
+ * are applied with no key splitting, metadata lookup or column-name switch. Rows from one profile
+ * buffer share the same key order, so slots are matched by position. A key at an unexpected
+ * position falls back to a lookup by key.
+ * <p>
+ * A plan caches slots as it sees keys and is not thread-safe; build one per {@code toDTO} call.
+ */
+@Slf4j
+public final class ProfileColumnPlan<T> {
+
+    /** Writes one already-scaled, rounded value into the DTO. */
+    @FunctionalInterface
+    public interface ColumnSetter<T> {
+        void set(T dto, BigDecimal value);
+    }
+
+    private static final int SCALE = 2;
+    private static final RoundingMode ROUNDING = RoundingMode.HALF_UP;
+
+    private enum Kind { SKIP, CLOCK, VALUE }
+
+    private record Slot<T>(String key, Kind kind, String obisCode, String multiplyBy,
+                           ObisObjectType type, BigDecimal factor, ColumnSetter<T> setter) {
+    }
+
+    private final Map<String, ProfilePersistenceInfo> persistence;
+    private final Map<String, ProfileMappingInfo> mapping;
+    private final boolean mdMeter;
+    private final MeterRatios meterRatios;
+    private final Function<String, ColumnSetter<T>> setters;
+    private final BiConsumer<T, LocalDateTime> entryTimestamp;
+    private final DlmsTimestampDecoder timestampDecoder;
+
+    private final List<Slot<T>> ordered = new ArrayList<>();
+    private final Map<String, Slot<T>> byKey = new HashMap<>();
+
+    private ProfileColumnPlan(ProfileMetadataResult metadataResult, boolean mdMeter, MeterRatios meterRatios,
+                              Function<String, ColumnSetter<T>> setters, BiConsumer<T, LocalDateTime> entryTimestamp,
+                              DlmsTimestampDecoder timestampDecoder) {
+        this.persistence = metadataResult.forPersistence();
+        this.mapping = metadataResult.forMapping();
+        this.mdMeter = mdMeter;
+        this.meterRatios = meterRatios;
+        this.setters = setters;
+        this.entryTimestamp = entryTimestamp;
+        this.timestampDecoder = timestampDecoder;
+    }
+
+    /**
+     * @param setters        column name → setter, or null when the column is not stored in this DTO
+     * @param entryTimestamp receives the CLOCK column, truncated to seconds
+     */
+    public static <T> ProfileColumnPlan<T> compile(ProfileMetadataResult metadataResult,
+                                                   boolean mdMeter,
+                                                   MeterRatios meterRatios,
+                                                   Function<String, ColumnSetter<T>> setters,
+                                                   BiConsumer<T, LocalDateTime> entryTimestamp,
+                                                   DlmsTimestampDecoder timestampDecoder) {
+        return new ProfileColumnPlan<>(metadataResult, mdMeter, meterRatios, setters, entryTimestamp, timestampDecoder);
+    }
+
+    public void apply(ProfileRowGeneric raw, T dto) {
+        int index = 0;
+        for (Map.Entry<String, Object> entry : raw.getValues().entrySet()) {
+            Slot<T> slot = slotAt(index++, entry.getKey());
+            Object rawValue = entry.getValue();
+            if (rawValue == null || slot.kind() == Kind.SKIP) continue;
+
+            if (slot.kind() == Kind.CLOCK) {
+                entryTimestamp.accept(dto, toTimestamp(rawValue, raw, slot.obisCode()).truncatedTo(ChronoUnit.SECONDS));
+                continue;
+            }
+
+            try {
+                BigDecimal value = toBigDecimal(rawValue);
+                if (slot.factor() != null) {
+                    value = value.multiply(slot.factor());
+                }
+                slot.setter().set(dto, value.setScale(SCALE, ROUNDING));
+            } catch (NumberFormatException e) {
+                log.error("NumberFormatException for obis={} multiplyBy={} type={} value={}",
+                        slot.obisCode(), slot.multiplyBy(), slot.type(), rawValue);
+            }
+        }
+    }
+
+    /** Number of distinct keys compiled so far. */
+    public int size() {
+        return byKey.size();
+    }
+
+    private Slot<T> slotAt(int index, String key) {
+        if (index < ordered.size()) {
+            Slot<T> slot = ordered.get(index);
+            if (slot.key().equals(key)) {
+                return slot;
+            }
+        }
+        Slot<T> slot = byKey.get(key);
+        if (slot == null) {
+            slot = resolve(key);
+            byKey.put(key, slot);
+            if (index == ordered.size()) {
+                ordered.add(slot);
+            }
+        }
+        return slot;
+    }
+
+    private Slot<T> resolve(String key) {
+        int dash = key.indexOf('-');
+        String obisCode = dash < 0 ? key : key.substring(0, dash);   // e.g. 1.0.129.6.0.255-2 → 1.0.129.6.0.255
+
+        ProfilePersistenceInfo persistenceInfo = persistence.get(obisCode);
+        if (persistenceInfo == null) {
+            return skip(key, obisCode);
+        }
+        ObisObjectType type = persistenceInfo.getType();
+        String multiplyBy = persistenceInfo.getMultiplyBy();
+        if (type == ObisObjectType.CLOCK) {
+            return new Slot<>(key, Kind.CLOCK, obisCode, multiplyBy, type, null, null);
+        }
+
+        ProfileMappingInfo mappingInfo = mapping.get(obisCode);
+        ColumnSetter<T> setter = mappingInfo == null ? null : setters.apply(mappingInfo.getColumnName());
+        if (setter == null) {
+            return skip(key, obisCode);
+        }
+        BigDecimal factor = type == ObisObjectType.NON_SCALER ? null : factor(persistenceInfo.getScaler(), multiplyBy);
+        return new Slot<>(key, Kind.VALUE, obisCode, multiplyBy, type, factor, setter);
+    }
+
+    /**
+     * Scaler × CT/PT ratio. Both are exact decimals, so one multiply gives the same result as two.
+     */
+    private BigDecimal factor(double scaler, String multiplyBy) {
+        BigDecimal factor = BigDecimal.valueOf(scaler);
+        if (!mdMeter) {
+            return factor;
+        }
+        return switch (multiplyBy.toUpperCase()) {
+            case "CTPT" -> factor.multiply(BigDecimal.valueOf(meterRatios.getCtptRatio()));
+            case "CT" -> factor.multiply(BigDecimal.valueOf(meterRatios.getCtRatio()));
+            case "PT" -> factor.multiply(BigDecimal.valueOf(meterRatios.getPtRatio()));
+            default -> factor;
+        };
+    }
+
+    private Slot<T> skip(String key, String obisCode) {
+        return new Slot<>(key, Kind.SKIP, obisCode, null, null, null, null);
+    }
+
+    private LocalDateTime toTimestamp(Object rawValue, ProfileRowGeneric raw, String obisCode) {
+        return switch (rawValue) {
+            case LocalDateTime localDateTime -> localDateTime;
+            // ISO-8601 date string (e.g., 2025-08-01T00:00)
+            case String s -> LocalDateTime.parse(s);
+            case byte[] bytes -> timestampDecoder.decode(bytes);
+            default -> {
+                log.warn("Unexpected timestamp type: {} for OBIS={}, using fallback",
+                        rawValue.getClass().getName(), obisCode);
+                yield LocalDateTime.ofInstant(raw.getTimestamp(), ZoneId.systemDefault());
+            }
+        };
+    }
+
+    /**
+     * Same value as {@code new BigDecimal(rawValue.toString())}, without the string round trip for integers.
+     */
+    private static BigDecimal toBigDecimal(Object rawValue) {
+        return switch (rawValue) {
+            case BigDecimal bd -> bd;
+            case Long l -> BigDecimal.valueOf(l);
+            case Integer i -> BigDecimal.valueOf(i);
+            case Short s -> BigDecimal.valueOf(s);
+            case Byte b -> BigDecimal.valueOf(b);
+            case Double d -> BigDecimal.valueOf(d);
+            default -> new BigDecimal(rawValue.toString());
+        };
+    }
+}
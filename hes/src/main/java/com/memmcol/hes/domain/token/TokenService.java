@@ -109,7 +109,7 @@ public class TokenService {
             GXDLMSRegister creditRegister = new GXDLMSRegister(CREDIT_BALANCE_OBIS);
 
             byte[][] request = client.read(creditRegister, 2);
-            byte[] response = txRxService.sendReceiveWithContext(meterSerial, request[0], 20000);
+            byte[] response = txRxService.sendReceiveWithContext(meterSerial, request[0]);
 
             if (sessionManager.isAssociationLost(response)) {
                 sessionManager.removeSession(meterSerial);
@@ -0,0 +1,18 @@
+package com.memmcol.hes.exception;
+
+/**
+ * Thrown instead of sending to a meter whose circuit breaker is open after repeated timeouts.
+ */
+public class MeterCircuitOpenException extends IllegalStateException {
+
+    private final long retryAfterMs;
+
+    public MeterCircuitOpenException(String meterSerial, long retryAfterMs) {
+        super("Circuit open for meter " + meterSerial + " (retry in " + retryAfterMs + " ms)");
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+}
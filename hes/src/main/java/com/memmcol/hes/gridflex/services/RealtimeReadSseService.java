@@ -1,12 +1,13 @@
 package com.memmcol.hes.gridflex.services;
 
+import com.memmcol.hes.config.MeterReadLimiter;
 import com.memmcol.hes.dto.MeterDTO;
 import com.memmcol.hes.gridflex.dtos.MeterDto;
 import com.memmcol.hes.gridflex.dtos.ObisDto;
 import com.memmcol.hes.gridflex.dtos.RealtimeReadRequest;
+import com.memmcol.hes.infrastructure.dlms.GetWithListPlanner;
 import com.memmcol.hes.repository.MeterRepository;
 import com.memmcol.hesTraining.services.MeterReadingService;
-import gurux.dlms.GXDLMSExceptionResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -40,6 +41,7 @@ public class RealtimeReadSseService {
     private final MeterRepository meterRepository;
     private final ExecutorService streamExecutor;
     private final ExecutorService realtimeReadExecutor;
+    private final MeterReadLimiter meterReadLimiter;
     private final int maxMetersPerRequest;
     private final int maxObisPerRequest;
     private final Duration requestTimeout;
@@ -47,22 +49,28 @@ public class RealtimeReadSseService {
     private final String fallbackNonMdModel;
     private final boolean fallbackToSingleObis;
     private final int obisChunkSize;
+    private final GetWithListPlanner listPlanner;
+    private final boolean listPlannerEnabled;
 
     public RealtimeReadSseService(MeterReadingService trainingService,
                                   MeterRepository meterRepository,
                                   @Qualifier("realtimeStreamExecutor") ExecutorService streamExecutor,
                                   @Qualifier("meterReadExecutor") ExecutorService realtimeReadExecutor,
+                                  MeterReadLimiter meterReadLimiter,
                                   @Value("${hes.realtime-read.max-meters:50}") int maxMetersPerRequest,
                                   @Value("${hes.realtime-read.max-obis:20}") int maxObisPerRequest,
                                   @Value("${hes.realtime-read.timeout-seconds:120}") long requestTimeoutSeconds,
                                   @Value("${hes.realtime-read.fallback-md-model:MDModelX}") String fallbackMdModel,
                                   @Value("${hes.realtime-read.fallback-non-md-model:NonMDModelX}") String fallbackNonMdModel,
                                   @Value("${hes.realtime-read.fallback-to-single-obis:false}") boolean fallbackToSingleObis,
-                                  @Value("${hes.realtime-read.obis-chunk-size:1}") int obisChunkSize) {
+                                  @Value("${hes.realtime-read.obis-chunk-size:1}") int obisChunkSize,
+                                  GetWithListPlanner listPlanner,
+                                  @Value("${hes.realtime-read.list-planner.enabled:true}") boolean listPlannerEnabled) {
         this.trainingService = trainingService;
         this.meterRepository = meterRepository;
         this.streamExecutor = streamExecutor;
         this.realtimeReadExecutor = realtimeReadExecutor;
+        this.meterReadLimiter = meterReadLimiter;
         this.maxMetersPerRequest = Math.max(1, maxMetersPerRequest);
         this.maxObisPerRequest = Math.max(1, maxObisPerRequest);
         this.requestTimeout = Duration.ofSeconds(Math.max(1, requestTimeoutSeconds));
@@ -70,6 +78,8 @@ public class RealtimeReadSseService {
         this.fallbackNonMdModel = fallbackNonMdModel;
         this.fallbackToSingleObis = fallbackToSingleObis;
         this.obisChunkSize = Math.max(1, obisChunkSize);
+        this.listPlanner = listPlanner;
+        this.listPlannerEnabled = listPlannerEnabled;
     }
 
     public SseEmitter streamRealtimeRead(RealtimeReadRequest request) {
@@ -190,8 +200,8 @@ public class RealtimeReadSseService {
         AtomicInteger failed = new AtomicInteger();
 
         for (MeterDto meter : plan.meters()) {
-            submitted.add(completionService.submit(() -> readMeterObisValues(
-                    meter, plan.obisList(), emitter, acceptingEvents, success, failed)));
+            submitted.add(completionService.submit(() -> meterReadLimiter.call(meter.getMeterSerial(),
+                    () -> readMeterObisValues(meter, plan.obisList(), emitter, acceptingEvents, success, failed))));
         }
 
         int completedMeters = 0;
@@ -247,18 +257,20 @@ public class RealtimeReadSseService {
                                                     AtomicInteger totalSuccess,
                                                     AtomicInteger totalFailed) throws IOException {
         long meterStarted = System.nanoTime();
-        log.info("⚙️ Realtime read meter={}, obisCount={}, chunkSize={}",
-                meter.getMeterSerial(), obisList.size(), obisChunkSize);
+        List<List<ObisDto>> chunks = planChunks(meter, obisList);
+        log.info("⚙️ Realtime read meter={}, obisCount={}, requests={}",
+                meter.getMeterSerial(), obisList.size(), chunks.size());
 
         int success = 0;
         int failed = 0;
-        for (int from = 0; from < obisList.size(); from += obisChunkSize) {
+        int to = 0;
+        for (List<ObisDto> chunk : chunks) {
             if (Thread.currentThread().isInterrupted() || !acceptingEvents.get()) {
                 break;
             }
 
-            int to = Math.min(from + obisChunkSize, obisList.size());
-            List<ObisDto> chunk = obisList.subList(from, to);
+            int from = to;
+            to = from + chunk.size();
 
             if (chunk.size() == 1) {
                 ObisDto obis = chunk.getFirst();
@@ -310,8 +322,9 @@ public class RealtimeReadSseService {
                 // Only fall back to per-OBIS reads when the meter rejected the entire
                 // GET-with-list at the DLMS layer. Other failures (network, association,
                 // formatting) won't be cured by N more reads on the same meter, so emit
-                // -1 immediately and let the user retry.
-                boolean wholeListRejection = isWholeListRejection(batchException);
+                // -1 immediately and let the user retry. MeterReadingService has already told the
+                // planner how big the rejected list really was.
+                boolean wholeListRejection = GetWithListPlanner.isListRejection(batchException);
                 if (!fallbackToSingleObis || !wholeListRejection) {
                     String message = "Batched realtime read failed: " + batchException.getMessage();
                     for (ObisDto obis : chunk) {
@@ -363,21 +376,26 @@ public class RealtimeReadSseService {
         return new RealtimeReadSummary(success, failed);
     }
 
-    private boolean isWholeListRejection(Throwable ex) {
-        for (Throwable t = ex; t != null; t = t.getCause()) {
-            if (t instanceof GXDLMSExceptionResponse) {
-                return true;
-            }
-            String message = t.getMessage();
-            if (message != null &&
-                    message.toLowerCase().contains("support multiple objects reading")) {
-                return true;
-            }
-            if (t == t.getCause()) {
-                break;
+    /**
+     * One GET-WITH-LIST per chunk, sized to what the meter's model negotiated in its AARE
+     * (associating first if needed), so a 50-OBIS read takes a few round-trips instead of 50.
+     * With the planner disabled the fixed {@code obis-chunk-size} applies.
+     */
+    private List<List<ObisDto>> planChunks(MeterDto meter, List<ObisDto> obisList) {
+        if (listPlannerEnabled && obisList.size() > 1) {
+            try {
+                trainingService.listCapability(meter.getMeterModel(), meter.getMeterSerial());
+            } catch (Exception e) {
+                // Planned with the defaults; the first read will surface the association failure
+                log.debug("GET-WITH-LIST capability unavailable for meter={}: {}", meter.getMeterSerial(), e.getMessage());
             }
+            return listPlanner.plan(meter.getMeterModel(), obisList, ObisDto::getObisString);
+        }
+        List<List<ObisDto>> chunks = new ArrayList<>();
+        for (int from = 0; from < obisList.size(); from += obisChunkSize) {
+            chunks.add(obisList.subList(from, Math.min(from + obisChunkSize, obisList.size())));
         }
-        return false;
+        return chunks;
     }
 
     private List<Map<String, Object>> readMeterObisValuesBatch(MeterDto meter,
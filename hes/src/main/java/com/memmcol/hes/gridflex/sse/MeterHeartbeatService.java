@@ -1,40 +1,153 @@
 package com.memmcol.hes.gridflex.sse;
 
 import com.memmcol.hes.nettyUtils.MeterHeartbeatManager;
-import lombok.RequiredArgsConstructor;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Login / heartbeat intake.
+ * <p>
+ * {@link #processFrame} runs on the Netty event loop, so it only stamps the frame and appends it
+ * to the queue of the shard owning the serial. Each shard has one worker thread that drains its
+ * queue every {@code hes.heartbeat.drain-ms}, keeps the latest frame per meter and applies it to
+ * the heartbeat state, DB write buffer and SSE feed. A meter always maps to the same shard, so its
+ * frames are applied in arrival order by a single writer.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class MeterHeartbeatService {
 
+    private record Beat(String meterNo, String status, long epochMillis) {}
+
+    private static final class Shard {
+        final Queue<Beat> queue = new ConcurrentLinkedQueue<>();
+        final AtomicInteger size = new AtomicInteger();
+        ScheduledExecutorService worker;
+    }
+
     private final MeterStatusSsePublisher publisher;
     private final MeterHeartbeatManager heartbeatManager;  // DB batch manager
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final LongAdder dropped = new LongAdder();
+
+    @Value("${hes.heartbeat.shards:4}")
+    private int shardCount;
+
+    @Value("${hes.heartbeat.shard-capacity:65536}")
+    private int shardCapacity;
+
+    @Value("${hes.heartbeat.drain-ms:20}")
+    private long drainMs;
+
+    private Shard[] shards;
+
+    public MeterHeartbeatService(MeterStatusSsePublisher publisher, MeterHeartbeatManager heartbeatManager) {
+        this.publisher = publisher;
+        this.heartbeatManager = heartbeatManager;
+    }
+
+    @PostConstruct
+    void startShards() {
+        int n = Math.max(1, shardCount);
+        shards = new Shard[n];
+        DefaultThreadFactory threads = new DefaultThreadFactory("hb-shard", true);
+        for (int i = 0; i < n; i++) {
+            Shard shard = new Shard();
+            shards[i] = shard;
+            // A thread per shard, so a meter's frames are always applied by the same thread
+            shard.worker = Executors.newSingleThreadScheduledExecutor(threads);
+            shard.worker.scheduleWithFixedDelay(() -> drain(shard), drainMs, drainMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stopShards() {
+        for (Shard shard : shards) {
+            shard.worker.shutdown();
+        }
+        try {
+            for (Shard shard : shards) {
+                shard.worker.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Shard shard : shards) {
+            drain(shard);
+        }
+    }
 
     /**
      * This is your main method for Login / Heartbeat events.
      */
     public void processFrame(String meterNo, String status) {
+        if (meterNo == null) {
+            return;
+        }
+        Shard shard = shards[shardOf(meterNo)];
+        if (shard.size.incrementAndGet() > shardCapacity) {
+            // The next heartbeat from the meter carries the same information
+            shard.size.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        shard.queue.offer(new Beat(meterNo, status, System.currentTimeMillis()));
+    }
 
-        log.debug("Push message from meter {}, status: {}", meterNo, status);
+    int shardOf(String meterNo) {
+        return Math.floorMod(meterNo.hashCode(), shards.length);
+    }
 
-        LocalDateTime eventTime = ZonedDateTime.now(ZoneId.systemDefault()).toLocalDateTime();
-        MeterStatusEvent event = new MeterStatusEvent(meterNo, eventTime, status);
+    private void drain(Shard shard) {
+        try {
+            if (shard.size.get() == 0) {
+                return;
+            }
+            // Latest frame per meter; a reconnect storm repeats the same serial many times
+            Map<String, Beat> latest = new LinkedHashMap<>();
+            Beat beat;
+            while ((beat = shard.queue.poll()) != null) {
+                shard.size.decrementAndGet();
+                latest.put(beat.meterNo(), beat);
+            }
+            for (Beat b : latest.values()) {
+                apply(b);
+            }
+            long lost = dropped.sumThenReset();
+            if (lost > 0) {
+                log.warn("⚠️ Heartbeat shard queue full; dropped {} frames", lost);
+            }
+        } catch (Exception e) {
+            log.error("❌ Heartbeat shard drain failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void apply(Beat beat) {
+        LocalDateTime eventTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(beat.epochMillis()), zone);
 
-        // 1️⃣ Publish to SSE clients
-        publisher.publish(event);
+        // 1️⃣ Publish to SSE clients (coalesced into periodic batches)
+        publisher.publish(new MeterStatusEvent(beat.meterNo(), eventTime, beat.status()));
 
         // 2️⃣ Push into DB buffer (asynchronously flushed)
-        heartbeatManager.handleStatus(meterNo, status, eventTime);
+        heartbeatManager.handleStatus(beat.meterNo(), beat.status(), eventTime);
 
-        log.debug("Processed login/heartbeat frame for meter {}, status: {}", meterNo, status);
+        log.debug("Processed login/heartbeat frame for meter {}, status: {}", beat.meterNo(), beat.status());
     }
-
 }
-
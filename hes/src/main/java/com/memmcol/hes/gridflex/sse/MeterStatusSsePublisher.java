@@ -3,14 +3,26 @@ package com.memmcol.hes.gridflex.sse;
 //1️⃣ Create a Global Event Sink
 //1. SSE Publisher (Simple & reusable)
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Sinks;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @Slf4j
@@ -18,14 +30,98 @@ public class MeterStatusSsePublisher {
     private final Map<String, SseEmitter> clients = new ConcurrentHashMap<>();
 
     //Option 1
-    private final Sinks.Many<MeterStatusEvent> sink =
+    /**
+     * Status events are not emitted one by one: {@link #publish} keeps the latest event per meter and
+     * {@link #flushBatch} emits, every {@code hes.sse.meter-status.batch-ms}, only the meters whose
+     * status differs from what subscribers last saw. Repeated ONLINE heartbeats cost a map put.
+     * <p>
+     * The flush runs on its own single thread, not the shared {@code @Scheduled} pool, so slow
+     * jobs there cannot stall the feed, and that thread is the only emitter into the sink. A batch
+     * the sink refuses is counted in {@code hes.sse.meter-status.dropped} and its meters are
+     * forgotten, so their next event is sent even if the status did not change.
+     */
+    private final Map<String, MeterStatusEvent> pending = new ConcurrentHashMap<>();
+    private final Map<String, String> lastPublishedStatus = new ConcurrentHashMap<>();
+
+    private final Sinks.Many<List<MeterStatusEvent>> sink =
             Sinks.many().multicast().onBackpressureBuffer();
 
+    private final Counter droppedEvents;
+
+    @Value("${hes.sse.meter-status.batch-ms:1000}")
+    private long batchMs;
+
+    private ScheduledExecutorService flusher;
+
+    public MeterStatusSsePublisher(MeterRegistry registry) {
+        this.droppedEvents = registry.counter("hes.sse.meter-status.dropped");
+    }
+
+    @PostConstruct
+    void startFlusher() {
+        flusher = Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("sse-status", true));
+        flusher.scheduleWithFixedDelay(this::flushSafely, batchMs, batchMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopFlusher() {
+        flusher.shutdownNow();
+    }
+
     public void publish(MeterStatusEvent event) {
-        sink.tryEmitNext(event);
+        if (event == null || event.getMeterNo() == null) {
+            return;
+        }
+        pending.put(event.getMeterNo(), event);
     }
 
+    private void flushSafely() {
+        try {
+            flushBatch();
+        } catch (Exception e) {
+            log.error("❌ Meter status SSE flush failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /** Called from the flusher thread only (and directly in tests). */
+    void flushBatch() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<MeterStatusEvent> diff = new ArrayList<>();
+        for (String meterNo : new ArrayList<>(pending.keySet())) {
+            MeterStatusEvent event = pending.remove(meterNo);
+            if (event == null) continue;
+            String previous = lastPublishedStatus.put(meterNo, event.getStatus());
+            if (!Objects.equals(previous, event.getStatus())) {
+                diff.add(event);
+            }
+        }
+        if (diff.isEmpty()) {
+            return;
+        }
+        Sinks.EmitResult result = sink.tryEmitNext(List.copyOf(diff));
+        if (result.isFailure()) {
+            droppedEvents.increment(diff.size());
+            for (MeterStatusEvent event : diff) {
+                lastPublishedStatus.remove(event.getMeterNo(), event.getStatus());
+            }
+            if (result == Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+                // No client connected and the warm-up buffer is full: expected, not worth a warning
+                log.debug("Meter status SSE batch of {} dropped: no subscribers", diff.size());
+            } else {
+                log.warn("⚠️ Meter status SSE batch of {} dropped: {}", diff.size(), result);
+            }
+        }
+    }
+
+    /** One element per status change, for clients of the original per-event stream. */
     public Flux<MeterStatusEvent> getStream() {
+        return sink.asFlux().flatMapIterable(batch -> batch);
+    }
+
+    /** One element per flush interval holding every status change in it. */
+    public Flux<List<MeterStatusEvent>> getBatchStream() {
         return sink.asFlux();
     }
 
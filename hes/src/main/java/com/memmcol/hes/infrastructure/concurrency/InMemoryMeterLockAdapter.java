@@ -12,44 +12,72 @@ import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 4.4 MetersEntity Lock Registry Adapter
+ * <p>
+ * A meter's lock exists only while some thread holds or waits for it: every caller is counted in
+ * under {@code compute} and counted out the same way, and the last one out removes the entry, so
+ * the map does not keep one lock per meter ever read.
  */
 @Component
 @Slf4j
 public class InMemoryMeterLockAdapter implements MeterLockPort {
 
-    private final Map<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+    private static final class MeterLock {
+        final ReentrantLock lock = new ReentrantLock(true);
+        /** Threads holding or waiting for the lock; only changed inside {@code locks.compute}. */
+        int users;
+    }
+
+    private final Map<String, MeterLock> locks = new ConcurrentHashMap<>();
+
+    private MeterLock enter(String meter) {
+        return locks.compute(meter, (k, current) -> {
+            MeterLock l = current != null ? current : new MeterLock();
+            l.users++;
+            return l;
+        });
+    }
 
-    private ReentrantLock lockFor(String meter) {
-        return locks.computeIfAbsent(meter, k -> new ReentrantLock(true));
+    private void leave(String meter) {
+        locks.computeIfPresent(meter, (k, l) -> --l.users == 0 ? null : l);
     }
 
     @Override
     public <T> T withExclusive(String meterSerial, Callable<T> action) throws Exception {
-        ReentrantLock l = lockFor(meterSerial);
-        l.lock();
+        MeterLock l = enter(meterSerial);
         try {
-            return action.call();
+            l.lock.lock();
+            try {
+                return action.call();
+            } finally {
+                l.lock.unlock();
+            }
         } finally {
-            l.unlock();
+            leave(meterSerial);
         }
     }
 
     @Override
     public boolean tryExclusive(String meterSerial, Runnable action, long millis) {
-        ReentrantLock l = lockFor(meterSerial);
+        MeterLock l = enter(meterSerial);
         try {
-            if (l.tryLock(millis, TimeUnit.MILLISECONDS)) {
+            if (l.lock.tryLock(millis, TimeUnit.MILLISECONDS)) {
                 try {
                     action.run();
                     return true;
                 } finally {
-                    l.unlock();
+                    l.lock.unlock();
                 }
             }
             return false;
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             return false;
+        } finally {
+            leave(meterSerial);
         }
     }
+
+    int lockCount() {
+        return locks.size();
+    }
 }
@@ -0,0 +1,110 @@
+package com.memmcol.hes.infrastructure.dlms;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Drives a DLMS request/response sequence (block transfer, segmented SET/ACTION) without holding a
+ * thread while the meter answers.
+ * <p>
+ * Each response is handed to a {@link ResponseHandler} that returns the next frame to send
+ * (receiver-ready, next segment) or {@code null} when the exchange is finished. Responses that are
+ * already available when the request returns are continued in a loop instead of from the completion
+ * callback, so a long transfer never nests the stack. A response that arrives later resumes the loop
+ * on {@code executor}, never on the thread that delivered it: that is the Netty event loop, and the
+ * handler (Gurux decoding) and everything chained on the result would otherwise run on it.
+ */
+final class AsyncBlockTransfer {
+
+    @FunctionalInterface
+    interface ResponseHandler {
+        /**
+         * @return the next frame to send, or {@code null} when the exchange is complete
+         */
+        byte[] onResponse(byte[] response) throws Exception;
+    }
+
+    private final Function<byte[], CompletionStage<byte[]>> send;
+    private final ResponseHandler handler;
+    private final Executor executor;
+    private final CompletableFuture<Integer> result = new CompletableFuture<>();
+    private int exchanges;
+
+    private AsyncBlockTransfer(Function<byte[], CompletionStage<byte[]>> send, ResponseHandler handler, Executor executor) {
+        this.send = send;
+        this.handler = handler;
+        this.executor = executor;
+    }
+
+    /**
+     * @return completes with the number of responses received, or exceptionally with the first
+     * transport / handler failure (unwrapped from {@link CompletionException})
+     */
+    static CompletableFuture<Integer> run(Function<byte[], CompletionStage<byte[]>> send,
+                                          byte[] firstRequest,
+                                          ResponseHandler handler,
+                                          Executor executor) {
+        AsyncBlockTransfer transfer = new AsyncBlockTransfer(send, handler, executor);
+        transfer.pump(firstRequest);
+        return transfer.result;
+    }
+
+    private void pump(byte[] request) {
+        byte[] next = request;
+        while (next != null) {
+            CompletableFuture<byte[]> rx;
+            try {
+                rx = send.apply(next).toCompletableFuture();
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            if (!rx.isDone()) {
+                rx.whenCompleteAsync((response, error) -> {
+                    byte[] following = step(response, error);
+                    if (following != null) {
+                        pump(following);
+                    }
+                }, executor);
+                return;
+            }
+            byte[] response = null;
+            Throwable error = null;
+            try {
+                response = rx.join();
+            } catch (CompletionException | CancellationException e) {
+                error = e;
+            }
+            next = step(response, error);
+        }
+    }
+
+    /**
+     * @return next frame to send, or null when the result has been completed
+     */
+    private byte[] step(byte[] response, Throwable error) {
+        if (error != null) {
+            result.completeExceptionally(unwrap(error));
+            return null;
+        }
+        exchanges++;
+        try {
+            byte[] next = handler.onResponse(response);
+            if (next == null) {
+                result.complete(exchanges);
+            }
+            return next;
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+            return null;
+        }
+    }
+
+    static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
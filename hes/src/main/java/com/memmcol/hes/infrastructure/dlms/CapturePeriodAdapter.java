@@ -1,8 +1,9 @@
 package com.memmcol.hes.infrastructure.dlms;
 
 import com.memmcol.hes.application.port.out.CapturePeriodPort;
+import com.memmcol.hes.application.port.out.ProfileStatePort;
+import com.memmcol.hes.domain.profile.CapturePeriod;
 import com.memmcol.hes.nettyUtils.SessionManager;
-import com.memmcol.hes.trackByTimestamp.MeterProfileState;
 import com.memmcol.hes.trackByTimestamp.MeterProfileStateRepository;
 import gurux.dlms.GXDLMSClient;
 import gurux.dlms.GXReplyData;
@@ -26,6 +27,7 @@ public class CapturePeriodAdapter implements CapturePeriodPort {
     private static final String CACHE_NAME = "profileCapturePeriod"; // define in Caffeine config
     private final CacheManager cacheManager;
     private final MeterProfileStateRepository stateRepo;
+    private final ProfileStatePort statePort;
     private final SessionManager sessionManager;          // your existing DLMS session helper
     private final DlmsReaderUtils dlmsReaderUtils;
 
@@ -135,18 +137,11 @@ public class CapturePeriodAdapter implements CapturePeriodPort {
         }
     }
 
-    @Transactional
+    /**
+     * Through the cursor port, so the cached cursor moves with the row. Runs in the caller's transaction.
+     */
     protected void upsertCapturePeriod(String meterSerial, String profileObis, int cp) {
-        int updated = stateRepo.updateCapturePeriod(meterSerial, profileObis, cp);
-        if (updated == 0) {
-            // fallback insert
-            MeterProfileState state = new MeterProfileState();
-            state.setMeterSerial(meterSerial);
-            state.setProfileObis(profileObis);
-            state.setCapturePeriodSec(cp);
-            state.setUpdatedAt(java.time.LocalDateTime.now());
-            stateRepo.save(state);
-        }
+        statePort.upsertState(meterSerial, profileObis, null, new CapturePeriod(cp));
     }
 
     private Cache getCache() {
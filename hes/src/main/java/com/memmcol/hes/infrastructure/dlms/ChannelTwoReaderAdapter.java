@@ -89,7 +89,7 @@ public class ChannelTwoReaderAdapter implements ProfileDataReaderPort<ProfileRow
 
             // --- Send first frame
             byte[] firstFrame = reqFrames[0];
-            byte[] resp1 = txRxService.sendReceiveWithContext(meterSerial, firstFrame, 20000);
+            byte[] resp1 = txRxService.sendReceiveWithContext(meterSerial, firstFrame);
             if (sessionManager.isAssociationLost(resp1)) {
                 sessionManager.removeSession(meterSerial);
                 throw new AssociationLostException("Association lost on first frame");
@@ -102,7 +102,7 @@ public class ChannelTwoReaderAdapter implements ProfileDataReaderPort<ProfileRow
                 byte[] nextReq = client.receiverReady(reply);
                 if (nextReq == null) break;
 
-                byte[] resp = txRxService.sendReceiveWithContext(meterSerial, nextReq, 20000);
+                byte[] resp = txRxService.sendReceiveWithContext(meterSerial, nextReq);
                 if (sessionManager.isAssociationLost(resp)) {
                     sessionManager.removeSession(meterSerial);
                     throw new AssociationLostException("Association lost during multi-block read");
@@ -8,6 +8,8 @@ import com.memmcol.hes.domain.profile.ProfileRowGeneric;
 import com.memmcol.hes.dto.MeterDTO;
 import com.memmcol.hes.model.*;
 import com.memmcol.hes.repository.MeterRepository;
+import com.memmcol.hes.nettyUtils.DlmsLinkStats;
+import com.memmcol.hes.nettyUtils.HexDump;
 import com.memmcol.hes.nettyUtils.SessionManagerMultiVendor;
 import com.memmcol.hes.exception.AssociationLostException;
 import com.memmcol.hes.service.DlmsUtils;
@@ -20,8 +22,8 @@ import gurux.dlms.internal.GXCommon;
 import gurux.dlms.internal.GXDataInfo;
 import gurux.dlms.objects.*;
 import io.netty.channel.Channel;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -31,12 +33,15 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
 import static com.memmcol.hes.nettyUtils.RequestResponseService.logTx;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class DlmsReaderUtils {
 
     private final SessionManagerMultiVendor sessionManager;
@@ -47,6 +52,31 @@ public class DlmsReaderUtils {
     private final MeterProfileStateRepository meterProfileStateRepository;
     private final MeterRepository meterRepository;
     private final DlmsResponseDecoder responseDecoder;
+    private final DlmsLinkStats linkStats;
+    /** Runs every continuation of an exchange, so decoding never happens on the Netty event loop. */
+    private final Executor decodeExecutor;
+
+    public DlmsReaderUtils(SessionManagerMultiVendor sessionManager,
+                           MeterLockPort meterLockPort,
+                           DlmsPartialDecoder partialDecoder,
+                           DlmsTimestampDecoder timestampDecoder,
+                           TxRxService txRxService,
+                           MeterProfileStateRepository meterProfileStateRepository,
+                           MeterRepository meterRepository,
+                           DlmsResponseDecoder responseDecoder,
+                           DlmsLinkStats linkStats,
+                           @Qualifier("dlmsDecodeExecutor") Executor decodeExecutor) {
+        this.sessionManager = sessionManager;
+        this.meterLockPort = meterLockPort;
+        this.partialDecoder = partialDecoder;
+        this.timestampDecoder = timestampDecoder;
+        this.txRxService = txRxService;
+        this.meterProfileStateRepository = meterProfileStateRepository;
+        this.meterRepository = meterRepository;
+        this.responseDecoder = responseDecoder;
+        this.linkStats = linkStats;
+        this.decodeExecutor = decodeExecutor;
+    }
 
     private record DlmsRangeWindow(LocalDateTime from, LocalDateTime to) {}
 
@@ -96,43 +126,93 @@ public class DlmsReaderUtils {
     }
 
     public GXReplyData readDataBlock(GXDLMSClient client, String serial, byte[] firstRequest) throws Exception {
-        GXReplyData reply = new GXReplyData();
-
-        byte[] response = txRxService.sendReceiveWithContext(serial, firstRequest, 20000);
-        if (sessionManager.isAssociationLost(response)) {
-            sessionManager.removeSession(serial);
-            throw new AssociationLostException("Association lost with " + serial);
-        }
-        client.getData(response, reply, null);
-
-        while (reply.isMoreData()) {
-            byte[] nextRequest;
+        return await(readDataBlockAsync(client, serial, firstRequest));
+    }
 
-            if (reply.isStreaming()) {
-                log.debug("Streaming block: no receiverReady needed.");
-                nextRequest = null;
-            } else {
-                log.debug("Sending receiverReady...");
-                nextRequest = client.receiverReady(reply);
-            }
-            if (nextRequest == null) break;
+    /**
+     * Non-blocking counterpart of {@link #readDataBlock}: each block is requested from the
+     * completion of the previous one, so no thread is held while the meter answers.
+     * The {@code client} must not be used by anyone else until the returned stage completes.
+     */
+    public CompletableFuture<GXReplyData> readDataBlockAsync(GXDLMSClient client, String serial, byte[] firstRequest) {
+        GXReplyData reply = new GXReplyData();
+        return transferAsync(client, serial, new byte[][]{firstRequest}, reply, "Association lost in block read", r -> {})
+                .thenApplyAsync(blocks -> {
+                    DlmsErrorUtils.checkError(reply, serial, "OBIS Read!");
+                    return reply;
+                }, decodeExecutor);
+    }
 
-            response = txRxService.sendReceiveWithContext(serial, nextRequest, 20000);
+    @FunctionalInterface
+    private interface BlockListener {
+        void onBlock(GXReplyData reply) throws Exception;
+    }
 
+    /**
+     * Sends {@code frames} in order through {@link TxRxService#sendReceiveAsync}, acknowledging every
+     * block with receiver-ready and feeding each response into {@code reply}.
+     *
+     * @return completes with the number of responses received
+     */
+    private CompletableFuture<Integer> transferAsync(GXDLMSClient client, String serial, byte[][] frames,
+                                                     GXReplyData reply, String lostMessage, BlockListener onBlock) {
+        int[] frame = {0};
+        return AsyncBlockTransfer.run(request -> txRxService.sendReceiveAsync(serial, request), frames[0], response -> {
             if (sessionManager.isAssociationLost(response)) {
                 sessionManager.removeSession(serial);
-                throw new AssociationLostException("Association lost in block read");
+                throw new AssociationLostException(lostMessage);
             }
-
             client.getData(response, reply, null);
+            onBlock.onBlock(reply);
+            if (reply.isMoreData()) {
+                if (reply.isStreaming()) {
+                    log.debug("Streaming block: no receiverReady needed.");
+                    return null;
+                }
+                log.debug("Sending receiverReady...");
+                return client.receiverReady(reply);
+            }
+            if (++frame[0] < frames.length) {
+                byte[] next = frames[frame[0]];
+                log.debug("📤 DLMS TX [{} / {}] → meter={}, bytes={}", frame[0] + 1, frames.length, serial, HexDump.of(next));
+                return next;
+            }
+            return null;
+        }, decodeExecutor);
+    }
+
+    /**
+     * Waits for an async exchange on the caller's thread, rethrowing the original failure.
+     */
+    private static <T> T await(CompletionStage<T> stage) throws Exception {
+        try {
+            return stage.toCompletableFuture().join();
+        } catch (CompletionException e) {
+            Throwable cause = AsyncBlockTransfer.unwrap(e);
+            if (cause instanceof Exception ex) throw ex;
+            if (cause instanceof Error err) throw err;
+            throw e;
         }
-        DlmsErrorUtils.checkError(reply, serial, "OBIS Read!");
-        return reply;
+    }
+
+    private static DlmsResponse failureResponse(String serial, Throwable e) {
+        if (e instanceof java.net.SocketTimeoutException || e instanceof java.util.concurrent.TimeoutException) {
+            return DlmsResponse.builder()
+                    .status(DlmsResponseStatus.TIMEOUT)
+                    .message("Connection timeout: " + e.getMessage())
+                    .meterSerial(serial)
+                    .build();
+        }
+        return DlmsResponse.builder()
+                .status(DlmsResponseStatus.COMMUNICATION_ERROR)
+                .message("Communication error: " + e.getMessage())
+                .meterSerial(serial)
+                .build();
     }
 
     public void readScalerUnit(GXDLMSClient client, String serial, GXDLMSObject obj, int index) throws Exception {
         byte[][] scalerUnitRequest = client.read(obj, index);
-        byte[] response = txRxService.sendReceiveWithContext(serial, scalerUnitRequest[0], 20000);
+        byte[] response = txRxService.sendReceiveWithContext(serial, scalerUnitRequest[0]);
         if (sessionManager.isAssociationLost(response)) {
             sessionManager.removeSession(serial);
             throw new AssociationLostException();
@@ -148,7 +228,19 @@ public class DlmsReaderUtils {
                                        GXDLMSObject obj,
                                        int index,
                                        Object value) throws Exception {
+        return await(writeAttributeAsync(client, serial, obj, index, value));
+    }
 
+    /**
+     * Non-blocking {@link #writeAttribute(GXDLMSClient, String, GXDLMSObject, int, Object)}; failures
+     * are reported through the response status, never by completing exceptionally.
+     */
+    public CompletableFuture<DlmsResponse> writeAttributeAsync(GXDLMSClient client,
+                                                               String serial,
+                                                               GXDLMSObject obj,
+                                                               int index,
+                                                               Object value) {
+        byte[][] requests;
         try {
             if (obj instanceof GXDLMSClock clock && value instanceof GXDateTime dt) {
                 clock.setTime(dt);
@@ -156,56 +248,36 @@ public class DlmsReaderUtils {
                 client.updateValue(obj, index, value);
             }
 
-            byte[][] requests = client.write(obj, index);
+            requests = client.write(obj, index);
 
             if (requests == null || requests.length == 0) {
                 throw new IllegalStateException("DLMS write generated no frames");
             }
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(failureResponse(serial, e));
+        }
 
-            GXReplyData reply = new GXReplyData();
-
-            long start = System.currentTimeMillis();
-            for (int i = 0; i < requests.length; i++) {
-                byte[] requestFrame = requests[i];
-
-                log.debug("📤 DLMS TX [{} / {}] → meter={}, bytes={}",
-                        i + 1, requests.length, serial, toHex(requestFrame));
-
-                byte[] response = txRxService.sendReceiveWithContext(serial, requestFrame, 20000);
-                if (sessionManager.isAssociationLost(response)) {
-                    sessionManager.removeSession(serial);
-                    throw new AssociationLostException("Association lost during write → meter=" + serial);
-                }
-
-                processReply(client, serial, response, reply);
-            }
-
-            if (!reply.isComplete()) {
-                throw new IllegalStateException("Incomplete DLMS reply → meter=" + serial);
-            }
+        GXReplyData reply = new GXReplyData();
+        long start = System.currentTimeMillis();
+        log.debug("📤 DLMS TX [1 / {}] → meter={}, bytes={}", requests.length, serial, HexDump.of(requests[0]));
 
-            long duration = System.currentTimeMillis() - start;
-            log.info("✅ DLMS write completed → meter={}, duration={}ms", serial, duration);
+        return transferAsync(client, serial, requests, reply, "Association lost during write → meter=" + serial, r -> {})
+                .thenApplyAsync(exchanges -> {
+                    if (!reply.isComplete()) {
+                        throw new IllegalStateException("Incomplete DLMS reply → meter=" + serial);
+                    }
 
-            DlmsResponseStatus status = responseDecoder.decodeStatus(reply);
-            return DlmsResponse.builder()
-                    .status(status)
-                    .message(reply.getErrorMessage())
-                    .meterSerial(serial)
-                    .build();
-        } catch (java.net.SocketTimeoutException | java.util.concurrent.TimeoutException te) {
-            return DlmsResponse.builder()
-                    .status(DlmsResponseStatus.TIMEOUT)
-                    .message("Connection timeout: " + te.getMessage())
-                    .meterSerial(serial)
-                    .build();
-        } catch (Exception e) {
-            return DlmsResponse.builder()
-                    .status(DlmsResponseStatus.COMMUNICATION_ERROR)
-                    .message("Communication error: " + e.getMessage())
-                    .meterSerial(serial)
-                    .build();
-        }
+                    long duration = System.currentTimeMillis() - start;
+                    log.info("✅ DLMS write completed → meter={}, duration={}ms", serial, duration);
+
+                    DlmsResponseStatus status = responseDecoder.decodeStatus(reply);
+                    return DlmsResponse.builder()
+                            .status(status)
+                            .message(reply.getErrorMessage())
+                            .meterSerial(serial)
+                            .build();
+                }, decodeExecutor)
+                .exceptionally(e -> failureResponse(serial, AsyncBlockTransfer.unwrap(e)));
     }
 
     public DlmsResponse writeAttribute(GXDLMSClient client,
@@ -215,100 +287,77 @@ public class DlmsReaderUtils {
                                        int index,
                                        Object value,
                                        DataType dataType) throws Exception {
+        return await(writeAttributeAsync(client, serial, logicalName, classId, index, value, dataType));
+    }
 
+    public CompletableFuture<DlmsResponse> writeAttributeAsync(GXDLMSClient client,
+                                                               String serial,
+                                                               String logicalName,
+                                                               int classId,
+                                                               int index,
+                                                               Object value,
+                                                               DataType dataType) {
+        byte[][] request;
         try {
-            byte[][] request = client.write(logicalName, value, dataType, gurux.dlms.enums.ObjectType.forValue(classId), index);
-
-            return getDlmsResponse(client, serial, request);
-        } catch (java.net.SocketTimeoutException | java.util.concurrent.TimeoutException te) {
-            return DlmsResponse.builder()
-                    .status(DlmsResponseStatus.TIMEOUT)
-                    .message("Connection timeout: " + te.getMessage())
-                    .meterSerial(serial)
-                    .build();
+            request = client.write(logicalName, value, dataType, gurux.dlms.enums.ObjectType.forValue(classId), index);
         } catch (Exception e) {
-            return DlmsResponse.builder()
-                    .status(DlmsResponseStatus.COMMUNICATION_ERROR)
-                    .message("Communication error: " + e.getMessage())
-                    .meterSerial(serial)
-                    .build();
+            return CompletableFuture.completedFuture(failureResponse(serial, e));
         }
+        return getDlmsResponseAsync(client, serial, request)
+                .exceptionally(e -> failureResponse(serial, AsyncBlockTransfer.unwrap(e)));
     }
 
-    private DlmsResponse getDlmsResponse(GXDLMSClient client, String serial, byte[][] request) throws Exception {
-        byte[] response = txRxService.sendReceiveWithContext(serial, request[0], 20000);
-
-        if (sessionManager.isAssociationLost(response)) {
-            sessionManager.removeSession(serial);
-            throw new AssociationLostException();
-        }
-
+    private CompletableFuture<DlmsResponse> getDlmsResponseAsync(GXDLMSClient client, String serial, byte[][] request) {
         GXReplyData reply = new GXReplyData();
-        client.getData(response, reply, null);
-
-        DlmsResponseStatus status = responseDecoder.decodeStatus(reply);
-        return DlmsResponse.builder()
-                .status(status)
-                .message(reply.getErrorMessage())
-                .meterSerial(serial)
-                .build();
+        return transferAsync(client, serial, new byte[][]{request[0]}, reply, "Association lost → meter=" + serial, r -> {})
+                .thenApplyAsync(exchanges -> {
+                    DlmsResponseStatus status = responseDecoder.decodeStatus(reply);
+                    return DlmsResponse.builder()
+                            .status(status)
+                            .message(reply.getErrorMessage())
+                            .meterSerial(serial)
+                            .build();
+                }, decodeExecutor);
     }
 
     public DlmsResponse executeMethod( GXDLMSClient client, String serial, byte[][] requests) throws Exception {
+        return await(executeMethodAsync(client, serial, requests));
+    }
 
-        try {
-            GXReplyData reply = new GXReplyData();
-            long start = System.currentTimeMillis();
-
-            for (int i = 0; i < requests.length; i++) {
-                byte[] requestFrame = requests[i];
-
-                log.debug( "📤 DLMS METHOD TX [{} / {}] → meter={}, bytes={}", i + 1,requests.length,serial,toHex(requestFrame));
-
-                byte[] response = txRxService.sendReceiveWithContext(serial,requestFrame,20000);
-
-                if (sessionManager.isAssociationLost(response)) {
-                    sessionManager.removeSession(serial);
-                    throw new AssociationLostException("Association lost during method execution → meter=" + serial);
-                }
-
-                processReply(client, serial, response, reply);
-            }
-
-            if (!reply.isComplete()) {
-                throw new IllegalStateException("Incomplete DLMS method reply → meter=" + serial);
-            }
-
-            long duration = System.currentTimeMillis() - start;
-
-            log.info("✅ DLMS method completed → meter={}, duration={}ms",serial,duration);
+    /**
+     * Non-blocking {@link #executeMethod}; failures are reported through the response status.
+     */
+    public CompletableFuture<DlmsResponse> executeMethodAsync(GXDLMSClient client, String serial, byte[][] requests) {
+        if (requests == null || requests.length == 0) {
+            return CompletableFuture.completedFuture(
+                    failureResponse(serial, new IllegalStateException("DLMS method generated no frames")));
+        }
+        GXReplyData reply = new GXReplyData();
+        long start = System.currentTimeMillis();
 
-            DlmsResponseStatus status = responseDecoder.decodeStatus(reply);
+        log.debug( "📤 DLMS METHOD TX [1 / {}] → meter={}, bytes={}", requests.length, serial, HexDump.of(requests[0]));
 
-            return DlmsResponse.builder()
-                    .status(status)
-                    .message(reply.getErrorMessage())
-                    .meterSerial(serial)
-                    .rawResponse(GXCommon.toHex(reply.getData().getData()))
-                    .build();
+        return transferAsync(client, serial, requests, reply,
+                "Association lost during method execution → meter=" + serial, r -> {})
+                .thenApplyAsync(exchanges -> {
+                    if (!reply.isComplete()) {
+                        throw new IllegalStateException("Incomplete DLMS method reply → meter=" + serial);
+                    }
 
-        } catch (java.net.SocketTimeoutException |
-                 java.util.concurrent.TimeoutException te) {
+                    long duration = System.currentTimeMillis() - start;
 
-            return DlmsResponse.builder()
-                    .status(DlmsResponseStatus.TIMEOUT)
-                    .message("Connection timeout: " + te.getMessage())
-                    .meterSerial(serial)
-                    .build();
+                    log.info("✅ DLMS method completed → meter={}, duration={}ms",serial,duration);
 
-        } catch (Exception e) {
+                    DlmsResponseStatus status = responseDecoder.decodeStatus(reply);
 
-            return DlmsResponse.builder()
-                    .status(DlmsResponseStatus.COMMUNICATION_ERROR)
-                    .message("Communication error: " + e.getMessage())
-                    .meterSerial(serial)
-                    .build();
-        }
+                    return DlmsResponse.builder()
+                            .status(status)
+                            .message(reply.getErrorMessage())
+                            .meterSerial(serial)
+                            .rawResponse(GXCommon.toHex(reply.getData().getData()))
+                            .build();
+                }, decodeExecutor)
+                .exceptionally(e -> failureResponse(serial, AsyncBlockTransfer.unwrap(e)));
     }
 
     public TokenWriteResult parseTokenResponse(byte[] rawBytes) {
@@ -393,7 +442,7 @@ public class DlmsReaderUtils {
 
     public Object readAttribute(GXDLMSClient client, String serial, GXDLMSObject obj, int index) throws Exception {
         byte[][] request = client.read(obj, index);
-        byte[] response = txRxService.sendReceiveWithContext(serial, request[0], 20000);
+        byte[] response = txRxService.sendReceiveWithContext(serial, request[0]);
 
         if (sessionManager.isAssociationLost(response)) {
             sessionManager.removeSession(serial);
@@ -459,87 +508,96 @@ public class DlmsReaderUtils {
     public List<ProfileRowGeneric> readRange(String model, String meterSerial, String profileObis,
                                              ProfileMetadataResult metadataResult,
                                              LocalDateTime from, LocalDateTime to, boolean mdMeter) throws Exception {
+        return await(readRangeAsync(model, meterSerial, profileObis, metadataResult, from, to, mdMeter));
+    }
+
+    /**
+     * Non-blocking range read: the association, the range request and every block go through
+     * {@link TxRxService#sendReceiveAsync}; rows are decoded when the last block lands. Failures
+     * (including association loss) complete the stage so the caller can run partial recovery.
+     */
+    public CompletableFuture<List<ProfileRowGeneric>> readRangeAsync(String model, String meterSerial, String profileObis,
+                                                                     ProfileMetadataResult metadataResult,
+                                                                     LocalDateTime from, LocalDateTime to, boolean mdMeter) {
 
         if (profileObis == null || profileObis.isBlank()) {
-            throw new IllegalArgumentException("profileObis must not be null/blank");
+            return CompletableFuture.failedFuture(new IllegalArgumentException("profileObis must not be null/blank"));
         }
         if (metadataResult == null || metadataResult.getMetadataList() == null || metadataResult.getMetadataList().isEmpty()) {
-            throw new IllegalArgumentException("Capture objects not read.");
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Capture objects not read."));
         }
 
         long t0 = System.currentTimeMillis();
         partialDecoder.clear(meterSerial, profileObis);
 
+        CompletableFuture<List<ProfileRowGeneric>> rows;
         try {
-            GXDLMSClient client = sessionManager.getOrCreateClient(meterSerial);
-            if (client == null) {
-                throw new IllegalStateException("DLMS client context could not be created for " + meterSerial);
+            // Window lookup hits the database: resolve it on the caller's thread, before any async hop.
+            DlmsRangeWindow window = resolveDlmsRangeWindow(meterSerial, profileObis, from, to);
+            rows = sessionManager.getOrCreateClientAsync(meterSerial)
+                    .thenComposeAsync(client -> readRangeBlocks(client, model, meterSerial, profileObis, metadataResult, window, t0),
+                            decodeExecutor);
+        } catch (RuntimeException e) {
+            rows = CompletableFuture.failedFuture(e);
+        }
+        return rows.whenComplete((result, error) -> {
+            if (error != null) {
+                // Propagated so the service layer can catch and trigger recovery
+                log.error("Range read failed meter={} obis={} cause={}",
+                        meterSerial, profileObis, AsyncBlockTransfer.unwrap(error).getMessage());
             }
+        });
+    }
 
-            GXDLMSProfileGeneric profile = new GXDLMSProfileGeneric();
-            profile.setLogicalName(profileObis);
+    private CompletableFuture<List<ProfileRowGeneric>> readRangeBlocks(GXDLMSClient client, String model, String meterSerial,
+                                                                       String profileObis, ProfileMetadataResult metadataResult,
+                                                                       DlmsRangeWindow window, long t0) {
+        if (client == null) {
+            return CompletableFuture.failedFuture(
+                    new IllegalStateException("DLMS client context could not be created for " + meterSerial));
+        }
+        GXDLMSProfileGeneric profile = new GXDLMSProfileGeneric();
+        profile.setLogicalName(profileObis);
 
-            DlmsRangeWindow resolved = resolveDlmsRangeWindow(meterSerial, profileObis, from, to);
-            LocalDateTime actualFrom = resolved.from();
-            LocalDateTime actualTo = resolved.to();
+        LocalDateTime actualFrom = window.from();
+        LocalDateTime actualTo = window.to();
 
-            if (actualTo.isBefore(actualFrom)) {
-                actualTo = actualFrom.plusHours(24);
-            }
+        if (actualTo.isBefore(actualFrom)) {
+            actualTo = actualFrom.plusHours(24);
+        }
 
-            GXDateTime gxFrom = new GXDateTime(java.util.Date.from(actualFrom.atZone(ZoneId.systemDefault()).toInstant()));
-            GXDateTime gxTo = new GXDateTime(java.util.Date.from(actualTo.atZone(ZoneId.systemDefault()).toInstant()));
+        GXDateTime gxFrom = new GXDateTime(java.util.Date.from(actualFrom.atZone(ZoneId.systemDefault()).toInstant()));
+        GXDateTime gxTo = new GXDateTime(java.util.Date.from(actualTo.atZone(ZoneId.systemDefault()).toInstant()));
 
-            log.info("Building DLMS range request model={} meter={} obis={} from={} to={}",
-                    model, meterSerial, profileObis, actualFrom, actualTo);
+        log.info("Building DLMS range request model={} meter={} obis={} from={} to={}",
+                model, meterSerial, profileObis, actualFrom, actualTo);
 
-            List<ModelProfileMetadata> metadataList = metadataResult.getMetadataList();
+        List<ModelProfileMetadata> metadataList = metadataResult.getMetadataList();
+        byte[][] reqFrames;
+        try {
             DlmsUtils.populateCaptureObjects(profile, metadataList);
-
-            byte[][] reqFrames = client.readRowsByRange(profile, gxFrom, gxTo);
-            if (reqFrames == null || reqFrames.length == 0) {
-                log.warn("readRowsByRange produced no frames meter={} obis={}", meterSerial, profileObis);
-                return List.of();
-            }
-
-            GXReplyData reply = new GXReplyData();
-
-            // --- First frame
-            byte[] resp = txRxService.sendReceiveWithContext(meterSerial, reqFrames[0], 20000);
-            if (sessionManager.isAssociationLost(resp)) {
-                log.warn("Association lost for {} on first frame. Re-establishing session...", meterSerial);
-                sessionManager.removeSession(meterSerial);
-                throw new AssociationLostException("Association lost on first frame");
-            }
-            client.getData(resp, reply, null);
-            updateProfileBufferOnBlock(client, profile, profileObis, meterSerial, reply);
-
-            // --- Multi-block loop
-            while (reply.isMoreData()) {
-                byte[] nextReq = client.receiverReady(reply);
-                if (nextReq == null) break;
-
-                resp = txRxService.sendReceiveWithContext(meterSerial, nextReq, 20000);
-                if (sessionManager.isAssociationLost(resp)) {
-                    sessionManager.removeSession(meterSerial);
-                    throw new AssociationLostException("Association lost during block read");
-                }
-                client.getData(resp, reply, null);
-                updateProfileBufferOnBlock(client, profile, profileObis, meterSerial, reply);
-            }
-
-            List<ProfileRowGeneric> rows = decodeProfileBuffer(profile, meterSerial, profileObis, metadataList);
-            partialDecoder.clear(meterSerial, profileObis);
-
-            long ms = System.currentTimeMillis() - t0;
-            log.info("Range read complete meter={} obis={} rows={} elapsedMs={}", meterSerial, profileObis, rows.size(), ms);
-            return rows;
-
+            reqFrames = client.readRowsByRange(profile, gxFrom, gxTo);
         } catch (Exception e) {
-            log.error("Range read failed meter={} obis={} cause={}", meterSerial, profileObis, e.getMessage());
-            // Rethrow so service layer can catch and trigger recovery
-            throw e;
+            return CompletableFuture.failedFuture(e);
         }
+        if (reqFrames == null || reqFrames.length == 0) {
+            log.warn("readRowsByRange produced no frames meter={} obis={}", meterSerial, profileObis);
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        linkStats.bindModel(meterSerial, model);
+        GXReplyData reply = new GXReplyData();
+        return transferAsync(client, meterSerial, new byte[][]{reqFrames[0]}, reply, "Association lost during block read",
+                block -> updateProfileBufferOnBlock(client, profile, profileObis, meterSerial, block))
+                .thenApplyAsync(blocks -> {
+                    linkStats.recordReadBlocks(meterSerial, blocks);
+                    List<ProfileRowGeneric> rows = decodeProfileBuffer(profile, meterSerial, profileObis, metadataList);
+                    partialDecoder.clear(meterSerial, profileObis);
+
+                    long ms = System.currentTimeMillis() - t0;
+                    log.info("Range read complete meter={} obis={} rows={} blocks={} elapsedMs={}", meterSerial, profileObis, rows.size(), blocks, ms);
+                    return rows;
+                }, decodeExecutor);
     }
 
     private void updateProfileBufferOnBlock(GXDLMSClient client, GXDLMSProfileGeneric profile, String profileObis, String meterSerial, GXReplyData reply) throws Exception {
@@ -705,23 +763,6 @@ public class DlmsReaderUtils {
         };
     }
 
-    private void processReply(GXDLMSClient client, String serial, byte[] response, GXReplyData reply) throws Exception {
-        client.getData(response, reply);
-        while (reply.isMoreData()) {
-            byte[] rr = client.receiverReady(reply);
-            response = txRxService.sendReceiveWithContext(serial, rr, 20000);
-            client.getData(response, reply);
-        }
-    }
-
-    private String toHex(byte[] data) {
-        StringBuilder sb = new StringBuilder();
-        for (byte b : data) {
-            sb.append(String.format("%02X ", b));
-        }
-        return sb.toString().trim();
-    }
-
     public List<ProfileRowGeneric> decodeRecoveredRows(
             List<List<Object>> recovered,
             String meterSerial,
@@ -791,7 +832,7 @@ public class DlmsReaderUtils {
 
             // 4. Reuse your existing working network execution pipeline
             // This ensures the transport layer transmits and processes the frames sequentially
-            return getDlmsResponse(client, serial, combinedRequest);
+            return await(getDlmsResponseAsync(client, serial, combinedRequest));
 
         } catch (java.net.SocketTimeoutException | java.util.concurrent.TimeoutException te) {
             return DlmsResponse.builder()
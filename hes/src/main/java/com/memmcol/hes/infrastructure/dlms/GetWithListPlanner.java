@@ -0,0 +1,182 @@
+package com.memmcol.hes.infrastructure.dlms;
+
+import gurux.dlms.GXDLMSClient;
+import gurux.dlms.GXDLMSExceptionResponse;
+import gurux.dlms.enums.Conformance;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Splits a multi-OBIS read into as few GET-WITH-LIST APDUs as the meter model allows.
+ * <p>
+ * What a model accepts is learned from the AARE ({@code multiple-references} conformance bit and
+ * the negotiated max receive PDU size) and cached per model. The number of list items per request
+ * is not negotiated by DLMS, so it starts at {@code hes.realtime-read.list.max-items} and is halved
+ * for the model whenever a meter rejects a whole list.
+ * <p>
+ * Items are packed in request order while both the request and the estimated response still fit
+ * one PDU, so the reply normally arrives without block transfer.
+ */
+@Component
+@Slf4j
+public class GetWithListPlanner {
+
+    /** Get-Request/Response-With-List header, invoke-id and wrapper. */
+    private static final int APDU_OVERHEAD = 16;
+    /** Attribute descriptor: class id (2) + logical name (6) + attribute (1) + no selective access (1). */
+    private static final int REQUEST_ITEM_BYTES = 10;
+
+    public record ListCapability(boolean listSupported, int maxPduSize, int maxItems, boolean learned) {}
+
+    private final Map<String, ListCapability> byModel = new ConcurrentHashMap<>();
+
+    private final int defaultMaxItems;
+    private final int defaultPduSize;
+
+    public GetWithListPlanner(@Value("${hes.realtime-read.list.max-items:16}") int defaultMaxItems,
+                              @Value("${hes.realtime-read.list.default-pdu-size:512}") int defaultPduSize) {
+        this.defaultMaxItems = Math.max(1, defaultMaxItems);
+        this.defaultPduSize = Math.max(64, defaultPduSize);
+    }
+
+    /**
+     * Records what the meter agreed to in its AARE; call once the association is up.
+     */
+    public void learn(String model, GXDLMSClient client) {
+        if (model == null || client == null) {
+            return;
+        }
+        Set<Conformance> conformance = client.getNegotiatedConformance();
+        if (conformance == null || conformance.isEmpty()) {
+            return;
+        }
+        boolean listSupported = conformance.contains(Conformance.MULTIPLE_REFERENCES);
+        int pdu = client.getMaxReceivePDUSize() > 0 ? client.getMaxReceivePDUSize() : defaultPduSize;
+        ListCapability learned = byModel.merge(model,
+                new ListCapability(listSupported, pdu, defaultMaxItems, true),
+                (current, fresh) -> new ListCapability(fresh.listSupported(), fresh.maxPduSize(),
+                        current.maxItems(), true));
+        log.debug("GET-WITH-LIST capability for model={}: {}", model, learned);
+    }
+
+    /**
+     * A meter of this model rejected a list of {@code attemptedItems}: plan smaller lists from now on.
+     */
+    public void onListRejected(String model, int attemptedItems) {
+        if (model == null || attemptedItems <= 1) {
+            return;
+        }
+        ListCapability updated = byModel.compute(model, (m, current) -> {
+            ListCapability base = current != null ? current : defaults();
+            int maxItems = Math.max(1, Math.min(base.maxItems(), attemptedItems / 2));
+            return new ListCapability(base.listSupported(), base.maxPduSize(), maxItems, base.learned());
+        });
+        log.warn("⚠️ Model {} rejected a {}-item GET-WITH-LIST, max items now {}", model, attemptedItems, updated.maxItems());
+    }
+
+    /**
+     * True when {@code ex} (or a cause) is the meter refusing a GET-WITH-LIST as a whole, as
+     * opposed to a per-item access error, a timeout or a lost association.
+     */
+    public static boolean isListRejection(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof GXDLMSExceptionResponse) {
+                return true;
+            }
+            String message = t.getMessage();
+            if (message != null && message.toLowerCase().contains("support multiple objects reading")) {
+                return true;
+            }
+            if (t == t.getCause()) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    public ListCapability capability(String model) {
+        ListCapability capability = model == null ? null : byModel.get(model);
+        return capability != null ? capability : defaults();
+    }
+
+    public boolean isLearned(String model) {
+        ListCapability capability = model == null ? null : byModel.get(model);
+        return capability != null && capability.learned();
+    }
+
+    /**
+     * Groups {@code items} (OBIS strings {@code classId;obisCode;attributeIndex;dataIndex}) into
+     * request-ordered chunks, one GET-WITH-LIST per chunk.
+     */
+    public <T> List<List<T>> plan(String model, List<T> items, Function<T, String> obisOf) {
+        List<List<T>> chunks = new ArrayList<>();
+        if (items == null || items.isEmpty()) {
+            return chunks;
+        }
+        ListCapability cap = capability(model);
+        int maxItems = cap.listSupported() ? cap.maxItems() : 1;
+        int budget = Math.max(cap.maxPduSize() - APDU_OVERHEAD, REQUEST_ITEM_BYTES);
+
+        List<T> current = new ArrayList<>();
+        int requestBytes = 0;
+        int responseBytes = 0;
+        for (T item : items) {
+            int estimate = estimateResponseBytes(obisOf.apply(item));
+            boolean fits = current.size() < maxItems
+                    && requestBytes + REQUEST_ITEM_BYTES <= budget
+                    && responseBytes + estimate <= budget;
+            if (!current.isEmpty() && !fits) {
+                chunks.add(current);
+                current = new ArrayList<>();
+                requestBytes = 0;
+                responseBytes = 0;
+            }
+            current.add(item);
+            requestBytes += REQUEST_ITEM_BYTES;
+            responseBytes += estimate;
+        }
+        chunks.add(current);
+        return chunks;
+    }
+
+    /**
+     * Encoded size of one Get-Data-Result, by interface class and attribute.
+     * Unknown or variable-length attributes get a generous default; profile buffers fill a PDU on their own.
+     */
+    static int estimateResponseBytes(String obis) {
+        if (obis == null) {
+            return 32;
+        }
+        String[] parts = obis.split(";");
+        if (parts.length < 3) {
+            return 32;
+        }
+        int classId;
+        int attribute;
+        try {
+            classId = Integer.parseInt(parts[0].trim());
+            attribute = Integer.parseInt(parts[2].trim());
+        } catch (NumberFormatException e) {
+            return 32;
+        }
+        return switch (classId) {
+            // result tag + data tag + up to 8-byte number, or scaler_unit structure
+            case 3, 4, 5 -> attribute == 3 ? 8 : attribute == 5 ? 16 : 11;
+            case 8 -> attribute == 2 ? 16 : 11;
+            case 7 -> Integer.MAX_VALUE / 4;
+            default -> 32;
+        };
+    }
+
+    private ListCapability defaults() {
+        return new ListCapability(true, defaultPduSize, defaultMaxItems, false);
+    }
+}
@@ -0,0 +1,53 @@
+package com.memmcol.hes.infrastructure.metrics;
+
+import com.memmcol.hes.nettyUtils.DlmsLinkStats;
+import com.memmcol.hes.nettyUtils.DlmsTimeoutPolicy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/dlmslinks}: slowest meters by smoothed TX→RX time, plus latency percentiles,
+ * timeout and late-RX counts per meter model and per source subnet.
+ * {@code /actuator/dlmslinks/{serial}} shows one meter with its current timeout and breaker state.
+ */
+@Component
+@Endpoint(id = "dlmslinks")
+@RequiredArgsConstructor
+public class DlmsLinksEndpoint {
+
+    private final DlmsLinkStats linkStats;
+    private final DlmsTimeoutPolicy timeoutPolicy;
+
+    @ReadOperation
+    public Map<String, Object> overview(@Nullable Integer limit) {
+        int n = limit == null ? 20 : limit;
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("slowest", linkStats.slowest(n));
+        out.put("models", linkStats.models());
+        out.put("subnets", linkStats.subnets().stream().limit(n).toList());
+        return out;
+    }
+
+    @ReadOperation
+    public Map<String, Object> meter(@Selector String serial) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("link", linkStats.meter(serial).orElse(null));
+        out.put("timeoutMs", timeoutPolicy.timeoutFor(serial));
+        out.put("consecutiveTimeouts", timeoutPolicy.consecutiveTimeouts(serial));
+        out.put("circuitOpen", timeoutPolicy.isOpen(serial));
+        return out;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        linkStats.reset();
+    }
+}
@@ -0,0 +1,88 @@
+package com.memmcol.hes.infrastructure.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of millisecond values.
+ * <p>
+ * Values below 8 ms get their own bucket; above that every power of two is split into four
+ * sub-buckets, so a quantile is reported within 25% of the true value. Recording is one
+ * {@code incrementAndGet} on a fixed {@link AtomicLongArray}, safe from any number of threads.
+ */
+public final class LatencyHistogram {
+
+    private static final int LINEAR = 8;
+    private static final int SUB_BUCKETS = 4;
+    /** 2^24 ms is about 4.6 hours; anything longer lands in the last bucket. */
+    private static final int MAX_EXPONENT = 24;
+    private static final int BUCKETS = LINEAR + (MAX_EXPONENT - 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long millis) {
+        long v = Math.max(0, millis);
+        counts.incrementAndGet(indexOf(v));
+        total.increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    public long count() {
+        return total.sum();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    public long mean() {
+        long n = total.sum();
+        return n == 0 ? 0 : sum.sum() / n;
+    }
+
+    /**
+     * Upper bound of the bucket holding the given quantile ({@code 0 < q <= 1}); 0 when empty.
+     */
+    public long quantile(double q) {
+        long n = total.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    static int indexOf(long v) {
+        if (v < LINEAR) {
+            return (int) v;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(v);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (v >>> (exponent - 2)) & (SUB_BUCKETS - 1);
+        return Math.min(BUCKETS - 1, LINEAR + (exponent - 3) * SUB_BUCKETS + sub);
+    }
+
+    static long upperBound(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int exponent = (index - LINEAR) / SUB_BUCKETS + 3;
+        int sub = (index - LINEAR) % SUB_BUCKETS;
+        long step = 1L << (exponent - 2);
+        return (1L << exponent) + (sub + 1) * step - 1;
+    }
+}
@@ -0,0 +1,72 @@
+package com.memmcol.hes.infrastructure.metrics;
+
+import java.util.*;
+
+/**
+ * Bounded heavy-hitter sketch (Space-Saving): tracks at most {@code capacity} meters no matter how
+ * large the fleet is. When full, a new meter replaces the current minimum and inherits its weight
+ * as {@code error}, so a reported weight over-counts by at most that error.
+ */
+public final class MeterTopKSketch {
+
+    public record Entry(String meterSerial, long weight, long error, long events, long maxSample, String lastNote) {}
+
+    private static final class Slot {
+        final String key;
+        long weight;
+        long error;
+        long events;
+        long maxSample;
+        String lastNote;
+
+        Slot(String key, long error) {
+            this.key = key;
+            this.weight = error;
+            this.error = error;
+        }
+    }
+
+    private final int capacity;
+    private final Map<String, Slot> slots;
+
+    public MeterTopKSketch(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.slots = new HashMap<>(this.capacity * 2);
+    }
+
+    public synchronized void offer(String meterSerial, long weight, String note) {
+        if (meterSerial == null || weight <= 0) {
+            return;
+        }
+        Slot slot = slots.get(meterSerial);
+        if (slot == null) {
+            long inherited = 0;
+            if (slots.size() >= capacity) {
+                Slot min = null;
+                for (Slot s : slots.values()) {
+                    if (min == null || s.weight < min.weight) min = s;
+                }
+                slots.remove(min.key);
+                inherited = min.weight;
+            }
+            slot = new Slot(meterSerial, inherited);
+            slots.put(meterSerial, slot);
+        }
+        slot.weight += weight;
+        slot.events++;
+        slot.maxSample = Math.max(slot.maxSample, weight);
+        if (note != null) slot.lastNote = note;
+    }
+
+    public synchronized List<Entry> top(int limit) {
+        return slots.values().stream()
+                .sorted(Comparator.comparingLong((Slot s) -> s.weight).reversed())
+                .limit(Math.max(0, limit))
+                .map(s -> new Entry(s.key, s.weight, s.error, s.events, s.maxSample, s.lastNote))
+                .toList();
+    }
+
+    public synchronized void reset() {
+        slots.clear();
+    }
+}
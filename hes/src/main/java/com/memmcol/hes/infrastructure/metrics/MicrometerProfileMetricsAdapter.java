@@ -1,41 +1,85 @@
 package com.memmcol.hes.infrastructure.metrics;
 
 import com.memmcol.hes.application.port.out.ProfileMetricsPort;
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 /**
  * 4.5 Metrics Adapter (Micrometer)
+ * <p>
+ * Series are tagged by profile OBIS, meter model and cause only, so their number is bounded by the
+ * catalogue rather than the fleet. Per-meter detail goes to bounded top-K sketches exposed through
+ * the {@code profilemeters} actuator endpoint.
  */
 @Component
-@RequiredArgsConstructor
 public class MicrometerProfileMetricsAdapter implements ProfileMetricsPort {
 
     private final MeterRegistry registry;
+    private final MeterTopKSketch slowestMeters;
+    private final MeterTopKSketch failingMeters;
+    private final MeterTopKSketch recoveringMeters;
+
+    public MicrometerProfileMetricsAdapter(MeterRegistry registry,
+                                           @Value("${hes.metrics.meter-topk.capacity:200}") int topK) {
+        this.registry = registry;
+        this.slowestMeters = new MeterTopKSketch(topK);
+        this.failingMeters = new MeterTopKSketch(topK);
+        this.recoveringMeters = new MeterTopKSketch(topK);
+    }
 
     @Override
-    public void recordBatch(String meterSerial, String profileObis, int rowsSaved, long millis) {
-        registry.counter("hes.profile.rows.saved",
-                        "meter", meterSerial, "profile", profileObis)
+    public void recordBatch(String meterSerial, String meterModel, String profileObis, int rowsSaved, long millis) {
+        Counter.builder("hes.profile.rows.saved")
+                .tags("profile", nz(profileObis), "model", nz(meterModel))
+                .register(registry)
                 .increment(rowsSaved);
 
-        registry.timer("hes.profile.batch.duration",
-                        "meter", meterSerial, "profile", profileObis)
-                .record(java.time.Duration.ofMillis(millis));
+        Timer.builder("hes.profile.batch.duration")
+                .tags("profile", nz(profileObis), "model", nz(meterModel))
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .minimumExpectedValue(Duration.ofMillis(10))
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(registry)
+                .record(Duration.ofMillis(millis));
+
+        slowestMeters.offer(meterSerial, millis, profileObis);
     }
 
     @Override
-    public void recordFailure(String meterSerial, String profileObis, String cause) {
+    public void recordFailure(String meterSerial, String meterModel, String profileObis, String cause) {
         registry.counter("hes.profile.failures",
-                        "meter", meterSerial, "profile", profileObis, "cause", cause)
+                        "profile", nz(profileObis), "model", nz(meterModel), "cause", nz(cause))
                 .increment();
+        failingMeters.offer(meterSerial, 1, profileObis + ":" + cause);
     }
 
     @Override
-    public void recordRecovery(String meterSerial, String profileObis, int salvaged) {
+    public void recordRecovery(String meterSerial, String meterModel, String profileObis, int salvaged) {
         registry.counter("hes.profile.recovery.rows",
-                        "meter", meterSerial, "profile", profileObis)
+                        "profile", nz(profileObis), "model", nz(meterModel))
                 .increment(salvaged);
+        recoveringMeters.offer(meterSerial, salvaged, profileObis);
+    }
+
+    MeterTopKSketch slowestMeters() {
+        return slowestMeters;
+    }
+
+    MeterTopKSketch failingMeters() {
+        return failingMeters;
+    }
+
+    MeterTopKSketch recoveringMeters() {
+        return recoveringMeters;
+    }
+
+    private static String nz(String value) {
+        return (value == null || value.isBlank()) ? "_unknown" : value;
     }
 }
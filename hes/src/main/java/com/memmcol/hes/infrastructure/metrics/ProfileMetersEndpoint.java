@@ -0,0 +1,41 @@
+package com.memmcol.hes.infrastructure.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/profilemeters}: per-meter drill-down for the profile metrics, read on demand
+ * from the bounded sketches instead of being exported as one time series per meter.
+ * {@code weight} is total batch millis, failure count or salvaged rows respectively.
+ */
+@Component
+@Endpoint(id = "profilemeters")
+@RequiredArgsConstructor
+public class ProfileMetersEndpoint {
+
+    private final MicrometerProfileMetricsAdapter metrics;
+
+    @ReadOperation
+    public Map<String, Object> top(@Nullable Integer limit) {
+        int n = limit == null ? 20 : limit;
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("slowest", metrics.slowestMeters().top(n));
+        out.put("failing", metrics.failingMeters().top(n));
+        out.put("recovering", metrics.recoveringMeters().top(n));
+        return out;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        metrics.slowestMeters().reset();
+        metrics.failingMeters().reset();
+        metrics.recoveringMeters().reset();
+    }
+}
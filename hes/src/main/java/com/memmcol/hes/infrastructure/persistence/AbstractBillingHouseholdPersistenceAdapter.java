@@ -13,14 +13,12 @@ import org.hibernate.Session;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.sql.Statement;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -31,6 +29,10 @@ public abstract class AbstractBillingHouseholdPersistenceAdapter<TDto, TEntity,
 
     protected abstract ProfileStatePort statePort();
 
+    protected abstract FactTableBulkWriter bulkWriter();
+
+    protected abstract PartitionRegistry partitionRegistry();
+
     protected abstract Class<TEntity> entityClass();
 
     protected abstract String baseTableName();
@@ -64,73 +66,68 @@ public abstract class AbstractBillingHouseholdPersistenceAdapter<TDto, TEntity,
     }
 
     protected List<TDto> deduplicate(String meterSerial, List<TDto> readings, String jpqlEntityName) {
-        List<LocalDateTime> incomingTimestamps = readings.stream()
-                .map(this::entryTimestamp)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-        List<LocalDateTime> existing = findExistingTimestamps(meterSerial, incomingTimestamps, jpqlEntityName);
-        return readings.stream()
-                .filter(dto -> entryTimestamp(dto) != null && !existing.contains(entryTimestamp(dto)))
-                .collect(Collectors.toList());
+        return upsertPlan(meterSerial, readings, jpqlEntityName).inserts();
+    }
+
+    /**
+     * Splits the batch into new and already-stored rows with one existence query and a hash lookup.
+     */
+    protected TimestampUpsertPlan<TDto> upsertPlan(String meterSerial, List<TDto> readings, String jpqlEntityName) {
+        Set<LocalDateTime> incoming = TimestampUpsertPlan.timestamps(readings, this::entryTimestamp);
+        Set<LocalDateTime> existing = new HashSet<>(findExistingTimestamps(meterSerial, List.copyOf(incoming), jpqlEntityName));
+        return TimestampUpsertPlan.of(readings, this::entryTimestamp, existing);
     }
 
     public void createPartitionsIfMissing(List<TDto> rows) {
-        Session session = em().unwrap(Session.class);
-        Set<String> months = rows.stream()
-                .map(this::entryTimestamp)
-                .filter(Objects::nonNull)
-                .map(ts -> ts.format(DateTimeFormatter.ofPattern("yyyyMM")))
-                .collect(Collectors.toSet());
-
-        months.forEach(month -> {
-            String partitionName = partitionPrefix() + "_" + month;
-            String startDate = month + "01";
-            String endDate = YearMonth.parse(month, DateTimeFormatter.ofPattern("yyyyMM"))
-                    .plusMonths(1)
-                    .atDay(1)
-                    .format(DateTimeFormatter.ISO_LOCAL_DATE);
-
-            String sql = String.format(
-                    "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s');",
-                    partitionName, baseTableName(), startDate, endDate
-            );
-
-            session.doWork(connection -> {
-                try (Statement stmt = connection.createStatement()) {
-                    stmt.execute(sql);
-                    log.info("🆕 Partition {} created.", partitionName);
-                } catch (Exception e) {
-                    log.error("Error creating partition {}: {}", partitionName, e.getMessage());
-                }
-            });
-        });
+        partitionRegistry().ensureMonthlyPartitions(em().unwrap(Session.class), baseTableName(), partitionPrefix(),
+                rows.stream()
+                        .map(this::entryTimestamp)
+                        .filter(Objects::nonNull)
+                        .map(YearMonth::from)
+                        .collect(Collectors.toSet()));
     }
 
-    public UpsertCounts persistReadings(List<TDto> rows) {
+    /**
+     * Inserts new rows and merges stored ones. Stored rows are loaded a chunk at a time before
+     * merging so merge() finds them in the persistence context instead of selecting each one.
+     */
+    public UpsertCounts persistReadings(String meterSerial, List<TDto> rows, String jpqlEntityName) {
+        FactTableBulkWriter.WriteMode mode = bulkWriter().modeFor(baseTableName());
+        if (mode != FactTableBulkWriter.WriteMode.ENTITY) {
+            // Collapse repeated timestamps; ON CONFLICT cannot touch the same key twice per statement
+            List<TEntity> entities = TimestampUpsertPlan.of(rows, this::entryTimestamp, Set.of()).inserts()
+                    .stream().map(this::toEntity).toList();
+            FactTableBulkWriter.Counts counts = bulkWriter().write(entityClass(), entities, true, mode);
+            return new UpsertCounts(counts.inserted(), counts.updated());
+        }
+
         Session session = em().unwrap(Session.class);
-        AtomicInteger inserted = new AtomicInteger();
-        AtomicInteger updated = new AtomicInteger();
-        rows.stream()
-                .filter(dto -> entryTimestamp(dto) != null)
-                .forEach(dto -> {
-                    TEntity entity = toEntity(dto);
-                    TId id = toId(entity);
-                    TEntity existing = session.get(entityClass(), id);
-                    if (existing == null) {
-                        session.persist(entity);
-                        inserted.incrementAndGet();
-                    } else {
-                        session.merge(entity);
-                        updated.incrementAndGet();
-                    }
-                    if ((inserted.get() + updated.get()) % FLUSH_BATCH == 0) {
-                        session.flush();
-                        session.clear();
-                    }
-                });
+        TimestampUpsertPlan<TDto> plan = upsertPlan(meterSerial, rows, jpqlEntityName);
+
+        int pending = 0;
+        for (TDto dto : plan.inserts()) {
+            session.persist(toEntity(dto));
+            if (++pending % FLUSH_BATCH == 0) {
+                session.flush();
+                session.clear();
+            }
+        }
         session.flush();
         session.clear();
-        return new UpsertCounts(inserted.get(), updated.get());
+
+        List<TDto> updates = plan.updates();
+        for (int from = 0; from < updates.size(); from += FLUSH_BATCH) {
+            List<TDto> chunk = updates.subList(from, Math.min(from + FLUSH_BATCH, updates.size()));
+            em().createQuery("SELECT r FROM " + jpqlEntityName + " r " +
+                            "WHERE r.meterSerial = :serial AND r.entryTimestamp IN :timestamps", entityClass())
+                    .setParameter("serial", meterSerial)
+                    .setParameter("timestamps", chunk.stream().map(this::entryTimestamp).toList())
+                    .getResultList();
+            chunk.forEach(dto -> session.merge(toEntity(dto)));
+            session.flush();
+            session.clear();
+        }
+        return new UpsertCounts(plan.inserts().size(), updates.size());
     }
 
     protected record UpsertCounts(int inserted, int updated) {}
@@ -174,7 +171,7 @@ public abstract class AbstractBillingHouseholdPersistenceAdapter<TDto, TEntity,
             String meterModel = FactTablePersistenceLogging.nz(meterModelFromFirstDto(readings.get(0)));
 
             int total = readings.size();
-            UpsertCounts counts = persistReadings(readings);
+            UpsertCounts counts = persistReadings(meterSerial, readings, jpqlEntityName);
             int inserted = counts.inserted();
             int duplicate = counts.updated();
 
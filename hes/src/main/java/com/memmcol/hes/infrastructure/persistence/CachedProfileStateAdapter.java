@@ -0,0 +1,264 @@
+package com.memmcol.hes.infrastructure.persistence;
+
+import com.memmcol.hes.application.port.out.ProfileStatePort;
+import com.memmcol.hes.domain.profile.CapturePeriod;
+import com.memmcol.hes.domain.profile.ProfileState;
+import com.memmcol.hes.domain.profile.ProfileTimestamp;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cursor table in front of {@link JpaProfileStateAdapter}.
+ * <p>
+ * Reads come from the {@code profileState} Caffeine cache and only go to the DB on a miss. Only
+ * existing cursors are cached. Every writer of {@code meter_profile_state} goes through this port,
+ * so the cache never holds an older cursor than the DB.
+ * Writes are coalesced per (meter, obis) and written with one multi-row
+ * {@code INSERT ... ON CONFLICT (meter_serial, profile_obis) DO UPDATE}:
+ * <ul>
+ *     <li>{@code commit} (default): flushed just before the surrounding fact-table transaction
+ *     commits, on its connection, so the cursor and the rows it covers commit or roll back
+ *     together. The in-memory cursor only moves after commit.</li>
+ *     <li>{@code interval}: write-behind, flushed every {@code hes.profile-state.flush-interval-ms}.
+ *     A crash may lose the last interval's cursor moves; the rows are re-read and deduplicated.</li>
+ *     <li>{@code direct}: previous behaviour, one REQUIRES_NEW transaction per upsert.</li>
+ * </ul>
+ */
+@Component
+@Primary
+@Slf4j
+public class CachedProfileStateAdapter implements ProfileStatePort {
+
+    private static final String CACHE_NAME = "profileState";
+    private static final String TS_CACHE_NAME = "lastProfileTimestamp";
+    private static final String TS_CACHE_PREFIX = "lastTs::";
+
+    private static final String UPSERT_HEAD =
+            "INSERT INTO meter_profile_state (meter_serial, profile_obis, last_timestamp, capture_period_sec, updated_at) VALUES ";
+    private static final String UPSERT_TAIL =
+            " ON CONFLICT (meter_serial, profile_obis) DO UPDATE SET " +
+                    "last_timestamp = COALESCE(EXCLUDED.last_timestamp, meter_profile_state.last_timestamp), " +
+                    "capture_period_sec = COALESCE(EXCLUDED.capture_period_sec, meter_profile_state.capture_period_sec), " +
+                    "updated_at = EXCLUDED.updated_at";
+    private static final int MAX_ROWS_PER_STATEMENT = 1_000;
+
+    private final JpaProfileStateAdapter delegate;
+    private final CacheManager cacheManager;
+    private final EntityManager em;
+    private final DataSource dataSource;
+
+    /** Interval mode only: latest unflushed cursor per key. */
+    private final Map<String, ProfileState> dirty = new ConcurrentHashMap<>();
+
+    @Value("${hes.profile-state.flush-mode:commit}")
+    private String flushMode;
+
+    public CachedProfileStateAdapter(JpaProfileStateAdapter delegate,
+                                     CacheManager cacheManager,
+                                     EntityManager em,
+                                     DataSource dataSource) {
+        this.delegate = delegate;
+        this.cacheManager = cacheManager;
+        this.em = em;
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public ProfileState loadState(String meterSerial, String profileObis) {
+        if (isDirect()) {
+            return delegate.loadState(meterSerial, profileObis);
+        }
+        String key = key(meterSerial, profileObis);
+        ProfileState uncommitted = pendingInTransaction(key);
+        Cache cache = cursorCache();
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null) {
+            return coalesce((ProfileState) cached.get(), uncommitted);
+        }
+        ProfileState loaded = delegate.loadState(meterSerial, profileObis);
+        ProfileState pending = dirty.get(key);
+        if (pending != null) {
+            loaded = coalesce(loaded, pending);
+        }
+        if (loaded == null) {
+            // Not cached: the first cursor is usually written by another path right after this miss
+            return uncommitted;
+        }
+        // A concurrent write may have published while we were reading; keep that one
+        Cache.ValueWrapper raced = cache.putIfAbsent(key, loaded);
+        return coalesce(raced == null ? loaded : (ProfileState) raced.get(), uncommitted);
+    }
+
+    /** This transaction's own cursor move, not yet visible in the shared cache. */
+    @SuppressWarnings("unchecked")
+    private ProfileState pendingInTransaction(String key) {
+        Map<String, ProfileState> batch = (Map<String, ProfileState>) TransactionSynchronizationManager.getResource(this);
+        return batch == null ? null : batch.get(key);
+    }
+
+    @Override
+    public void upsertState(String meterSerial, String profileObis,
+                            ProfileTimestamp lastTs, CapturePeriod capturePeriod) {
+        if (isDirect()) {
+            delegate.upsertState(meterSerial, profileObis, lastTs, capturePeriod);
+            return;
+        }
+        ProfileState update = new ProfileState(meterSerial, profileObis, lastTs, capturePeriod);
+
+        if ("interval".equalsIgnoreCase(flushMode)) {
+            dirty.merge(key(meterSerial, profileObis), update, CachedProfileStateAdapter::coalesce);
+            publish(update);
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // No surrounding fact-table transaction to join: write through immediately
+            delegate.upsertState(meterSerial, profileObis, lastTs, capturePeriod);
+            publish(update);
+            return;
+        }
+        transactionBatch().merge(key(meterSerial, profileObis), update, CachedProfileStateAdapter::coalesce);
+    }
+
+    /**
+     * Pending cursor moves of the current transaction, flushed once in beforeCommit.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, ProfileState> transactionBatch() {
+        Map<String, ProfileState> batch = (Map<String, ProfileState>) TransactionSynchronizationManager.getResource(this);
+        if (batch != null) {
+            return batch;
+        }
+        Map<String, ProfileState> created = new LinkedHashMap<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                em.unwrap(Session.class).doWork(connection -> write(connection, created.values()));
+            }
+
+            @Override
+            public void afterCommit() {
+                created.values().forEach(CachedProfileStateAdapter.this::publish);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(CachedProfileStateAdapter.this);
+            }
+        });
+        return created;
+    }
+
+    @Scheduled(fixedDelayString = "${hes.profile-state.flush-interval-ms:1000}")
+    public void flushDirty() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<ProfileState> batch = new ArrayList<>(dirty.size());
+        for (String key : new ArrayList<>(dirty.keySet())) {
+            ProfileState state = dirty.remove(key);
+            if (state != null) batch.add(state);
+        }
+        try (Connection c = dataSource.getConnection()) {
+            c.setAutoCommit(false);
+            write(c, batch);
+            c.commit();
+            log.debug("💾 Flushed {} profile cursors", batch.size());
+        } catch (Exception e) {
+            log.error("❌ Profile cursor flush failed ({} rows), retrying next interval: {}", batch.size(), e.getMessage());
+            batch.forEach(s -> dirty.merge(key(s.meterSerial(), s.profileObis()), s, (newer, failed) -> coalesce(failed, newer)));
+        }
+    }
+
+    @PreDestroy
+    public void shutdownFlush() {
+        flushDirty();
+    }
+
+    private static void write(Connection connection, Collection<ProfileState> states) throws SQLException {
+        if (states.isEmpty()) {
+            return;
+        }
+        List<ProfileState> rows = new ArrayList<>(states);
+        Timestamp now = Timestamp.valueOf(java.time.LocalDateTime.now());
+        for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<ProfileState> chunk = rows.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, rows.size()));
+            String sql = UPSERT_HEAD + String.join(",", Collections.nCopies(chunk.size(), "(?,?,?,?,?)")) + UPSERT_TAIL;
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                int i = 1;
+                for (ProfileState s : chunk) {
+                    ps.setString(i++, s.meterSerial());
+                    ps.setString(i++, s.profileObis());
+                    if (s.lastTimestamp() != null) ps.setTimestamp(i++, Timestamp.valueOf(s.lastTimestamp().value()));
+                    else ps.setNull(i++, Types.TIMESTAMP);
+                    // Enforce the 1 second minimum of JpaProfileStateAdapter
+                    if (s.capturePeriod() != null) ps.setInt(i++, Math.max(1, s.capturePeriod().seconds()));
+                    else ps.setNull(i++, Types.INTEGER);
+                    ps.setTimestamp(i++, now);
+                }
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Makes a written cursor visible to readers (and to the legacy lastProfileTimestamp cache).
+     */
+    private void publish(ProfileState update) {
+        String key = key(update.meterSerial(), update.profileObis());
+        Cache cache = cursorCache();
+        Cache.ValueWrapper current = cache.get(key);
+        ProfileState base = current == null ? null : (ProfileState) current.get();
+        cache.put(key, coalesce(base, update));
+
+        if (update.lastTimestamp() != null) {
+            Cache tsCache = cacheManager.getCache(TS_CACHE_NAME);
+            if (tsCache != null) {
+                tsCache.put(TS_CACHE_PREFIX + key, update.lastTimestamp().value());
+            }
+        }
+    }
+
+    /** Later non-null fields win, matching the column-wise COALESCE in the upsert. */
+    private static ProfileState coalesce(ProfileState older, ProfileState newer) {
+        if (older == null) return newer;
+        if (newer == null) return older;
+        return new ProfileState(
+                newer.meterSerial(),
+                newer.profileObis(),
+                newer.lastTimestamp() != null ? newer.lastTimestamp() : older.lastTimestamp(),
+                newer.capturePeriod() != null ? newer.capturePeriod() : older.capturePeriod());
+    }
+
+    private Cache cursorCache() {
+        return Objects.requireNonNull(cacheManager.getCache(CACHE_NAME));
+    }
+
+    private boolean isDirect() {
+        return "direct".equalsIgnoreCase(flushMode);
+    }
+
+    private static String key(String meterSerial, String profileObis) {
+        return meterSerial + "::" + profileObis;
+    }
+}
@@ -34,6 +34,7 @@ public class EventLogPersistenceAdapter {
     @PersistenceContext
     private final EntityManager entityManager;
     private final EventCodeLookupCacheService lookupCacheService;
+    private final FactTableBulkWriter bulkWriter;
     private final EventCodeLookupRepository eventCodeLookupRepository;
     private final ProfileStatePort statePort;
     private static final int FLUSH_BATCH = 100;
@@ -91,13 +92,13 @@ public class EventLogPersistenceAdapter {
         Session session = entityManager.unwrap(Session.class);
         int count = 0;
 
-        for (EventLogDTO dto : dtos) {
-            // 1. Get EventTypeId from OBIS
-            Long eventTypeId = lookupCacheService.getEventTypeIdByObis(profileOBIS);
+        // 1. Get EventTypeId from OBIS (same for every row of the profile)
+        Long eventTypeId = lookupCacheService.getEventTypeIdByObis(profileOBIS);
 
+        List<EventLog> entities = new ArrayList<>(dtos.size());
+        for (EventLogDTO dto : dtos) {
             // 2. Get EventName from cache (fallback → "Undefined Event")
-            String eventName = lookupCacheService.getEventName(eventTypeId, dto.getEventCode())
-                    .orElse("Undefined Event");
+            String eventName = lookupCacheService.getEventNameOrDefault(eventTypeId, dto.getEventCode(), "Undefined Event");
 
             // 4️⃣ Map DTO to Entity
             EventLog logEntry = EventLog.builder()
@@ -112,16 +113,24 @@ public class EventLogPersistenceAdapter {
                     .build();
 
             // 5️⃣ Persist entity
-            session.persist(logEntry);
-            count++;
+            entities.add(logEntry);
+        }
 
-            if (count % FLUSH_BATCH == 0) {
-                session.flush();
-                session.clear();
+        FactTableBulkWriter.WriteMode mode = bulkWriter.modeFor("event_log");
+        if (mode != FactTableBulkWriter.WriteMode.ENTITY) {
+            // Duplicates that slipped past the lookup are skipped on the table's unique key
+            count = bulkWriter.write(EventLog.class, entities, false, mode).inserted();
+        } else {
+            for (EventLog entity : entities) {
+                session.persist(entity);
+                if (++count % FLUSH_BATCH == 0) {
+                    session.flush();
+                    session.clear();
+                }
             }
+            session.flush();
+            session.clear();
         }
-        session.flush();
-        session.clear();
 
         log.info("💾 Saved {} readings to DB.", count);
         return count;
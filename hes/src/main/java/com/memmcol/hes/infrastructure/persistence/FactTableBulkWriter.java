@@ -0,0 +1,280 @@
+package com.memmcol.hes.infrastructure.persistence;
+
+import jakarta.persistence.*;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk write path for the partitioned fact tables, bypassing entity-per-row persistence.
+ * <ul>
+ *     <li>{@code batch}: multi-row {@code INSERT ... VALUES (..),(..) ON CONFLICT} statements.</li>
+ *     <li>{@code copy}: {@code COPY} (CSV) into a transaction-scoped staging table, then one
+ *     {@code INSERT ... SELECT ... ON CONFLICT} into the parent table.</li>
+ * </ul>
+ * The column plan (table, insertable columns, key columns) is read once per entity class from its
+ * JPA annotations. Conflicts are resolved on the {@code @Id} columns, or, for entities with a
+ * generated identity (the event logs), on the first {@code @UniqueConstraint} of the table, with the
+ * identity left to the database.
+ * <p>
+ * Precondition: the rows passed to one {@link #write} call must have distinct keys. PostgreSQL
+ * rejects an {@code ON CONFLICT DO UPDATE} that touches the same row twice, failing the whole
+ * statement, so callers collapse repeats first (see {@link TimestampUpsertPlan}).
+ * <p>
+ * The mode is chosen per table with {@code hes.persistence.write-mode.<table>}, falling back to
+ * {@code hes.persistence.write-mode} ({@code entity} keeps the Hibernate path).
+ */
+@Component
+@Slf4j
+public class FactTableBulkWriter {
+
+    public enum WriteMode {
+        ENTITY, BATCH, COPY;
+
+        static WriteMode from(String value) {
+            if (value == null || value.isBlank()) return ENTITY;
+            try {
+                return WriteMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                log.warn("⚠️ Unknown fact-table write mode '{}', using ENTITY", value);
+                return ENTITY;
+            }
+        }
+    }
+
+    public record Counts(int inserted, int updated) {}
+
+    record Column(String name, Field field, boolean key, boolean updatable) {}
+
+    record TablePlan(String table, List<Column> columns, String columnList, String conflictTarget, String updateSet) {}
+
+    /** PostgreSQL caps a statement at 32767 bind parameters. */
+    private static final int MAX_BIND_PARAMS = 32_000;
+    private static final int MAX_ROWS_PER_STATEMENT = 1_000;
+    private static final int COPY_CHUNK_CHARS = 64 * 1024;
+
+    @PersistenceContext
+    private EntityManager em;
+    private final Environment environment;
+    private final Map<Class<?>, TablePlan> plans = new ConcurrentHashMap<>();
+
+    public FactTableBulkWriter(Environment environment) {
+        this.environment = environment;
+    }
+
+    public WriteMode modeFor(String table) {
+        String fallback = environment.getProperty("hes.persistence.write-mode", "entity");
+        return WriteMode.from(environment.getProperty("hes.persistence.write-mode." + table, fallback));
+    }
+
+    /**
+     * Writes the rows with the given mode. With {@code updateExisting=false} stored keys are left
+     * untouched ({@code DO NOTHING}); otherwise they are overwritten and counted as updated.
+     * Must run inside the caller's transaction.
+     */
+    public <E> Counts write(Class<E> entityClass, List<E> rows, boolean updateExisting, WriteMode mode) {
+        if (rows == null || rows.isEmpty()) {
+            return new Counts(0, 0);
+        }
+        TablePlan plan = plans.computeIfAbsent(entityClass, FactTableBulkWriter::buildPlan);
+        Session session = em.unwrap(Session.class);
+        session.flush();
+
+        long started = System.nanoTime();
+        Counts counts = session.doReturningWork(connection -> mode == WriteMode.COPY
+                ? copyAndMerge(connection, plan, rows, updateExisting)
+                : batchInsert(connection, plan, rows, updateExisting));
+        log.debug("📦 {} {} rows into {} in {} ms (inserted={}, updated={})", mode, rows.size(), plan.table(),
+                (System.nanoTime() - started) / 1_000_000, counts.inserted(), counts.updated());
+        return counts;
+    }
+
+    private static <E> Counts batchInsert(Connection connection, TablePlan plan, List<E> rows, boolean updateExisting)
+            throws java.sql.SQLException {
+        int columns = plan.columns().size();
+        int chunkSize = Math.max(1, Math.min(MAX_ROWS_PER_STATEMENT, MAX_BIND_PARAMS / columns));
+        String rowPlaceholders = "(" + String.join(",", Collections.nCopies(columns, "?")) + ")";
+
+        int inserted = 0;
+        int updated = 0;
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            List<E> chunk = rows.subList(from, Math.min(from + chunkSize, rows.size()));
+            String sql = "INSERT INTO " + plan.table() + " (" + plan.columnList() + ") VALUES "
+                    + String.join(",", Collections.nCopies(chunk.size(), rowPlaceholders))
+                    + conflictClause(plan, updateExisting);
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                int index = 1;
+                for (E row : chunk) {
+                    for (Column column : plan.columns()) {
+                        ps.setObject(index++, read(column, row));
+                    }
+                }
+                if (returnsCounts(plan, updateExisting)) {
+                    Counts c = countReturning(ps.executeQuery());
+                    inserted += c.inserted();
+                    updated += c.updated();
+                } else {
+                    inserted += ps.executeUpdate();
+                }
+            }
+        }
+        return new Counts(inserted, updated);
+    }
+
+    private static <E> Counts copyAndMerge(Connection connection, TablePlan plan, List<E> rows, boolean updateExisting)
+            throws java.sql.SQLException {
+        String staging = "hes_stg_" + plan.table().substring(plan.table().lastIndexOf('.') + 1);
+        try (Statement st = connection.createStatement()) {
+            // Only the planned columns: identity / NOT NULL columns left to the parent must not apply here
+            st.execute("CREATE TEMP TABLE IF NOT EXISTS " + staging + " ON COMMIT DROP AS SELECT "
+                    + plan.columnList() + " FROM " + plan.table() + " WITH NO DATA");
+            st.execute("TRUNCATE " + staging);
+        }
+
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI()
+                .copyIn("COPY " + staging + " (" + plan.columnList() + ") FROM STDIN WITH (FORMAT csv)");
+        try {
+            StringBuilder sb = new StringBuilder(COPY_CHUNK_CHARS + 1024);
+            for (E row : rows) {
+                appendCsvRow(sb, plan, row);
+                if (sb.length() >= COPY_CHUNK_CHARS) {
+                    byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+                    copyIn.writeToCopy(bytes, 0, bytes.length);
+                    sb.setLength(0);
+                }
+            }
+            if (!sb.isEmpty()) {
+                byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+            }
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+
+        String merge = "INSERT INTO " + plan.table() + " (" + plan.columnList() + ") SELECT "
+                + plan.columnList() + " FROM " + staging + conflictClause(plan, updateExisting);
+        try (Statement st = connection.createStatement()) {
+            Counts counts = returnsCounts(plan, updateExisting)
+                    ? countReturning(st.executeQuery(merge))
+                    : new Counts(st.executeUpdate(merge), 0);
+            st.execute("TRUNCATE " + staging);
+            return counts;
+        }
+    }
+
+    private static boolean returnsCounts(TablePlan plan, boolean updateExisting) {
+        return updateExisting && !plan.updateSet().isEmpty();
+    }
+
+    private static String conflictClause(TablePlan plan, boolean updateExisting) {
+        if (!returnsCounts(plan, updateExisting)) {
+            return " ON CONFLICT (" + plan.conflictTarget() + ") DO NOTHING";
+        }
+        // xmax = 0 only for freshly inserted tuples, which separates inserts from updates
+        return " ON CONFLICT (" + plan.conflictTarget() + ") DO UPDATE SET " + plan.updateSet()
+                + " RETURNING (xmax = 0) AS inserted";
+    }
+
+    private static Counts countReturning(ResultSet rs) throws java.sql.SQLException {
+        int inserted = 0;
+        int updated = 0;
+        try (rs) {
+            while (rs.next()) {
+                if (rs.getBoolean(1)) inserted++;
+                else updated++;
+            }
+        }
+        return new Counts(inserted, updated);
+    }
+
+    static void appendCsvRow(StringBuilder sb, TablePlan plan, Object row) {
+        List<Column> columns = plan.columns();
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) sb.append(',');
+            Object value = read(columns.get(i), row);
+            if (value == null) {
+                continue; // unquoted empty field is NULL in CSV mode
+            }
+            if (value instanceof Number || value instanceof Boolean || value instanceof java.time.temporal.Temporal) {
+                sb.append(value);
+            } else {
+                String s = value instanceof Enum<?> e ? e.name() : value.toString();
+                sb.append('"').append(s.replace("\"", "\"\"")).append('"');
+            }
+        }
+        sb.append('\n');
+    }
+
+    private static Object read(Column column, Object row) {
+        try {
+            Object value = column.field().get(row);
+            return value instanceof Enum<?> e ? e.name() : value;
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot read " + column.name() + " from " + row.getClass().getSimpleName(), e);
+        }
+    }
+
+    static TablePlan buildPlan(Class<?> entityClass) {
+        Table table = entityClass.getAnnotation(Table.class);
+        if (table == null || table.name().isBlank()) {
+            throw new IllegalArgumentException(entityClass.getSimpleName() + " has no @Table name");
+        }
+        String tableName = table.schema().isBlank() ? table.name() : table.schema() + "." + table.name();
+
+        boolean generatedId = Arrays.stream(entityClass.getDeclaredFields())
+                .anyMatch(f -> f.isAnnotationPresent(Id.class) && f.isAnnotationPresent(GeneratedValue.class));
+        Set<String> uniqueKey = generatedId && table.uniqueConstraints().length > 0
+                ? Set.of(table.uniqueConstraints()[0].columnNames())
+                : Set.of();
+        if (generatedId && uniqueKey.isEmpty()) {
+            throw new IllegalArgumentException(entityClass.getSimpleName() + " has a generated @Id and no @UniqueConstraint for ON CONFLICT");
+        }
+
+        List<Column> columns = new ArrayList<>();
+        for (Field field : entityClass.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isAnnotationPresent(Transient.class)
+                    || field.isAnnotationPresent(GeneratedValue.class)) {
+                continue; // DB-assigned identity is never written
+            }
+            jakarta.persistence.Column column = field.getAnnotation(jakarta.persistence.Column.class);
+            if (column != null && !column.insertable()) {
+                continue; // DB-populated (e.g. received_at)
+            }
+            String name = column != null && !column.name().isBlank() ? column.name() : snakeCase(field.getName());
+            boolean key = generatedId ? uniqueKey.contains(name) : field.isAnnotationPresent(Id.class);
+            field.setAccessible(true);
+            columns.add(new Column(name, field, key, !key && (column == null || column.updatable())));
+        }
+        if (columns.stream().noneMatch(Column::key)) {
+            throw new IllegalArgumentException(entityClass.getSimpleName() + " has no key columns for ON CONFLICT");
+        }
+
+        String columnList = columns.stream().map(Column::name).collect(Collectors.joining(","));
+        String conflictTarget = columns.stream().filter(Column::key).map(Column::name).collect(Collectors.joining(","));
+        String updateSet = columns.stream().filter(Column::updatable)
+                .map(c -> c.name() + " = EXCLUDED." + c.name())
+                .collect(Collectors.joining(","));
+        return new TablePlan(tableName, List.copyOf(columns), columnList, conflictTarget, updateSet);
+    }
+
+    private static String snakeCase(String camel) {
+        return camel.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT);
+    }
+}
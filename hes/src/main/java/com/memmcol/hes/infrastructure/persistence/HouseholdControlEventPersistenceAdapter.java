@@ -41,6 +41,7 @@ public class HouseholdControlEventPersistenceAdapter {
     private final ProfileStatePort statePort;
     private final HouseholdControlEventCustomRepository customRepository;
     private final EventCodeLookupCacheService lookupCacheService;
+    private final FactTableBulkWriter bulkWriter;
     private final HouseholdDomainCodeLookupService domainCodeLookupService;
 
     private static final int FLUSH_BATCH = 100;
@@ -99,6 +100,7 @@ public class HouseholdControlEventPersistenceAdapter {
                     return Math.toIntExact(lookupCacheService.getEventTypeIdByObis(profileObis));
                 });
 
+        List<HouseholdControlEvent> entities = new ArrayList<>(dtos.size());
         for (HouseholdControlEventDTO dto : dtos) {
             String eventName = lookupCacheService.resolveHouseholdEventName(
                     profileObis, dto.getEventCode(), dto.getMeterModel());
@@ -118,15 +120,24 @@ public class HouseholdControlEventPersistenceAdapter {
                     .reasonDescription(reason != null ? reason.description() : null)
                     .createdAt(now)
                     .build();
-            session.persist(entity);
-            count++;
-            if (count % FLUSH_BATCH == 0) {
-                session.flush();
-                session.clear();
+            entities.add(entity);
+        }
+
+        FactTableBulkWriter.WriteMode mode = bulkWriter.modeFor("household_control_event");
+        if (mode != FactTableBulkWriter.WriteMode.ENTITY) {
+            // Duplicates that slipped past the lookup are skipped on the table's unique key
+            count = bulkWriter.write(HouseholdControlEvent.class, entities, false, mode).inserted();
+        } else {
+            for (HouseholdControlEvent entity : entities) {
+                session.persist(entity);
+                if (++count % FLUSH_BATCH == 0) {
+                    session.flush();
+                    session.clear();
+                }
             }
+            session.flush();
+            session.clear();
         }
-        session.flush();
-        session.clear();
         return count;
     }
 
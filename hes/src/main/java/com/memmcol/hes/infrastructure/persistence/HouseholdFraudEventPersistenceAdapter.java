@@ -39,6 +39,7 @@ public class HouseholdFraudEventPersistenceAdapter {
     private final ProfileStatePort statePort;
     private final HouseholdFraudEventCustomRepository customRepository;
     private final EventCodeLookupCacheService lookupCacheService;
+    private final FactTableBulkWriter bulkWriter;
 
     private static final int FLUSH_BATCH = 100;
 
@@ -96,6 +97,7 @@ public class HouseholdFraudEventPersistenceAdapter {
                     return Math.toIntExact(lookupCacheService.getEventTypeIdByObis(profileObis));
                 });
 
+        List<HouseholdFraudEvent> entities = new ArrayList<>(dtos.size());
         for (HouseholdFraudEventDTO dto : dtos) {
             String eventName = lookupCacheService.resolveHouseholdEventName(
                     profileObis, dto.getEventCode(), dto.getMeterModel());
@@ -112,15 +114,24 @@ public class HouseholdFraudEventPersistenceAdapter {
                     .balanceKwh(dto.getBalanceKwh())
                     .createdAt(now)
                     .build();
-            session.persist(entity);
-            count++;
-            if (count % FLUSH_BATCH == 0) {
-                session.flush();
-                session.clear();
+            entities.add(entity);
+        }
+
+        FactTableBulkWriter.WriteMode mode = bulkWriter.modeFor("household_fraud_event");
+        if (mode != FactTableBulkWriter.WriteMode.ENTITY) {
+            // Duplicates that slipped past the lookup are skipped on the table's unique key
+            count = bulkWriter.write(HouseholdFraudEvent.class, entities, false, mode).inserted();
+        } else {
+            for (HouseholdFraudEvent entity : entities) {
+                session.persist(entity);
+                if (++count % FLUSH_BATCH == 0) {
+                    session.flush();
+                    session.clear();
+                }
             }
+            session.flush();
+            session.clear();
         }
-        session.flush();
-        session.clear();
         return count;
     }
 
@@ -41,6 +41,7 @@ public class HouseholdManagementTokenEventPersistenceAdapter {
     private final ProfileStatePort statePort;
     private final HouseholdManagementTokenEventCustomRepository customRepository;
     private final EventCodeLookupCacheService lookupCacheService;
+    private final FactTableBulkWriter bulkWriter;
     private final HouseholdDomainCodeLookupService domainCodeLookupService;
 
     private static final int FLUSH_BATCH = 100;
@@ -94,6 +95,7 @@ public class HouseholdManagementTokenEventPersistenceAdapter {
 
         Integer eventTypeId = Math.toIntExact(lookupCacheService.getEventTypeIdByObis(profileObis));
 
+        List<HouseholdManagementTokenEvent> entities = new ArrayList<>(dtos.size());
         for (HouseholdManagementTokenEventDTO dto : dtos) {
             ResolvedHouseholdDomainCode tokenType = domainCodeLookupService
                     .resolveManageTokenType(dto.getManageTokenTypeRaw())
@@ -111,15 +113,24 @@ public class HouseholdManagementTokenEventPersistenceAdapter {
                     .manageToken(dto.getManageToken())
                     .createdAt(now)
                     .build();
-            session.persist(entity);
-            count++;
-            if (count % FLUSH_BATCH == 0) {
-                session.flush();
-                session.clear();
+            entities.add(entity);
+        }
+
+        FactTableBulkWriter.WriteMode mode = bulkWriter.modeFor("household_management_token_event");
+        if (mode != FactTableBulkWriter.WriteMode.ENTITY) {
+            // Duplicates that slipped past the lookup are skipped on the table's unique key
+            count = bulkWriter.write(HouseholdManagementTokenEvent.class, entities, false, mode).inserted();
+        } else {
+            for (HouseholdManagementTokenEvent entity : entities) {
+                session.persist(entity);
+                if (++count % FLUSH_BATCH == 0) {
+                    session.flush();
+                    session.clear();
+                }
             }
+            session.flush();
+            session.clear();
         }
-        session.flush();
-        session.clear();
         return count;
     }
 
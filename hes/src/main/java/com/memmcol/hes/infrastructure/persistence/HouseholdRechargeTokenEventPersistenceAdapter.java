@@ -39,6 +39,7 @@ public class HouseholdRechargeTokenEventPersistenceAdapter {
     private final ProfileStatePort statePort;
     private final HouseholdRechargeTokenEventCustomRepository customRepository;
     private final EventCodeLookupCacheService lookupCacheService;
+    private final FactTableBulkWriter bulkWriter;
 
     private static final int FLUSH_BATCH = 100;
 
@@ -91,6 +92,7 @@ public class HouseholdRechargeTokenEventPersistenceAdapter {
 
         Integer eventTypeId = Math.toIntExact(lookupCacheService.getEventTypeIdByObis(profileObis));
 
+        List<HouseholdRechargeTokenEvent> entities = new ArrayList<>(dtos.size());
         for (HouseholdRechargeTokenEventDTO dto : dtos) {
             HouseholdRechargeTokenEvent entity = HouseholdRechargeTokenEvent.builder()
                     .meterSerial(dto.getMeterSerial())
@@ -103,15 +105,24 @@ public class HouseholdRechargeTokenEventPersistenceAdapter {
                     .rechargeToken(dto.getRechargeToken())
                     .createdAt(now)
                     .build();
-            session.persist(entity);
-            count++;
-            if (count % FLUSH_BATCH == 0) {
-                session.flush();
-                session.clear();
+            entities.add(entity);
+        }
+
+        FactTableBulkWriter.WriteMode mode = bulkWriter.modeFor("household_recharge_token_event");
+        if (mode != FactTableBulkWriter.WriteMode.ENTITY) {
+            // Duplicates that slipped past the lookup are skipped on the table's unique key
+            count = bulkWriter.write(HouseholdRechargeTokenEvent.class, entities, false, mode).inserted();
+        } else {
+            for (HouseholdRechargeTokenEvent entity : entities) {
+                session.persist(entity);
+                if (++count % FLUSH_BATCH == 0) {
+                    session.flush();
+                    session.clear();
+                }
             }
+            session.flush();
+            session.clear();
         }
-        session.flush();
-        session.clear();
         return count;
     }
 
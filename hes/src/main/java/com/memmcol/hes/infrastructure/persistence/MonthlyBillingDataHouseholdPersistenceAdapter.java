@@ -23,6 +23,8 @@ public class MonthlyBillingDataHouseholdPersistenceAdapter extends AbstractBilli
     @PersistenceContext
     private EntityManager em;
     private final ProfileStatePort statePort;
+    private final FactTableBulkWriter bulkWriter;
+    private final PartitionRegistry partitionRegistry;
 
     @Override
     protected EntityManager em() {
@@ -34,6 +36,16 @@ public class MonthlyBillingDataHouseholdPersistenceAdapter extends AbstractBilli
         return statePort;
     }
 
+    @Override
+    protected FactTableBulkWriter bulkWriter() {
+        return bulkWriter;
+    }
+
+    @Override
+    protected PartitionRegistry partitionRegistry() {
+        return partitionRegistry;
+    }
+
     @Override
     protected Class<MonthlyBillingDataHouseholdEntity> entityClass() {
         return MonthlyBillingDataHouseholdEntity.class;
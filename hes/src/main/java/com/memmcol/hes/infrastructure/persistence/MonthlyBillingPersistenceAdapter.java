@@ -16,13 +16,10 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.sql.Statement;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -32,10 +29,12 @@ public class MonthlyBillingPersistenceAdapter {
     @PersistenceContext
     private EntityManager entityManager;
     private final ProfileStatePort statePort;
+    private final PartitionRegistry partitionRegistry;
     private static final int FLUSH_BATCH = 100;
 
-    public MonthlyBillingPersistenceAdapter(ProfileStatePort statePort) {
+    public MonthlyBillingPersistenceAdapter(ProfileStatePort statePort, PartitionRegistry partitionRegistry) {
         this.statePort = statePort;
+        this.partitionRegistry = partitionRegistry;
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
@@ -182,41 +181,11 @@ public class MonthlyBillingPersistenceAdapter {
      * Creates monthly partition tables for any missing months found in the DTO list.
      */
     public void createPartitionsIfMissing(List<MonthlyBillingDTO> filteredRows) {
-        Session session = entityManager.unwrap(Session.class);
-
-        // 1. Extract unique months (YYYYMM format)
-        Set<String> months = filteredRows.stream()
-                .map(dto -> dto.getEntryTimestamp().format(DateTimeFormatter.ofPattern("yyyyMM")))
-                .collect(Collectors.toSet());
-
-        // 2. Pre-create missing partitions
-        months.forEach(month -> {
-            String partitionName = "monthly_billing_profile_" + month;
-            String startDate = month + "01";
-            String endDate = YearMonth.parse(month, DateTimeFormatter.ofPattern("yyyyMM"))
-                    .plusMonths(1)
-                    .atDay(1)
-                    .format(DateTimeFormatter.ISO_LOCAL_DATE);
-
-            String sql = String.format(
-                    "CREATE TABLE IF NOT EXISTS %s PARTITION OF monthly_billing_profile " +
-                            "FOR VALUES FROM ('%s') TO ('%s');",
-                    partitionName, startDate, endDate
-            );
-
-            session.doWork(connection -> {
-                try (Statement stmt = connection.createStatement()) {
-                    stmt.execute(sql);
-                    log.info("🆕 Partition {} created.", partitionName);
-                } catch (Exception e) {
-                    if (e.getMessage().contains("exists")) {
-                        log.debug("Partition {} already exists, skipping.", partitionName);
-                    } else {
-                        log.error("Error creating partition {}: {}", partitionName, e.getMessage());
-                    }
-                }
-            });
-        });
+        partitionRegistry.ensureMonthlyPartitions(entityManager.unwrap(Session.class), "monthly_billing_profile", filteredRows.stream()
+                .map(MonthlyBillingDTO::getEntryTimestamp)
+                .filter(Objects::nonNull)
+                .map(YearMonth::from)
+                .collect(Collectors.toSet()));
     }
 
 }
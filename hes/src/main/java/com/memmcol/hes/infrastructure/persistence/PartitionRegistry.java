@@ -0,0 +1,170 @@
+package com.memmcol.hes.infrastructure.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide view of the monthly partitions of the fact tables.
+ * <p>
+ * Loaded from {@code pg_inherits} at startup and kept current by a scheduled job that creates
+ * partitions {@code hes.partitions.months-ahead} months ahead, so the write path answers
+ * "does this month exist?" in memory. DDL only runs on a true miss (typically a backfill into an
+ * old month), serialised per parent table with a PostgreSQL advisory lock.
+ */
+@Component
+@Slf4j
+public class PartitionRegistry {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String SAFE_NAME = "[a-zA-Z0-9_]+";
+
+    private final DataSource dataSource;
+    private final Set<String> knownPartitions = ConcurrentHashMap.newKeySet();
+
+    @Value("${hes.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${hes.partitions.tables:profile_channel_one,profile_channel_two,profile_channel_one_hh,profile_channel_two_hh,profile_channel_three_hh,daily_billing_profile,monthly_billing_profile,daily_billing_data_hh,daily_billing_energy_hh,monthly_billing_data_hh,monthly_billing_energy_hh,monthly_consumption}")
+    private List<String> monthlyTables;
+
+    public PartitionRegistry(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAndPrecreate() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("❌ Could not load partition catalog from pg_inherits: {}", e.getMessage());
+        }
+        precreateAhead();
+    }
+
+    public void reload() throws SQLException {
+        String sql = "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid";
+        Set<String> loaded = new HashSet<>();
+        try (Connection c = dataSource.getConnection();
+             Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) {
+                loaded.add(rs.getString(1));
+            }
+        }
+        knownPartitions.addAll(loaded);
+        knownPartitions.retainAll(loaded);
+        log.info("📚 Partition catalog loaded: {} partitions", loaded.size());
+    }
+
+    /**
+     * Creates the current month and the next {@code months-ahead} months for every monthly table,
+     * each in its own short autocommit transaction.
+     */
+    @Scheduled(cron = "${hes.partitions.precreate.cron:0 20 0 * * *}")
+    public void precreateAhead() {
+        YearMonth now = YearMonth.now();
+        for (String parent : monthlyTables) {
+            for (int i = 0; i <= monthsAhead; i++) {
+                YearMonth month = now.plusMonths(i);
+                String partition = partitionName(parent, month);
+                if (knownPartitions.contains(partition)) {
+                    continue;
+                }
+                try (Connection c = dataSource.getConnection()) {
+                    c.setAutoCommit(false);
+                    createLocked(c, parent, partition, month);
+                    c.commit();
+                    knownPartitions.add(partition);
+                } catch (Exception e) {
+                    log.error("❌ Pre-creating partition {} failed: {}", partition, e.getMessage());
+                }
+            }
+        }
+    }
+
+    public boolean isKnown(String parentTable, YearMonth month) {
+        return knownPartitions.contains(partitionName(parentTable, month));
+    }
+
+    /**
+     * Ensures {@code <prefix>_yyyyMM} partitions of {@code parentTable} exist for the given months.
+     * Known months cost a set lookup; misses are created inside the caller's transaction and only
+     * recorded as known once it commits. A failed DDL is rethrown so the caller's transaction rolls back.
+     */
+    public void ensureMonthlyPartitions(Session session, String parentTable, String partitionPrefix,
+                                        Collection<YearMonth> months) {
+        for (YearMonth month : months) {
+            if (month == null) continue;
+            String partition = partitionName(partitionPrefix, month);
+            if (knownPartitions.contains(partition)) {
+                continue;
+            }
+            try {
+                session.doWork(connection -> createLocked(connection, parentTable, partition, month));
+            } catch (RuntimeException e) {
+                // The failed DDL has aborted the caller's transaction; carrying on would only fail later
+                log.error("Error creating partition {}: {}", partition, e.getMessage());
+                throw e;
+            }
+            markKnownAfterCommit(partition);
+        }
+    }
+
+    public void ensureMonthlyPartitions(Session session, String parentTable, Collection<YearMonth> months) {
+        ensureMonthlyPartitions(session, parentTable, parentTable, months);
+    }
+
+    private void createLocked(Connection connection, String parentTable, String partition, YearMonth month)
+            throws SQLException {
+        if (!parentTable.matches(SAFE_NAME) || !partition.matches(SAFE_NAME)) {
+            throw new IllegalArgumentException("Invalid partition name: " + partition);
+        }
+        // Serialise DDL per parent table across all HES instances; released at commit/rollback
+        try (PreparedStatement lock = connection.prepareStatement("SELECT pg_advisory_xact_lock(hashtext(?))")) {
+            lock.setString(1, "hes.partition:" + parentTable);
+            lock.execute();
+        }
+        String sql = String.format(
+                "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                partition, parentTable, month.atDay(1), month.plusMonths(1).atDay(1));
+        try (Statement st = connection.createStatement()) {
+            st.execute(sql);
+        }
+        log.info("🆕 Partition {} ensured.", partition);
+    }
+
+    private void markKnownAfterCommit(String partition) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            knownPartitions.add(partition);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                knownPartitions.add(partition);
+            }
+        });
+    }
+
+    private static String partitionName(String prefix, YearMonth month) {
+        return prefix + "_" + month.format(SUFFIX);
+    }
+}
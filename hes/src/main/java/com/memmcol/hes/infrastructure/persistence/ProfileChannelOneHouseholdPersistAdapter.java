@@ -19,10 +19,9 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.sql.Statement;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -35,10 +34,15 @@ public class ProfileChannelOneHouseholdPersistAdapter {
     @PersistenceContext
     private EntityManager entityManager;
     private final ProfileStatePort statePort;
+    private final PartitionRegistry partitionRegistry;
+    private final FactTableBulkWriter bulkWriter;
     private static final int FLUSH_BATCH = 100;
 
-    public ProfileChannelOneHouseholdPersistAdapter(ProfileStatePort statePort) {
+    public ProfileChannelOneHouseholdPersistAdapter(ProfileStatePort statePort, PartitionRegistry partitionRegistry,
+                                                    FactTableBulkWriter bulkWriter) {
         this.statePort = statePort;
+        this.partitionRegistry = partitionRegistry;
+        this.bulkWriter = bulkWriter;
     }
 
     public List<LocalDateTime> findExistingTimestamps(String serial, List<LocalDateTime> timestamps) {
@@ -110,20 +114,32 @@ public class ProfileChannelOneHouseholdPersistAdapter {
         }
     }
 
+    /**
+     * New rows only; a timestamp repeated within the batch collapses to its last row.
+     */
     private List<ProfileChannelOneHouseholdDTO> deduplicate(String meterSerial, List<ProfileChannelOneHouseholdDTO> readings) {
         if (readings == null || readings.isEmpty()) {
             return List.of();
         }
-        List<LocalDateTime> incomingTimestamps = readings.stream()
-                .map(ProfileChannelOneHouseholdDTO::getEntryTimestamp)
-                .collect(Collectors.toList());
-        List<LocalDateTime> existingTimestamps = findExistingTimestamps(meterSerial, incomingTimestamps);
-        return readings.stream()
-                .filter(dto -> dto.getEntryTimestamp() != null && !existingTimestamps.contains(dto.getEntryTimestamp()))
-                .collect(Collectors.toList());
+        Set<LocalDateTime> existingTimestamps = new HashSet<>(findExistingTimestamps(meterSerial,
+                List.copyOf(TimestampUpsertPlan.timestamps(readings, ProfileChannelOneHouseholdDTO::getEntryTimestamp))));
+        return TimestampUpsertPlan.of(readings, ProfileChannelOneHouseholdDTO::getEntryTimestamp, existingTimestamps).inserts();
     }
 
     public int persistReadingsByMonth(List<ProfileChannelOneHouseholdDTO> filteredRows) {
+        FactTableBulkWriter.WriteMode mode = bulkWriter.modeFor("profile_channel_one_hh");
+        if (mode != FactTableBulkWriter.WriteMode.ENTITY) {
+            // Same outcome as the persist-or-merge loop below: stored keys are overwritten, and a
+            // timestamp repeated in the batch keeps its last row (ON CONFLICT cannot touch a key twice)
+            List<ProfileChannelOneHousehold> entities = TimestampUpsertPlan
+                    .of(filteredRows, ProfileChannelOneHouseholdDTO::getEntryTimestamp, Set.of()).inserts().stream()
+                    .map(ProfileChannelOneHouseholdToEntity::toEntity)
+                    .toList();
+            FactTableBulkWriter.Counts counts = bulkWriter.write(ProfileChannelOneHousehold.class, entities, true, mode);
+            log.debug("💾 Bulk-saved {} readings to DB ({}).", counts.inserted() + counts.updated(), mode);
+            return counts.inserted() + counts.updated();
+        }
+
         Session session = entityManager.unwrap(Session.class);
         final AtomicInteger saved = new AtomicInteger();
 
@@ -152,41 +168,11 @@ public class ProfileChannelOneHouseholdPersistAdapter {
     }
 
     public void createPartitionsIfMissing(List<ProfileChannelOneHouseholdDTO> filteredRows) {
-        Session session = entityManager.unwrap(Session.class);
-
-        Set<String> months = filteredRows.stream()
+        partitionRegistry.ensureMonthlyPartitions(entityManager.unwrap(Session.class), "profile_channel_one_hh", filteredRows.stream()
                 .map(ProfileChannelOneHouseholdDTO::getEntryTimestamp)
                 .filter(Objects::nonNull)
-                .map(ts -> ts.format(DateTimeFormatter.ofPattern("yyyyMM")))
-                .collect(Collectors.toSet());
-
-        months.forEach(month -> {
-            String partitionName = "profile_channel_one_hh_" + month;
-            String startDate = month + "01";
-            String endDate = YearMonth.parse(month, DateTimeFormatter.ofPattern("yyyyMM"))
-                    .plusMonths(1)
-                    .atDay(1)
-                    .format(DateTimeFormatter.ISO_LOCAL_DATE);
-
-            String sql = String.format(
-                    "CREATE TABLE IF NOT EXISTS %s PARTITION OF profile_channel_one_hh " +
-                            "FOR VALUES FROM ('%s') TO ('%s');",
-                    partitionName, startDate, endDate
-            );
-
-            session.doWork(connection -> {
-                try (Statement stmt = connection.createStatement()) {
-                    stmt.execute(sql);
-                    log.info("🆕 Partition {} created.", partitionName);
-                } catch (Exception e) {
-                    if (e.getMessage() != null && e.getMessage().contains("exists")) {
-                        log.debug("Partition {} already exists, skipping.", partitionName);
-                    } else {
-                        log.error("Error creating partition {}: {}", partitionName, e.getMessage());
-                    }
-                }
-            });
-        });
+                .map(YearMonth::from)
+                .collect(Collectors.toSet()));
     }
 }
 
@@ -5,7 +5,6 @@ import com.memmcol.hes.domain.profile.*;
 import com.memmcol.hes.dto.ProfileChannelOneDTO;
 import com.memmcol.hes.dto.ProfileChannelOneDTOV1;
 import com.memmcol.hes.entities.ProfileChannelOne;
-import com.memmcol.hes.entities.ProfileChannelOneId;
 import com.memmcol.hes.entities.ProfileChannelOneToEntity;
 import com.memmcol.hes.infrastructure.observability.FactTablePersistenceLogging;
 import jakarta.persistence.EntityManager;
@@ -18,10 +17,10 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.sql.Statement;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -34,10 +33,15 @@ public class ProfileChannelOnePersistAdapter {
     @PersistenceContext
     private EntityManager entityManager;
     private final ProfileStatePort statePort;
+    private final FactTableBulkWriter bulkWriter;
+    private final PartitionRegistry partitionRegistry;
     private static final int FLUSH_BATCH = 100;
 
-    public ProfileChannelOnePersistAdapter(ProfileStatePort statePort) {
+    public ProfileChannelOnePersistAdapter(ProfileStatePort statePort, FactTableBulkWriter bulkWriter,
+                                           PartitionRegistry partitionRegistry) {
         this.statePort = statePort;
+        this.bulkWriter = bulkWriter;
+        this.partitionRegistry = partitionRegistry;
     }
 
     /**
@@ -121,18 +125,14 @@ public class ProfileChannelOnePersistAdapter {
             return List.of();
         }
 
-        // Extract timestamps from incoming readings
-        List<LocalDateTime> incomingTimestamps = readings.stream()
-                .map(ProfileChannelOneDTO::getEntryTimestamp)
-                .collect(Collectors.toList());
-
-        // Query DB for existing timestamps
-        List<LocalDateTime> existingTimestamps = findExistingTimestamps(meterSerial, incomingTimestamps);
+        // Query DB once for existing timestamps, then split with a hash lookup
+        Set<LocalDateTime> existingTimestamps = new HashSet<>(findExistingTimestamps(meterSerial,
+                List.copyOf(TimestampUpsertPlan.timestamps(readings, ProfileChannelOneDTO::getEntryTimestamp))));
 
-        // Filter only new readings
-        List<ProfileChannelOneDTO> filteredRows = readings.stream()
-                .filter(dto -> !existingTimestamps.contains(dto.getEntryTimestamp()))
-                .collect(Collectors.toList());
+        // Keep only new readings (repeated timestamps in the batch collapse to one row)
+        List<ProfileChannelOneDTO> filteredRows = TimestampUpsertPlan
+                .of(readings, ProfileChannelOneDTO::getEntryTimestamp, existingTimestamps)
+                .inserts();
 
         if (filteredRows.isEmpty()) {
             log.info("✅ No new readings to save — all timestamps already exist.");
@@ -149,8 +149,17 @@ public class ProfileChannelOnePersistAdapter {
      * Since you want to:
      * •	Extract all months from the incoming readings
      * •	Pre-create missing partitions once before persisting
+     * Rows must already have passed through deduplicate(), so no per-row existence lookup is made.
      */
     public int persistReadingsByMonth(List<ProfileChannelOneDTO> filteredRows) {
+        FactTableBulkWriter.WriteMode mode = bulkWriter.modeFor("profile_channel_one");
+        if (mode != FactTableBulkWriter.WriteMode.ENTITY) {
+            List<ProfileChannelOne> entities = filteredRows.stream().map(ProfileChannelOneToEntity::toEntity).toList();
+            int inserted = bulkWriter.write(ProfileChannelOne.class, entities, false, mode).inserted();
+            log.debug("💾 Bulk-saved {} readings to DB ({}).", inserted, mode);
+            return inserted;
+        }
+
         Session session = entityManager.unwrap(Session.class);
 
         log.debug("💾 Persisting readings to DB....");
@@ -158,19 +167,7 @@ public class ProfileChannelOnePersistAdapter {
         filteredRows.forEach(dto -> {
             ProfileChannelOne entity = ProfileChannelOneToEntity.toEntity(dto);
 
-            // Check if record exists
-            ProfileChannelOneId id = new ProfileChannelOneId(
-                    entity.getMeterSerial(),
-                    entity.getEntryTimestamp()
-            );
-
-            ProfileChannelOne existing = session.get(ProfileChannelOne.class, id);
-
-            if (existing == null) {
-                session.persist(entity); // Insert new
-            } else {
-                session.merge(entity);   // Update existing
-            }
+            session.persist(entity); // Rows are new: deduplicate() already dropped stored timestamps
 
             if (saved.incrementAndGet() % FLUSH_BATCH == 0) {
                 session.flush();
@@ -215,34 +212,9 @@ public class ProfileChannelOnePersistAdapter {
     }
 
     private void createPartitionsIfMissingByMonths(Session session, Set<String> months) {
-        // Pre-create missing partitions
-        months.forEach(month -> {
-            String partitionName = "profile_channel_one_" + month;
-            String startDate = month + "01";
-            String endDate = YearMonth.parse(month, DateTimeFormatter.ofPattern("yyyyMM"))
-                    .plusMonths(1)
-                    .atDay(1)
-                    .format(DateTimeFormatter.ISO_LOCAL_DATE);
-
-            String sql = String.format(
-                    "CREATE TABLE IF NOT EXISTS %s PARTITION OF profile_channel_one " +
-                            "FOR VALUES FROM ('%s') TO ('%s');",
-                    partitionName, startDate, endDate
-            );
-
-            session.doWork(connection -> {
-                try (Statement stmt = connection.createStatement()) {
-                    stmt.execute(sql);
-                    log.info("🆕 Partition {} created.", partitionName);
-                } catch (Exception e) {
-                    if (e.getMessage() != null && e.getMessage().contains("exists")) {
-                        log.debug("Partition {} already exists, skipping.", partitionName);
-                    } else {
-                        log.error("Error creating partition {}: {}", partitionName, e.getMessage());
-                    }
-                }
-            });
-        });
+        partitionRegistry.ensureMonthlyPartitions(session, "profile_channel_one", months.stream()
+                .map(month -> YearMonth.parse(month, DateTimeFormatter.ofPattern("yyyyMM")))
+                .collect(Collectors.toSet()));
     }
 
 }
@@ -20,10 +20,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.sql.Statement;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -38,43 +37,15 @@ public class ProfileChannelThreeHouseholdPersistenceAdapter {
     private final EntityManager em;
     private static final int FLUSH_BATCH = 500;
     private final ProfileStatePort statePort;
+    private final PartitionRegistry partitionRegistry;
+    private final FactTableBulkWriter bulkWriter;
 
     public void createPartitionsIfMissing(List<ProfileChannelThreeHouseholdDTO> filteredRows) {
-        Session session = em.unwrap(Session.class);
-
-        Set<String> months = filteredRows.stream()
+        partitionRegistry.ensureMonthlyPartitions(em.unwrap(Session.class), "profile_channel_three_hh", filteredRows.stream()
                 .map(ProfileChannelThreeHouseholdDTO::getEntryTimestamp)
                 .filter(Objects::nonNull)
-                .map(ts -> ts.format(DateTimeFormatter.ofPattern("yyyyMM")))
-                .collect(Collectors.toSet());
-
-        months.forEach(month -> {
-            String partitionName = "profile_channel_three_hh_" + month;
-            String startDate = month + "01";
-            String endDate = YearMonth.parse(month, DateTimeFormatter.ofPattern("yyyyMM"))
-                    .plusMonths(1)
-                    .atDay(1)
-                    .format(DateTimeFormatter.ISO_LOCAL_DATE);
-
-            String sql = String.format(
-                    "CREATE TABLE IF NOT EXISTS %s PARTITION OF profile_channel_three_hh " +
-                            "FOR VALUES FROM ('%s') TO ('%s');",
-                    partitionName, startDate, endDate
-            );
-
-            session.doWork(connection -> {
-                try (Statement stmt = connection.createStatement()) {
-                    stmt.execute(sql);
-                    log.info("Partition {} created.", partitionName);
-                } catch (Exception e) {
-                    if (e.getMessage() != null && e.getMessage().contains("exists")) {
-                        log.debug("Partition {} already exists, skipping.", partitionName);
-                    } else {
-                        log.error("Error creating partition {}: {}", partitionName, e.getMessage());
-                    }
-                }
-            });
-        });
+                .map(YearMonth::from)
+                .collect(Collectors.toSet()));
     }
 
     public List<LocalDateTime> findExistingTimestamps(String serial, List<LocalDateTime> timestamps) {
@@ -146,17 +117,32 @@ public class ProfileChannelThreeHouseholdPersistenceAdapter {
         }
     }
 
+    /**
+     * New rows only; a timestamp repeated within the batch collapses to its last row.
+     */
     private List<ProfileChannelThreeHouseholdDTO> deduplicate(String meterSerial, List<ProfileChannelThreeHouseholdDTO> readings) {
-        List<LocalDateTime> incomingTimestamps = readings.stream()
-                .map(ProfileChannelThreeHouseholdDTO::getEntryTimestamp)
-                .collect(Collectors.toList());
-        List<LocalDateTime> existingTimestamps = findExistingTimestamps(meterSerial, incomingTimestamps);
-        return readings.stream()
-                .filter(dto -> dto.getEntryTimestamp() != null && !existingTimestamps.contains(dto.getEntryTimestamp()))
-                .collect(Collectors.toList());
+        if (readings == null || readings.isEmpty()) {
+            return List.of();
+        }
+        Set<LocalDateTime> existingTimestamps = new HashSet<>(findExistingTimestamps(meterSerial,
+                List.copyOf(TimestampUpsertPlan.timestamps(readings, ProfileChannelThreeHouseholdDTO::getEntryTimestamp))));
+        return TimestampUpsertPlan.of(readings, ProfileChannelThreeHouseholdDTO::getEntryTimestamp, existingTimestamps).inserts();
     }
 
     public int persistReadingsByMonth(List<ProfileChannelThreeHouseholdDTO> filteredRows) {
+        FactTableBulkWriter.WriteMode mode = bulkWriter.modeFor("profile_channel_three_hh");
+        if (mode != FactTableBulkWriter.WriteMode.ENTITY) {
+            // Same outcome as the persist-or-merge loop below: stored keys are overwritten, and a
+            // timestamp repeated in the batch keeps its last row (ON CONFLICT cannot touch a key twice)
+            List<ProfileChannelThreeHousehold> entities = TimestampUpsertPlan
+                    .of(filteredRows, ProfileChannelThreeHouseholdDTO::getEntryTimestamp, Set.of()).inserts().stream()
+                    .map(ProfileChannelThreeHouseholdToEntity::toEntity)
+                    .toList();
+            FactTableBulkWriter.Counts counts = bulkWriter.write(ProfileChannelThreeHousehold.class, entities, true, mode);
+            log.debug("💾 Bulk-saved {} readings to DB ({}).", counts.inserted() + counts.updated(), mode);
+            return counts.inserted() + counts.updated();
+        }
+
         Session session = em.unwrap(Session.class);
         final AtomicInteger saved = new AtomicInteger();
 
@@ -15,10 +15,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.sql.Statement;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -33,46 +32,18 @@ public class ProfileChannelTwoPersistenceAdapter {
     private final EntityManager em;
     private static final int FLUSH_BATCH = 500;
     private final ProfileStatePort statePort;
+    private final PartitionRegistry partitionRegistry;
+    private final FactTableBulkWriter bulkWriter;
 
     /**
      * Creates monthly partition tables for any missing months found in the DTO list.
      */
     public void createPartitionsIfMissing(List<ProfileChannelTwoDTO> filteredRows) {
-        Session session = em.unwrap(Session.class);
-
-        // 1. Extract unique months (YYYYMM format)
-        Set<String> months = filteredRows.stream()
-                .map(dto -> dto.getEntryTimestamp().format(DateTimeFormatter.ofPattern("yyyyMM")))
-                .collect(Collectors.toSet());
-
-        // 2. Pre-create missing partitions
-        months.forEach(month -> {
-            String partitionName = "profile_channel_two_" + month;
-            String startDate = month + "01";
-            String endDate = YearMonth.parse(month, DateTimeFormatter.ofPattern("yyyyMM"))
-                    .plusMonths(1)
-                    .atDay(1)
-                    .format(DateTimeFormatter.ISO_LOCAL_DATE);
-
-            String sql = String.format(
-                    "CREATE TABLE IF NOT EXISTS %s PARTITION OF profile_channel_two " +
-                            "FOR VALUES FROM ('%s') TO ('%s');",
-                    partitionName, startDate, endDate
-            );
-
-            session.doWork(connection -> {
-                try (Statement stmt = connection.createStatement()) {
-                    stmt.execute(sql);
-                    log.info("🆕 Partition {} created.", partitionName);
-                } catch (Exception e) {
-                    if (e.getMessage().contains("exists")) {
-                        log.debug("Partition {} already exists, skipping.", partitionName);
-                    } else {
-                        log.error("Error creating partition {}: {}", partitionName, e.getMessage());
-                    }
-                }
-            });
-        });
+        partitionRegistry.ensureMonthlyPartitions(em.unwrap(Session.class), "profile_channel_two", filteredRows.stream()
+                .map(ProfileChannelTwoDTO::getEntryTimestamp)
+                .filter(Objects::nonNull)
+                .map(YearMonth::from)
+                .collect(Collectors.toSet()));
     }
 
     public ProfileTimestamp findLatestTimestamp(String meterSerial, String model) {
@@ -177,18 +148,14 @@ public class ProfileChannelTwoPersistenceAdapter {
             return List.of();
         }
 
-        // Extract timestamps from incoming readings
-        List<LocalDateTime> incomingTimestamps = readings.stream()
-                .map(ProfileChannelTwoDTO::getEntryTimestamp)
-                .collect(Collectors.toList());
-
-        // Query DB for existing timestamps
-        List<LocalDateTime> existingTimestamps = findExistingTimestamps(meterSerial, incomingTimestamps);
+        // Query DB once for existing timestamps, then split with a hash lookup
+        Set<LocalDateTime> existingTimestamps = new HashSet<>(findExistingTimestamps(meterSerial,
+                List.copyOf(TimestampUpsertPlan.timestamps(readings, ProfileChannelTwoDTO::getEntryTimestamp))));
 
-        // Filter only new readings
-        List<ProfileChannelTwoDTO> filteredRows = readings.stream()
-                .filter(dto -> !existingTimestamps.contains(dto.getEntryTimestamp()))
-                .collect(Collectors.toList());
+        // Keep only new readings (repeated timestamps in the batch collapse to one row)
+        List<ProfileChannelTwoDTO> filteredRows = TimestampUpsertPlan
+                .of(readings, ProfileChannelTwoDTO::getEntryTimestamp, existingTimestamps)
+                .inserts();
 
         if (filteredRows.isEmpty()) {
             log.info("✅ No new readings to save — all timestamps already exist.");
@@ -204,8 +171,17 @@ public class ProfileChannelTwoPersistenceAdapter {
      * Since you want to:
      * •	Extract all months from the incoming readings
      * •	Pre-create missing partitions once before persisting
+     * Rows must already have passed through deduplicate(), so no per-row existence lookup is made.
      */
     public int persistReadingsByMonth(List<ProfileChannelTwoDTO> filteredRows) {
+        FactTableBulkWriter.WriteMode mode = bulkWriter.modeFor("profile_channel_two");
+        if (mode != FactTableBulkWriter.WriteMode.ENTITY) {
+            List<ProfileChannelTwo> entities = filteredRows.stream().map(ProfileChannelTwoToEntity::toEntity).toList();
+            int inserted = bulkWriter.write(ProfileChannelTwo.class, entities, false, mode).inserted();
+            log.debug("💾 Bulk-saved {} readings to DB ({}).", inserted, mode);
+            return inserted;
+        }
+
         Session session = em.unwrap(Session.class);
 
         log.info("💾 Persisting readings to DB....");
@@ -213,19 +189,7 @@ public class ProfileChannelTwoPersistenceAdapter {
         filteredRows.forEach(dto -> {
             ProfileChannelTwo entity = ProfileChannelTwoToEntity.toEntity(dto);
 
-            // Check if record exists
-            ProfileChannelTwoId id = new ProfileChannelTwoId(
-                    entity.getMeterSerial(),
-                    entity.getEntryTimestamp()
-            );
-
-            ProfileChannelTwo existing = session.get(ProfileChannelTwo.class, id);
-
-            if (existing == null) {
-                session.persist(entity); // Insert new
-            } else {
-                session.merge(entity);   // Update existing
-            }
+            session.persist(entity); // Rows are new: deduplicate() already dropped stored timestamps
 
             if (saved.incrementAndGet() % FLUSH_BATCH == 0) {
                 session.flush();
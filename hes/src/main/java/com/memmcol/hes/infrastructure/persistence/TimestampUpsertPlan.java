@@ -0,0 +1,46 @@
+package com.memmcol.hes.infrastructure.persistence;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Insert/update split for a batch keyed by (meter_serial, entry_timestamp).
+ * <p>
+ * Existing timestamps are fetched with a single IN query into a {@link HashSet}, so the split is
+ * O(n) instead of {@code List.contains} per row, and rows no longer need a {@code session.get}
+ * round-trip to decide between persist and merge. Rows repeating a timestamp inside the same
+ * batch collapse to the last one (the meter re-sent it), and rows without a timestamp are dropped.
+ */
+public record TimestampUpsertPlan<T>(List<T> inserts, List<T> updates) {
+
+    public static <T> TimestampUpsertPlan<T> of(List<T> rows,
+                                                Function<T, LocalDateTime> timestampOf,
+                                                Set<LocalDateTime> existing) {
+        if (rows == null || rows.isEmpty()) {
+            return new TimestampUpsertPlan<>(List.of(), List.of());
+        }
+        Map<LocalDateTime, T> latest = new LinkedHashMap<>(rows.size() * 2);
+        for (T row : rows) {
+            LocalDateTime ts = timestampOf.apply(row);
+            if (ts != null) {
+                latest.put(ts, row);
+            }
+        }
+        List<T> inserts = new ArrayList<>(latest.size());
+        List<T> updates = new ArrayList<>();
+        latest.forEach((ts, row) -> (existing.contains(ts) ? updates : inserts).add(row));
+        return new TimestampUpsertPlan<>(inserts, updates);
+    }
+
+    public static <T> Set<LocalDateTime> timestamps(List<T> rows, Function<T, LocalDateTime> timestampOf) {
+        Set<LocalDateTime> out = new HashSet<>(rows.size() * 2);
+        for (T row : rows) {
+            LocalDateTime ts = timestampOf.apply(row);
+            if (ts != null) {
+                out.add(ts);
+            }
+        }
+        return out;
+    }
+}
@@ -1,11 +1,13 @@
 package com.memmcol.hes.jobs.services;
 
 import com.memmcol.hes.application.port.out.EventObisResolutionPort;
+import com.memmcol.hes.config.MeterReadLimiter;
 import com.memmcol.hes.domain.events.EventScheduleProfile;
 import com.memmcol.hes.domain.events.ResolvedTieredEventObis;
 import com.memmcol.hes.domain.profile.MetersLockService;
 import com.memmcol.hes.domain.profile.ProfileMeterEligibility;
 import com.memmcol.hes.dto.MeterDTO;
+import com.memmcol.hes.nettyUtils.DlmsTimeoutPolicy;
 import com.memmcol.hes.repository.MeterRepository;
 import com.memmcol.hes.service.MeterConnections;
 import lombok.extern.slf4j.Slf4j;
@@ -49,11 +51,15 @@ public class ProfileExecutionService {
     private final boolean executionWindowEnabled;
     private final Set<String> householdMeterModels;
     private final EventObisResolutionPort eventObisResolutionPort;
+    private final MeterReadLimiter meterReadLimiter;
+    private final DlmsTimeoutPolicy timeoutPolicy;
 
     public ProfileExecutionService(MetersLockService metersLockService,
                                    MeterRepository meterRepository,
                                    @Qualifier("meterReadAdaptiveExecutor") ExecutorService meterReadExecutor,
                                    EventObisResolutionPort eventObisResolutionPort,
+                                   MeterReadLimiter meterReadLimiter,
+                                   DlmsTimeoutPolicy timeoutPolicy,
                                    @Value("${hes.profile.execution.batch-size:${hes.meter.executor.size:50}}") int meterBatchSize,
                                    @Value("${hes.profile.execution.window.zone:Africa/Lagos}") String executionWindowZone,
                                    @Value("${hes.profile.execution.window.start:00:00}") String executionWindowStart,
@@ -64,6 +70,8 @@ public class ProfileExecutionService {
         this.meterRepository = meterRepository;
         this.meterReadExecutor = meterReadExecutor;
         this.eventObisResolutionPort = eventObisResolutionPort;
+        this.meterReadLimiter = meterReadLimiter;
+        this.timeoutPolicy = timeoutPolicy;
         this.meterBatchSize = Math.max(1, meterBatchSize);
         this.executionWindowZone = ZoneId.of(executionWindowZone);
         this.executionWindowStart = LocalTime.parse(executionWindowStart);
@@ -143,6 +151,7 @@ public class ProfileExecutionService {
         }
 
         int missing = 0;
+        int circuitOpen = 0;
         int success = 0;
         int failed = 0;
         int timedOut = 0;
@@ -177,7 +186,7 @@ public class ProfileExecutionService {
                         profileName, missingSerials.size(), from + 1, to);
             }
 
-            List<MeterDTO> metersToRead = serialBatch.stream()
+            List<MeterDTO> eligible = serialBatch.stream()
                     .map(meterDetailsBySerial::get)
                     .filter(dto -> dto != null)
                     .filter(dto -> allowedModels == null || allowedModels.isEmpty() || allowedModels.contains(dto.getMeterModel()))
@@ -185,6 +194,12 @@ public class ProfileExecutionService {
                     .filter(dto -> meterFilter == null || meterFilter.test(dto))
                     .toList();
 
+            // Meters that keep timing out would only hold a worker until their requests expire
+            List<MeterDTO> metersToRead = eligible.stream()
+                    .filter(dto -> !timeoutPolicy.isOpen(dto.getMeterNumber()))
+                    .toList();
+            circuitOpen += eligible.size() - metersToRead.size();
+
             BatchResult batchResult = executeBatch(profileName, metersToRead, obisCode, reader);
             success += batchResult.success();
             failed += batchResult.failed();
@@ -195,8 +210,8 @@ public class ProfileExecutionService {
                     batchResult.timedOut(), missingSerials.size());
         }
 
-        log.info("{} read complete. success={}, failed={}, timeout={}, missing={}, total={}",
-                profileName, success, failed, timedOut, missing, activeMeters.size());
+        log.info("{} read complete. success={}, failed={}, timeout={}, missing={}, circuitOpen={}, total={}",
+                profileName, success, failed, timedOut, missing, circuitOpen, activeMeters.size());
         log.info(
                 "hes.profile.batch summary profileName={} obis={} metersSucceeded={} metersFailed={} metersTimedOut={} metersMissingDb={} totalActiveSerials={} note=Per_meter_fact_table_persistence_is_logged_separately_with_prefix_Fact_DB_persistence_and_hes.factdb_outcome",
                 profileName, obisCode, success, failed, timedOut, missing, activeMeters.size());
@@ -238,7 +253,7 @@ public class ProfileExecutionService {
                                       String obisCode,
                                       BiConsumer<MeterDTO, String> reader) {
         try {
-            reader.accept(dto, obisCode);
+            meterReadLimiter.run(dto.getMeterNumber(), () -> reader.accept(dto, obisCode));
             return MeterReadResult.success(dto.getMeterNumber());
         } catch (Exception e) {
             log.warn("{} read failed for {}: {}", profileName, dto.getMeterNumber(), e.getMessage());
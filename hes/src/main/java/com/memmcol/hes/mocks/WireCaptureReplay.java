@@ -0,0 +1,251 @@
+package com.memmcol.hes.mocks;
+
+import com.memmcol.hes.application.port.out.TxRxService;
+import com.memmcol.hes.gridflex.sse.MeterHeartbeatService;
+import com.memmcol.hes.netty.DLMSFrameDecoder;
+import com.memmcol.hes.netty.DLMSFrameEncoder;
+import com.memmcol.hes.netty.DLMSMeterHandler;
+import com.memmcol.hes.nettyUtils.AssociationAdmissionController;
+import com.memmcol.hes.nettyUtils.AssociationLivenessTracker;
+import com.memmcol.hes.nettyUtils.DlmsInvokeIdCorrelator;
+import com.memmcol.hes.nettyUtils.DlmsLinkStats;
+import com.memmcol.hes.nettyUtils.DlmsTimeoutPolicy;
+import com.memmcol.hes.nettyUtils.EventNotificationHandler;
+import com.memmcol.hes.nettyUtils.WireCaptureLog;
+import com.memmcol.hes.service.MeterConnections;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Replays one meter's session from a binary wire capture ({@link WireCaptureLog}).
+ * <p>
+ * Captured RX frames are fed as raw bytes through {@link DLMSFrameDecoder} and
+ * {@link DLMSMeterHandler} on an {@link EmbeddedChannel} bound to the meter serial, so replies
+ * complete through the real invoke-id correlator. As a {@link TxRxService} it can be handed to
+ * {@code DlmsReaderUtils}, which makes a real meter conversation a reproducible benchmark.
+ * <p>
+ * Each captured response is filed under the invoke-id of the request it answered, and a request
+ * sent to the replay gets the next response filed under its own invoke-id. Requests may therefore
+ * be sent in any order, as long as the client numbers them the way the captured session did
+ * (a fresh association numbers them from the same start); APDUs without an invoke-id (AARQ,
+ * release) share one queue in capture order.
+ * <p>
+ * {@link #main} replays every session of a capture file (or one meter's) and prints the
+ * exchange count and time per meter:
+ * <pre>
+ *   java ... com.memmcol.hes.mocks.WireCaptureReplay logs/wire-capture.bin [meterSerial]
+ * </pre>
+ */
+@Slf4j
+public class WireCaptureReplay implements TxRxService, AutoCloseable {
+
+    /** Key for captured exchanges whose APDU carries no invoke-id. */
+    private static final int UNTAGGED = -1;
+
+    private final String serial;
+    private final EmbeddedChannel channel;
+    private final List<byte[]> requests = new ArrayList<>();
+    private final Map<Integer, Deque<byte[]>> responses = new HashMap<>();
+    private final List<byte[]> pushed = new ArrayList<>();
+    private final HashedWheelTimer timer = new HashedWheelTimer();
+    private StandaloneHandler standalone;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: WireCaptureReplay <capture-file> [meterSerial]");
+            return;
+        }
+        Map<String, List<WireCaptureLog.Record>> sessions = sessions(Path.of(args[0]));
+        for (Map.Entry<String, List<WireCaptureLog.Record>> session : sessions.entrySet()) {
+            if (args.length > 1 && !args[1].equals(session.getKey())) {
+                continue;
+            }
+            try (WireCaptureReplay replay = new WireCaptureReplay(session.getKey(), session.getValue())) {
+                long start = System.nanoTime();
+                int exchanges = replay.replay();
+                System.out.printf("meter=%s exchanges=%d unanswered=%d time=%.3fms%n", session.getKey(), exchanges,
+                        replay.requests.size() - exchanges, (System.nanoTime() - start) / 1_000_000.0);
+            }
+        }
+    }
+
+    /**
+     * Replays through a {@link DLMSMeterHandler} wired with standalone collaborators, for use
+     * without the Spring context: heartbeats are not published and association-lost probes are
+     * not sent.
+     */
+    public WireCaptureReplay(String serial, List<WireCaptureLog.Record> session) {
+        this(serial, session, StandaloneHandler.create());
+    }
+
+    private WireCaptureReplay(String serial, List<WireCaptureLog.Record> session, StandaloneHandler standalone) {
+        this(serial, session, standalone.handler());
+        this.standalone = standalone;
+    }
+
+    public WireCaptureReplay(String serial, List<WireCaptureLog.Record> session, ChannelHandler meterHandler) {
+        this.serial = serial;
+        this.channel = new EmbeddedChannel(new DLMSFrameDecoder(), new DLMSFrameEncoder(), meterHandler);
+        MeterConnections.bind(channel, serial);
+        int answering = UNTAGGED;
+        for (WireCaptureLog.Record record : session) {
+            if (record.direction() == WireCaptureLog.Direction.TX) {
+                requests.add(record.frame());
+                answering = DlmsInvokeIdCorrelator.invokeIdOf(record.frame(), true);
+                continue;
+            }
+            if (isPush(record.frame())) {
+                pushed.add(record.frame());
+            } else {
+                responses.computeIfAbsent(answering, k -> new ArrayDeque<>()).add(record.frame());
+            }
+        }
+        log.info("Replay session meter={} requests={} responses={} pushed={}",
+                serial, requests.size(), remainingResponses(), pushed.size());
+    }
+    /**
+     * Loads a capture file and groups its records by meter serial, oldest first.
+     */
+    public static Map<String, List<WireCaptureLog.Record>> sessions(Path captureFile) throws IOException {
+        List<WireCaptureLog.Record> records = new ArrayList<>(WireCaptureLog.read(captureFile));
+        records.sort(Comparator.comparingLong(WireCaptureLog.Record::seq));
+        Map<String, List<WireCaptureLog.Record>> sessions = new LinkedHashMap<>();
+        for (WireCaptureLog.Record record : records) {
+            if (record.serial() != null && !record.serial().isEmpty()) {
+                sessions.computeIfAbsent(record.serial(), k -> new ArrayList<>()).add(record);
+            }
+        }
+        return sessions;
+    }
+
+    /**
+     * Feeds the captured login / heartbeat / event-notification frames through the pipeline.
+     */
+    public void replayPushFrames() {
+        for (byte[] frame : pushed) {
+            channel.writeInbound(Unpooled.wrappedBuffer(frame));
+        }
+        channel.releaseOutbound();
+    }
+
+    /**
+     * Re-sends the captured requests in their original order, each answered by the captured
+     * response to its invoke-id.
+     *
+     * @return the number of requests that got a response
+     */
+    public int replay() throws Exception {
+        int exchanges = 0;
+        for (byte[] request : requests) {
+            Deque<byte[]> answers = responses.get(DlmsInvokeIdCorrelator.invokeIdOf(request, true));
+            if (answers == null || answers.isEmpty()) {
+                continue;
+            }
+            sendReceiveWithContext(serial, request, 5_000);
+            exchanges++;
+        }
+        return exchanges;
+    }
+
+    @Override
+    public byte[] sendReceiveWithContext(String meterSerial, byte[] request, long timeoutMs) throws Exception {
+        DlmsInvokeIdCorrelator.PendingRequest pending =
+                DlmsInvokeIdCorrelator.of(channel).register(serial, request, timeoutMs, timer);
+        channel.writeOutbound(request);
+        channel.releaseOutbound();
+
+        int invokeId = DlmsInvokeIdCorrelator.invokeIdOf(request, true);
+        Deque<byte[]> answers = responses.get(invokeId);
+        byte[] response = answers == null ? null : answers.poll();
+        if (response == null) {
+            pending.cancel(new IllegalStateException(
+                    "Wire capture has no response left for invoke-id " + invokeId + " of " + serial));
+        } else {
+            channel.writeInbound(Unpooled.wrappedBuffer(response));
+        }
+        return pending.await();
+    }
+
+    public int remainingResponses() {
+        int remaining = 0;
+        for (Deque<byte[]> answers : responses.values()) {
+            remaining += answers.size();
+        }
+        return remaining;
+    }
+
+    public EmbeddedChannel channel() {
+        return channel;
+    }
+
+    @Override
+    public void close() {
+        timer.stop();
+        MeterConnections.remove(channel);
+        channel.finishAndReleaseAll();
+        if (standalone != null) {
+            standalone.close();
+        }
+    }
+
+    /** {@link DLMSMeterHandler} and the collaborators it needs outside Spring. */
+    private record StandaloneHandler(DLMSMeterHandler handler, ScheduledExecutorService scheduler,
+                                     AssociationAdmissionController admission) {
+
+        static StandaloneHandler create() {
+            MeterRegistry registry = new SimpleMeterRegistry();
+            ScheduledExecutorService scheduler =
+                    Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("replay-dlms", true));
+            AssociationAdmissionController admission =
+                    new AssociationAdmissionController(registry, "platform", 1, 1, 1, 16, 20);
+            DlmsLinkStats linkStats = new DlmsLinkStats(registry);
+            DLMSMeterHandler handler = new DLMSMeterHandler(null, scheduler, new EventNotificationHandler(),
+                    new SilentHeartbeats(), linkStats, admission, new AssociationLivenessTracker(registry),
+                    new DlmsTimeoutPolicy(linkStats, registry));
+            return new StandaloneHandler(handler, scheduler, admission);
+        }
+
+        void close() {
+            admission.shutdown();
+            scheduler.shutdownNow();
+        }
+    }
+
+    /** Heartbeats go nowhere during a replay. */
+    private static final class SilentHeartbeats extends MeterHeartbeatService {
+        SilentHeartbeats() {
+            super(null, null);
+        }
+
+        @Override
+        public void processFrame(String meterNo, String status) {
+        }
+    }
+
+    private static boolean isPush(byte[] frame) {
+        if (frame.length < 9) {
+            return false;
+        }
+        byte type = frame[8];
+        return type == 0x0A || type == 0x0C || type == (byte) 0xC2;
+    }
+}
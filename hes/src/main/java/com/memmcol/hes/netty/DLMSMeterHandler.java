@@ -2,19 +2,27 @@ package com.memmcol.hes.netty;
 
 import com.memmcol.hes.gridflex.sse.MeterHeartbeatService;
 import com.memmcol.hes.infrastructure.dlms.DlmsReaderUtils;
-import com.memmcol.hes.nettyUtils.DlmsRequestContext;
+import com.memmcol.hes.nettyUtils.AssociationAdmissionController;
+import com.memmcol.hes.nettyUtils.AssociationAdmissionController.Priority;
+import com.memmcol.hes.nettyUtils.AssociationLivenessTracker;
+import com.memmcol.hes.nettyUtils.DlmsInvokeIdCorrelator;
+import com.memmcol.hes.nettyUtils.DlmsLinkStats;
+import com.memmcol.hes.nettyUtils.DlmsTimeoutPolicy;
 import com.memmcol.hes.nettyUtils.EventNotificationHandler;
+import com.memmcol.hes.nettyUtils.HexDump;
+import com.memmcol.hes.nettyUtils.InboundFrameRing;
 import com.memmcol.hes.nettyUtils.MeterHeartbeatManager;
 import com.memmcol.hes.service.*;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.*;
 import io.netty.handler.timeout.ReadTimeoutException;
-import io.netty.util.AttributeKey;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import java.net.SocketException;
+import java.nio.channels.ClosedChannelException;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -27,16 +35,21 @@ import static com.memmcol.hes.nettyUtils.RequestResponseService.*;
 
 @Slf4j
 @AllArgsConstructor
-public class DLMSMeterHandler extends SimpleChannelInboundHandler<byte[]> {
+public class DLMSMeterHandler extends SimpleChannelInboundHandler<Object> {
 //    private final MeterStatusService meterStatusService;
     private final DlmsReaderUtils dlmsReaderUtils;
 //    private final MeterHeartbeatManager heartbeatManager;
     private final ScheduledExecutorService dlmsScheduledExecutor;
     private final EventNotificationHandler handler;
     private final MeterHeartbeatService heartbeatService;
+    private final DlmsLinkStats linkStats;
+    private final AssociationAdmissionController admissionController;
+    private final AssociationLivenessTracker livenessTracker;
+    private final DlmsTimeoutPolicy timeoutPolicy;
 
     @Override
     public void channelActive(ChannelHandlerContext ctx) {
+        MeterConnections.register(ctx.channel());
         log.info("New connection established: {}", ctx.channel().remoteAddress());
     }
 
@@ -51,45 +64,58 @@ public class DLMSMeterHandler extends SimpleChannelInboundHandler<byte[]> {
         } else {
             log.info("❌ Disconnected unknown channel (no meter serial bound) {}", ctx.channel().remoteAddress());
         }
+        DlmsInvokeIdCorrelator correlator = DlmsInvokeIdCorrelator.peek(ctx.channel());
+        if (correlator != null) {
+            correlator.failAll(new ClosedChannelException());
+        }
         MeterConnections.remove(ctx.channel());
         log.info("🛑 Disconnected channel {}", ctx.channel().remoteAddress());
         ctx.close();
     }
 
+    @Override
+    public boolean acceptInboundMessage(Object msg) {
+        return msg instanceof ByteBuf || msg instanceof byte[];
+    }
+
     /**
-     * Called with fully-decoded DLMS bytes (thanks to SimpleChannelInboundHandler<byte[]>).
+     * Called with one decoded DLMS wrapper frame: a {@code byte[]} from {@link DLMSFrameDecoder}
+     * or a retained {@link ByteBuf} slice from {@link DlmsWrapperFrameDecoder} (released by
+     * SimpleChannelInboundHandler once we return).
      * We:
-     *  1. Copy into per-channel inbound queue (for late-response / flush diagnostics).
-     *  2. Classify (login / heartbeat / normal DLMS).
-     *  3. Complete the active request tracker for this meter when appropriate.
+     *  1. Classify (login / heartbeat / event / normal DLMS) straight off the buffer.
+     *  2. Answer login / heartbeat without materialising the frame.
+     *  3. Copy to {@code byte[]} only where Gurux needs it: completing the waiting request,
+     *     and event notifications.
      */
-
     @Override
-    protected void channelRead0(ChannelHandlerContext ctx, byte[] msg) throws Exception {
+    protected void channelRead0(ChannelHandlerContext ctx, Object msg) throws Exception {
+        // Wrapping a byte[] frame is zero-copy, so both pipeline modes share one code path
+        final ByteBuf frame = msg instanceof byte[] bytes ? Unpooled.wrappedBuffer(bytes) : (ByteBuf) msg;
         final Channel ch = ctx.channel();
         final String serial = MeterConnections.getSerial(ch);
-
-        // Store a safe copy of inbound frame for later inspection
-        MeterConnections.getInboundQueue(ch).offer(Arrays.copyOf(msg, msg.length));
+        final int base = frame.readerIndex();
 
         // --- Step 1: Quick validation ---
-        if (msg.length < 10) {
+        if (frame.readableBytes() < 10) {
             log.warn("⚠️ Ignored invalid/too-short frame from {}: {}", ch.remoteAddress(),
-                    formatHex(msg));
+                    formatHex(frame));
             return;
         }
 
         // --- Handle unsolicited Event Notification (Push messages) ---
         // DLMS Wrapper header → APDU starts after 8 bytes
-        byte apduTag = msg[8];
+        byte apduTag = frame.getByte(base + 8);
 
         if (apduTag == (byte) 0xC2) {
-            log.info("📩 Event Notification received from meter {}: {}", serial, formatHex(msg));
+            log.info("📩 Event Notification received from meter {}: {}", serial, formatHex(frame));
             markMeterCommunication(serial);
 
+            // The buffer is released when we return; the worker gets its own copy
+            byte[] msgBytes = frameBytes(frame);
             dlmsScheduledExecutor.submit(() -> {
                 try {
-                    handleEventNotification(serial, msg);
+                    handleEventNotification(serial, msgBytes);
                 } catch (Exception e) {
                     log.error("❌ Failed to handle Event Notification from {}: {}", serial, e.getMessage(), e);
                 }
@@ -99,61 +125,50 @@ public class DLMSMeterHandler extends SimpleChannelInboundHandler<byte[]> {
 
 
         // --- Step 2: Identify meter push types dynamically (LOGIN or HEARTBEAT) ---
-        byte type = msg[8];
-        byte code = msg[9];
+        byte type = frame.getByte(base + 8);
 
         boolean isLoginOrHeart =
                 (type == 0x0A) || // Login
                         (type == 0x0C);   // Heartbeat
 
         if (isLoginOrHeart) {
-            handleMeterPushedLoginOrHeartMessage(ctx, msg);
+            handleMeterPushedLoginOrHeartMessage(ctx, frame);
             return;
         }
 
         // --- Step 3: Handle Association Lost frame (for a demo meter under investigation) ---
-        if (isAssociationLost(msg) && serial.startsWith("62225")) {
-            log.info("RX: {} : Association Lost with meter! - {}", serial, formatHex(msg));
-            readAssociationStatus(serial);
+        if (isAssociationLost(frame) && serial.startsWith("62225")) {
+            log.info("RX: {} : Association Lost with meter! - {}", serial, formatHex(frame));
+            readAssociationStatus(serial, Priority.ASSOCIATION_LOST);
             return;
         }
 
         // --- Step 4: Light RX logging ---
-        if (serial != null) {
-            markMeterCommunication(serial);
-            log.info("RX: {} : {}", serial, formatHex(msg));
-            logRx(serial, msg);
-        } else {
-            log.warn("❌ Received response from unknown channel {}: {}", ch.remoteAddress(), formatHex(msg));
+        if (serial == null) {
+            log.warn("❌ Received response from unknown channel {}: {}", ch.remoteAddress(), formatHex(frame));
             return;
         }
+        // Gurux getData boundary: the only copy a response frame gets
+        byte[] msgBytes = frameBytes(frame);
+        markMeterCommunication(serial);
+        log.info("RX: {} : {}", serial, formatHex(frame));
+        logRx(serial, msgBytes);
 
-        // --- Step 5: Normal DLMS application response tracking ---
-        String correlationId = (String) ch.attr(AttributeKey.valueOf("CID")).get();
-        DlmsRequestContext context = inflightRequests.get(correlationId);
+        // Last few frames kept for late-response / flush diagnostics (bounded, oldest overwritten)
+        InboundFrameRing.of(ch).offer(msgBytes);
 
-        if (context == null) {
-            log.warn("❌ Unknown or stale DLMS response: CID={} — discarding", correlationId);
-            return;
-        }
-
-        if (System.currentTimeMillis() > context.getExpiryTime()) {
-            inflightRequests.remove(correlationId);
-            long overdue = context.getOverdueDelay();
-            long duration = context.getDuration();
-            log.warn("⚠️ Expired response for CID={} (Meter={}) — total duration={} ms (overdue by {} ms)",
-                    correlationId, context.getMeterId(), duration, overdue);
-            return;
-        }
-
-        inflightRequests.remove(correlationId);
-        log.debug("✅ Accepted DLMS response: CID={}, Meters={}", correlationId, context.getMeterId());
-
-        BlockingQueue<byte[]> queue = TRACKER.get(correlationId);
-        if (queue != null) {
-            queue.offer(Arrays.copyOf(msg, msg.length));
-        } else {
-            log.warn("⚠️ No waiting queue for correlationId={} — possible timeout or late RX", correlationId);
+        // --- Step 5: Normal DLMS application response tracking ---
+        // Matched on the invoke-id echoed by the meter; a reply whose request already
+        // timed out finds no pending slot and is dropped here.
+        DlmsInvokeIdCorrelator correlator = DlmsInvokeIdCorrelator.peek(ch);
+        if (correlator == null || !correlator.complete(msgBytes)) {
+            log.warn("⚠️ No waiting request for RX from meter={} — possible timeout or late RX, discarding", serial);
+            linkStats.recordLateRx(serial);
+            // The meter is alive, just slow: lets an open breaker close (Karn keeps the back-off)
+            timeoutPolicy.onLateReply(serial);
+        } else if (!isAssociationLost(frame)) {
+            // A matched reply proves the association is alive; heartbeats can skip the clock probe
+            AssociationLivenessTracker.recordTraffic(ch);
         }
     }
 
@@ -172,9 +187,12 @@ public class DLMSMeterHandler extends SimpleChannelInboundHandler<byte[]> {
         ctx.close();
     }
 
-    private void handleMeterPushedLoginOrHeartMessage(ChannelHandlerContext ctx, byte[] msg) {
-        // Determine message type from msg[8]
-        byte msgType = msg[8];
+    private void handleMeterPushedLoginOrHeartMessage(ChannelHandlerContext ctx, ByteBuf frame) {
+        final int base = frame.readerIndex();
+        final int frameLength = frame.readableBytes();
+        // Determine message type from frame[8]
+        byte msgType = frame.getByte(base + 8);
+        byte msgCode = frame.getByte(base + 9);
         String typeLabel = switch (msgType) {
             case 0x0A -> "LOGIN";
             case 0x0C -> "HEARTBEAT";
@@ -183,16 +201,15 @@ public class DLMSMeterHandler extends SimpleChannelInboundHandler<byte[]> {
 
         // Extract meter length dynamically
         int fixedHeaderLength = 10; // before meter length byte
-        int meterLength = msg[10] & 0xFF;
+        int meterLength = frame.getUnsignedByte(base + 10);
         int meterStart = 11;
         int meterEnd = meterStart + meterLength;
 
-        byte[] meterIdBytes = Arrays.copyOfRange(msg, meterStart, meterEnd);
-        String meterId = new String(meterIdBytes, StandardCharsets.US_ASCII);
-        log.info("RX: {}: {} : {}", typeLabel, meterId, formatHex(msg));
+        String meterId = frame.toString(base + meterStart, meterLength, StandardCharsets.US_ASCII);
+        log.info("RX: {}: {} : {}", typeLabel, meterId, formatHex(frame));
 
         // Check for optional reserve byte
-        boolean hasReserve = (msg.length > meterEnd + 2) && (msg[meterEnd] == 0x00);
+        boolean hasReserve = (frameLength > meterEnd + 2) && (frame.getByte(base + meterEnd) == 0x00);
 
         // Bind or update meter connection (for LOGIN and HEARTBEAT)
         if (msgType == 0x0A || msgType == 0x0C) {
@@ -211,27 +228,27 @@ public class DLMSMeterHandler extends SimpleChannelInboundHandler<byte[]> {
         byte[] response = new byte[responseLength];
 
         // Copy initial 8 header bytes
-        System.arraycopy(msg, 0, response, 0, 8);
+        frame.getBytes(base, response, 0, 8);
 
         // Set dynamic response type & command
         if (msgType == 0x0A) {
             // LOGIN frame → 0xAA response
-            response[8] = (byte) ((msg[8] & 0xFF) + 0xA0);
+            response[8] = (byte) ((msgType & 0xFF) + 0xA0);
         } else if (msgType == 0x0C) {
             // HEARTBEAT frame → 0xCC response
-            response[8] = (byte) ((msg[8] & 0xFF) + 0xC0);
+            response[8] = (byte) ((msgType & 0xFF) + 0xC0);
         } else {
             // fallback
-            response[8] = (byte) ((msg[8] & 0xFF) + 0xA0);
+            response[8] = (byte) ((msgType & 0xFF) + 0xA0);
         }
 
         // Increment command code (0x02 → 0x03)
-        response[9] = (byte) ((msg[9] & 0xFF) + 0x01);
-//        response[9] = msg[9];           //don't increment
+        response[9] = (byte) ((msgCode & 0xFF) + 0x01);
+//        response[9] = msgCode;           //don't increment
 
         // Set meter length and copy ID
         response[10] = (byte) meterLength;
-        System.arraycopy(meterIdBytes, 0, response, 11, meterLength);
+        frame.getBytes(base + meterStart, response, 11, meterLength);
 
         int currentIndex = 11 + meterLength;
 
@@ -263,31 +280,65 @@ public class DLMSMeterHandler extends SimpleChannelInboundHandler<byte[]> {
         if (msgType == 0x0A || msgType == 0x0C) {
 //            heartbeatManager.handleStatus(meterId, "ONLINE");
 //            heartbeatService.processFrame(meterId, "ONLINE");
-            readAssociationStatus(meterId);
+            readAssociationStatus(meterId, msgType == 0x0A ? Priority.LOGIN : Priority.HEARTBEAT);
         }
     }
 
-    private void readAssociationStatus(String meterId) {
+    /**
+     * Probes the association unless the liveness tracker says it is not needed (recent traffic,
+     * probe already pending, heartbeat probe budget spent). After 5 s the probe is handed to the admission
+     * controller, which paces the blocking association reads; the scheduler thread itself only enqueues.
+     */
+    private void readAssociationStatus(String meterId, Priority priority) {
+        if (!livenessTracker.beginProbe(meterId, priority)) {
+            return;
+        }
         dlmsScheduledExecutor.schedule(() -> {
-            try {
-                // Read association object status (0.0.40.0.0.255, index 8)
-                    Object result = dlmsReaderUtils.readClock( meterId);  //readClock
-//                Object result = dlmsReaderUtils.checkAssociationStatus(meterId);
-                log.debug("Association refreshed for {}, Status: {}", meterId, result);
-            } catch (Exception e) {
-                log.error("Failed to refresh association", e);
+            boolean queued = admissionController.submit(meterId, priority, () -> {
+                try {
+                    // Read association object status (0.0.40.0.0.255, index 8)
+                    Object result = dlmsReaderUtils.readClock(meterId);  //readClock
+//                    Object result = dlmsReaderUtils.checkAssociationStatus(meterId);
+                    log.debug("Association refreshed for {}, Status: {}", meterId, result);
+                    livenessTracker.probeSucceeded(meterId);
+                    return result;
+                } catch (Exception e) {
+                    livenessTracker.probeFailed(meterId);
+                    throw e;
+                }
+            });
+            if (!queued) {
+                livenessTracker.probeAbandoned(meterId);
             }
         }, 5, TimeUnit.SECONDS);
     }
 
-    private String formatHex(byte[] bytes) {
-        StringBuilder sb = new StringBuilder();
-        for (byte b : bytes) {
-            sb.append(String.format("%02X ", b));
-        }
-        return sb.toString().trim();
+    /**
+     * Rendered only if the log line is emitted; the frame is still live while we log synchronously.
+     */
+    private static HexDump formatHex(byte[] bytes) {
+        return HexDump.of(bytes);
+    }
+
+    private static HexDump formatHex(ByteBuf frame) {
+        return HexDump.of(frame);
     }
 
+    /**
+     * Frame as {@code byte[]}; shares the backing array when the frame already is one.
+     */
+    private static byte[] frameBytes(ByteBuf frame) {
+        return ByteBufUtil.getBytes(frame, frame.readerIndex(), frame.readableBytes(), false);
+    }
+
+
+    private boolean isAssociationLost(ByteBuf frame) {
+        int end = frame.writerIndex();
+        return frame.readableBytes() >= 3
+                && frame.getByte(end - 3) == (byte) 0xD8
+                && frame.getByte(end - 2) == 0x01
+                && frame.getByte(end - 1) == 0x01;
+    }
 
     public boolean isAssociationLost(byte[] response) {
         // Match DLMS "Association Lost" signature
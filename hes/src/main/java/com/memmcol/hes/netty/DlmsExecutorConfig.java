@@ -1,18 +1,34 @@
 package com.memmcol.hes.netty;
 
+import com.memmcol.hes.config.ExecutorMode;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class DlmsExecutorConfig {
     @Bean
     @Qualifier("dlmsScheduledExecutor")
-    public ScheduledExecutorService dlmsScheduledExecutor() {
+    public ScheduledExecutorService dlmsScheduledExecutor(@Value("${hes.executor.mode:platform}") String mode,
+                                                          @Value("${hes.executor.dlms-scheduler.virtual-workers:256}") int virtualWorkers) {
+        if (ExecutorMode.from(mode) == ExecutorMode.VIRTUAL) {
+            // Workers are virtual threads, so a blocked meter read no longer pins one of five
+            // platform threads; idle workers time out instead of staying parked.
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(Math.max(1, virtualWorkers),
+                    Thread.ofVirtual().name("DLMS-Scheduler-vt-", 0).factory());
+            executor.setKeepAliveTime(60, TimeUnit.SECONDS);
+            executor.allowCoreThreadTimeOut(true);
+            executor.setRemoveOnCancelPolicy(true);
+            return executor;
+        }
         return Executors.newScheduledThreadPool(5, r -> {
             Thread t = new Thread(r);
             t.setName("DLMS-Scheduler-" + t.getId());
@@ -20,4 +36,20 @@ public class DlmsExecutorConfig {
             return t;
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * Runs the continuations of async DLMS exchanges (Gurux block decoding, profile buffer and row
+     * mapping) so they never execute on the Netty event loop that completed the response. Kept apart
+     * from {@code meterReadExecutor}: sync reads park those threads in {@code await}, and their own
+     * decode steps must still find a free thread.
+     */
+    @Bean
+    @Qualifier("dlmsDecodeExecutor")
+    public ExecutorService dlmsDecodeExecutor(@Value("${hes.executor.mode:platform}") String mode,
+                                              @Value("${hes.executor.dlms-decode.size:8}") int poolSize) {
+        if (ExecutorMode.from(mode) == ExecutorMode.VIRTUAL) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dlms-decode-vt-", 0).factory());
+        }
+        return Executors.newFixedThreadPool(Math.max(1, poolSize), new DefaultThreadFactory("dlms-decode", true));
+    }
+}
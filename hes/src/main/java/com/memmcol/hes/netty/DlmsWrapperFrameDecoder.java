@@ -0,0 +1,70 @@
+package com.memmcol.hes.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * Zero-copy DLMS wrapper (IEC 62056-47) frame decoder.
+ * <p>
+ * Emits each frame as a retained slice of the cumulation buffer instead of copying it into a
+ * {@code byte[]}; the downstream handler owns (and releases) the slice. Like
+ * {@link io.netty.handler.codec.LengthFieldBasedFrameDecoder} it validates the header, but on
+ * a bad version or an oversized length it skips to the next plausible header instead of
+ * failing the channel, so a burst of line noise costs a few bytes rather than the connection.
+ * <pre>
+ * | version (2) = 0x0001 | source wPort (2) | dest wPort (2) | length (2) | APDU (length) |
+ * </pre>
+ */
+@Slf4j
+public class DlmsWrapperFrameDecoder extends ByteToMessageDecoder {
+
+    static final int HEADER_LENGTH = 8;
+    private static final int WRAPPER_VERSION = 0x0001;
+    private static final int LENGTH_OFFSET = 6;
+
+    private final int maxFrameLength;
+
+    public DlmsWrapperFrameDecoder(int maxFrameLength) {
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+        while (in.readableBytes() >= HEADER_LENGTH) {
+            int start = in.readerIndex();
+            int version = in.getUnsignedShort(start);
+            int length = in.getUnsignedShort(start + LENGTH_OFFSET);
+
+            if (version != WRAPPER_VERSION || length == 0 || length > maxFrameLength) {
+                int skipped = resync(in);
+                log.warn("⚠️ Discarded {} byte(s) of garbage from {} (version=0x{}, length={})",
+                        skipped, ctx.channel().remoteAddress(), Integer.toHexString(version), length);
+                continue;
+            }
+
+            if (in.readableBytes() < HEADER_LENGTH + length) {
+                return; // wait for the rest of the frame
+            }
+            out.add(in.readRetainedSlice(HEADER_LENGTH + length));
+        }
+    }
+
+    /**
+     * Advances the reader index to the next {@code 00 01} version marker (or to the last byte
+     * when none is buffered yet) and returns how many bytes were dropped.
+     */
+    private static int resync(ByteBuf in) {
+        int start = in.readerIndex();
+        int end = in.writerIndex() - 1;
+        int next = start + 1;
+        while (next < end && !(in.getByte(next) == 0x00 && in.getByte(next + 1) == 0x01)) {
+            next++;
+        }
+        in.readerIndex(next);
+        return next - start;
+    }
+}
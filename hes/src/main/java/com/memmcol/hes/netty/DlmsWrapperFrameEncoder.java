@@ -0,0 +1,20 @@
+package com.memmcol.hes.netty;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageEncoder;
+
+import java.util.List;
+
+/*
+Wraps outgoing byte[] frames without copying them; ByteBuf frames pass straight through.
+ */
+@ChannelHandler.Sharable
+public class DlmsWrapperFrameEncoder extends MessageToMessageEncoder<byte[]> {
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, byte[] msg, List<Object> out) {
+        out.add(Unpooled.wrappedBuffer(msg));
+    }
+}
@@ -0,0 +1,80 @@
+package com.memmcol.hes.netty;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SingleThreadEventLoop;
+import io.netty.util.concurrent.EventExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per event-loop gauges for the DLMS server, tagged {@code group} (accept / io) and {@code loop}:
+ * <ul>
+ *     <li>{@code hes.netty.eventloop.pending.tasks}: tasks queued on the loop (DLMS writes, timers)</li>
+ *     <li>{@code hes.netty.eventloop.channels}: channels registered on the loop</li>
+ *     <li>{@code hes.netty.eventloop.lag.ms}: how late a probe scheduled every {@code probe-ms} ran,
+ *     i.e. how long I/O or tasks kept the loop busy</li>
+ * </ul>
+ * Netty does not measure how loop time splits between I/O and tasks, so lag is the saturation
+ * signal; the configured {@code hes.netty.io-ratio} is only logged at startup.
+ * Gauges are registered once and re-pointed at the new loops when the server restarts.
+ */
+@Component
+public class EventLoopMetrics {
+
+    private static final class LoopStats {
+        volatile SingleThreadEventLoop loop;
+        volatile long lagNanos;
+    }
+
+    private final MeterRegistry registry;
+    private final Map<String, LoopStats> loops = new ConcurrentHashMap<>();
+
+    @Value("${hes.netty.eventloop.probe-ms:1000}")
+    private long probeMs;
+
+    public EventLoopMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void monitor(String groupName, EventLoopGroup group) {
+        int index = 0;
+        for (EventExecutor executor : group) {
+            if (!(executor instanceof SingleThreadEventLoop loop)) {
+                continue;
+            }
+            String key = groupName + "#" + index;
+            boolean registered = loops.containsKey(key);
+            LoopStats stats = loops.computeIfAbsent(key, k -> new LoopStats());
+            stats.loop = loop;
+            stats.lagNanos = 0;
+            if (!registered) {
+                Tags tags = Tags.of("group", groupName, "loop", String.valueOf(index));
+                Gauge.builder("hes.netty.eventloop.pending.tasks", stats, s -> s.loop.pendingTasks())
+                        .tags(tags).register(registry);
+                Gauge.builder("hes.netty.eventloop.channels", stats, s -> s.loop.registeredChannels())
+                        .tags(tags).register(registry);
+                Gauge.builder("hes.netty.eventloop.lag.ms", stats, s -> s.lagNanos / 1e6)
+                        .tags(tags).register(registry);
+            }
+            scheduleProbe(loop, stats);
+            index++;
+        }
+    }
+
+    private void scheduleProbe(SingleThreadEventLoop loop, LoopStats stats) {
+        long periodNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(10, probeMs));
+        long[] due = {System.nanoTime() + periodNanos};
+        loop.scheduleWithFixedDelay(() -> {
+            long now = System.nanoTime();
+            stats.lagNanos = Math.max(0, now - due[0]);
+            due[0] = now + periodNanos;
+        }, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+    }
+}
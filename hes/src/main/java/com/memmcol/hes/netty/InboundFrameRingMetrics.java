@@ -0,0 +1,31 @@
+package com.memmcol.hes.netty;
+
+import com.memmcol.hes.nettyUtils.InboundFrameRing;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Heap held by the per-channel inbound frame history ({@link InboundFrameRing}) across all meters.
+ */
+@Component
+public class InboundFrameRingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("hes.netty.inbound.retained.bytes", InboundFrameRing::retainedBytes)
+                .description("Bytes of inbound frames retained for late-RX matching")
+                .baseUnit("bytes")
+                .register(registry);
+
+        Gauge.builder("hes.netty.inbound.retained.frames", InboundFrameRing::retainedFrames)
+                .description("Inbound frames retained for late-RX matching")
+                .register(registry);
+
+        FunctionCounter.builder("hes.netty.inbound.overwritten", InboundFrameRing.class, c -> InboundFrameRing.overwritten())
+                .description("Retained frames dropped because a channel's history ring was full")
+                .register(registry);
+    }
+}
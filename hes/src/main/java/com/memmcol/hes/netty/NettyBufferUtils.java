@@ -1,46 +1,25 @@
 package com.memmcol.hes.netty;
 
-import com.memmcol.hes.nettyUtils.DLMSRequestTracker;
-import com.memmcol.hes.service.MeterConnections;
-import gurux.dlms.internal.GXCommon;
+import com.memmcol.hes.nettyUtils.InboundFrameRing;
 import io.netty.channel.Channel;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Queue;
+import java.util.List;
 
 @Slf4j
 public class NettyBufferUtils {
 
     /**
-     * Flush any inbound frames from the channel.
-     * Optionally return the last frame if it matches expected key.
+     * Drops the frames kept for diagnostics and returns the most recent one.
      */
-    public static byte[] flushInbound(Channel channel, String expectedKey) {
-        Queue<byte[]> inboundQueue = MeterConnections.getInboundQueue(channel);
-        byte[] lastValid = null;
-
-        while (!inboundQueue.isEmpty()) {
-            byte[] frame = inboundQueue.poll();
-            if (DLMSRequestTracker.matchesKey(frame, expectedKey)) {
-                lastValid = frame;
-            } else {
-                log.debug("Discarding stale frame: {}", GXCommon.toHex(frame));
-            }
-        }
-        return lastValid;
-    }
-
     public static byte[] flushInbound(Channel channel) {
-        Queue<byte[]> queue = MeterConnections.getInboundQueue(channel);
-        if (queue == null || queue.isEmpty()) {
+        List<byte[]> frames = InboundFrameRing.of(channel).drain();
+        if (frames.isEmpty()) {
             log.debug("No stale inbound frames to flush for {}", channel.id());
             return null;
         }
 
-        byte[] lastFrame = null;
-        while (!queue.isEmpty()) {
-            lastFrame = queue.poll(); // keep the last one
-        }
+        byte[] lastFrame = frames.getLast(); // keep the last one
         log.debug("Flushed inbound queue for {} (lastFrame length={})", channel.id(),
                 (lastFrame != null ? lastFrame.length : 0));
         return lastFrame;
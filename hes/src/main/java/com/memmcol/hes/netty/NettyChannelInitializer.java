@@ -2,8 +2,14 @@ package com.memmcol.hes.netty;
 
 import com.memmcol.hes.gridflex.sse.MeterHeartbeatService;
 import com.memmcol.hes.infrastructure.dlms.DlmsReaderUtils;
+import com.memmcol.hes.nettyUtils.AssociationAdmissionController;
+import com.memmcol.hes.nettyUtils.AssociationLivenessTracker;
+import com.memmcol.hes.nettyUtils.DlmsLinkStats;
+import com.memmcol.hes.nettyUtils.DlmsTimeoutPolicy;
 import com.memmcol.hes.nettyUtils.EventNotificationHandler;
+import com.memmcol.hes.nettyUtils.InboundFrameRing;
 import com.memmcol.hes.nettyUtils.MeterHeartbeatManager;
+import com.memmcol.hes.nettyUtils.WireCapture;
 import com.memmcol.hes.service.DlmsService;
 import com.memmcol.hes.service.MeterStatusService;
 import io.netty.channel.ChannelInitializer;
@@ -13,6 +19,7 @@ import io.netty.handler.timeout.IdleStateHandler;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.concurrent.ExecutorService;
@@ -28,6 +35,15 @@ public class NettyChannelInitializer extends ChannelInitializer<SocketChannel> {
     private final ScheduledExecutorService dlmsScheduledExecutor;
     private final EventNotificationHandler handler;
     private final MeterHeartbeatService heartbeatService;
+    private final boolean byteBufFrames;
+    private final int maxFrameLength;
+    private final int inboundHistoryDepth;
+    private final DlmsWrapperFrameEncoder wrapperFrameEncoder = new DlmsWrapperFrameEncoder();
+    private final WireCaptureHandler wireCaptureHandler;
+    private final DlmsLinkStats linkStats;
+    private final AssociationAdmissionController admissionController;
+    private final AssociationLivenessTracker livenessTracker;
+    private final DlmsTimeoutPolicy timeoutPolicy;
 
     @Autowired
     public NettyChannelInitializer(DlmsReaderUtils dlmsReaderUtils,
@@ -35,7 +51,15 @@ public class NettyChannelInitializer extends ChannelInitializer<SocketChannel> {
 //                                   MeterHeartbeatManager heartbeatManager,
                                    @Qualifier("dlmsScheduledExecutor") ScheduledExecutorService dlmsScheduledExecutor,
                                    EventNotificationHandler handler,
-                                   MeterHeartbeatService heartbeatService
+                                   MeterHeartbeatService heartbeatService,
+                                   WireCapture wireCapture,
+                                   DlmsLinkStats linkStats,
+                                   AssociationAdmissionController admissionController,
+                                   AssociationLivenessTracker livenessTracker,
+                                   DlmsTimeoutPolicy timeoutPolicy,
+                                   @Value("${hes.netty.frame-mode:bytes}") String frameMode,
+                                   @Value("${hes.netty.max-frame-length:4096}") int maxFrameLength,
+                                   @Value("${hes.netty.inbound-history.depth:8}") int inboundHistoryDepth
     ) {
 //        this.meterStatusService = meterStatusService;
         this.dlmsReaderUtils = dlmsReaderUtils;
@@ -43,21 +67,43 @@ public class NettyChannelInitializer extends ChannelInitializer<SocketChannel> {
         this.dlmsScheduledExecutor = dlmsScheduledExecutor;
         this.handler = handler;
         this.heartbeatService = heartbeatService;
+        this.byteBufFrames = "bytebuf".equalsIgnoreCase(frameMode);
+        this.maxFrameLength = maxFrameLength;
+        this.inboundHistoryDepth = Math.max(1, inboundHistoryDepth);
+        this.wireCaptureHandler = wireCapture.isEnabled() ? new WireCaptureHandler(wireCapture) : null;
+        this.linkStats = linkStats;
+        this.admissionController = admissionController;
+        this.livenessTracker = livenessTracker;
+        this.timeoutPolicy = timeoutPolicy;
     }
 
     @Override
     protected void initChannel(SocketChannel ch) {
         ChannelPipeline pipeline = ch.pipeline();
 
+        // Bounded history of inbound frames for late-RX matching (overwrites the oldest)
+        InboundFrameRing.install(ch, inboundHistoryDepth);
+
         // Optional: idle handler to close inactive meters
         pipeline.addLast("IdleStateHandler", new IdleStateHandler(300, 0, 0, TimeUnit.SECONDS));
 
         // Decoder, Encoder (Optional, depending on meter protocol framing)
-        pipeline.addLast("dlmsDecoder", new DLMSFrameDecoder());
-        pipeline.addLast("dlmsEncoder", new DLMSFrameEncoder());
+        if (byteBufFrames) {
+            // Retained slices end to end; bytes are copied only at the Gurux boundary
+            pipeline.addLast("dlmsDecoder", new DlmsWrapperFrameDecoder(maxFrameLength));
+            pipeline.addLast("dlmsEncoder", wrapperFrameEncoder);
+        } else {
+            pipeline.addLast("dlmsDecoder", new DLMSFrameDecoder());
+            pipeline.addLast("dlmsEncoder", new DLMSFrameEncoder());
+        }
+
+        // Binary capture of decoded RX / outgoing TX frames (hes.wire-capture.enabled)
+        if (wireCaptureHandler != null) {
+            pipeline.addLast("wireCapture", wireCaptureHandler);
+        }
 
         // Business logic
-        pipeline.addLast("dlmsHandler", new DLMSMeterHandler(dlmsReaderUtils, dlmsScheduledExecutor, handler, heartbeatService));
+        pipeline.addLast("dlmsHandler", new DLMSMeterHandler(dlmsReaderUtils, dlmsScheduledExecutor, handler, heartbeatService, linkStats, admissionController, livenessTracker, timeoutPolicy));
     }
 
 }
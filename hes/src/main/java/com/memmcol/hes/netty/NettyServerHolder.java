@@ -3,13 +3,13 @@ package com.memmcol.hes.netty;
 import com.memmcol.hes.service.MeterConnections;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.*;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 @Component
 @Slf4j
@@ -17,38 +17,48 @@ public class NettyServerHolder {
 //    private static final Logger log = LoggerFactory.getLogger(NettyServerHolder.class);
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
-    private static Channel channel;
+    // One server channel per acceptor loop when the port is bound with SO_REUSEPORT
+    private static final List<Channel> channels = new CopyOnWriteArrayList<>();
+
+    private final NettyTransport transport;
+    private final EventLoopMetrics eventLoopMetrics;
 
     private boolean running = false;
 
+    public NettyServerHolder(NettyTransport transport, EventLoopMetrics eventLoopMetrics) {
+        this.transport = transport;
+        this.eventLoopMetrics = eventLoopMetrics;
+    }
+
     public void startServer(int port, ChannelInitializer<SocketChannel> initializer) throws InterruptedException {
 
         if (running) return;
 
-        // Use appropriate thread pool sizes based on your CPU cores
-        bossGroup = new NioEventLoopGroup(1); // Accepts connections
-        workerGroup = new NioEventLoopGroup(); // Handles I/O (default: #cores * 2)
+        // Transport (epoll/NIO), loop counts and socket sizing come from hes.netty.*
+        bossGroup = transport.newAcceptorGroup(); // Accepts connections
+        workerGroup = transport.newWorkerGroup(); // Handles I/O (default: #cores * 2)
 
         ServerBootstrap bootstrap = new ServerBootstrap();
         bootstrap.group(bossGroup, workerGroup)
-                .channel(NioServerSocketChannel.class)
-                //Set socket options for connection reliability:
-                .childOption(ChannelOption.SO_KEEPALIVE, true)
-                .childOption(ChannelOption.TCP_NODELAY, true)
-                .childOption(ChannelOption.SO_RCVBUF, 1024 * 1024)
-                .childOption(ChannelOption.SO_SNDBUF, 1024 * 1024)
+                .channel(transport.serverChannelClass())
                 .childHandler(initializer);
+        transport.configure(bootstrap);
 
-        ChannelFuture future = bootstrap.bind(port).sync();
-        channel = future.channel();
+        for (int i = 0; i < transport.bindCount(); i++) {
+            ChannelFuture future = bootstrap.bind(port).sync();
+            channels.add(future.channel());
+        }
+        eventLoopMetrics.monitor("accept", bossGroup);
+        eventLoopMetrics.monitor("io", workerGroup);
         running = true;
-        log.info("🚀 Netty DLMS server started on port " + port);
+        log.info("🚀 Netty DLMS server started on port {} ({})", port, transport.describe());
     }
 
     public void shutdown() {
-        if (channel != null) {
+        for (Channel channel : channels) {
             channel.close();
         }
+        channels.clear();
         if (bossGroup != null) {
             bossGroup.shutdownGracefully();
         }
@@ -60,7 +70,7 @@ public class NettyServerHolder {
     }
 
     public static boolean isRunning() {
-        return channel != null && channel.isActive();
+        return channels.stream().anyMatch(Channel::isActive);
     }
 
     public void restart(int port, ChannelInitializer<SocketChannel> initializer) {
@@ -72,8 +82,14 @@ public class NettyServerHolder {
         }
     }
 
+    /** Meters logged in on a live socket, O(1). */
     public int getActiveMeterCount() {
-        return MeterConnections.size(); // SessionManager must track connections
+        return MeterConnections.onlineCount();
+    }
+
+    /** Open meter sockets, including those that have not sent a LOGIN yet, O(1). */
+    public int getConnectionCount() {
+        return MeterConnections.connectedCount();
     }
 
     public Set<String> getActiveMeters() {
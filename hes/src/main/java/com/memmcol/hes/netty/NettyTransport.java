@@ -0,0 +1,162 @@
+package com.memmcol.hes.netty;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.AdaptiveRecvByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Event-loop topology and socket options for the DLMS server.
+ * <p>
+ * {@code hes.netty.transport=auto} uses native epoll when the platform provides it and NIO
+ * otherwise. With epoll and {@code reuse-port} the server socket is bound once per acceptor
+ * thread, so the kernel spreads incoming connections over several accept loops during a
+ * reconnect storm instead of queueing them behind one.
+ * <p>
+ * Meter frames are a few hundred bytes, so per-connection kernel buffers and the receive buffer
+ * guess are sized for that rather than for bulk transfer; {@code 0} leaves the OS default.
+ */
+@Component
+@Slf4j
+public class NettyTransport {
+
+    public enum Kind { EPOLL, NIO }
+
+    @Getter
+    private final Kind kind;
+    private final int acceptorThreads;
+    private final int workerThreads;
+    private final int ioRatio;
+    private final boolean reusePort;
+    private final EpollMode epollMode;
+    private final int backlog;
+    private final int soRcvBuf;
+    private final int soSndBuf;
+    private final int recvBufMin;
+    private final int recvBufInitial;
+    private final int recvBufMax;
+    private final WriteBufferWaterMark waterMark;
+    private final ByteBufAllocator allocator;
+
+    public NettyTransport(@Value("${hes.netty.transport:auto}") String transport,
+                          @Value("${hes.netty.acceptor-threads:1}") int acceptorThreads,
+                          @Value("${hes.netty.worker-threads:0}") int workerThreads,
+                          @Value("${hes.netty.io-ratio:50}") int ioRatio,
+                          @Value("${hes.netty.epoll.reuse-port:true}") boolean reusePort,
+                          @Value("${hes.netty.epoll.mode:edge}") String epollMode,
+                          @Value("${hes.netty.backlog:4096}") int backlog,
+                          @Value("${hes.netty.so-rcvbuf:32768}") int soRcvBuf,
+                          @Value("${hes.netty.so-sndbuf:32768}") int soSndBuf,
+                          @Value("${hes.netty.recv-buf.min:64}") int recvBufMin,
+                          @Value("${hes.netty.recv-buf.initial:1024}") int recvBufInitial,
+                          @Value("${hes.netty.recv-buf.max:16384}") int recvBufMax,
+                          @Value("${hes.netty.write-buffer.low:8192}") int writeLow,
+                          @Value("${hes.netty.write-buffer.high:32768}") int writeHigh,
+                          @Value("${hes.netty.allocator.prefer-direct:true}") boolean preferDirect) {
+        this.kind = resolve(transport);
+        this.acceptorThreads = Math.max(1, acceptorThreads);
+        this.workerThreads = Math.max(0, workerThreads);
+        this.ioRatio = Math.min(100, Math.max(1, ioRatio));
+        this.reusePort = reusePort;
+        this.epollMode = "level".equalsIgnoreCase(epollMode) ? EpollMode.LEVEL_TRIGGERED : EpollMode.EDGE_TRIGGERED;
+        this.backlog = Math.max(1, backlog);
+        this.soRcvBuf = Math.max(0, soRcvBuf);
+        this.soSndBuf = Math.max(0, soSndBuf);
+        this.recvBufMin = Math.max(64, recvBufMin);
+        this.recvBufMax = Math.max(this.recvBufMin, recvBufMax);
+        this.recvBufInitial = Math.min(this.recvBufMax, Math.max(this.recvBufMin, recvBufInitial));
+        int low = Math.max(1, writeLow);
+        this.waterMark = new WriteBufferWaterMark(low, Math.max(low, writeHigh));
+        this.allocator = preferDirect ? PooledByteBufAllocator.DEFAULT : new PooledByteBufAllocator(false);
+    }
+
+    private static Kind resolve(String transport) {
+        String value = transport == null ? "auto" : transport.trim().toLowerCase();
+        if ("nio".equals(value)) {
+            return Kind.NIO;
+        }
+        if (Epoll.isAvailable()) {
+            return Kind.EPOLL;
+        }
+        if ("epoll".equals(value)) {
+            log.warn("⚠️ Native epoll requested but unavailable ({}), falling back to NIO",
+                    Epoll.unavailabilityCause() == null ? "unknown" : Epoll.unavailabilityCause().getMessage());
+        }
+        return Kind.NIO;
+    }
+
+    public EventLoopGroup newAcceptorGroup() {
+        return newGroup(acceptorThreads, "netty-accept");
+    }
+
+    public EventLoopGroup newWorkerGroup() {
+        return newGroup(workerThreads, "netty-io");
+    }
+
+    private EventLoopGroup newGroup(int threads, String prefix) {
+        if (kind == Kind.EPOLL) {
+            EpollEventLoopGroup group = new EpollEventLoopGroup(threads, new DefaultThreadFactory(prefix));
+            group.setIoRatio(ioRatio);
+            return group;
+        }
+        NioEventLoopGroup group = new NioEventLoopGroup(threads, new DefaultThreadFactory(prefix));
+        group.setIoRatio(ioRatio);
+        return group;
+    }
+
+    public Class<? extends ServerChannel> serverChannelClass() {
+        return kind == Kind.EPOLL ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+    }
+
+    /**
+     * How many times to bind the port: one server socket per acceptor loop with SO_REUSEPORT,
+     * otherwise a single one.
+     */
+    public int bindCount() {
+        return kind == Kind.EPOLL && reusePort ? acceptorThreads : 1;
+    }
+
+    public void configure(ServerBootstrap bootstrap) {
+        bootstrap.option(ChannelOption.SO_BACKLOG, backlog)
+                .option(ChannelOption.SO_REUSEADDR, true)
+                .childOption(ChannelOption.SO_KEEPALIVE, true)
+                .childOption(ChannelOption.TCP_NODELAY, true)
+                .childOption(ChannelOption.ALLOCATOR, allocator)
+                .childOption(ChannelOption.RCVBUF_ALLOCATOR,
+                        new AdaptiveRecvByteBufAllocator(recvBufMin, recvBufInitial, recvBufMax))
+                .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, waterMark);
+        if (soRcvBuf > 0) {
+            bootstrap.childOption(ChannelOption.SO_RCVBUF, soRcvBuf);
+        }
+        if (soSndBuf > 0) {
+            bootstrap.childOption(ChannelOption.SO_SNDBUF, soSndBuf);
+        }
+        if (kind == Kind.EPOLL) {
+            bootstrap.option(EpollChannelOption.SO_REUSEPORT, reusePort)
+                    .option(EpollChannelOption.EPOLL_MODE, epollMode)
+                    .childOption(EpollChannelOption.EPOLL_MODE, epollMode);
+        }
+    }
+
+    public String describe() {
+        return kind + (kind == Kind.EPOLL ? "/" + epollMode + (reusePort ? "/reuseport" : "") : "")
+                + " acceptors=" + acceptorThreads + " workers=" + (workerThreads == 0 ? "default" : workerThreads)
+                + " ioRatio=" + ioRatio + " rcvbuf=" + soRcvBuf + " sndbuf=" + soSndBuf;
+    }
+}
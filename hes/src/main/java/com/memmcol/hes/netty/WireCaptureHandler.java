@@ -0,0 +1,34 @@
+package com.memmcol.hes.netty;
+
+import com.memmcol.hes.nettyUtils.WireCapture;
+import com.memmcol.hes.nettyUtils.WireCaptureLog;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+
+/*
+Sits between the frame codec and DLMSMeterHandler and copies every decoded RX frame and
+every outgoing TX frame into the binary wire capture.
+ */
+@ChannelHandler.Sharable
+public class WireCaptureHandler extends ChannelDuplexHandler {
+
+    private final WireCapture wireCapture;
+
+    public WireCaptureHandler(WireCapture wireCapture) {
+        this.wireCapture = wireCapture;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        wireCapture.capture(WireCaptureLog.Direction.RX, ctx.channel(), msg);
+        ctx.fireChannelRead(msg);
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        wireCapture.capture(WireCaptureLog.Direction.TX, ctx.channel(), msg);
+        ctx.write(msg, promise);
+    }
+}
@@ -0,0 +1,190 @@
+package com.memmcol.hes.nettyUtils;
+
+import com.memmcol.hes.config.ExecutorMode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control for association setup / refresh after LOGIN and HEARTBEAT frames.
+ * <p>
+ * When a feeder comes back thousands of meters log in at once. Instead of every frame scheduling
+ * its own blocking read, work is queued here (one entry per meter, the most urgent reason wins)
+ * and released by a single dispatcher at {@code rate-per-second} with bursts of up to
+ * {@code burst}, never more than {@code max-concurrent} at a time. Lost associations go first,
+ * then logins, then heartbeat refreshes.
+ * <p>
+ * Metrics: {@code hes.association.admission.queued / started / completed / failed / dropped}
+ * counters (rate per second in any Micrometer backend), queue depth and in-flight gauges, and the
+ * queue wait timer. Associations actually established are counted by
+ * {@code hes.association.established} in {@link SessionManagerMultiVendor}.
+ */
+@Component
+@Slf4j
+public class AssociationAdmissionController {
+
+    public enum Priority { ASSOCIATION_LOST, LOGIN, HEARTBEAT }
+
+    private record Ticket(String serial, Priority priority, long seq, long enqueuedNanos, Callable<?> task) {}
+
+    private static final Comparator<Ticket> ORDER =
+            Comparator.comparing(Ticket::priority).thenComparingLong(Ticket::seq);
+
+    private final PriorityBlockingQueue<Ticket> queue = new PriorityBlockingQueue<>(1024, ORDER);
+    /** Latest ticket per meter; a ticket polled from the queue is only run if it is still this one. */
+    private final Map<String, Ticket> queued = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final ScheduledExecutorService dispatcher =
+            Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("assoc-admission", true));
+    private final ExecutorService workers;
+
+    private final int maxConcurrent;
+    private final int queueCapacity;
+    private final double ratePerSecond;
+    private final double burst;
+    private double tokens;
+    private long lastRefillNanos = System.nanoTime();
+
+    private final Counter queuedCounter;
+    private final Counter startedCounter;
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+    private final Counter droppedCounter;
+    private final Timer queueWait;
+
+    public AssociationAdmissionController(MeterRegistry registry,
+                                          @Value("${hes.executor.mode:platform}") String mode,
+                                          @Value("${hes.association.admission.rate-per-second:50}") double ratePerSecond,
+                                          @Value("${hes.association.admission.burst:100}") int burst,
+                                          @Value("${hes.association.admission.max-concurrent:64}") int maxConcurrent,
+                                          @Value("${hes.association.admission.queue-capacity:100000}") int queueCapacity,
+                                          @Value("${hes.association.admission.tick-ms:20}") long tickMs) {
+        this.ratePerSecond = Math.max(0.1, ratePerSecond);
+        this.burst = Math.max(1, burst);
+        this.tokens = this.burst;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.workers = ExecutorMode.from(mode) == ExecutorMode.VIRTUAL
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("assoc-vt-", 0).factory())
+                : Executors.newFixedThreadPool(this.maxConcurrent, new DefaultThreadFactory("assoc-worker", true));
+
+        this.queuedCounter = registry.counter("hes.association.admission.queued");
+        this.startedCounter = registry.counter("hes.association.admission.started");
+        this.completedCounter = registry.counter("hes.association.admission.completed");
+        this.failedCounter = registry.counter("hes.association.admission.failed");
+        this.droppedCounter = registry.counter("hes.association.admission.dropped");
+        this.queueWait = Timer.builder("hes.association.admission.wait")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        Gauge.builder("hes.association.admission.queue.depth", queued, Map::size).register(registry);
+        Gauge.builder("hes.association.admission.inflight", inFlight, AtomicInteger::get).register(registry);
+
+        dispatcher.scheduleWithFixedDelay(this::dispatch, tickMs, Math.max(1, tickMs), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues association work for a meter. A meter already waiting keeps one ticket: a more urgent
+     * request replaces it, a less urgent one is dropped.
+     *
+     * @return false when the request was coalesced or the queue is full
+     */
+    public boolean submit(String serial, Priority priority, Callable<?> task) {
+        if (serial == null) {
+            return false;
+        }
+        Ticket ticket = new Ticket(serial, priority, sequence.incrementAndGet(), System.nanoTime(), task);
+        boolean[] accepted = {false};
+        queued.compute(serial, (k, current) -> {
+            if (current != null && current.priority().compareTo(priority) <= 0) {
+                return current;
+            }
+            if (current == null && queued.size() >= queueCapacity) {
+                return null;
+            }
+            accepted[0] = true;
+            return ticket;
+        });
+        if (!accepted[0]) {
+            if (!queued.containsKey(serial)) {
+                droppedCounter.increment();
+                log.warn("⚠️ Association admission queue full ({}), dropping {} for {}", queueCapacity, priority, serial);
+            }
+            return false;
+        }
+        queue.offer(ticket);
+        queuedCounter.increment();
+        return true;
+    }
+
+    /** Single-threaded: owns the token bucket. */
+    private void dispatch() {
+        try {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - lastRefillNanos) / 1e9 * ratePerSecond);
+            lastRefillNanos = now;
+
+            while (tokens >= 1 && inFlight.get() < maxConcurrent) {
+                Ticket ticket = queue.poll();
+                if (ticket == null) {
+                    return;
+                }
+                // Superseded by a more urgent ticket for the same meter
+                if (!queued.remove(ticket.serial(), ticket)) {
+                    continue;
+                }
+                tokens -= 1;
+                inFlight.incrementAndGet();
+                startedCounter.increment();
+                queueWait.record(now - ticket.enqueuedNanos(), TimeUnit.NANOSECONDS);
+                try {
+                    workers.execute(() -> run(ticket));
+                } catch (RejectedExecutionException e) {
+                    inFlight.decrementAndGet();
+                    failedCounter.increment();
+                }
+            }
+        } catch (Exception e) {
+            log.error("❌ Association admission dispatch failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void run(Ticket ticket) {
+        try {
+            ticket.task().call();
+            completedCounter.increment();
+        } catch (Exception e) {
+            failedCounter.increment();
+            log.warn("Association work ({}) failed for {}: {}", ticket.priority(), ticket.serial(), e.getMessage());
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    public int queuedCount() {
+        return queued.size();
+    }
+
+    public int inFlightCount() {
+        return inFlight.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,161 @@
+package com.memmcol.hes.nettyUtils;
+
+import com.memmcol.hes.nettyUtils.AssociationAdmissionController.Priority;
+import com.memmcol.hes.service.MeterConnections;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides whether a LOGIN / HEARTBEAT frame needs an association keep-alive probe (clock read).
+ * <p>
+ * A correlated application reply proves the association is alive, so its time is stamped on the
+ * channel (the association does not outlive the socket). The probe is skipped while the meter had
+ * such traffic within {@code traffic-window-ms} or while a probe for it is already pending. A
+ * HEARTBEAT probe is also skipped when the global {@code max-probes-per-second} budget is spent —
+ * the next heartbeat tries again. A LOGIN is not rate-capped here: the meter has just opened a
+ * socket and will not send another LOGIN, and its probe is paced by the
+ * {@link AssociationAdmissionController} token bucket anyway. A lost association is always probed.
+ * <p>
+ * Metrics: {@code hes.association.keepalive.sent / failed} and
+ * {@code hes.association.keepalive.skipped{reason=traffic|pending|rate}}, plus a pending gauge.
+ */
+@Component
+@Slf4j
+public class AssociationLivenessTracker {
+
+    private static final AttributeKey<AtomicLong> LAST_TRAFFIC_KEY = AttributeKey.valueOf("DLMS_LAST_APP_TRAFFIC");
+
+    /** Probe start per meter; entries older than pending-timeout are treated as lost. */
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger inWindow = new AtomicInteger();
+
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter skippedTraffic;
+    private final Counter skippedPending;
+    private final Counter skippedRate;
+
+    @Value("${hes.association.keepalive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${hes.association.keepalive.traffic-window-ms:120000}")
+    private long trafficWindowMs;
+
+    @Value("${hes.association.keepalive.pending-timeout-ms:60000}")
+    private long pendingTimeoutMs;
+
+    @Value("${hes.association.keepalive.max-probes-per-second:20}")
+    private int maxProbesPerSecond;
+
+    public AssociationLivenessTracker(MeterRegistry registry) {
+        this.sent = registry.counter("hes.association.keepalive.sent");
+        this.failed = registry.counter("hes.association.keepalive.failed");
+        this.skippedTraffic = registry.counter("hes.association.keepalive.skipped", "reason", "traffic");
+        this.skippedPending = registry.counter("hes.association.keepalive.skipped", "reason", "pending");
+        this.skippedRate = registry.counter("hes.association.keepalive.skipped", "reason", "rate");
+        Gauge.builder("hes.association.keepalive.pending", pending, Map::size).register(registry);
+    }
+
+    /**
+     * Called on the event loop for every reply matched to a request.
+     */
+    public static void recordTraffic(Channel channel) {
+        AtomicLong last = channel.attr(LAST_TRAFFIC_KEY).get();
+        if (last == null) {
+            AtomicLong created = new AtomicLong();
+            last = channel.attr(LAST_TRAFFIC_KEY).setIfAbsent(created);
+            if (last == null) {
+                last = created;
+            }
+        }
+        last.set(System.nanoTime());
+    }
+
+    /**
+     * @return true when the caller should schedule a probe; it must then call
+     * {@link #probeSucceeded}, {@link #probeFailed} or {@link #probeAbandoned}.
+     */
+    public boolean beginProbe(String serial, Priority priority) {
+        if (serial == null) {
+            return false;
+        }
+        if (!enabled || priority == Priority.ASSOCIATION_LOST) {
+            pending.put(serial, System.nanoTime());
+            sent.increment();
+            return true;
+        }
+        if (hasRecentTraffic(serial)) {
+            skippedTraffic.increment();
+            return false;
+        }
+        long now = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(pendingTimeoutMs);
+        boolean[] started = {false};
+        pending.compute(serial, (k, since) -> {
+            if (since != null && now - since < timeoutNanos) {
+                return since;
+            }
+            started[0] = true;
+            return now;
+        });
+        if (!started[0]) {
+            skippedPending.increment();
+            return false;
+        }
+        if (priority == Priority.HEARTBEAT && !tryAcquireRate(now)) {
+            pending.remove(serial, now);
+            skippedRate.increment();
+            return false;
+        }
+        sent.increment();
+        return true;
+    }
+
+    public void probeSucceeded(String serial) {
+        pending.remove(serial);
+    }
+
+    public void probeFailed(String serial) {
+        pending.remove(serial);
+        failed.increment();
+    }
+
+    /** The probe was coalesced or rejected before it ran. */
+    public void probeAbandoned(String serial) {
+        pending.remove(serial);
+    }
+
+    private boolean hasRecentTraffic(String serial) {
+        Channel channel = MeterConnections.getChannel(serial);
+        if (channel == null) {
+            return false;
+        }
+        AtomicLong last = channel.attr(LAST_TRAFFIC_KEY).get();
+        return last != null && System.nanoTime() - last.get() < TimeUnit.MILLISECONDS.toNanos(trafficWindowMs);
+    }
+
+    /** Fixed one-second window shared by all meters. */
+    private boolean tryAcquireRate(long now) {
+        if (maxProbesPerSecond <= 0) {
+            return true;
+        }
+        long start = windowStart.get();
+        if (now - start >= TimeUnit.SECONDS.toNanos(1) && windowStart.compareAndSet(start, now)) {
+            inWindow.set(0);
+        }
+        return inWindow.incrementAndGet() <= maxProbesPerSecond;
+    }
+}
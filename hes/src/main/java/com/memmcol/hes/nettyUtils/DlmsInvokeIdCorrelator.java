@@ -0,0 +1,397 @@
+package com.memmcol.hes.nettyUtils;
+
+import io.netty.channel.Channel;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Per-channel request/response correlator keyed by the DLMS invoke-id.
+ * <p>
+ * GET/SET/ACTION requests carry an {@code invoke-id-and-priority} byte right after the
+ * APDU tag and choice; the meter echoes it in the matching response. Each channel owns
+ * sixteen reusable slots (one per invoke-id) plus one slot for APDUs that carry no
+ * invoke-id (AARQ/AARE, release, ciphered PDUs). A slot is completed in place by the
+ * Netty I/O thread, so the hot path allocates no queue, map entry or correlation string;
+ * only a small handle and the timer entry per request.
+ * <p>
+ * Every slot has a generation counter packed with its state in a single {@link AtomicLong}.
+ * A reply (or a timer expiry) only lands on the generation it was meant for, so a slow
+ * reply arriving after its request timed out is discarded instead of completing the next
+ * request on the same meter.
+ * <p>
+ * A request is either awaited by a parked caller ({@link #register}) or completed through a
+ * {@link CompletableFuture} ({@link #registerAsync}); in the async case no thread waits on the
+ * meter and the slot is recycled as soon as the reply (or timeout) lands.
+ */
+@Slf4j
+public final class DlmsInvokeIdCorrelator {
+
+    private static final AttributeKey<DlmsInvokeIdCorrelator> CORRELATOR_KEY =
+            AttributeKey.valueOf("DLMS_INVOKE_ID_CORRELATOR");
+
+    /** DLMS wrapper header is 8 bytes; the APDU tag follows. */
+    private static final int APDU_TAG_OFFSET = 8;
+    /** tag, choice, invoke-id-and-priority */
+    private static final int INVOKE_ID_OFFSET = 10;
+    private static final int UNTAGGED_SLOT = 16;
+
+    private final PendingSlot[] slots = new PendingSlot[UNTAGGED_SLOT + 1];
+
+    private DlmsInvokeIdCorrelator() {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new PendingSlot(i);
+        }
+    }
+
+    /**
+     * Returns the correlator bound to the channel, creating it on first use.
+     */
+    public static DlmsInvokeIdCorrelator of(Channel channel) {
+        Attribute<DlmsInvokeIdCorrelator> attr = channel.attr(CORRELATOR_KEY);
+        DlmsInvokeIdCorrelator correlator = attr.get();
+        if (correlator == null) {
+            correlator = new DlmsInvokeIdCorrelator();
+            DlmsInvokeIdCorrelator existing = attr.setIfAbsent(correlator);
+            if (existing != null) {
+                correlator = existing;
+            }
+        }
+        return correlator;
+    }
+
+    /**
+     * Returns the correlator bound to the channel, or {@code null} when nothing was ever sent on it.
+     */
+    public static DlmsInvokeIdCorrelator peek(Channel channel) {
+        return channel.attr(CORRELATOR_KEY).get();
+    }
+
+    /**
+     * Registers an outgoing request. Must be called before the frame is written so the
+     * reply can never overtake the registration.
+     */
+    public PendingRequest register(String serial, byte[] request, long timeoutMs, Timer timer) {
+        PendingSlot slot = slots[slotFor(request, true)];
+        return slot.arm(serial, timeoutMs, timer, null);
+    }
+
+    /**
+     * Registers an outgoing request whose reply completes {@link PendingRequest#future()} on the
+     * thread that delivers it (normally the channel's event loop) instead of waking a parked caller.
+     */
+    public PendingRequest registerAsync(String serial, byte[] request, long timeoutMs, Timer timer) {
+        PendingSlot slot = slots[slotFor(request, true)];
+        return slot.arm(serial, timeoutMs, timer, new CompletableFuture<>());
+    }
+
+    /**
+     * Completes the pending request matching this response.
+     *
+     * @return false when no request is waiting for it (late, duplicate or unsolicited RX)
+     */
+    public boolean complete(byte[] response) {
+        int index = slotFor(response, false);
+        if (index != UNTAGGED_SLOT) {
+            return slots[index].complete(response);
+        }
+        // No invoke-id on the wire (AARE, RLRE, exception-response): prefer the untagged
+        // slot, otherwise hand it to the oldest request still waiting.
+        if (slots[UNTAGGED_SLOT].complete(response)) {
+            return true;
+        }
+        PendingSlot oldest = null;
+        for (int i = 0; i < UNTAGGED_SLOT; i++) {
+            PendingSlot candidate = slots[i];
+            if (candidate.isPending() && (oldest == null || candidate.startNanos - oldest.startNanos < 0)) {
+                oldest = candidate;
+            }
+        }
+        return oldest != null && oldest.complete(response);
+    }
+
+    /**
+     * Fails every request still waiting on this channel (socket closed, meter rebound).
+     */
+    public void failAll(Throwable cause) {
+        for (PendingSlot slot : slots) {
+            slot.fail(slot.control.get(), cause);
+        }
+    }
+
+    public int pendingCount() {
+        int count = 0;
+        for (PendingSlot slot : slots) {
+            if (slot.isPending()) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Invoke-id carried by a GET/SET/ACTION request or response, or -1 for APDUs without one.
+     */
+    public static int invokeIdOf(byte[] frame, boolean request) {
+        int slot = slotFor(frame, request);
+        return slot == UNTAGGED_SLOT ? -1 : slot;
+    }
+
+    /**
+     * Invoke-id lives in the low nibble of the byte following tag and choice for
+     * GET/SET/ACTION requests (C0/C1/C3) and responses (C4/C5/C7).
+     */
+    static int slotFor(byte[] frame, boolean request) {
+        if (frame == null || frame.length <= INVOKE_ID_OFFSET) {
+            return UNTAGGED_SLOT;
+        }
+        int tag = frame[APDU_TAG_OFFSET] & 0xFF;
+        boolean carriesInvokeId = request
+                ? (tag == 0xC0 || tag == 0xC1 || tag == 0xC3)
+                : (tag == 0xC4 || tag == 0xC5 || tag == 0xC7);
+        return carriesInvokeId ? frame[INVOKE_ID_OFFSET] & 0x0F : UNTAGGED_SLOT;
+    }
+
+    /**
+     * Handle returned to the sending thread.
+     */
+    public static final class PendingRequest {
+        private final PendingSlot slot;
+        private final long generation;
+        private final long startNanos;
+        private final CompletableFuture<byte[]> future;
+
+        private PendingRequest(PendingSlot slot, long generation, long startNanos, CompletableFuture<byte[]> future) {
+            this.slot = slot;
+            this.generation = generation;
+            this.startNanos = startNanos;
+            this.future = future;
+        }
+
+        /**
+         * Parks the caller until the reply arrives, the timer expires the request or the
+         * channel goes away.
+         */
+        public byte[] await() throws InterruptedException, TimeoutException {
+            if (future != null) {
+                throw new IllegalStateException("Async request must be consumed through future()");
+            }
+            return slot.await(generation);
+        }
+
+        /**
+         * Completion of a request registered with {@link #registerAsync}; {@code null} for blocking ones.
+         */
+        public CompletableFuture<byte[]> future() {
+            return future;
+        }
+
+        /**
+         * Abandons the request (e.g. the write failed) so the slot can be reused.
+         */
+        public void cancel(Throwable cause) {
+            slot.fail(pack(generation, PENDING), cause);
+        }
+
+        public long elapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos());
+        }
+
+        public long elapsedNanos() {
+            return System.nanoTime() - startNanos;
+        }
+    }
+
+    // --- slot state machine -------------------------------------------------------------
+
+    private static final int IDLE = 0;
+    private static final int PENDING = 1;
+    private static final int COMPLETING = 2;
+    private static final int DONE = 3;
+    /** Claimed by {@code arm}; request fields are being written and are not visible yet. */
+    private static final int ARMING = 4;
+
+    private static long pack(long generation, int state) {
+        return (generation << 3) | state;
+    }
+
+    private static long generationOf(long control) {
+        return control >>> 3;
+    }
+
+    private static int stateOf(long control) {
+        return (int) (control & 7);
+    }
+
+    private static final class PendingSlot {
+        private final int index;
+        private final AtomicLong control = new AtomicLong(pack(0, IDLE));
+
+        // Written by the arming thread while the slot is ARMING, published by the PENDING store.
+        private volatile Thread waiter;
+        private volatile long startNanos;
+        private volatile long deadlineNanos;
+        private volatile Timeout timeout;
+        private volatile CompletableFuture<byte[]> promise;
+        private String serial;
+
+        // Written between COMPLETING and DONE; published by the volatile DONE store.
+        private byte[] response;
+        private Throwable failure;
+
+        PendingSlot(int index) {
+            this.index = index;
+        }
+
+        boolean isPending() {
+            return stateOf(control.get()) == PENDING;
+        }
+
+        PendingRequest arm(String serial, long timeoutMs, Timer timer, CompletableFuture<byte[]> promise) {
+            for (; ; ) {
+                long current = control.get();
+                int state = stateOf(current);
+                if (state == COMPLETING || state == ARMING) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                if (state == PENDING) {
+                    // Same invoke-id already in flight on this meter: the newer request wins.
+                    log.warn("⚠️ Superseding in-flight DLMS request meter={} slot={}", this.serial, index);
+                    fail(current, new IllegalStateException("Superseded by a newer request with the same invoke-id"));
+                    continue;
+                }
+                if (state == DONE) {
+                    // The reply landed but its waiter has not collected it yet; overwriting the
+                    // slot would fail a request the meter already answered.
+                    throw new IllegalStateException("Invoke-id " + index + " of meter=" + this.serial
+                            + " still holds an uncollected reply");
+                }
+                long generation = generationOf(current) + 1;
+                // Claim the slot first; only the owner of the ARMING state writes the request fields.
+                if (!control.compareAndSet(current, pack(generation, ARMING))) {
+                    continue;
+                }
+                this.serial = serial;
+                this.promise = promise;
+                this.waiter = promise == null ? Thread.currentThread() : null;
+                this.timeout = null;
+                this.response = null;
+                this.failure = null;
+                long start = System.nanoTime();
+                this.startNanos = start;
+                this.deadlineNanos = start + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+                // Volatile store publishes the fields; complete/fail only act on PENDING.
+                control.set(pack(generation, PENDING));
+                this.timeout = timer.newTimeout(t -> expire(generation), timeoutMs, TimeUnit.MILLISECONDS);
+                return new PendingRequest(this, generation, start, promise);
+            }
+        }
+
+        boolean complete(byte[] frame) {
+            long current = control.get();
+            if (stateOf(current) != PENDING) {
+                return false;
+            }
+            return finish(current, frame, null);
+        }
+
+        void expire(long generation) {
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            if (fail(pack(generation, PENDING), new TimeoutException("DLMS read timeout after " + elapsedMs + "ms"))) {
+                log.warn("DLMS timeout for meter={}, slot={}, duration={}ms", serial, index, elapsedMs);
+            }
+        }
+
+        boolean fail(long expected, Throwable cause) {
+            return stateOf(expected) == PENDING && finish(expected, null, cause);
+        }
+
+        private boolean finish(long expected, byte[] frame, Throwable cause) {
+            long generation = generationOf(expected);
+            if (!control.compareAndSet(expected, pack(generation, COMPLETING))) {
+                return false;
+            }
+            Timeout pendingTimeout = this.timeout;
+            if (pendingTimeout != null) {
+                pendingTimeout.cancel();
+            }
+            CompletableFuture<byte[]> async = this.promise;
+            if (async != null) {
+                // Nobody consumes the slot: recycle it before running callbacks, which may
+                // already register the next block on the same invoke-id.
+                this.promise = null;
+                control.set(pack(generation, IDLE));
+                if (cause != null) {
+                    async.completeExceptionally(cause);
+                } else {
+                    async.complete(frame);
+                }
+                return true;
+            }
+            this.response = frame;
+            this.failure = cause;
+            control.set(pack(generation, DONE));
+            Thread t = this.waiter;
+            if (t != null) {
+                LockSupport.unpark(t);
+            }
+            return true;
+        }
+
+        private void release(long generation) {
+            if (control.compareAndSet(pack(generation, DONE), pack(generation, IDLE))) {
+                this.response = null;
+                this.failure = null;
+            }
+        }
+
+        byte[] await(long generation) throws InterruptedException, TimeoutException {
+            for (; ; ) {
+                long current = control.get();
+                if (generationOf(current) != generation) {
+                    throw new IllegalStateException("Superseded by a newer request with the same invoke-id");
+                }
+                int state = stateOf(current);
+                if (state == DONE) {
+                    byte[] frame = this.response;
+                    Throwable cause = this.failure;
+                    if (!control.compareAndSet(current, pack(generation, IDLE))) {
+                        throw new IllegalStateException("Superseded by a newer request with the same invoke-id");
+                    }
+                    this.response = null;
+                    this.failure = null;
+                    if (cause instanceof TimeoutException te) throw te;
+                    if (cause instanceof RuntimeException re) throw re;
+                    if (cause instanceof Error err) throw err;
+                    if (cause != null) throw new IllegalStateException(cause.getMessage(), cause);
+                    return frame;
+                }
+                if (state == PENDING) {
+                    long remaining = deadlineNanos - System.nanoTime();
+                    if (remaining <= 0) {
+                        // Timer thread lagging behind; expire ourselves.
+                        expire(generation);
+                        continue;
+                    }
+                    LockSupport.parkNanos(this, remaining);
+                    if (Thread.interrupted()) {
+                        // Fail and collect our own slot so it does not stay DONE for the next request
+                        if (fail(pack(generation, PENDING), new InterruptedException())) {
+                            release(generation);
+                        }
+                        throw new InterruptedException("Interrupted while awaiting DLMS response");
+                    }
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+    }
+}
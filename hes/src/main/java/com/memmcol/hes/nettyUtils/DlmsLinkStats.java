@@ -0,0 +1,326 @@
+package com.memmcol.hes.nettyUtils;
+
+import com.memmcol.hes.infrastructure.metrics.LatencyHistogram;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelId;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TX→RX link statistics for every meter, fed by {@link RequestResponseService}.
+ * <p>
+ * Per meter it keeps a smoothed round-trip time and its variance (RFC 6298 style, packed into one
+ * {@link AtomicLong}), timeout / late-RX counts, bytes in/out and the block count of the last range
+ * read. The same samples are aggregated per meter model and per /24 source subnet (a stand-in for
+ * the APN pool) in {@link LatencyHistogram}s. Only the model aggregate is exported to Micrometer,
+ * so series stay bounded by the model catalogue; meters and subnets are read through the
+ * {@code dlmslinks} actuator endpoint.
+ * <p>
+ * {@link #rtoMillis} turns the per-meter numbers into a retransmission timeout for
+ * {@link DlmsTimeoutPolicy}, so a meter that answers in 300 ms is no longer given the same 20 s as
+ * one on a congested cell.
+ */
+@Component
+@Slf4j
+public class DlmsLinkStats {
+
+    public static final String UNKNOWN = "_unknown";
+    private static final String OTHER = "_other";
+    /** Clock granularity term of the RTO formula. */
+    private static final long GRANULARITY_MICROS = 50_000;
+
+    public record MeterView(String serial, String model, String subnet, long samples, long srttMs, long rttVarMs,
+                            long lastRttMs, long maxRttMs, long timeouts, long lateRx, long bytesOut, long bytesIn,
+                            long lastReadBlocks) {}
+
+    public record GroupView(String group, long samples, long meanMs, long p50Ms, long p95Ms, long p99Ms, long maxMs,
+                            long timeouts, long lateRx, long bytesOut, long bytesIn) {}
+
+    private record Ranked(long srtt, MeterLink link) {}
+
+    private final MeterRegistry registry;
+    private final Map<String, MeterLink> meters = new ConcurrentHashMap<>();
+    private final Map<String, Group> byModel = new ConcurrentHashMap<>();
+    private final Map<String, Group> bySubnet = new ConcurrentHashMap<>();
+
+    @Value("${hes.dlms.stats.max-subnets:1024}")
+    private int maxSubnets;
+
+    public DlmsLinkStats(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Associates a meter with its model once it is known (association or profile read);
+     * earlier samples stay under {@value #UNKNOWN}.
+     */
+    public void bindModel(String serial, String model) {
+        if (serial == null || model == null || model.isBlank()) return;
+        link(serial).model = model;
+    }
+
+    public void recordTx(String serial, Channel channel, int bytes) {
+        MeterLink link = link(serial);
+        link.bytesOut.add(bytes);
+        link.refreshSubnet(channel);
+        modelGroup(link).bytesOut.add(bytes);
+        subnetGroup(link).bytesOut.add(bytes);
+    }
+
+    public void recordRx(String serial, long elapsedNanos, int bytes) {
+        MeterLink link = link(serial);
+        long micros = TimeUnit.NANOSECONDS.toMicros(elapsedNanos);
+        long millis = micros / 1_000;
+        link.sample(micros);
+        link.bytesIn.add(bytes);
+
+        Group model = modelGroup(link);
+        model.histogram.record(millis);
+        model.bytesIn.add(bytes);
+        model.rtt.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        model.bytes.record(bytes);
+
+        Group subnet = subnetGroup(link);
+        subnet.histogram.record(millis);
+        subnet.bytesIn.add(bytes);
+    }
+
+    public void recordTimeout(String serial) {
+        MeterLink link = link(serial);
+        link.timeouts.increment();
+        Group model = modelGroup(link);
+        model.timeouts.increment();
+        model.timeoutCounter.increment();
+        subnetGroup(link).timeouts.increment();
+    }
+
+    /**
+     * A reply found no waiting request: it arrived after its request timed out (or was superseded).
+     */
+    public void recordLateRx(String serial) {
+        if (serial == null) return;
+        MeterLink link = link(serial);
+        link.lateRx.increment();
+        Group model = modelGroup(link);
+        model.lateRx.increment();
+        model.lateRxCounter.increment();
+        subnetGroup(link).lateRx.increment();
+    }
+
+    public void recordReadBlocks(String serial, int blocks) {
+        MeterLink link = link(serial);
+        link.lastReadBlocks = blocks;
+        modelGroup(link).blocks.record(blocks);
+    }
+
+    /**
+     * {@code SRTT + max(G, 4·RTTVAR)} in milliseconds, or -1 while the meter has fewer than
+     * {@code minSamples} replies to estimate from.
+     */
+    public long rtoMillis(String serial, int minSamples) {
+        MeterLink link = meters.get(serial);
+        if (link == null || link.samples.sum() < Math.max(1, minSamples)) {
+            return -1;
+        }
+        long packed = link.rtt.get();
+        return (srtt(packed) + Math.max(GRANULARITY_MICROS, 4 * rttVar(packed))) / 1_000;
+    }
+
+    /** The {@code n} meters with the highest smoothed RTT. */
+    public List<MeterView> slowest(int n) {
+        if (n <= 0) return List.of();
+        // Rank on a snapshot of SRTT; the live value keeps moving while we scan
+        PriorityQueue<Ranked> top = new PriorityQueue<>(Comparator.comparingLong(Ranked::srtt));
+        for (MeterLink link : meters.values()) {
+            if (link.samples.sum() == 0) continue;
+            top.offer(new Ranked(srtt(link.rtt.get()), link));
+            if (top.size() > n) top.poll();
+        }
+        List<MeterView> out = new ArrayList<>(top.size());
+        while (!top.isEmpty()) out.add(view(top.poll().link()));
+        Collections.reverse(out);
+        return out;
+    }
+
+    public Optional<MeterView> meter(String serial) {
+        return Optional.ofNullable(meters.get(serial)).map(this::view);
+    }
+
+    public List<GroupView> models() {
+        return views(byModel);
+    }
+
+    public List<GroupView> subnets() {
+        return views(bySubnet);
+    }
+
+    public void reset() {
+        meters.clear();
+        bySubnet.clear();
+        // Micrometer instruments are looked up again on re-creation; their series stay cumulative
+        byModel.clear();
+    }
+
+    private MeterView view(MeterLink l) {
+        long packed = l.rtt.get();
+        return new MeterView(l.serial, l.model, l.subnet, l.samples.sum(), srtt(packed) / 1_000, rttVar(packed) / 1_000,
+                l.lastRttMicros / 1_000, l.maxRttMicros / 1_000, l.timeouts.sum(), l.lateRx.sum(),
+                l.bytesOut.sum(), l.bytesIn.sum(), l.lastReadBlocks);
+    }
+
+    private static List<GroupView> views(Map<String, Group> groups) {
+        List<GroupView> out = new ArrayList<>(groups.size());
+        groups.forEach((name, g) -> {
+            LatencyHistogram h = g.histogram;
+            out.add(new GroupView(name, h.count(), h.mean(), h.quantile(0.5), h.quantile(0.95), h.quantile(0.99),
+                    h.max(), g.timeouts.sum(), g.lateRx.sum(), g.bytesOut.sum(), g.bytesIn.sum()));
+        });
+        out.sort(Comparator.comparingLong(GroupView::p95Ms).reversed());
+        return out;
+    }
+
+    private MeterLink link(String serial) {
+        return meters.computeIfAbsent(serial, MeterLink::new);
+    }
+
+    private Group modelGroup(MeterLink link) {
+        return byModel.computeIfAbsent(link.model, m -> new Group(m, registry));
+    }
+
+    private Group subnetGroup(MeterLink link) {
+        String subnet = link.subnet;
+        Group group = bySubnet.get(subnet);
+        if (group != null) return group;
+        if (bySubnet.size() >= maxSubnets) {
+            subnet = OTHER;
+        }
+        return bySubnet.computeIfAbsent(subnet, s -> new Group(s, null));
+    }
+
+    // RTT state: SRTT in the high 32 bits, RTTVAR in the low 32 bits, both in microseconds.
+    private static long srtt(long packed) {
+        return packed >>> 32;
+    }
+
+    private static long rttVar(long packed) {
+        return packed & 0xFFFF_FFFFL;
+    }
+
+    private static long pack(long srtt, long rttVar) {
+        return (Math.min(srtt, 0xFFFF_FFFFL) << 32) | Math.min(rttVar, 0xFFFF_FFFFL);
+    }
+
+    static String subnetOf(SocketAddress address) {
+        if (!(address instanceof InetSocketAddress inet) || inet.getAddress() == null) {
+            return UNKNOWN;
+        }
+        InetAddress ip = inet.getAddress();
+        byte[] b = ip.getAddress();
+        if (ip instanceof Inet4Address) {
+            return (b[0] & 0xFF) + "." + (b[1] & 0xFF) + "." + (b[2] & 0xFF) + ".0/24";
+        }
+        // IPv6: group by the /48 routing prefix
+        return String.format("%02x%02x:%02x%02x:%02x%02x::/48", b[0], b[1], b[2], b[3], b[4], b[5]);
+    }
+
+    private static final class MeterLink {
+        final String serial;
+        volatile String model = UNKNOWN;
+        volatile String subnet = UNKNOWN;
+        /** Id only: holding the channel would keep a closed socket and its attributes reachable. */
+        volatile ChannelId channelId;
+
+        final AtomicLong rtt = new AtomicLong();
+        final LongAdder samples = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+        final LongAdder lateRx = new LongAdder();
+        final LongAdder bytesOut = new LongAdder();
+        final LongAdder bytesIn = new LongAdder();
+        volatile long lastRttMicros;
+        volatile long maxRttMicros;
+        volatile long lastReadBlocks;
+
+        MeterLink(String serial) {
+            this.serial = serial;
+        }
+
+        void refreshSubnet(Channel current) {
+            if (current != null && !current.id().equals(channelId)) {
+                channelId = current.id();
+                subnet = subnetOf(current.remoteAddress());
+            }
+        }
+
+        void sample(long micros) {
+            for (; ; ) {
+                long current = rtt.get();
+                long next;
+                if (current == 0) {
+                    next = pack(micros, micros / 2);
+                } else {
+                    long srtt = srtt(current);
+                    long var = rttVar(current);
+                    long newVar = var - (var >> 2) + (Math.abs(srtt - micros) >> 2);
+                    long newSrtt = srtt - (srtt >> 3) + (micros >> 3);
+                    next = pack(Math.max(1, newSrtt), newVar);
+                }
+                if (rtt.compareAndSet(current, next)) break;
+            }
+            samples.increment();
+            lastRttMicros = micros;
+            if (micros > maxRttMicros) maxRttMicros = micros;
+        }
+    }
+
+    private static final class Group {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final LongAdder timeouts = new LongAdder();
+        final LongAdder lateRx = new LongAdder();
+        final LongAdder bytesOut = new LongAdder();
+        final LongAdder bytesIn = new LongAdder();
+        // Micrometer instruments; only registered for model groups
+        final Timer rtt;
+        final DistributionSummary bytes;
+        final DistributionSummary blocks;
+        final Counter timeoutCounter;
+        final Counter lateRxCounter;
+
+        Group(String model, MeterRegistry registry) {
+            if (registry == null) {
+                rtt = null;
+                bytes = null;
+                blocks = null;
+                timeoutCounter = null;
+                lateRxCounter = null;
+                return;
+            }
+            rtt = Timer.builder("hes.dlms.rtt")
+                    .tag("model", model)
+                    .publishPercentileHistogram()
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .minimumExpectedValue(Duration.ofMillis(10))
+                    .maximumExpectedValue(Duration.ofMinutes(1))
+                    .register(registry);
+            bytes = DistributionSummary.builder("hes.dlms.rx.bytes").baseUnit("bytes").tag("model", model).register(registry);
+            blocks = DistributionSummary.builder("hes.dlms.readrange.blocks").tag("model", model).register(registry);
+            timeoutCounter = registry.counter("hes.dlms.timeouts", "model", model);
+            lateRxCounter = registry.counter("hes.dlms.late.rx", "model", model);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.memmcol.hes.nettyUtils;
+
+import com.memmcol.hes.exception.MeterCircuitOpenException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-meter timeout, retry and circuit-breaker policy for DLMS requests.
+ * <ul>
+ *     <li><b>Timeout</b>: the RTO from {@link DlmsLinkStats} ({@code SRTT + 4·RTTVAR}), doubled for
+ *     every consecutive timeout (Karn back-off) and clamped to [{@code min-ms}, {@code max-ms}].
+ *     {@code default-ms} is used until the meter has {@code min-samples} replies.</li>
+ *     <li><b>Retry delay</b>: exponential back-off with full jitter, so retries against a cell that
+ *     just dropped do not arrive in lock-step.</li>
+ *     <li><b>Circuit breaker</b>: after {@code failure-threshold} consecutive timeouts the meter is
+ *     rejected without TX for {@code open-ms} (doubling on every re-trip, up to {@code max-open-ms}).
+ *     Once that elapses one probe request is let through (half-open); a reply closes the breaker,
+ *     another timeout re-opens it.</li>
+ *     <li><b>Late replies</b>: a reply that arrives after {@link #onTimeout} still proves the meter
+ *     is alive. {@link #onLateReply} closes the breaker and restarts the failure count. It keeps the
+ *     back-off, since the timeout was too short for this link.</li>
+ * </ul>
+ * A dead GPRS meter therefore costs one short timeout per breaker period instead of
+ * 20 s × retries × blocks of a worker thread.
+ * <p>
+ * Only meters with a timeout since their last in-time reply have an entry: {@link #onSuccess}
+ * drops it, and {@link #evictIdle} drops entries that are no longer open and have seen no
+ * timeout or late reply for {@code idle-evict-ms}, so meters that went quiet do not stay in the
+ * map. Both remove under the entry lock that {@link #onTimeout} updates under.
+ */
+@Component
+@Slf4j
+public class DlmsTimeoutPolicy {
+
+    private final DlmsLinkStats linkStats;
+    private final Map<String, Breaker> breakers = new ConcurrentHashMap<>();
+    private final Counter opened;
+    private final Counter rejected;
+
+    @Value("${hes.dlms.timeout.adaptive:true}")
+    private boolean adaptive;
+
+    @Value("${hes.dlms.timeout.default-ms:20000}")
+    private long defaultTimeoutMs;
+
+    @Value("${hes.dlms.timeout.min-ms:3000}")
+    private long minTimeoutMs;
+
+    @Value("${hes.dlms.timeout.max-ms:20000}")
+    private long maxTimeoutMs;
+
+    @Value("${hes.dlms.timeout.min-samples:5}")
+    private int minSamples;
+
+    @Value("${hes.dlms.retry.base-delay-ms:200}")
+    private long retryBaseDelayMs;
+
+    @Value("${hes.dlms.retry.max-delay-ms:5000}")
+    private long retryMaxDelayMs;
+
+    @Value("${hes.dlms.breaker.enabled:true}")
+    private boolean breakerEnabled;
+
+    @Value("${hes.dlms.breaker.failure-threshold:3}")
+    private int failureThreshold;
+
+    @Value("${hes.dlms.breaker.open-ms:60000}")
+    private long openMs;
+
+    @Value("${hes.dlms.breaker.max-open-ms:900000}")
+    private long maxOpenMs;
+
+    @Value("${hes.dlms.breaker.idle-evict-ms:3600000}")
+    private long idleEvictMs;
+
+    public DlmsTimeoutPolicy(DlmsLinkStats linkStats, MeterRegistry registry) {
+        this.linkStats = linkStats;
+        this.opened = registry.counter("hes.dlms.breaker.opened");
+        this.rejected = registry.counter("hes.dlms.breaker.rejected");
+        Gauge.builder("hes.dlms.breaker.open", this, DlmsTimeoutPolicy::openCount).register(registry);
+    }
+
+    /**
+     * Timeout for the next request to this meter.
+     */
+    public long timeoutFor(String serial) {
+        if (!adaptive) {
+            return defaultTimeoutMs;
+        }
+        long rto = linkStats.rtoMillis(serial, minSamples);
+        if (rto < 0) {
+            return defaultTimeoutMs;
+        }
+        Breaker breaker = breakers.get(serial);
+        int backoff = breaker == null ? 0 : Math.min(breaker.consecutiveTimeouts.get(), 6);
+        return Math.max(minTimeoutMs, Math.min(maxTimeoutMs, rto << backoff));
+    }
+
+    /**
+     * Full-jitter delay before retry number {@code attempt} (1-based): uniform in
+     * {@code [0, min(max-delay, base · 2^(attempt-1))]}.
+     */
+    public long retryDelayMs(int attempt) {
+        return retryDelayMs(retryBaseDelayMs, attempt);
+    }
+
+    public long retryDelayMs(long baseDelayMs, int attempt) {
+        int shift = Math.min(Math.max(attempt - 1, 0), 16);
+        long ceiling = Math.min(retryMaxDelayMs, Math.max(1, baseDelayMs) << shift);
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * Gate before TX: throws while the breaker is open; in half-open state lets exactly one
+     * probe through and rejects the rest until it completes.
+     */
+    public void acquire(String serial) {
+        if (!breakerEnabled) {
+            return;
+        }
+        Breaker breaker = breakers.get(serial);
+        if (breaker == null) {
+            return;
+        }
+        long openUntil = breaker.openUntilNanos;
+        if (openUntil == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (now - openUntil < 0) {
+            rejected.increment();
+            throw new MeterCircuitOpenException(serial, TimeUnit.NANOSECONDS.toMillis(openUntil - now));
+        }
+        if (!breaker.probing.compareAndSet(false, true)) {
+            rejected.increment();
+            throw new MeterCircuitOpenException(serial, 0);
+        }
+        log.info("🔌 Circuit half-open for meter={}, sending probe", serial);
+    }
+
+    public boolean isOpen(String serial) {
+        Breaker breaker = breakers.get(serial);
+        return breakerEnabled && breaker != null && breaker.openUntilNanos != 0
+                && System.nanoTime() - breaker.openUntilNanos < 0;
+    }
+
+    /**
+     * An in-time reply resets everything, so the entry is dropped; a missing entry is a closed
+     * breaker with no back-off.
+     */
+    public void onSuccess(String serial) {
+        breakers.computeIfPresent(serial, (k, breaker) -> {
+            if (breaker.openUntilNanos != 0) {
+                log.info("✅ Circuit closed for meter={}", serial);
+            }
+            return null;
+        });
+    }
+
+    public void onTimeout(String serial) {
+        breakers.compute(serial, (k, current) -> {
+            Breaker breaker = current != null ? current : new Breaker();
+            breaker.lastEventNanos = System.nanoTime();
+            int timeouts = breaker.consecutiveTimeouts.incrementAndGet();
+            int failures = breaker.failures.incrementAndGet();
+            boolean probeFailed = breaker.probing.getAndSet(false);
+            if (breakerEnabled && (probeFailed || failures == failureThreshold)) {
+                int trips = breaker.trips.incrementAndGet();
+                long duration = Math.min(maxOpenMs, openMs << Math.min(trips - 1, 16));
+                breaker.openUntilNanos = breaker.lastEventNanos + TimeUnit.MILLISECONDS.toNanos(duration);
+                opened.increment();
+                log.warn("⛔ Circuit open for meter={} after {} consecutive timeouts, for {} ms", serial, timeouts, duration);
+            }
+            return breaker;
+        });
+    }
+
+    /**
+     * The reply to a request already counted by {@link #onTimeout} arrived after all. The meter
+     * answered, so the breaker closes and the failure count restarts. The Karn back-off stays,
+     * and no RTT sample is taken from the late reply.
+     */
+    public void onLateReply(String serial) {
+        Breaker breaker = breakers.get(serial);
+        if (breaker == null) {
+            return;
+        }
+        boolean wasOpen = breaker.openUntilNanos != 0;
+        breaker.lastEventNanos = System.nanoTime();
+        breaker.failures.set(0);
+        breaker.trips.set(0);
+        breaker.openUntilNanos = 0;
+        breaker.probing.set(false);
+        if (wasOpen) {
+            log.info("✅ Circuit closed for meter={} by a late reply", serial);
+        }
+    }
+
+    /**
+     * The request ended without a verdict on the meter (write failed, channel closed):
+     * only releases a half-open probe so the next caller can try.
+     */
+    public void onAbandoned(String serial) {
+        Breaker breaker = breakers.get(serial);
+        if (breaker != null) {
+            breaker.probing.set(false);
+        }
+    }
+
+    /**
+     * Drops breakers that are not open and have seen no timeout or late reply for
+     * {@code idle-evict-ms}. The meter then starts over with no back-off, as if newly seen.
+     */
+    @Scheduled(fixedDelayString = "${hes.dlms.breaker.evict-interval-ms:300000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(idleEvictMs);
+        int before = breakers.size();
+        for (String serial : breakers.keySet()) {
+            breakers.computeIfPresent(serial, (k, b) -> {
+                boolean open = b.openUntilNanos != 0 && now - b.openUntilNanos < 0;
+                return !open && !b.probing.get() && now - b.lastEventNanos >= idleNanos ? null : b;
+            });
+        }
+        int evicted = before - breakers.size();
+        if (evicted > 0) {
+            log.debug("Evicted {} idle meter breaker(s); {} tracked", evicted, breakers.size());
+        }
+    }
+
+    /** Meters with a breaker entry, i.e. a timeout since their last in-time reply. */
+    int trackedCount() {
+        return breakers.size();
+    }
+
+    public int consecutiveTimeouts(String serial) {
+        Breaker breaker = breakers.get(serial);
+        return breaker == null ? 0 : breaker.consecutiveTimeouts.get();
+    }
+
+    private double openCount() {
+        long now = System.nanoTime();
+        return breakers.values().stream()
+                .filter(b -> b.openUntilNanos != 0 && now - b.openUntilNanos < 0)
+                .count();
+    }
+
+    private static final class Breaker {
+        /** Drives the Karn back-off; only an in-time reply resets it. */
+        final AtomicInteger consecutiveTimeouts = new AtomicInteger();
+        /** Drives the breaker; any reply, late or not, resets it. */
+        final AtomicInteger failures = new AtomicInteger();
+        final AtomicInteger trips = new AtomicInteger();
+        final AtomicBoolean probing = new AtomicBoolean();
+        /** 0 while closed; otherwise the nanoTime the open period ends. */
+        volatile long openUntilNanos;
+        /** nanoTime of the last timeout or late reply; drives idle eviction. */
+        volatile long lastEventNanos;
+    }
+}
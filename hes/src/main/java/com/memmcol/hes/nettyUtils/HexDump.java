@@ -0,0 +1,95 @@
+package com.memmcol.hes.nettyUtils;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Deferred hex rendering for log arguments.
+ * <p>
+ * {@code log.info("RX: {} : {}", serial, HexDump.of(frame))} costs one small object per call;
+ * the hex string ("00 01 C4 ...", same layout as {@code GXCommon.toHex}) is only built when
+ * the logger actually formats the message. Rendering goes through a lookup table into a
+ * per-thread {@code char[]}, so the only allocation is the resulting String.
+ */
+public final class HexDump {
+
+    private static final char[] DIGITS = "0123456789ABCDEF".toCharArray();
+    /** Two hex digits for every byte value, indexed by {@code (b & 0xFF) << 1}. */
+    private static final char[] TABLE = new char[512];
+    /** Rendering scratch space; grows to the largest frame rendered on the thread. */
+    private static final ThreadLocal<char[]> SCRATCH = ThreadLocal.withInitial(() -> new char[768]);
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            TABLE[i << 1] = DIGITS[i >>> 4];
+            TABLE[(i << 1) + 1] = DIGITS[i & 0x0F];
+        }
+    }
+
+    private final byte[] bytes;
+    private final ByteBuf buf;
+
+    private HexDump(byte[] bytes, ByteBuf buf) {
+        this.bytes = bytes;
+        this.buf = buf;
+    }
+
+    public static HexDump of(byte[] bytes) {
+        return new HexDump(bytes, null);
+    }
+
+    /**
+     * Renders the readable bytes of {@code buf}. The buffer must still be live when the
+     * message is formatted, i.e. only use it for synchronous logging in the handler.
+     */
+    public static HexDump of(ByteBuf buf) {
+        return new HexDump(null, buf);
+    }
+
+    @Override
+    public String toString() {
+        if (buf != null) {
+            return toHex(buf);
+        }
+        return bytes == null ? "" : toHex(bytes, 0, bytes.length);
+    }
+
+    public static String toHex(byte[] data, int offset, int length) {
+        if (length <= 0) {
+            return "";
+        }
+        char[] out = scratch(length * 3 - 1);
+        int pos = 0;
+        for (int i = offset; i < offset + length; i++) {
+            if (pos > 0) out[pos++] = ' ';
+            int idx = (data[i] & 0xFF) << 1;
+            out[pos++] = TABLE[idx];
+            out[pos++] = TABLE[idx + 1];
+        }
+        return new String(out, 0, pos);
+    }
+
+    public static String toHex(ByteBuf data) {
+        int length = data.readableBytes();
+        if (length <= 0) {
+            return "";
+        }
+        char[] out = scratch(length * 3 - 1);
+        int pos = 0;
+        for (int i = data.readerIndex(); i < data.writerIndex(); i++) {
+            if (pos > 0) out[pos++] = ' ';
+            int idx = data.getUnsignedByte(i) << 1;
+            out[pos++] = TABLE[idx];
+            out[pos++] = TABLE[idx + 1];
+        }
+        return new String(out, 0, pos);
+    }
+
+    private static char[] scratch(int size) {
+        char[] out = SCRATCH.get();
+        if (out.length < size) {
+            out = new char[Math.max(size, out.length * 2)];
+            SCRATCH.set(out);
+        }
+        return out;
+    }
+}
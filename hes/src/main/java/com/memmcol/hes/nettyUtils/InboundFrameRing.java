@@ -0,0 +1,127 @@
+package com.memmcol.hes.nettyUtils;
+
+import io.netty.channel.Channel;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-channel history of the last {@code depth} inbound frames, kept for late-response matching
+ * and flush diagnostics.
+ * <p>
+ * The ring lives in a channel attribute, so it goes away with the socket. When full the oldest
+ * frame is overwritten: a meter that only heartbeats, or whose replies are all consumed through
+ * the invoke-id correlator, retains at most {@code depth} frames instead of one per frame received
+ * since it connected. Retained frames and bytes across all channels are tracked for metrics.
+ * <p>
+ * Offers come from the channel's event loop and drains from request threads; both lock the ring,
+ * which is only ever contended by the two sides of one meter.
+ */
+public final class InboundFrameRing {
+
+    public static final int DEFAULT_DEPTH = 8;
+
+    private static final AttributeKey<InboundFrameRing> RING_KEY = AttributeKey.valueOf("DLMS_INBOUND_RING");
+
+    private static final AtomicLong RETAINED_FRAMES = new AtomicLong();
+    private static final AtomicLong RETAINED_BYTES = new AtomicLong();
+    private static final LongAdder OVERWRITTEN = new LongAdder();
+
+    private final byte[][] frames;
+    private int head;
+    private int size;
+
+    private InboundFrameRing(int depth) {
+        this.frames = new byte[Math.max(1, depth)][];
+    }
+
+    /**
+     * Binds a ring of the given depth to a new channel; it is emptied when the channel closes.
+     */
+    public static InboundFrameRing install(Channel channel, int depth) {
+        Attribute<InboundFrameRing> attr = channel.attr(RING_KEY);
+        InboundFrameRing ring = new InboundFrameRing(depth);
+        InboundFrameRing existing = attr.setIfAbsent(ring);
+        if (existing != null) {
+            return existing;
+        }
+        channel.closeFuture().addListener(f -> ring.clear());
+        return ring;
+    }
+
+    /**
+     * Returns the channel's ring, installing one of {@link #DEFAULT_DEPTH} on first use.
+     */
+    public static InboundFrameRing of(Channel channel) {
+        InboundFrameRing ring = channel.attr(RING_KEY).get();
+        return ring != null ? ring : install(channel, DEFAULT_DEPTH);
+    }
+
+    public synchronized void offer(byte[] frame) {
+        if (frame == null) {
+            return;
+        }
+        int tail = (head + size) % frames.length;
+        if (size == frames.length) {
+            // Full: the slot at tail is the oldest frame
+            release(frames[tail]);
+            OVERWRITTEN.increment();
+            head = (head + 1) % frames.length;
+        } else {
+            size++;
+        }
+        frames[tail] = frame;
+        RETAINED_FRAMES.incrementAndGet();
+        RETAINED_BYTES.addAndGet(frame.length);
+    }
+
+    /**
+     * Removes and returns all retained frames, oldest first.
+     */
+    public synchronized List<byte[]> drain() {
+        List<byte[]> out = new ArrayList<>(size);
+        while (size > 0) {
+            byte[] frame = frames[head];
+            frames[head] = null;
+            head = (head + 1) % frames.length;
+            size--;
+            release(frame);
+            out.add(frame);
+        }
+        head = 0;
+        return out;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int depth() {
+        return frames.length;
+    }
+
+    public void clear() {
+        drain();
+    }
+
+    private static void release(byte[] frame) {
+        RETAINED_FRAMES.decrementAndGet();
+        RETAINED_BYTES.addAndGet(-frame.length);
+    }
+
+    public static long retainedFrames() {
+        return RETAINED_FRAMES.get();
+    }
+
+    public static long retainedBytes() {
+        return RETAINED_BYTES.get();
+    }
+
+    public static long overwritten() {
+        return OVERWRITTEN.sum();
+    }
+}
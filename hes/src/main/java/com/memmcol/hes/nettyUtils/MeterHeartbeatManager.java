@@ -21,11 +21,18 @@ public class MeterHeartbeatManager {
     private static final int FLUSH_INTERVAL_SECONDS = 15;
     private static final int OFFLINE_CHECK_INTERVAL_SECONDS = 10;
     private static final int OFFLINE_THRESHOLD_MINUTES = 2;
+    private static final int DB_RECONCILE_INTERVAL_SECONDS = 60;
     private static final int BUFFER_FLUSH_THRESHOLD = 1000;
 
     // --- State tracking ---
     private final ConcurrentHashMap<String, MeterState> stateMap = new ConcurrentHashMap<>();
 
+    // --- Offline deadlines: at most one per meter, ordered by due time ---
+    private final DelayQueue<OfflineDeadline> offlineDeadlines = new DelayQueue<>();
+
+    // --- Meters with an armed deadline, i.e. seen within the offline threshold ---
+    private final Set<String> liveMeters = ConcurrentHashMap.newKeySet();
+
     // --- Write buffer (latest per meter) ---
     private final ConcurrentHashMap<String, MeterUpdateDTO> writeBuffer = new ConcurrentHashMap<>();
 
@@ -62,6 +69,13 @@ public class MeterHeartbeatManager {
                 OFFLINE_CHECK_INTERVAL_SECONDS,
                 TimeUnit.SECONDS
         );
+
+        scheduler.scheduleAtFixedRate(
+                this::reconcileStaleRows,
+                DB_RECONCILE_INTERVAL_SECONDS,
+                DB_RECONCILE_INTERVAL_SECONDS,
+                TimeUnit.SECONDS
+        );
     }
 
     /**
@@ -88,17 +102,24 @@ public class MeterHeartbeatManager {
         boolean[] applied = {false};
         stateMap.compute(meterId, (k, state) -> {
             if (state == null) {
-                applied[0] = true;
-                return new MeterState(safeStatus, eventEpoch);
-            }
-            if (eventEpoch < state.lastSeenEpoch) {
+                state = new MeterState(safeStatus, eventEpoch);
+            } else if (eventEpoch < state.lastSeenEpoch) {
                 log.debug("⏮️ Ignoring out-of-order status for meter {} (event={}, last seen newer)",
                         meterId, safeStatus);
                 return state;
+            } else {
+                state.status = safeStatus;
+                state.lastSeenEpoch = eventEpoch;
             }
-            state.status = safeStatus;
-            state.lastSeenEpoch = eventEpoch;
             applied[0] = true;
+            // Later heartbeats only move lastSeenEpoch; the armed deadline re-checks it when due.
+            // Arming and liveMeters change together under the entry lock, so the sweep can never
+            // see an armed meter missing from liveMeters or the reverse.
+            if ("ONLINE".equals(safeStatus) && !state.deadlineArmed) {
+                state.deadlineArmed = true;
+                liveMeters.add(meterId);
+                offlineDeadlines.offer(new OfflineDeadline(meterId, eventEpoch + TimeUnit.MINUTES.toMillis(OFFLINE_THRESHOLD_MINUTES)));
+            }
             return state;
         });
 
@@ -116,32 +137,44 @@ public class MeterHeartbeatManager {
     }
 
     /**
-     * Detect offline meters based on heartbeat timeout
+     * Detect offline meters based on heartbeat timeout.
+     * <p>
+     * Only deadlines that have come due are visited. A meter heard from since its deadline was
+     * armed is re-armed at {@code lastSeen + threshold}; otherwise it goes OFFLINE and stays
+     * un-armed until its next ONLINE.
      */
     private void detectOfflineMeters() {
 
-        long now = System.currentTimeMillis();
         long thresholdMillis = TimeUnit.MINUTES.toMillis(OFFLINE_THRESHOLD_MINUTES);
         LocalDateTime offlineTime = LocalDateTime.now();
-        Set<String> recentlySeenMeters = new HashSet<>();
-
-        for (Map.Entry<String, MeterState> entry : stateMap.entrySet()) {
-
-            String meterId = entry.getKey();
-            MeterState state = entry.getValue();
-            long millisSinceLastSeen = now - state.lastSeenEpoch;
-
-            if (millisSinceLastSeen <= thresholdMillis) {
-                recentlySeenMeters.add(meterId);
-            }
-
-            if ("ONLINE".equals(state.status) &&
-                    millisSinceLastSeen > thresholdMillis) {
+        int visited = 0;
+
+        OfflineDeadline due;
+        while ((due = offlineDeadlines.poll()) != null) {
+            visited++;
+            String meterId = due.meterId();
+            long now = System.currentTimeMillis();
+            boolean[] wentOffline = {false};
+
+            // Same per-key lock as handleStatus, so a heartbeat cannot slip between check and flip
+            stateMap.computeIfPresent(meterId, (k, state) -> {
+                long deadline = state.lastSeenEpoch + thresholdMillis;
+                if ("ONLINE".equals(state.status) && deadline > now) {
+                    offlineDeadlines.offer(new OfflineDeadline(meterId, deadline));
+                    return state;
+                }
+                state.deadlineArmed = false;
+                liveMeters.remove(meterId);
+                if ("ONLINE".equals(state.status)) {
+                    state.status = "OFFLINE";
+                    wentOffline[0] = true;
+                }
+                return state;
+            });
 
+            if (wentOffline[0]) {
                 log.info("🔻 Meter {} marked OFFLINE (timeout)", meterId);
 
-                state.status = "OFFLINE";
-
                 // Buffer OFFLINE update (same pipeline)
                 writeBuffer.put(
                         meterId,
@@ -150,10 +183,20 @@ public class MeterHeartbeatManager {
                 statusPublisher.publish(new MeterStatusEvent(meterId, offlineTime, "OFFLINE"));
             }
         }
+        if (visited > 0) {
+            log.debug("Offline sweep visited {} due deadline(s); {} meters live", visited, liveMeters.size());
+        }
+    }
 
+    /**
+     * Applies the timeout to persisted ONLINE rows of meters this instance is not hearing from
+     * (e.g. left over from before a restart).
+     */
+    private void reconcileStaleRows() {
         try {
+            LocalDateTime offlineTime = LocalDateTime.now();
             LocalDateTime staleBefore = offlineTime.minusMinutes(OFFLINE_THRESHOLD_MINUTES);
-            int staleRows = batchRepository.markStaleOnlineMetersOffline(staleBefore, offlineTime, recentlySeenMeters);
+            int staleRows = batchRepository.markStaleOnlineMetersOffline(staleBefore, offlineTime, liveMeters);
             if (staleRows > 0) {
                 log.info("🔻 Marked {} stale ONLINE meter rows OFFLINE (timeout)", staleRows);
             }
@@ -217,10 +260,28 @@ public class MeterHeartbeatManager {
     static class MeterState {
         volatile String status;
         volatile long lastSeenEpoch;
+        /** Guarded by the stateMap entry lock. */
+        boolean deadlineArmed;
 
         MeterState(String status, long lastSeenEpoch) {
             this.status = status;
             this.lastSeenEpoch = lastSeenEpoch;
         }
     }
+
+    record OfflineDeadline(String meterId, long dueEpochMillis) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueEpochMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof OfflineDeadline d) {
+                return Long.compare(dueEpochMillis, d.dueEpochMillis);
+            }
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
 }
@@ -0,0 +1,151 @@
+package com.memmcol.hes.nettyUtils;
+
+import com.memmcol.hes.service.MeterConnections;
+import com.memmcol.hes.service.MeterSession;
+import io.netty.channel.Channel;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Associated DLMS sessions keyed by meter serial.
+ * <p>
+ * Association is single-flight per meter: the first caller for a serial starts the AARQ/AARE
+ * handshake and parks a future in {@code pending}; concurrent callers for the same serial join that
+ * future instead of sending their own AARQ. Callers for different meters never share a lock — the
+ * only coordination is a per-key {@link ConcurrentHashMap} bin.
+ */
+@Slf4j
+public final class MeterSessionRegistry {
+
+    @FunctionalInterface
+    public interface Handshake {
+        CompletionStage<MeterSession> start() throws Exception;
+    }
+
+    private final Map<String, MeterSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<MeterSession>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the associated session for the meter, starting {@code handshake} only if no session
+     * exists and no other caller is already associating it.
+     */
+    public CompletableFuture<MeterSession> acquire(String serial, Handshake handshake) {
+        MeterSession existing = sessions.get(serial);
+        if (existing != null && existing.isAssociated()) {
+            return CompletableFuture.completedFuture(existing);
+        }
+        CompletableFuture<MeterSession> promise = new CompletableFuture<>();
+        CompletableFuture<MeterSession> inFlight = pending.putIfAbsent(serial, promise);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        // Re-check: another caller may have finished between our get() and putIfAbsent()
+        existing = sessions.get(serial);
+        if (existing != null && existing.isAssociated()) {
+            pending.remove(serial, promise);
+            promise.complete(existing);
+            return promise;
+        }
+        CompletionStage<MeterSession> stage;
+        try {
+            stage = handshake.start();
+        } catch (Exception e) {
+            pending.remove(serial, promise);
+            promise.completeExceptionally(e);
+            return promise;
+        }
+        stage.whenComplete((session, error) -> {
+            if (error == null && session != null) {
+                sessions.put(serial, session);
+            }
+            pending.remove(serial, promise);
+            if (error != null) {
+                promise.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            } else {
+                promise.complete(session);
+            }
+        });
+        return promise;
+    }
+
+    public MeterSession get(String serial) {
+        return sessions.get(serial);
+    }
+
+    public void remove(String serial) {
+        sessions.remove(serial);
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Drops sessions unused for longer than {@code idleTimeout}, handing each one to {@code onEvict}
+     * after it has left the map so a concurrent reader re-associates instead of reusing it.
+     *
+     * @return number of sessions evicted
+     */
+    public int evictIdle(Duration idleTimeout, Consumer<MeterSession> onEvict) {
+        return evictIdle(idleTimeout, session -> false, onEvict);
+    }
+
+    /**
+     * As {@link #evictIdle(Duration, Consumer)}, but a session for which {@code inUse} holds (a
+     * request still waiting on the meter) is kept and its idle clock restarted, so it is only
+     * released a full {@code idleTimeout} after the request returns. {@code inUse} is checked again
+     * once the session is out of the map; if a request started in between, the session goes back.
+     */
+    public int evictIdle(Duration idleTimeout, Predicate<MeterSession> inUse, Consumer<MeterSession> onEvict) {
+        int evicted = 0;
+        for (Map.Entry<String, MeterSession> entry : sessions.entrySet()) {
+            MeterSession session = entry.getValue();
+            if (!session.isExpired(idleTimeout)) {
+                continue;
+            }
+            if (inUse.test(session)) {
+                session.updateLastUsed();
+                continue;
+            }
+            if (!sessions.remove(entry.getKey(), session)) {
+                continue;
+            }
+            if (inUse.test(session)) {
+                session.updateLastUsed();
+                sessions.putIfAbsent(entry.getKey(), session);
+                continue;
+            }
+            evicted++;
+            try {
+                onEvict.accept(session);
+            } catch (Exception e) {
+                log.warn("⚠️ Eviction hook failed for {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Default in-use test for {@link #evictIdle(Duration, Predicate, Consumer)}: a request for the
+     * meter is waiting on its channel's invoke-id correlator.
+     */
+    public static boolean hasRequestInFlight(MeterSession session) {
+        String serial = session.getMeterSerial();
+        Channel channel = session.getChannel() != null ? session.getChannel() : MeterConnections.getChannel(serial);
+        DlmsInvokeIdCorrelator correlator = channel == null ? null : DlmsInvokeIdCorrelator.peek(channel);
+        return correlator != null && correlator.pendingCount() > 0;
+    }
+}
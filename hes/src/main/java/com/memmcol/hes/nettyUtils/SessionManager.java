@@ -11,12 +11,16 @@ import gurux.dlms.internal.GXCommon;
 import io.netty.channel.Channel;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -27,11 +31,13 @@ import static com.memmcol.hes.nettyUtils.RequestResponseService.*;
 @Service
 @Slf4j
 public class SessionManager {
-    private final Map<String, MeterSession> sessionMap = new ConcurrentHashMap<>();
-    // Session timeout for inactive meters (e.g., 5 minutes)
-    private final Duration SESSION_TIMEOUT = Duration.ofMinutes(3);
+    private final MeterSessionRegistry sessions = new MeterSessionRegistry();
     private final TxRxService txRxService;
 
+    // Session timeout for inactive meters (0 disables idle eviction)
+    @Value("${hes.session.idle-timeout-ms:180000}")
+    private long idleTimeoutMs;
+
     public SessionManager(TxRxService txRxService) {
         this.txRxService = txRxService;
     }
@@ -44,27 +50,43 @@ public class SessionManager {
 
     /**
      * Adds a new session if one doesn't already exist.
+     * Blocks until the (possibly shared) handshake for this meter ends; other meters are not held up.
+     */
+    public void addSession(String serial, Channel channel) throws Exception {
+        try {
+            addSessionAsync(serial, channel).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    /**
+     * Non-blocking association: concurrent calls for the same meter share one AARQ/AARE exchange.
      */
-    public synchronized void addSession(String serial, Channel channel) throws Exception {
+    public CompletableFuture<MeterSession> addSessionAsync(String serial, Channel channel) {
+        return sessions.acquire(serial, () -> associate(serial, channel));
+    }
+
+    private CompletionStage<MeterSession> associate(String serial, Channel channel) throws Exception {
         if (channel == null) {
             log.info("No channel provided for session with meter {}", serial);
         }
-        MeterSession existing = sessionMap.get(serial);
-        if (existing != null && existing.isAssociated()) {
-            log.debug("Session already exists and is associated: {}", serial);
-            return;
-        }
         GXDLMSClient dlmsClient = new GXDLMSClient(
                 true, 1, 1,
                 Authentication.LOW,
                 "12345678",
                 InterfaceType.WRAPPER);
-        try {
-            String msg = String.format("Setting up DLMS Association for meter=%s", serial);
-            log.info(msg);
-            logTx(serial, msg);
-            byte[][] aarq = dlmsClient.aarqRequest();
-            byte[] response = txRxService.sendReceiveWithContext(serial, aarq[0], 20000);
+        dlmsClient.setAutoIncreaseInvokeID(true);
+        String msg = String.format("Setting up DLMS Association for meter=%s", serial);
+        log.info(msg);
+        logTx(serial, msg);
+        byte[][] aarq = dlmsClient.aarqRequest();
+        return txRxService.sendReceiveAsync(serial, aarq[0]).handle((response, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                log.error("❌ DLMS Association failed for {}: {}", serial, cause.getMessage());
+                throw error instanceof CompletionException ce ? ce : new CompletionException(error);
+            }
             byte[] payload = Arrays.copyOfRange(response, 8, response.length);
             GXByteBuffer replyBuffer = new GXByteBuffer(payload);
             try {
@@ -75,11 +97,8 @@ public class SessionManager {
             log.info("✅ DLMS Association established for {}", serial);
             MeterSession meterSession = new MeterSession(serial, channel, dlmsClient, txRxService);
             meterSession.setAssociated(true);
-            sessionMap.put(serial, meterSession);
-        } catch (Exception e) {
-             log.error("❌ DLMS Association failed for {}: {}", serial, e.getMessage());
-            throw e;
-        }
+            return meterSession;
+        });
     }
 
     /**
@@ -87,7 +106,7 @@ public class SessionManager {
      * Also, update last meter session (To get when last TX or RX was made)
      */
     public GXDLMSClient getClient(String serial) {
-        MeterSession session = sessionMap.get(serial);
+        MeterSession session = sessions.get(serial);
         if (session != null && session.isAssociated()) {
             return session.getClient(); // Updates last used time
         }
@@ -107,7 +126,7 @@ public class SessionManager {
      * Optional: forcibly clear session if needed.
      */
     public void removeSession(String serial) {
-        sessionMap.remove(serial);
+        sessions.remove(serial);
     }
 
     public boolean isAssociationLost(byte[] response) {
@@ -138,44 +157,26 @@ public class SessionManager {
 
 
     /**
-     * Remove expired sessions (run on a schedule).
-     * Remove Cleaning expired TX Correlation ID
+     * Remove sessions idle for longer than {@code hes.session.idle-timeout-ms} (run on a schedule).
+     * The session leaves the registry first, then the disconnect is sent without waiting for the reply.
+     * Sessions with a request still in flight are skipped.
      */
-//    @Scheduled(fixedDelay = 30000) // every 30 seconds
+    @Scheduled(fixedDelayString = "${hes.session.cleanup-interval-ms:30000}")
     public void cleanupExpiredEntries() {
-        log.debug("🔍 Starting cleanup: sessions and inflight requests...");
-
-        // 1. Cleanup expired sessions and disconnect active meters
-//        int sessionMapBefore = sessionMap.size();
-//        sessionMap.entrySet().removeIf(entry -> {
-//            MeterSession meterSession = entry.getValue();
-//            if (meterSession.isExpired(SESSION_TIMEOUT)) {
-//                try {
-//                    meterSession.sendDisconnectRequest(meterSession);
-//                    log.warn("⏳ Cleanup triggered disconnect for expired meter {}", entry.getKey());
-//                } catch (Exception e) {
-//                    log.error("❌ Failed to disconnect {} during cleanup: {}", entry.getKey(), e.getMessage());
-//                }
-//                return true; // remove it after disconnect
-//            }
-//            return false;
-//        });
-//        int sessionMapAfter = sessionMap.size();
-//        log.debug("🔍 Sessions cleaned: {} removed, {} remaining", sessionMapBefore - sessionMapAfter, sessionMapAfter);
-
-        // 2. Cleanup expired inflight requests
-//        int inflightBefore = inflightRequests.size();
-//        long now = System.currentTimeMillis();
-//        inflightRequests.entrySet().removeIf(entry -> {
-//            DlmsRequestContext ctx = entry.getValue();
-//            if (now > ctx.getExpiryTime()) {
-//                log.warn("🧹 Cleaning expired TX: CID={}, MetersEntity={}", entry.getKey(), ctx.getMeterId());
-//                TRACKER.remove(entry.getKey());
-//                return true;
-//            }
-//            return false;
-//        });
-//        int inflightAfter = inflightRequests.size();
-//        log.debug("🧹 Inflight TXs cleaned: {} removed, {} remaining", inflightBefore - inflightAfter, inflightAfter);
+        if (idleTimeoutMs <= 0) {
+            return;
+        }
+        log.debug("🔍 Starting cleanup: sessions...");
+        int evicted = sessions.evictIdle(Duration.ofMillis(idleTimeoutMs), MeterSessionRegistry::hasRequestInFlight, session -> {
+            String serial = session.getMeterSerial();
+            try {
+                byte[] disconnect = session.getClient().disconnectRequest();
+                txRxService.sendReceiveAsync(serial, disconnect);
+                log.warn("⏳ Cleanup triggered disconnect for expired meter {}", serial);
+            } catch (Exception e) {
+                log.error("❌ Failed to disconnect {} during cleanup: {}", serial, e.getMessage());
+            }
+        });
+        log.debug("🔍 Sessions cleaned: {} removed, {} remaining", evicted, sessions.size());
     }
 }
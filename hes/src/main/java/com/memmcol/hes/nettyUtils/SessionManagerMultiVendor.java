@@ -13,9 +13,13 @@ import gurux.dlms.internal.GXCommon;
 import gurux.dlms.objects.enums.SecuritySuite;
 import gurux.dlms.secure.GXCiphering;
 import gurux.dlms.secure.GXDLMSSecureClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.netty.channel.Channel;
-import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -23,34 +27,40 @@ import java.time.Duration;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
-import static com.memmcol.hes.nettyUtils.RequestResponseService.TRACKER;
-import static com.memmcol.hes.nettyUtils.RequestResponseService.inflightRequests;
 
 @Service
 @Slf4j
 public class SessionManagerMultiVendor {
-    private final Map<String, MeterSession> sessionMap = new ConcurrentHashMap<>();
-    private final Duration SESSION_TIMEOUT = Duration.ofMinutes(3);
+    /** Single-flight per meter: an AARQ waiting on one meter never holds up association of the others. */
+    private final MeterSessionRegistry sessions = new MeterSessionRegistry();
     private final TxRxService txRxService;
+    private final Counter established;
+    private final Counter failed;
+    /** Parses AAREs off the Netty event loop that delivered them. */
+    private final Executor decodeExecutor;
+
+    @Value("${hes.session.idle-timeout-ms:180000}")
+    private long idleTimeoutMs;
 
     // --- Optional: external configuration mapping ---
     private final Map<String, DlmsConfig> meterConfigMap = new HashMap<>();
 
-    public SessionManagerMultiVendor(TxRxService txRxService) {
+    public SessionManagerMultiVendor(TxRxService txRxService, MeterRegistry registry,
+                                     @Qualifier("dlmsDecodeExecutor") Executor decodeExecutor) {
         this.txRxService = txRxService;
+        this.decodeExecutor = decodeExecutor;
+        this.established = registry.counter("hes.association.established");
+        this.failed = registry.counter("hes.association.failed");
+        Gauge.builder("hes.association.sessions", sessions, MeterSessionRegistry::size).register(registry);
+        Gauge.builder("hes.association.pending", sessions, MeterSessionRegistry::pendingCount).register(registry);
         loadDefaultConfigs();
     }
 
-    @PostConstruct
-    public void init() {
-        cleanInflightRequests();
-    }
-
     /**
      * Determine meter model from serial or DB.
      * This is a simple version – later you can query asset_meter or metadata service.
@@ -86,7 +96,7 @@ public class SessionManagerMultiVendor {
     private GXDLMSClient createDlmsClient(String serial, String modelId) {
         DlmsConfig cfg = meterConfigMap.getOrDefault(modelId, meterConfigMap.get("MOMAS"));
 
-        return new GXDLMSClient(
+        GXDLMSClient client = new GXDLMSClient(
                 true,
                 cfg.getClientId(),
                 cfg.getServerId(),
@@ -94,6 +104,9 @@ public class SessionManagerMultiVendor {
                 cfg.getPassword(),
                 cfg.getInterfaceType()
         );
+        // Rotate invoke-id per request so a late reply can't be matched to the next request.
+        client.setAutoIncreaseInvokeID(true);
+        return client;
     }
 
     private GXDLMSClient createSecureDlmsClient(String serial, String modelId) {
@@ -119,35 +132,47 @@ public class SessionManagerMultiVendor {
             client.getCiphering().setDedicatedKey(GXCommon.hexToBytes("30303030303030303030303030303030"));
             client.getCiphering().setInvocationCounter(1);
         }
+        client.setAutoIncreaseInvokeID(true);
 
         return client;
     }
 
-       /**
-     * Adds or reuses a session for a given meter.
+    /**
+     * Adds or reuses a session for a given meter. Blocks until the (possibly shared) handshake ends.
      */
-    public synchronized void addSession(String serial, Channel channel) throws Exception {
-        if (channel == null) {
-            log.info("No channel provided for session with meter {}", serial);
+    public void addSession(String serial, Channel channel) throws Exception {
+        try {
+            addSessionAsync(serial, channel).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
         }
+    }
 
-        MeterSession existing = sessionMap.get(serial);
-        if (existing != null && existing.isAssociated()) {
-            log.debug("Session already exists and is associated: {}", serial);
-            return;
-        }
+    /**
+     * Non-blocking association: concurrent calls for the same meter share one AARQ/AARE exchange.
+     */
+    public CompletableFuture<MeterSession> addSessionAsync(String serial, Channel channel) {
+        return sessions.acquire(serial, () -> associate(serial, channel));
+    }
 
-        GXDLMSClient dlmsClient = new GXDLMSClient();
+    private CompletionStage<MeterSession> associate(String serial, Channel channel) throws Exception {
+        if (channel == null) {
+            log.info("No channel provided for session with meter {}", serial);
+        }
 
         // --- Identify meter model dynamically (from DB or prefix) ---
         String modelId = resolveModelId(serial);
-        dlmsClient = createDlmsClient(serial, modelId);
-
-        try {
-            log.info("🔗 Setting up DLMS Association for {} (Model: {})", serial, modelId);
-            byte[][] aarq = dlmsClient.aarqRequest();
-            byte[] response = txRxService.sendReceiveWithContext(serial, aarq[0], 20000);
+        GXDLMSClient dlmsClient = createDlmsClient(serial, modelId);
 
+        log.info("🔗 Setting up DLMS Association for {} (Model: {})", serial, modelId);
+        byte[][] aarq = dlmsClient.aarqRequest();
+        return txRxService.sendReceiveAsync(serial, aarq[0]).handleAsync((response, error) -> {
+            if (error != null) {
+                failed.increment();
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                log.error("❌ DLMS Association failed for {}: {}", serial, cause.getMessage());
+                throw error instanceof CompletionException ce ? ce : new CompletionException(error);
+            }
             byte[] payload = Arrays.copyOfRange(response, 8, response.length);
             GXByteBuffer replyBuffer = new GXByteBuffer(payload);
             try {
@@ -159,16 +184,13 @@ public class SessionManagerMultiVendor {
             log.info("✅ DLMS Association established for {} (Model: {})", serial, modelId);
             MeterSession meterSession = new MeterSession(serial, channel, dlmsClient, txRxService);
             meterSession.setAssociated(true);
-            sessionMap.put(serial, meterSession);
-
-        } catch (Exception e) {
-            log.error("❌ DLMS Association failed for {}: {}", serial, e.getMessage());
-            throw e;
-        }
+            established.increment();
+            return meterSession;
+        }, decodeExecutor);
     }
 
     public GXDLMSClient getClient(String serial) {
-        MeterSession session = sessionMap.get(serial);
+        MeterSession session = sessions.get(serial);
         if (session != null && session.isAssociated()) {
             return session.getClient();
         }
@@ -184,8 +206,20 @@ public class SessionManagerMultiVendor {
         return client;
     }
 
+    /**
+     * Non-blocking {@link #getOrCreateClient}: completes immediately when the meter is associated,
+     * otherwise when the (shared) AARQ/AARE exchange ends.
+     */
+    public CompletableFuture<GXDLMSClient> getOrCreateClientAsync(String serial) {
+        GXDLMSClient client = getClient(serial);
+        if (client != null) {
+            return CompletableFuture.completedFuture(client);
+        }
+        return addSessionAsync(serial, MeterConnections.getChannel(serial)).thenApply(session -> getClient(serial));
+    }
+
     public void removeSession(String serial) {
-        sessionMap.remove(serial);
+        sessions.remove(serial);
     }
 
     public boolean isAssociationLost(byte[] response) {
@@ -196,41 +230,36 @@ public class SessionManagerMultiVendor {
                 && response[len - 1] == 0x01;
     }
 
-    public void cleanInflightRequests() {
-        ScheduledExecutorService cleaner = Executors.newSingleThreadScheduledExecutor();
-        cleaner.scheduleAtFixedRate(() -> {
-            long now = System.currentTimeMillis();
-            inflightRequests.entrySet().removeIf(entry -> {
-                DlmsRequestContext ctx = entry.getValue();
-                if (now > ctx.getExpiryTime()) {
-                    log.warn("🧹 Cleaning expired request: CID={}, Meters={}",
-                            entry.getKey(), ctx.getMeterId());
-                    TRACKER.remove(entry.getKey());
-                    return true;
-                }
-                return false;
-            });
-        }, 30, 30, TimeUnit.SECONDS);
+    /**
+     * Releases associations idle for longer than {@code hes.session.idle-timeout-ms}: the session is
+     * dropped first, then an RLRQ is sent without waiting for the reply. A session with a request
+     * still waiting on the meter is left alone until the next run.
+     */
+    @Scheduled(fixedDelayString = "${hes.session.cleanup-interval-ms:30000}")
+    public void cleanupExpiredEntries() {
+        if (idleTimeoutMs <= 0) {
+            return;
+        }
+        log.debug("🔍 Cleaning expired sessions...");
+        int evicted = sessions.evictIdle(Duration.ofMillis(idleTimeoutMs),
+                MeterSessionRegistry::hasRequestInFlight, this::sendDisconnect);
+        if (evicted > 0) {
+            log.debug("🧹 Removed {} expired sessions, {} remaining", evicted, sessions.size());
+        }
     }
 
-//    @Scheduled(fixedDelay = 30000)
-    public void cleanupExpiredEntries() {
-        log.debug("🔍 Cleaning expired sessions and inflight TXs...");
-//
-//        int before = sessionMap.size();
-//        sessionMap.entrySet().removeIf(entry -> {
-//            MeterSession session = entry.getValue();
-//            if (session.isExpired(SESSION_TIMEOUT)) {
-//                try {
-//                    session.sendDisconnectRequest(session);
-//                    log.warn("⏳ Disconnected expired meter {}", entry.getKey());
-//                } catch (Exception e) {
-//                    log.error("❌ Failed to disconnect {}: {}", entry.getKey(), e.getMessage());
-//                }
-//                return true;
-//            }
-//            return false;
-//        });
-//        log.debug("🧹 Removed {} expired sessions", before - sessionMap.size());
+    private void sendDisconnect(MeterSession session) {
+        String serial = session.getMeterSerial();
+        try {
+            byte[] disconnect = session.getClient().disconnectRequest();
+            txRxService.sendReceiveAsync(serial, disconnect).whenComplete((r, e) -> {
+                if (e != null) {
+                    log.debug("Disconnect for idle meter {} not acknowledged: {}", serial, e.getMessage());
+                }
+            });
+            log.info("⏳ Disconnected idle meter {}", serial);
+        } catch (Exception e) {
+            log.warn("⚠️ Failed to send disconnect for {}: {}", serial, e.getMessage());
+        }
     }
 }
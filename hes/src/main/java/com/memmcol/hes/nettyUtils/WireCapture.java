@@ -0,0 +1,69 @@
+package com.memmcol.hes.nettyUtils;
+
+import com.memmcol.hes.service.MeterConnections;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Binary capture of raw TX/RX frames into a {@link WireCaptureLog}, next to (not instead of)
+ * the per-meter text log. Disabled unless {@code hes.wire-capture.enabled=true}.
+ */
+@Slf4j
+@Component
+public class WireCapture {
+
+    private final WireCaptureLog captureLog;
+
+    public WireCapture(@Value("${hes.wire-capture.enabled:false}") boolean enabled,
+                       @Value("${hes.wire-capture.file:logs/wire-capture.bin}") String file,
+                       @Value("${hes.wire-capture.size-mb:64}") int sizeMb) {
+        WireCaptureLog opened = null;
+        if (enabled) {
+            try {
+                opened = WireCaptureLog.open(Path.of(file), Math.max(1, sizeMb) * 1024 * 1024);
+                log.info("📼 DLMS wire capture enabled: file={}, size={}MB, written={}", file, sizeMb, opened.written());
+            } catch (IOException e) {
+                log.error("❌ Could not open wire capture file {}: {}", file, e.getMessage());
+            }
+        }
+        this.captureLog = opened;
+    }
+
+    public boolean isEnabled() {
+        return captureLog != null;
+    }
+
+    /**
+     * Records one decoded frame ({@code byte[]} or {@link ByteBuf}); anything else is ignored.
+     */
+    public void capture(WireCaptureLog.Direction direction, Channel channel, Object frame) {
+        if (captureLog == null) {
+            return;
+        }
+        String channelId = channel.id().asShortText();
+        String serial = MeterConnections.getSerial(channel);
+        if (frame instanceof ByteBuf buf) {
+            captureLog.append(direction, channelId, serial, buf);
+        } else if (frame instanceof byte[] bytes) {
+            captureLog.append(direction, channelId, serial, bytes);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (captureLog != null) {
+            try {
+                captureLog.close();
+            } catch (IOException e) {
+                log.warn("⚠️ Failed to close wire capture file: {}", e.getMessage());
+            }
+        }
+    }
+}
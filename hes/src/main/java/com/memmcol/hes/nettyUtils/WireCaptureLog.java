@@ -0,0 +1,318 @@
+package com.memmcol.hes.nettyUtils;
+
+import io.netty.buffer.ByteBuf;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Memory-mapped ring of raw DLMS frames.
+ * <p>
+ * The ring is cut into fixed-size segments. Each appending thread (in practice one Netty event
+ * loop) owns one segment at a time and writes into it without a lock. Frame bytes go straight
+ * from the {@link ByteBuf} into the mapped region. A thread only touches shared state when its
+ * segment is full: it takes the next segment from an atomic counter, which evicts that segment's
+ * oldest records. Record order comes from a global atomic sequence number. There is no per-record
+ * header update: readers find the end of a segment by a zero length.
+ * <pre>
+ * header (64 bytes, big-endian):
+ *   magic "HESWIRE1" | version int | segment size int | capacity long
+ * segment:
+ *   claim long (claim number + 1, 0 = never used) | records... | length 0 (if 4+ bytes left)
+ * record:
+ *   length int (whole record) | seq long | nanoTime long | epochMillis long | direction byte
+ *   | channelId len byte + ASCII | serial len short + UTF-8 | frame len int + bytes
+ * </pre>
+ * If a thread stalls for a whole lap of the ring, its segment may be reclaimed under it. The owner
+ * notices at its next append and moves on, so at worst one record is lost.
+ */
+public final class WireCaptureLog implements Closeable {
+
+    public enum Direction { RX, TX }
+
+    public record Record(long seq, long nanoTime, long epochMillis, Direction direction,
+                         String channelId, String serial, byte[] frame) {
+    }
+
+    static final long MAGIC = 0x4845535749524531L; // "HESWIRE1"
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 64;
+
+    private static final int OFF_VERSION = 8;
+    private static final int OFF_SEGMENT_SIZE = 12;
+    private static final int OFF_CAPACITY = 16;
+    private static final int SEGMENT_HEADER = 8;
+    private static final int MIN_SEGMENT = 128;
+    private static final int MAX_SEGMENT = 64 * 1024;
+    /** length + seq + nanoTime + epochMillis + direction + channelId len + serial len + frame len */
+    private static final int FIXED_RECORD_BYTES = 4 + 8 + 8 + 8 + 1 + 1 + 2 + 4;
+
+    private final FileChannel file;
+    private final MappedByteBuffer map;
+    private final int segmentSize;
+    private final int segments;
+
+    private final AtomicLong claims;
+    private final AtomicLong seq;
+    private final LongAdder dropped = new LongAdder();
+    private final ThreadLocal<Segment> current = new ThreadLocal<>();
+
+    private WireCaptureLog(FileChannel file, MappedByteBuffer map, int segmentSize, int segments,
+                           long nextClaim, long nextSeq) {
+        this.file = file;
+        this.map = map;
+        this.segmentSize = segmentSize;
+        this.segments = segments;
+        this.claims = new AtomicLong(nextClaim);
+        this.seq = new AtomicLong(nextSeq);
+    }
+
+    /**
+     * Opens (or creates) a capture file with {@code capacity} bytes of ring space. An existing
+     * file with the same layout is appended to; anything else is reinitialised.
+     */
+    public static WireCaptureLog open(Path path, int capacity) throws IOException {
+        if (capacity < 2 * MIN_SEGMENT) {
+            throw new IllegalArgumentException("Wire capture needs at least " + 2 * MIN_SEGMENT + " bytes, got " + capacity);
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        int segmentSize = segmentSize(capacity);
+        int segments = capacity / segmentSize;
+        FileChannel file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer map = file.map(FileChannel.MapMode.READ_WRITE, 0, (long) HEADER_SIZE + capacity);
+
+        long nextClaim = 0;
+        long nextSeq = 0;
+        if (map.getLong(0) == MAGIC && map.getInt(OFF_VERSION) == VERSION
+                && map.getInt(OFF_SEGMENT_SIZE) == segmentSize && map.getLong(OFF_CAPACITY) == capacity) {
+            for (int i = 0; i < segments; i++) {
+                nextClaim = Math.max(nextClaim, map.getLong(HEADER_SIZE + i * segmentSize));
+            }
+            for (Record record : records(map, segmentSize, segments)) {
+                nextSeq = Math.max(nextSeq, record.seq() + 1);
+            }
+        } else {
+            for (int i = 0; i < segments; i++) {
+                map.putLong(HEADER_SIZE + i * segmentSize, 0);
+            }
+            map.putLong(0, MAGIC);
+            map.putInt(OFF_VERSION, VERSION);
+            map.putInt(OFF_SEGMENT_SIZE, segmentSize);
+            map.putLong(OFF_CAPACITY, capacity);
+        }
+        return new WireCaptureLog(file, map, segmentSize, segments, nextClaim, nextSeq);
+    }
+
+    /** Roughly 1/8 of the ring, so eviction drops small slices of history, within [128 B, 64 KB]. */
+    private static int segmentSize(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity / 8));
+        return Math.min(MAX_SEGMENT, Math.max(MIN_SEGMENT, size));
+    }
+
+    public void append(Direction direction, String channelId, String serial, byte[] frame) {
+        Segment segment = reserve(direction, channelId, serial, frame.length);
+        if (segment != null) {
+            segment.view.put(segment.frameAt, frame);
+            segment.commit();
+        }
+    }
+
+    public void append(Direction direction, String channelId, String serial, ByteBuf frame) {
+        int length = frame.readableBytes();
+        Segment segment = reserve(direction, channelId, serial, length);
+        if (segment != null) {
+            ByteBuffer view = segment.view;
+            view.limit(segment.frameAt + length).position(segment.frameAt);
+            frame.getBytes(frame.readerIndex(), view);
+            view.clear();
+            segment.commit();
+        }
+    }
+
+    /** Records written to this file since it was created, including those already evicted. */
+    public long written() {
+        return seq.get();
+    }
+
+    /** Records skipped because they did not fit in one segment. */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    public void force() {
+        map.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        map.force();
+        file.close();
+    }
+
+    /**
+     * Reads every record still held by the capture file, oldest first.
+     */
+    public static List<Record> read(Path path) throws IOException {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buf = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+            if (buf.getLong(0) != MAGIC || buf.getInt(OFF_VERSION) != VERSION) {
+                throw new IOException("Not a wire capture file: " + path);
+            }
+            int segmentSize = buf.getInt(OFF_SEGMENT_SIZE);
+            int segments = (int) (buf.getLong(OFF_CAPACITY) / segmentSize);
+            return records(buf, segmentSize, segments);
+        }
+    }
+
+    private static List<Record> records(ByteBuffer buf, int segmentSize, int segments) {
+        List<Record> records = new ArrayList<>();
+        for (int i = 0; i < segments; i++) {
+            int base = HEADER_SIZE + i * segmentSize;
+            if (buf.getLong(base) == 0) {
+                continue;
+            }
+            int pos = SEGMENT_HEADER;
+            while (segmentSize - pos >= 4) {
+                int at = base + pos;
+                int length = buf.getInt(at);
+                if (length < FIXED_RECORD_BYTES || length > segmentSize - pos) {
+                    break;
+                }
+                long seq = buf.getLong(at + 4);
+                long nanoTime = buf.getLong(at + 12);
+                long epochMillis = buf.getLong(at + 20);
+                Direction direction = Direction.values()[buf.get(at + 28)];
+                int channelIdLength = buf.get(at + 29) & 0xFF;
+                String channelId = string(buf, at + 30, channelIdLength);
+                int serialAt = at + 30 + channelIdLength;
+                int serialLength = buf.getShort(serialAt) & 0xFFFF;
+                String serial = string(buf, serialAt + 2, serialLength);
+                int frameAt = serialAt + 2 + serialLength;
+                byte[] frame = new byte[buf.getInt(frameAt)];
+                buf.get(frameAt + 4, frame);
+                records.add(new Record(seq, nanoTime, epochMillis, direction, channelId, serial, frame));
+                pos += length;
+            }
+        }
+        records.sort(Comparator.comparingLong(Record::seq));
+        return records;
+    }
+
+    private static String string(ByteBuffer buf, int at, int length) {
+        byte[] bytes = new byte[length];
+        buf.get(at, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // --- segment ownership (one segment per appending thread) ---------------------------
+
+    /** A segment owned by one thread; only that thread writes through {@link #view}. */
+    private final class Segment {
+        final long claim;
+        final int base;
+        final ByteBuffer view;
+        int pos = SEGMENT_HEADER;
+        int pendingLength;
+        int frameAt;
+
+        Segment(long claim) {
+            this.claim = claim;
+            this.base = HEADER_SIZE + (int) (claim % segments) * segmentSize;
+            this.view = map.slice(base, segmentSize);
+            // Terminate first so the old records never show up under the new claim
+            view.putInt(SEGMENT_HEADER, 0);
+            view.putLong(0, claim + 1);
+        }
+
+        boolean owned() {
+            return view.getLong(0) == claim + 1;
+        }
+
+        /** Terminates the segment after the record, then publishes the record by its length. */
+        void commit() {
+            int next = pos + pendingLength;
+            if (segmentSize - next >= 4) {
+                view.putInt(next, 0);
+            }
+            view.putInt(pos, pendingLength);
+            pos = next;
+        }
+    }
+
+    /**
+     * Writes everything but the record length and the frame bytes into the calling thread's
+     * segment and returns it with {@code frameAt} set, or null when the record cannot fit.
+     */
+    private Segment reserve(Direction direction, String channelId, String serial, int frameLength) {
+        String id = channelId == null ? "" : channelId;
+        String sn = serial == null ? "" : serial;
+        byte[] serialUtf8 = isAscii(sn) ? null : sn.getBytes(StandardCharsets.UTF_8);
+        int serialLength = serialUtf8 == null ? sn.length() : serialUtf8.length;
+        if (id.length() > 255 || !isAscii(id) || serialLength > 0xFFFF) {
+            dropped.increment();
+            return null;
+        }
+        int length = FIXED_RECORD_BYTES + id.length() + serialLength + frameLength;
+        if (length > segmentSize - SEGMENT_HEADER) {
+            dropped.increment();
+            return null;
+        }
+
+        Segment segment = current.get();
+        if (segment == null || segmentSize - segment.pos < length || !segment.owned()) {
+            segment = new Segment(claims.getAndIncrement());
+            current.set(segment);
+        }
+
+        ByteBuffer view = segment.view;
+        int at = segment.pos;
+        view.putLong(at + 4, seq.getAndIncrement());
+        view.putLong(at + 12, System.nanoTime());
+        view.putLong(at + 20, System.currentTimeMillis());
+        view.put(at + 28, (byte) direction.ordinal());
+        view.put(at + 29, (byte) id.length());
+        putAscii(view, at + 30, id);
+        int serialAt = at + 30 + id.length();
+        view.putShort(serialAt, (short) serialLength);
+        if (serialUtf8 == null) {
+            putAscii(view, serialAt + 2, sn);
+        } else {
+            view.put(serialAt + 2, serialUtf8);
+        }
+        int frameAt = serialAt + 2 + serialLength;
+        view.putInt(frameAt, frameLength);
+
+        segment.pendingLength = length;
+        segment.frameAt = frameAt + 4;
+        return segment;
+    }
+
+    private static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void putAscii(ByteBuffer view, int at, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            view.put(at + i, (byte) s.charAt(i));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.memmcol.hes.nettyUtils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which meters get their frames written to the {@code DLMS-TXRX} wire log.
+ * <ul>
+ *   <li>{@code all} – every frame of every meter (default, previous behaviour)</li>
+ *   <li>{@code sampled} – full trace for {@code hes.wire-trace.meters}, everyone else is
+ *       capped at {@code hes.wire-trace.sampled.frames-per-minute} frames per meter</li>
+ *   <li>{@code off} – no wire log</li>
+ * </ul>
+ * Held statically because {@link RequestResponseService#logTx}/{@code logRx} are static and
+ * called from the Netty handler as well as the services.
+ */
+@Slf4j
+@Component
+public class WireTrace {
+
+    enum Mode { ALL, SAMPLED, OFF }
+
+    private static volatile Mode mode = Mode.ALL;
+    private static volatile Set<String> tracedMeters = Set.of();
+    private static volatile int framesPerMinute = 0;
+    /** Per-meter budget: minute number in the high bits, frames used in the low 20 bits. */
+    private static final Map<String, AtomicLong> budgets = new ConcurrentHashMap<>();
+
+    public WireTrace(@Value("${hes.wire-trace.mode:all}") String mode,
+                     @Value("${hes.wire-trace.meters:}") String metersCsv,
+                     @Value("${hes.wire-trace.sampled.frames-per-minute:20}") int framesPerMinute) {
+        configure(mode, metersCsv, framesPerMinute);
+    }
+
+    static void configure(String modeValue, String metersCsv, int perMinute) {
+        mode = switch (modeValue == null ? "" : modeValue.trim().toLowerCase()) {
+            case "sampled" -> Mode.SAMPLED;
+            case "off" -> Mode.OFF;
+            default -> Mode.ALL;
+        };
+        tracedMeters = metersCsv == null || metersCsv.isBlank() ? Set.of()
+                : Arrays.stream(metersCsv.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isBlank())
+                .collect(Collectors.toUnmodifiableSet());
+        framesPerMinute = Math.max(0, perMinute);
+        budgets.clear();
+        if (mode != Mode.ALL) {
+            log.info("📝 DLMS wire trace mode={} meters={} framesPerMinute={}", mode, tracedMeters, framesPerMinute);
+        }
+    }
+
+    /**
+     * Whether this frame of {@code meterSerial} should be written to the wire log.
+     * Consumes sampling budget, so call it once per frame and only when the logger is enabled.
+     */
+    public static boolean shouldTrace(String meterSerial) {
+        Mode current = mode;
+        if (current == Mode.ALL) {
+            return true;
+        }
+        if (current == Mode.OFF || meterSerial == null) {
+            return false;
+        }
+        if (tracedMeters.contains(meterSerial)) {
+            return true;
+        }
+        int limit = framesPerMinute;
+        if (limit == 0) {
+            return false;
+        }
+        long minute = System.currentTimeMillis() / 60_000L;
+        AtomicLong budget = budgets.computeIfAbsent(meterSerial, k -> new AtomicLong());
+        for (; ; ) {
+            long state = budget.get();
+            long used = (state >>> 20) == minute ? state & 0xFFFFF : 0;
+            if (used >= limit) {
+                return false;
+            }
+            if (budget.compareAndSet(state, (minute << 20) | (used + 1))) {
+                return true;
+            }
+        }
+    }
+}
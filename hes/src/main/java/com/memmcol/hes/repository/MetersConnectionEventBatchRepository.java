@@ -4,9 +4,9 @@ import com.memmcol.hes.dto.MeterUpdateDTO;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.sql.PreparedStatement;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
@@ -80,33 +80,34 @@ public class MetersConnectionEventBatchRepository {
     /**
      * Enforce the communication-timeout rule from persisted state too. This
      * prevents old ONLINE rows surviving indefinitely after an application restart.
+     * <p>
+     * Meters seen recently are excluded with one {@code text[]} bind parameter, so the statement
+     * text never changes (the driver keeps it prepared) and the fleet size is not limited by the
+     * 32767 bind-parameter cap of a {@code NOT IN (?, ?, ...)} list.
      */
     public int markStaleOnlineMetersOffline(LocalDateTime staleBefore,
                                             LocalDateTime offlineTime,
                                             Collection<String> recentlySeenMeters) {
-        StringBuilder sql = new StringBuilder("""
+        String sql = """
                 UPDATE meters_connection_event
                 SET connection_type = 'OFFLINE',
                     offline_time = ?,
                     updated_at = ?
                 WHERE connection_type = 'ONLINE'
                   AND COALESCE(updated_at, online_time) < ?
-                """);
+                  AND meter_no <> ALL(?)
+                """;
 
         Timestamp ts = Timestamp.valueOf(offlineTime);
-        List<Object> args = new ArrayList<>();
-        args.add(ts);
-        args.add(ts);
-        args.add(Timestamp.valueOf(staleBefore));
+        String[] recent = recentlySeenMeters == null ? new String[0] : recentlySeenMeters.toArray(String[]::new);
 
-        if (recentlySeenMeters != null && !recentlySeenMeters.isEmpty()) {
-            sql.append(" AND meter_no NOT IN (");
-            sql.append("?,".repeat(recentlySeenMeters.size()));
-            sql.setLength(sql.length() - 1);
-            sql.append(")");
-            args.addAll(recentlySeenMeters);
-        }
-
-        return jdbcTemplate.update(sql.toString(), args.toArray());
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setTimestamp(1, ts);
+            ps.setTimestamp(2, ts);
+            ps.setTimestamp(3, Timestamp.valueOf(staleBefore));
+            ps.setArray(4, connection.createArrayOf("text", recent));
+            return ps;
+        });
     }
 }
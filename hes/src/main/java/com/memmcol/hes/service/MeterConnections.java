@@ -1,52 +1,121 @@
 package com.memmcol.hes.service;
 
 import io.netty.channel.Channel;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.GlobalEventExecutor;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
+/**
+ * Meter ↔ channel registry.
+ * <p>
+ * The meter bound to a channel and its session state live on the channel itself
+ * ({@link #BINDING_KEY}), so the RX path resolves the serial with an attribute read instead of a
+ * map lookup. The only index is serial → channel, and a channel carries a binding exactly while the
+ * index points at it: rebinding a serial to a new socket clears the stale channel's binding, and
+ * removing a channel only unindexes the entry that is still its own. A heartbeat on a channel that
+ * already carries its serial's binding therefore just updates that binding.
+ * <p>
+ * Counts are O(1): {@link #onlineCount()} is the size of the index (meters that logged in on a live
+ * socket), {@link #connectedCount()} the open sockets, including those that have not sent a
+ * LOGIN yet.
+ */
 @Slf4j
 public final class MeterConnections {
 
-    private static final ConcurrentHashMap<Channel, String> CHANNEL_TO_SERIAL_meterConnectionsPool = new ConcurrentHashMap<>();
+    /** Meter identity and session state, carried by the channel. */
+    public static final class MeterBinding {
+        private final String serial;
+        private final long boundAtMillis;
+        private volatile long lastSeenMillis;
+
+        MeterBinding(String serial, long nowMillis) {
+            this.serial = serial;
+            this.boundAtMillis = nowMillis;
+            this.lastSeenMillis = nowMillis;
+        }
+
+        public String serial() {
+            return serial;
+        }
+
+        public long boundAtMillis() {
+            return boundAtMillis;
+        }
+
+        /** Time of the last LOGIN or HEARTBEAT on this channel. */
+        public long lastSeenMillis() {
+            return lastSeenMillis;
+        }
+    }
+
+    private static final AttributeKey<MeterBinding> BINDING_KEY = AttributeKey.valueOf("DLMS_METER_BINDING");
+
     private static final ConcurrentHashMap<String, Channel> SERIAL_TO_CHANNEL_meterConnectionsPool = new ConcurrentHashMap<>();
-    private static final ConcurrentHashMap<Channel, Queue<byte[]>> CHANNEL_INBOUND_QUEUES = new ConcurrentHashMap<>();
+    /** Every open meter socket; Netty drops a channel from the group when it closes. */
+    private static final ChannelGroup CONNECTED = new DefaultChannelGroup("dlms-meters", GlobalEventExecutor.INSTANCE);
 
 
     private MeterConnections() {}
 
+    /**
+     * Tracks a newly accepted socket for {@link #connectedCount()}; call from {@code channelActive}.
+     */
+    public static void register(Channel channel) {
+        CONNECTED.add(channel);
+    }
+
     public static void bind(Channel channel, String serial) {
+        MeterBinding current = channel.attr(BINDING_KEY).get();
+        if (current != null && current.serial().equals(serial)) {
+            // Heartbeat on an already bound channel: the binding implies the index entry
+            current.lastSeenMillis = System.currentTimeMillis();
+            return;
+        }
+        MeterBinding previousBinding = channel.attr(BINDING_KEY).getAndSet(new MeterBinding(serial, System.currentTimeMillis()));
+        if (previousBinding != null && !previousBinding.serial().equals(serial)) {
+            // Same socket now reports another serial; release the old index entry
+            SERIAL_TO_CHANNEL_meterConnectionsPool.remove(previousBinding.serial(), channel);
+        }
+
         Channel previous = SERIAL_TO_CHANNEL_meterConnectionsPool.put(serial, channel);
-        CHANNEL_TO_SERIAL_meterConnectionsPool.put(channel, serial);
-        CHANNEL_INBOUND_QUEUES.put(channel, new ConcurrentLinkedQueue<>());
         log.debug("🔗 Binding channel {} to serial {}", channel.id(), serial);
 
         // A meter re-connected on a new socket before the old one was torn down.
         // Drop the stale channel so its later disconnect cannot emit a phantom
         // OFFLINE for this meter, which is now live on the new channel.
         if (previous != null && previous != channel) {
-            CHANNEL_TO_SERIAL_meterConnectionsPool.remove(previous);
-            CHANNEL_INBOUND_QUEUES.remove(previous);
+            MeterBinding stale = previous.attr(BINDING_KEY).get();
+            if (stale != null && stale.serial().equals(serial)) {
+                previous.attr(BINDING_KEY).compareAndSet(stale, null);
+            }
             previous.close();
             log.info("🔁 Serial {} rebound to channel {}; closed stale channel {}",
                     serial, channel.id(), previous.id());
         }
     }
 
+    /**
+     * Serial bound to the channel, read from the channel attribute (no map lookup).
+     */
     public static String getSerial(Channel channel) {
-        return CHANNEL_TO_SERIAL_meterConnectionsPool.get(channel);
+        MeterBinding binding = channel.attr(BINDING_KEY).get();
+        return binding == null ? null : binding.serial();
+    }
+
+    public static MeterBinding getBinding(Channel channel) {
+        return channel.attr(BINDING_KEY).get();
     }
 
     public static Channel getChannel(String serial) {
-        log.debug("📡 Looking up channel for serial: '{}'", serial);
         Channel ch = SERIAL_TO_CHANNEL_meterConnectionsPool.get(serial);
 
         if (ch == null) {
-            log.warn("❌ No channel found for serial: '{}'", serial);
-            log.debug("🔍 Available serials: {}", SERIAL_TO_CHANNEL_meterConnectionsPool.keySet());
+            log.warn("❌ No channel found for serial: '{}' ({} meters online)", serial, onlineCount());
         } else {
             log.debug("✅ Found channel {} for serial {}", ch.id(), serial);
         }
@@ -54,18 +123,15 @@ public final class MeterConnections {
         return ch;
     }
 
-    public static Queue<byte[]> getInboundQueue(Channel channel) {
-        return CHANNEL_INBOUND_QUEUES.computeIfAbsent(channel, k -> new ConcurrentLinkedQueue<>());
-    }
-
     public static void remove(Channel channel) {
-        String serial = CHANNEL_TO_SERIAL_meterConnectionsPool.remove(channel);
+        MeterBinding binding = channel.attr(BINDING_KEY).getAndSet(null);
+        String serial = binding == null ? null : binding.serial();
         if (serial != null) {
             // Only clear the serial mapping if it still points to THIS channel.
             // If the meter already reconnected on a newer channel, keep that intact.
             SERIAL_TO_CHANNEL_meterConnectionsPool.remove(serial, channel);
         }
-        CHANNEL_INBOUND_QUEUES.remove(channel);
+        CONNECTED.remove(channel);
         channel.close();
         log.info("❌ Disconnected Meter and connection {}", serial);
     }
@@ -80,16 +146,29 @@ public final class MeterConnections {
     }
 
     public static boolean isActive(String serial) {
-        Channel ch = getChannel(serial);
+        Channel ch = SERIAL_TO_CHANNEL_meterConnectionsPool.get(serial);
         return ch != null && ch.isActive();
     }
 
+    /**
+     * Live view of the bound serials; callers that need a snapshot copy it.
+     */
     public static Set<String> getAllActiveSerials() {
         return SERIAL_TO_CHANNEL_meterConnectionsPool.keySet();
     }
 
-    public static int size() {
+    /**
+     * Meters bound to a live channel (logged in), O(1).
+     */
+    public static int onlineCount() {
         return SERIAL_TO_CHANNEL_meterConnectionsPool.size();
     }
 
+    /**
+     * Open meter sockets, identified or not, O(1).
+     */
+    public static int connectedCount() {
+        return CONNECTED.size();
+    }
+
 }
@@ -56,7 +56,7 @@ public class MeterReadAdapter {
         GXReplyData reply = new GXReplyData();
 
         // Send initial request
-        byte[] response = requestResponseService.sendReceiveWithContext(serial, firstRequest, 20000);
+        byte[] response = requestResponseService.sendReceiveWithContext(serial, firstRequest);
         if (isAssociationLost(response)) {
             sessionManager.removeSession(serial);
             throw new AssociationLostException("Association lost with " + serial);
@@ -80,7 +80,7 @@ public class MeterReadAdapter {
 
             if (nextRequest == null) break; // Safety
 
-            response = requestResponseService.sendReceiveWithContext(serial, nextRequest, 20000);
+            response = requestResponseService.sendReceiveWithContext(serial, nextRequest);
 
             if (isAssociationLost(response)) {
                 sessionManager.removeSession(serial);
@@ -107,7 +107,7 @@ public class MeterReadAdapter {
         int blockCounter = 0;
 
         // ---- First block ----
-        byte[] resp = requestResponseService.sendReceiveWithContext(serial, initialRequest, 20000);
+        byte[] resp = requestResponseService.sendReceiveWithContext(serial, initialRequest);
         if (isAssociationLost(resp)) {
             sessionManager.removeSession(serial);
             throw new AssociationLostException("Association lost on initial request.");
@@ -127,7 +127,7 @@ public class MeterReadAdapter {
             byte[] nextReq = client.receiverReady(reply);
             if (nextReq == null) break;
 
-            byte[] blockResp = requestResponseService.sendReceiveWithContext(serial, nextReq, 20000);
+            byte[] blockResp = requestResponseService.sendReceiveWithContext(serial, nextReq);
             if (isAssociationLost(blockResp)) {
                 sessionManager.removeSession(serial);
                 throw new AssociationLostException("Association lost mid-transfer.");
@@ -189,7 +189,7 @@ public class MeterReadAdapter {
 
     public Object readAttribute(GXDLMSClient client, String serial, GXDLMSObject obj, int index) throws Exception {
         byte[][] request = client.read(obj, index);
-        byte[] response = requestResponseService.sendReceiveWithContext(serial, request[0], 20000);
+        byte[] response = requestResponseService.sendReceiveWithContext(serial, request[0]);
         if (isAssociationLost(response)) {
             sessionManager.removeSession(serial);
             throw new AssociationLostException();
@@ -203,7 +203,7 @@ public class MeterReadAdapter {
         log.debug("Reading attribute {} from object {}", index, obj.getLogicalName());
 
         byte[][] request = client.read(obj, index);
-        byte[] response = requestResponseService.sendReceiveWithContext(serial, request[0], 20000);
+        byte[] response = requestResponseService.sendReceiveWithContext(serial, request[0]);
         String rawHex = GXCommon.toHex(response);
 
         if (isAssociationLost(response)) {
@@ -244,7 +244,7 @@ public class MeterReadAdapter {
 
     private double readScaler(GXDLMSClient client, String serial, GXDLMSObject obj, int index) throws Exception {
         byte[][] scalerUnitRequest = client.read(obj, index);
-        byte[] response = requestResponseService.sendReceiveWithContext(serial, scalerUnitRequest[0], 20000);
+        byte[] response = requestResponseService.sendReceiveWithContext(serial, scalerUnitRequest[0]);
         if (isAssociationLost(response)) {
             sessionManager.removeSession(serial);
             throw new AssociationLostException();
@@ -273,7 +273,7 @@ public class MeterReadAdapter {
 
     public void readScalerUnit(GXDLMSClient client, String serial, GXDLMSObject obj, int index) throws Exception {
         byte[][] scalerUnitRequest = client.read(obj, index);
-        byte[] response = requestResponseService.sendReceiveWithContext(serial, scalerUnitRequest[0], 20000);
+        byte[] response = requestResponseService.sendReceiveWithContext(serial, scalerUnitRequest[0]);
         if (isAssociationLost(response)) {
             sessionManager.removeSession(serial);
             throw new AssociationLostException();
@@ -287,7 +287,7 @@ public class MeterReadAdapter {
         log.debug("Reading scaler/unit from object {}", obj.getLogicalName());
 
         byte[][] scalerUnitRequest = client.read(obj, index);
-        byte[] response = requestResponseService.sendReceiveWithContext(serial, scalerUnitRequest[0], 20000);
+        byte[] response = requestResponseService.sendReceiveWithContext(serial, scalerUnitRequest[0]);
         String rawHex = GXCommon.toHex(response);
 
         if (isAssociationLost(response)) {
@@ -34,7 +34,7 @@ public class MeterSession {
     @Setter
     private boolean isAssociated = false;
 
-    private Instant lastUsed = Instant.now();
+    private volatile Instant lastUsed = Instant.now();
 
     // Update lastUsed every time client is accessed
     public GXDLMSClient getClient() {
@@ -58,7 +58,7 @@ public class MeterSession {
         // e.g., send via channel or command interface
         try {
             byte[] disconnect = client.disconnectRequest();
-            byte[] response = txRxService.sendReceiveWithContext(meterSerial, disconnect, 20000);
+            byte[] response = txRxService.sendReceiveWithContext(meterSerial, disconnect);
             log.info("Meters disconnected successfully.");
         } catch (Exception e) {
             log.warn("⚠️ Failed to send disconnect for {}: {}", meterSerial, e.getMessage());
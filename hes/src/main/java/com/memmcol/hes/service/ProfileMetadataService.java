@@ -9,15 +9,22 @@ import com.memmcol.hes.infrastructure.dlms.DlmsReaderUtils;
 import com.memmcol.hes.model.ModelProfileMetadata;
 import com.memmcol.hes.nettyUtils.SessionManager;
 import com.memmcol.hes.repository.ModelProfileMetadataRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import gurux.dlms.GXDLMSClient;
 import gurux.dlms.GXReplyData;
 import gurux.dlms.objects.*;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static com.memmcol.hes.nettyUtils.RequestResponseService.logTx;
 
@@ -33,10 +40,14 @@ public class ProfileMetadataService {
     private final SessionManager sessionManager;
     private final DlmsReaderUtils dlmsReaderUtils;
     private final ObisMappingService obisMappingService;
+    private final MeterRegistry meterRegistry;
 
     @org.springframework.beans.factory.annotation.Value("${hes.metadata.refresh.enabled:true}")
     private boolean refreshEnabled;
 
+    @org.springframework.beans.factory.annotation.Value("${hes.metadata.warmup.enabled:true}")
+    private boolean warmupEnabled;
+
     /**
      * Return metadata for a given meter model & profile OBIS.
      * • Cache  →  DB  →  MetersEntity  (in that order)
@@ -68,22 +79,64 @@ public class ProfileMetadataService {
         return fresh;
     }
 
+    /**
+     * Single-flight lookup: when a batch starts and many meters of one model miss the cache
+     * together, only the first caller runs the DB / meter load; everyone else awaits the same
+     * future in the {@code profileMetadata} async cache.
+     */
     public List<ModelProfileMetadata> getOrLoadMetadata(
             String meterModel,
             String profileObis,
             String sampleSerial    // serial of *one* online meter of this model
     ) {
-        // ① Cache
+        // ① Cache (coalesced per model + profile)
         String key = meterModel + "::" + profileObis;
-        List<ModelProfileMetadata> cached = Objects.requireNonNull(cacheManager.getCache(CACHE)).get(key, List.class);
-        if (cached != null) {
-            log.info("📗 Caffeine hit for {}", key);
+        AsyncCache<Object, Object> cache = metadataCache();
+        List<ModelProfileMetadata> cached = List.of();
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            CompletableFuture<Object> load = new CompletableFuture<>();
+            boolean[] loader = {false};
+            CompletableFuture<Object> shared = cache.get(key, (k, executor) -> {
+                loader[0] = true;
+                return load;
+            });
+
+            if (loader[0]) {
+                countLookup("miss");
+                boolean loaded = false;
+                try {
+                    List<ModelProfileMetadata> fresh = loadMetadata(key, meterModel, profileObis, sampleSerial);
+                    // Completing with null drops the entry, so an empty result is retried next time
+                    load.complete(fresh.isEmpty() ? null : fresh);
+                    loaded = true;
+                    return fresh;
+                } catch (Throwable t) {
+                    // Errors too (OOM, StackOverflow, assertion): waiters must never hang on this future
+                    load.completeExceptionally(t);
+                    throw t;
+                } finally {
+                    if (!loaded) {
+                        cache.asMap().remove(key, load);
+                    }
+                }
+            }
+
+            countLookup(shared.isDone() ? "hit" : "coalesced");
+            cached = awaitShared(shared);
             if (!isBroken(cached)) {
                 return cached;
             }
             log.warn("⚠️ Cached metadata for {} is broken, ignoring cache", key);
+            cache.asMap().remove(key, shared);
         }
+        return cached;
+    }
 
+    /**
+     * ② DB → ③ meter. Runs on the single caller that won the cache slot.
+     */
+    private List<ModelProfileMetadata> loadMetadata(String key, String meterModel, String profileObis, String sampleSerial) {
         // ② DB
         List<ModelProfileMetadata> dbRows =
                 repo.findByMeterModelAndProfileObisOrderByCaptureIndexAsc(meterModel, profileObis);
@@ -95,7 +148,6 @@ public class ProfileMetadataService {
                 repo.deleteAll(dbRows);
             } else {
                 log.info("📙 Loaded {} rows from DB for {}", dbRows.size(), key);
-                Objects.requireNonNull(cacheManager.getCache(CACHE)).put(key, dbRows);
                 return dbRows;
             }
         }
@@ -119,11 +171,61 @@ public class ProfileMetadataService {
             fresh = buildDefaultEventLogMetadata(meterModel, profileObis);
             repo.saveAll(fresh);
         }
+        return fresh;
+    }
 
-        if (!fresh.isEmpty()) {
-            Objects.requireNonNull(cacheManager.getCache(CACHE)).put(key, fresh);
+    /**
+     * Preloads every model/profile already learned into {@code profileMetadata} so the first
+     * batch after a restart does not go to the DB (or the meters) once per key.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmMetadataCache() {
+        if (!warmupEnabled) {
+            return;
         }
-        return fresh;
+        try {
+            Map<String, List<ModelProfileMetadata>> byKey = new LinkedHashMap<>();
+            for (ModelProfileMetadata row : repo.findAll()) {
+                byKey.computeIfAbsent(row.getMeterModel() + "::" + row.getProfileObis(), k -> new ArrayList<>()).add(row);
+            }
+
+            AsyncCache<Object, Object> cache = metadataCache();
+            int warmed = 0;
+            for (Map.Entry<String, List<ModelProfileMetadata>> entry : byKey.entrySet()) {
+                List<ModelProfileMetadata> rows = entry.getValue();
+                rows.sort(Comparator.comparing(ModelProfileMetadata::getCaptureIndex, Comparator.nullsLast(Comparator.naturalOrder())));
+                if (isBroken(rows)) {
+                    continue;
+                }
+                if (cache.asMap().putIfAbsent(entry.getKey(), CompletableFuture.completedFuture(rows)) == null) {
+                    warmed++;
+                }
+            }
+            log.info("🔥 Warmed profileMetadata cache with {} model/profile entries", warmed);
+        } catch (Exception e) {
+            log.error("❌ profileMetadata cache warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    private AsyncCache<Object, Object> metadataCache() {
+        return ((CaffeineCache) Objects.requireNonNull(cacheManager.getCache(CACHE))).getAsyncCache();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<ModelProfileMetadata> awaitShared(CompletableFuture<Object> shared) {
+        try {
+            Object value = shared.join();
+            return value == null ? Collections.emptyList() : (List<ModelProfileMetadata>) value;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+    }
+
+    private void countLookup(String result) {
+        meterRegistry.counter("hes.metadata.cache.lookups", "result", result).increment();
     }
 
     private static boolean isEventLogProfileObis(String profileObis) {
@@ -1,45 +1,35 @@
 package com.memmcol.hes.trackByTimestamp;
 
 
+import com.memmcol.hes.application.port.out.ProfileStatePort;
+import com.memmcol.hes.domain.profile.CapturePeriod;
+import com.memmcol.hes.domain.profile.ProfileState;
+import com.memmcol.hes.domain.profile.ProfileTimestamp;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 
+/**
+ * meter_profile_state access for the legacy read paths. Goes through {@link ProfileStatePort} so the
+ * cached cursors stay in step with the table.
+ */
 @Service
 @Transactional
 public class MeterProfileStateService {
 
-    private final MeterProfileStateRepository repository;
+    private final ProfileStatePort statePort;
 
-    public MeterProfileStateService(MeterProfileStateRepository repository) {
-        this.repository = repository;
+    public MeterProfileStateService(ProfileStatePort statePort) {
+        this.statePort = statePort;
     }
 
     public void upsertLastTimestamp(String meterSerial, String profileObis, LocalDateTime ts) {
-        int updated = repository.updateLastTimestamp(meterSerial, profileObis, ts);
-        if (updated == 0) {
-            MeterProfileState state = MeterProfileState.builder()
-                    .meterSerial(meterSerial)
-                    .profileObis(profileObis)
-                    .lastTimestamp(ts)
-                    .updatedAt(LocalDateTime.now())
-                    .build();
-            repository.save(state);
-        }
+        statePort.upsertState(meterSerial, profileObis, ProfileTimestamp.ofNullable(ts), null);
     }
 
     public void upsertCapturePeriod(String meterSerial, String profileObis, Integer period) {
-        int updated = repository.updateCapturePeriod(meterSerial, profileObis, period);
-        if (updated == 0) {
-            MeterProfileState state = MeterProfileState.builder()
-                    .meterSerial(meterSerial)
-                    .profileObis(profileObis)
-                    .capturePeriodSec(period)
-                    .updatedAt(LocalDateTime.now())
-                    .build();
-            repository.save(state);
-        }
+        statePort.upsertState(meterSerial, profileObis, null, capturePeriod(period));
     }
 
     @Transactional
@@ -47,30 +37,23 @@ public class MeterProfileStateService {
                                                 String obis,
                                                 LocalDateTime ts,
                                                 Integer periodSec) {
-        int updated = repository.updateTimestampAndCapturePeriod(serial, obis, ts, periodSec);
-        if (updated == 0) {
-            MeterProfileState entity = MeterProfileState.builder()
-                    .meterSerial(serial)
-                    .profileObis(obis)
-                    .lastTimestamp(ts)
-                    .capturePeriodSec(periodSec)
-                    .updatedAt(LocalDateTime.now())
-                    .build();
-            repository.save(entity);
-        }
+        statePort.upsertState(serial, obis, ProfileTimestamp.ofNullable(ts), capturePeriod(periodSec));
     }
 
     @Transactional(readOnly = true)
     public LocalDateTime getLastTimestamp(String meterSerial, String profileObis) {
-        return repository.findByMeterSerialAndProfileObis(meterSerial, profileObis)
-                .map(MeterProfileState::getLastTimestamp)
-                .orElse(null);
+        ProfileState state = statePort.loadState(meterSerial, profileObis);
+        return state == null || state.lastTimestamp() == null ? null : state.lastTimestamp().value();
     }
 
     @Transactional(readOnly = true)
     public Integer getCapturePeriod(String meterSerial, String profileObis) {
-        return repository.findByMeterSerialAndProfileObis(meterSerial, profileObis)
-                .map(MeterProfileState::getCapturePeriodSec)
-                .orElse(null);
+        ProfileState state = statePort.loadState(meterSerial, profileObis);
+        return state == null || state.capturePeriod() == null ? null : state.capturePeriod().seconds();
     }
-}
\ No newline at end of file
+
+    /** Non-positive periods (0 for monthly profiles) are stored as the 1 second minimum; null leaves the column as is. */
+    private static CapturePeriod capturePeriod(Integer seconds) {
+        return seconds == null ? null : new CapturePeriod(Math.max(1, seconds));
+    }
+}
@@ -4,6 +4,7 @@ import com.memmcol.hes.application.port.out.TxRxService;
 import com.memmcol.hes.domain.profile.MeterRatios;
 import com.memmcol.hes.infrastructure.dlms.DlmsDataDecoder;
 import com.memmcol.hes.infrastructure.dlms.DlmsReaderUtils;
+import com.memmcol.hes.infrastructure.dlms.GetWithListPlanner;
 import com.memmcol.hes.nettyUtils.SessionManagerMultiVendor;
 import com.memmcol.hes.exception.AssociationLostException;
 import com.memmcol.hes.exception.InvalidObisFormatException;
@@ -32,6 +33,7 @@ import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -45,6 +47,7 @@ public class MeterReadingService {
     private final SessionManagerMultiVendor sessionManagerMultiVendor;
     private final DlmsReaderUtils dlmsReaderUtils;
     private final MeterRatioService ratioService;
+    private final GetWithListPlanner listPlanner;
 
     // Fail-fast on a per-DLMS-call basis during user-facing realtime reads.
     // Cold/legacy calls in this class still use 20s.
@@ -622,6 +625,17 @@ public class MeterReadingService {
         }
     }
 
+    /**
+     * Associates with the meter if needed and returns what its model accepts in one GET-WITH-LIST,
+     * as negotiated in the AARE. Realtime reads plan their OBIS chunks from this.
+     */
+    public GetWithListPlanner.ListCapability listCapability(String meterModel, String meterSerial) throws Exception {
+        if (!listPlanner.isLearned(meterModel)) {
+            listPlanner.learn(meterModel, sessionManagerMultiVendor.getOrCreateClient(meterSerial));
+        }
+        return listPlanner.capability(meterModel);
+    }
+
     public List<Map<String, Object>> readObisValuesBatch(String meterModel,
                                                          String meterSerial,
                                                          List<String> obisList,
@@ -648,6 +662,7 @@ public class MeterReadingService {
         if (client == null) {
             throw new IllegalStateException("No active session for meter: " + meterSerial);
         }
+        listPlanner.learn(meterModel, client);
 
         // Tolerant parse: bad OBIS strings are isolated from the batch instead of
         // poisoning the whole call. Each request slot keeps its position so the
@@ -673,13 +688,27 @@ public class MeterReadingService {
         }
 
         if (!goodParsed.isEmpty()) {
-            readScalerUnitsBatch(client, meterModel, meterSerial, goodParsed);
-
-            List<Map.Entry<GXDLMSObject, Integer>> valueReads = goodParsed.stream()
-                    .<Map.Entry<GXDLMSObject, Integer>>map(parsed -> new AbstractMap.SimpleEntry<>(parsed.object(), parsed.attributeIndex()))
-                    .toList();
+            // Uncached scaler/unit (attribute 3) reads are planned right before their values, so a
+            // cold read usually still costs one round-trip per list and never overfills a PDU.
+            List<ParsedObis> uncachedScalers = applyCachedScalerUnits(client, meterModel, meterSerial, goodParsed);
+            Map<ParsedObis, ListRead> scalerReads = new IdentityHashMap<>();
+            List<ListRead> valueReads = new ArrayList<>(goodParsed.size());
+            List<ListRead> reads = new ArrayList<>(uncachedScalers.size() + goodParsed.size());
+            for (ParsedObis parsed : uncachedScalers) {
+                scalerReads.put(parsed, new ListRead(parsed, 3));
+            }
+            for (ParsedObis parsed : goodParsed) {
+                ListRead scalerRead = scalerReads.get(parsed);
+                if (scalerRead != null) {
+                    reads.add(scalerRead);
+                }
+                ListRead valueRead = new ListRead(parsed, parsed.attributeIndex());
+                valueReads.add(valueRead);
+                reads.add(valueRead);
+            }
 
-            List<Object> values = readListValues(client, meterSerial, valueReads);
+            Map<ListRead, Object> results = readPlannedLists(client, meterModel, meterSerial, reads);
+            applyScalerUnitValues(client, meterModel, meterSerial, uncachedScalers, scalerReads, results);
             MeterRatios meterRatios = mdMeter ? ratioService.readMeterRatios(meterModel, meterSerial) : null;
             DecimalFormat formatter = new DecimalFormat("#,##0.00");
 
@@ -702,7 +731,7 @@ public class MeterReadingService {
                     item.put("unit", getUnitSymbol(register.getUnit()));
                 }
 
-                if (g >= values.size()) {
+                if (!results.containsKey(valueReads.get(g))) {
                     item.put("statuscode", -1);
                     item.put("error", "No DLMS value returned for this OBIS in batched response");
                     item.put("Actual Value", null);
@@ -710,7 +739,7 @@ public class MeterReadingService {
                     continue;
                 }
 
-                Object rawValue = unwrapBatchValue(values.get(g));
+                Object rawValue = unwrapBatchValue(results.get(valueReads.get(g)));
                 if (isDlmsFailure(rawValue)) {
                     item.put("statuscode", -1);
                     item.put("error", dlmsFailureMessage(rawValue));
@@ -736,20 +765,18 @@ public class MeterReadingService {
         return Arrays.asList(response);
     }
 
-    private void readScalerUnitsBatch(GXDLMSClient client,
-                                      String meterModel,
-                                      String meterSerial,
-                                      List<ParsedObis> parsedObis) throws Exception {
-        List<ParsedObis> scalerReads = parsedObis.stream()
-                .filter(parsed -> supportsScalerUnit(parsed.objectType()))
-                .toList();
-        if (scalerReads.isEmpty()) {
-            return;
-        }
-
-        // Split into cached vs uncached; apply cached values directly, only batch-read the rest.
-        List<ParsedObis> uncached = new ArrayList<>(scalerReads.size());
-        for (ParsedObis parsed : scalerReads) {
+    /**
+     * Applies cached scaler/unit values and returns the scaler-capable objects still missing one.
+     */
+    private List<ParsedObis> applyCachedScalerUnits(GXDLMSClient client,
+                                                    String meterModel,
+                                                    String meterSerial,
+                                                    List<ParsedObis> parsedObis) {
+        List<ParsedObis> uncached = new ArrayList<>();
+        for (ParsedObis parsed : parsedObis) {
+            if (!supportsScalerUnit(parsed.objectType())) {
+                continue;
+            }
             Object cached = scalerUnitCache.get(scalerUnitKey(meterModel, parsed));
             if (cached == null) {
                 uncached.add(parsed);
@@ -764,23 +791,25 @@ public class MeterReadingService {
             }
         }
         if (uncached.isEmpty()) {
-            log.debug("Scaler/unit fully served from cache for meter={} count={}", meterSerial, scalerReads.size());
-            return;
+            log.debug("Scaler/unit fully served from cache for meter={}", meterSerial);
         }
+        return uncached;
+    }
 
-        List<Map.Entry<GXDLMSObject, Integer>> reads = uncached.stream()
-                .<Map.Entry<GXDLMSObject, Integer>>map(parsed -> new AbstractMap.SimpleEntry<>(parsed.object(), 3))
-                .toList();
-        List<Object> scalerValues = readListValues(client, meterSerial, reads);
-
-        for (int i = 0; i < uncached.size(); i++) {
-            ParsedObis parsed = uncached.get(i);
-            if (i >= scalerValues.size()) {
+    private void applyScalerUnitValues(GXDLMSClient client,
+                                       String meterModel,
+                                       String meterSerial,
+                                       List<ParsedObis> uncached,
+                                       Map<ParsedObis, ListRead> scalerReads,
+                                       Map<ListRead, Object> results) {
+        for (ParsedObis parsed : uncached) {
+            ListRead read = scalerReads.get(parsed);
+            if (!results.containsKey(read)) {
                 log.warn("Batched scaler/unit read returned no value for meter={} obis={}",
                         meterSerial, parsed.obisCode());
                 continue;
             }
-            Object scalerValue = unwrapBatchValue(scalerValues.get(i));
+            Object scalerValue = unwrapBatchValue(results.get(read));
             if (isDlmsFailure(scalerValue)) {
                 log.warn("Batched scaler/unit read failed for meter={} obis={}: {}",
                         meterSerial, parsed.obisCode(), dlmsFailureMessage(scalerValue));
@@ -800,6 +829,43 @@ public class MeterReadingService {
         return (meterModel == null ? "?" : meterModel) + "|" + parsed.classId() + "|" + parsed.obisCode();
     }
 
+    /**
+     * Sends {@code reads} as the GET-WITH-LIST requests the planner allows for this model and returns
+     * each result keyed by the read it answers. A list the meter rejects as a whole lowers the
+     * model's item limit by the size of the list actually sent. A reply whose item count does not
+     * match its list is not trusted for any item.
+     */
+    private Map<ListRead, Object> readPlannedLists(GXDLMSClient client,
+                                                   String meterModel,
+                                                   String meterSerial,
+                                                   List<ListRead> reads) throws Exception {
+        Map<ListRead, Object> results = new IdentityHashMap<>();
+        for (List<ListRead> list : listPlanner.plan(meterModel, reads, ListRead::descriptor)) {
+            List<Map.Entry<GXDLMSObject, Integer>> entries = new ArrayList<>(list.size());
+            for (ListRead read : list) {
+                entries.add(new AbstractMap.SimpleEntry<>(read.parsed().object(), read.attribute()));
+            }
+            List<Object> values;
+            try {
+                values = readListValues(client, meterSerial, entries);
+            } catch (Exception e) {
+                if (GetWithListPlanner.isListRejection(e)) {
+                    listPlanner.onListRejected(meterModel, list.size());
+                }
+                throw e;
+            }
+            if (values.size() != list.size()) {
+                log.warn("Batched OBIS read for meter={} returned {} results for {} items, discarding the list",
+                        meterSerial, values.size(), list.size());
+                continue;
+            }
+            for (int i = 0; i < list.size(); i++) {
+                results.put(list.get(i), values.get(i));
+            }
+        }
+        return results;
+    }
+
     @SuppressWarnings("unchecked")
     private List<Object> readListValues(GXDLMSClient client,
                                         String meterSerial,
@@ -1039,6 +1105,13 @@ public class MeterReadingService {
         };
     }
 
+    /** One attribute of a parsed OBIS in a GET-WITH-LIST; compared by identity as a result key. */
+    private record ListRead(ParsedObis parsed, int attribute) {
+        String descriptor() {
+            return parsed.classId() + ";" + parsed.obisCode() + ";" + attribute + ";0";
+        }
+    }
+
     private record ParsedObis(String obis,
                               String obisCode,
                               int classId,
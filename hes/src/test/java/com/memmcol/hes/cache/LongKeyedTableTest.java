@@ -0,0 +1,37 @@
+package com.memmcol.hes.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongKeyedTableTest {
+
+    @Test
+    void findsEveryKeyAfterGrowing() {
+        LongKeyedTable.Builder<String> builder = LongKeyedTable.builder();
+        for (int type = 1; type <= 20; type++) {
+            for (int code = 0; code < 50; code++) {
+                builder.put(LongKeyedTable.pack(type, code), type + ":" + code);
+            }
+        }
+        LongKeyedTable<String> table = builder.build();
+
+        assertEquals(1000, table.size());
+        assertEquals("7:42", table.get(LongKeyedTable.pack(7, 42)));
+        assertEquals("20:0", table.get(LongKeyedTable.pack(20, 0)));
+        assertNull(table.get(LongKeyedTable.pack(21, 0)));
+    }
+
+    @Test
+    void packKeepsNegativeLowHalfDistinct() {
+        LongKeyedTable<String> table = LongKeyedTable.<String>builder()
+                .put(LongKeyedTable.pack(1, -1), "neg")
+                .put(LongKeyedTable.pack(0, -1), "zero-type")
+                .put(LongKeyedTable.pack(1, -1), "neg-replaced")
+                .build();
+
+        assertEquals(2, table.size());
+        assertEquals("neg-replaced", table.get(LongKeyedTable.pack(1, -1)));
+        assertEquals("zero-type", table.get(LongKeyedTable.pack(0, -1)));
+    }
+}
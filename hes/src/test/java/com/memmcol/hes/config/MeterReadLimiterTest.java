@@ -0,0 +1,77 @@
+package com.memmcol.hes.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MeterReadLimiterTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"platform", "virtual"})
+    void call_countsInFlightReadsInBothModes(String mode) throws Exception {
+        MeterReadLimiter limiter = new MeterReadLimiter(mode, 10, 1);
+
+        int during = limiter.call("MTR1", limiter::inFlight);
+
+        assertEquals(1, during);
+        assertEquals(0, limiter.inFlight());
+        assertEquals(0, limiter.waiting());
+    }
+
+    @Test
+    void call_dropsTheMeterSemaphoreOnceIdle() throws Exception {
+        MeterReadLimiter limiter = new MeterReadLimiter("virtual", 10, 1);
+
+        assertEquals(1, (int) limiter.call("MTR1", limiter::trackedMeters));
+        assertThrows(IllegalStateException.class, () -> limiter.call("MTR2", () -> {
+            throw new IllegalStateException("read failed");
+        }));
+
+        assertEquals(0, limiter.trackedMeters());
+    }
+
+    @Test
+    void call_keepsOneMeterSerialWhileItsSemaphoreComesAndGoes() throws Exception {
+        MeterReadLimiter limiter = new MeterReadLimiter("virtual", 10, 1);
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        try {
+            Future<?>[] futures = new Future<?>[threads];
+            for (int i = 0; i < threads; i++) {
+                futures[i] = pool.submit(() -> {
+                    start.await();
+                    for (int n = 0; n < 200; n++) {
+                        limiter.run("MTR1", () -> {
+                            maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                            inside.decrementAndGet();
+                        });
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, maxInside.get());
+        assertEquals(0, limiter.trackedMeters());
+        assertEquals(0, limiter.waiting());
+    }
+}
@@ -0,0 +1,100 @@
+package com.memmcol.hes.domain.profile.mappers;
+
+import com.memmcol.hes.domain.profile.MeterRatios;
+import com.memmcol.hes.domain.profile.ObisObjectType;
+import com.memmcol.hes.domain.profile.ProfileMetadataResult;
+import com.memmcol.hes.domain.profile.ProfileRowGeneric;
+import com.memmcol.hes.model.ModelProfileMetadata;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProfileColumnPlanTest {
+
+    private static final String CLOCK = "0.0.1.0.0.255";
+    private static final String ENERGY = "1.0.1.8.0.255";
+    private static final String STATUS = "0.0.96.10.1.255";
+    private static final String UNMAPPED = "1.0.99.1.0.255";
+
+    private static ModelProfileMetadata column(String obis, double scaler, String multiplyBy, ObisObjectType type, String columnName) {
+        return ModelProfileMetadata.builder()
+                .captureObis(obis).scaler(scaler).multiplyBy(multiplyBy).type(type)
+                .captureIndex(0).columnName(columnName)
+                .build();
+    }
+
+    private static ProfileMetadataResult metadata() {
+        return new ProfileMetadataResult(List.of(
+                column(CLOCK, 1.0, "NONE", ObisObjectType.CLOCK, "entry_timestamp"),
+                column(ENERGY, 0.01, "CTPT", ObisObjectType.SCALER, "energy"),
+                column(STATUS, 1.0, "NONE", ObisObjectType.NON_SCALER, "status")));
+    }
+
+    private static ProfileColumnPlan<Map<String, Object>> plan(boolean mdMeter) {
+        return ProfileColumnPlan.compile(metadata(), mdMeter, new MeterRatios(5, 2, 10),
+                column -> switch (column) {
+                    case "energy", "status" -> (dto, value) -> dto.put(column, value);
+                    default -> null;
+                },
+                (dto, ts) -> dto.put("ts", ts), null);
+    }
+
+    private static ProfileRowGeneric row(Map<String, Object> values) {
+        return new ProfileRowGeneric(Instant.EPOCH, "SER1", "1.0.99.1.0.255", values);
+    }
+
+    @Test
+    void apply_combinesScalerAndRatioAndRounds() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put(CLOCK + "-2", LocalDateTime.of(2025, 8, 1, 0, 15, 0, 500));
+        values.put(ENERGY + "-2", 12345L);
+        values.put(STATUS + "-2", "7");
+        values.put(UNMAPPED + "-2", 1);
+
+        Map<String, Object> dto = new HashMap<>();
+        plan(true).apply(row(values), dto);
+
+        assertEquals(LocalDateTime.of(2025, 8, 1, 0, 15), dto.get("ts"));
+        assertEquals(new BigDecimal("1234.50"), dto.get("energy"));   // 12345 × 0.01 × CTPT 10
+        assertEquals(new BigDecimal("7.00"), dto.get("status"));
+        assertEquals(3, dto.size());
+    }
+
+    @Test
+    void apply_ignoresRatioForNonMdMeter() {
+        Map<String, Object> dto = new HashMap<>();
+        plan(false).apply(row(Map.of(ENERGY + "-2", 12345)), dto);
+
+        assertEquals(new BigDecimal("123.45"), dto.get("energy"));
+    }
+
+    @Test
+    void apply_fallsBackToKeyLookupWhenRowOrderChanges() {
+        ProfileColumnPlan<Map<String, Object>> plan = plan(false);
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put(ENERGY + "-2", 100);
+        first.put(STATUS + "-2", 1);
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put(STATUS + "-2", 2);
+        reordered.put(ENERGY + "-2", 200);
+        reordered.put(UNMAPPED + "-2", null);
+
+        plan.apply(row(first), new HashMap<>());
+        Map<String, Object> dto = new HashMap<>();
+        plan.apply(row(reordered), dto);
+
+        assertEquals(new BigDecimal("2.00"), dto.get("energy"));
+        assertEquals(new BigDecimal("2.00"), dto.get("status"));
+        assertNull(dto.get("ts"));
+        assertEquals(3, plan.size());
+    }
+}
@@ -0,0 +1,104 @@
+package com.memmcol.hes.gridflex.sse;
+
+import com.memmcol.hes.nettyUtils.MeterHeartbeatManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class MeterHeartbeatServiceTest {
+
+    private MeterStatusSsePublisher publisher;
+    private MeterHeartbeatManager heartbeatManager;
+    private MeterHeartbeatService service;
+
+    /** meterNo -> statuses applied, and the worker threads that applied them */
+    private final Map<String, List<String>> applied = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> threads = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        publisher = mock(MeterStatusSsePublisher.class);
+        heartbeatManager = mock(MeterHeartbeatManager.class);
+        doAnswer(inv -> {
+            String meterNo = inv.getArgument(0);
+            applied.computeIfAbsent(meterNo, k -> new CopyOnWriteArrayList<>()).add(inv.getArgument(1));
+            String thread = Thread.currentThread().getName();
+            if (thread.startsWith("hb-shard")) {
+                // stopShards() drains the leftovers on the caller once the workers are gone
+                threads.computeIfAbsent(meterNo, k -> ConcurrentHashMap.newKeySet()).add(thread);
+            }
+            return null;
+        }).when(heartbeatManager).handleStatus(anyString(), anyString(), any());
+
+        service = new MeterHeartbeatService(publisher, heartbeatManager);
+        ReflectionTestUtils.setField(service, "shardCount", 4);
+        ReflectionTestUtils.setField(service, "shardCapacity", 65_536);
+        ReflectionTestUtils.setField(service, "drainMs", 5L);
+        service.startShards();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stopShards();
+    }
+
+    @Test
+    void serialAlwaysMapsToTheSameShard() {
+        Set<Integer> used = IntStream.range(0, 1_000)
+                .mapToObj(i -> "MTR" + i)
+                .map(service::shardOf)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of(0, 1, 2, 3), used);
+        assertEquals(service.shardOf("MTR42"), service.shardOf("MTR42"));
+        assertTrue(service.shardOf("-2147483648") >= 0);
+    }
+
+    @Test
+    void framesOfOneMeterAreAppliedInOrderByOneWorker() throws InterruptedException {
+        for (int round = 0; round < 50; round++) {
+            for (int m = 0; m < 20; m++) {
+                service.processFrame("MTR" + m, round % 2 == 0 ? "LOGIN" : "ONLINE");
+            }
+            Thread.sleep(2);
+        }
+        service.processFrame(null, "ONLINE");
+        service.stopShards();
+
+        assertEquals(20, applied.size());
+        applied.forEach((meterNo, statuses) -> {
+            // Coalescing may skip frames, but the last one applied is always the last one received
+            assertEquals("ONLINE", statuses.get(statuses.size() - 1), meterNo);
+            assertTrue(threads.getOrDefault(meterNo, Set.of()).size() <= 1, meterNo + " was applied by more than one worker");
+        });
+        verify(publisher, atLeast(20)).publish(any());
+    }
+
+    @Test
+    void fullShardDropsFrames() {
+        service.stopShards();
+        ReflectionTestUtils.setField(service, "shardCount", 1);
+        ReflectionTestUtils.setField(service, "shardCapacity", 2);
+        ReflectionTestUtils.setField(service, "drainMs", 60_000L);
+        service.startShards();
+
+        service.processFrame("M1", "LOGIN");
+        service.processFrame("M2", "LOGIN");
+        service.processFrame("M3", "LOGIN");
+        service.stopShards();
+
+        assertEquals(Set.of("M1", "M2"), applied.keySet());
+    }
+}
@@ -0,0 +1,106 @@
+package com.memmcol.hes.gridflex.sse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MeterStatusSsePublisherTest {
+
+    private SimpleMeterRegistry registry;
+    private MeterStatusSsePublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        publisher = new MeterStatusSsePublisher(registry);
+    }
+
+    private static MeterStatusEvent event(String meterNo, String status) {
+        return new MeterStatusEvent(meterNo, LocalDateTime.now(), status);
+    }
+
+    private static List<String> statuses(List<MeterStatusEvent> batch) {
+        return batch.stream().map(e -> e.getMeterNo() + "=" + e.getStatus()).toList();
+    }
+
+    @Test
+    void batchHoldsLatestEventPerMeterAndOnlyChanges() {
+        List<List<MeterStatusEvent>> batches = new CopyOnWriteArrayList<>();
+        Disposable subscription = publisher.getBatchStream().subscribe(batches::add);
+
+        publisher.publish(event("M1", "ONLINE"));
+        publisher.publish(event("M1", "OFFLINE"));
+        publisher.publish(event("M2", "ONLINE"));
+        publisher.flushBatch();
+
+        // Same statuses again: nothing to send
+        publisher.publish(event("M1", "OFFLINE"));
+        publisher.publish(event("M2", "ONLINE"));
+        publisher.flushBatch();
+
+        publisher.publish(event("M2", "OFFLINE"));
+        publisher.flushBatch();
+        subscription.dispose();
+
+        assertEquals(2, batches.size());
+        assertEquals(List.of("M1=OFFLINE", "M2=ONLINE"), statuses(batches.get(0)).stream().sorted().toList());
+        assertEquals(List.of("M2=OFFLINE"), statuses(batches.get(1)));
+    }
+
+    @Test
+    void flatStreamEmitsOneElementPerChange() {
+        List<MeterStatusEvent> events = new CopyOnWriteArrayList<>();
+        Disposable subscription = publisher.getStream().subscribe(events::add);
+
+        publisher.publish(event("M1", "ONLINE"));
+        publisher.publish(event("M2", "ONLINE"));
+        publisher.flushBatch();
+        subscription.dispose();
+
+        assertEquals(2, events.size());
+    }
+
+    @Test
+    void emptyFlushEmitsNothing() {
+        List<List<MeterStatusEvent>> batches = new CopyOnWriteArrayList<>();
+        Disposable subscription = publisher.getBatchStream().subscribe(batches::add);
+        publisher.flushBatch();
+        publisher.publish(null);
+        publisher.publish(event(null, "ONLINE"));
+        publisher.flushBatch();
+        subscription.dispose();
+
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    void refusedBatchIsCountedAndResentOnNextEvent() {
+        // No subscriber: the sink buffers a limited number of batches, then refuses
+        String status = "ONLINE";
+        for (int i = 0; i < 1_000; i++) {
+            status = status.equals("ONLINE") ? "OFFLINE" : "ONLINE";
+            publisher.publish(event("M1", status));
+            publisher.flushBatch();
+        }
+        double dropped = registry.counter("hes.sse.meter-status.dropped").count();
+        assertTrue(dropped > 0, "overflowing the sink must be counted");
+
+        // The last batch was refused, so the same status is sent again instead of being filtered
+        List<List<MeterStatusEvent>> batches = new CopyOnWriteArrayList<>();
+        Disposable subscription = publisher.getBatchStream().subscribe(batches::add);
+        int buffered = batches.size();
+        publisher.publish(event("M1", status));
+        publisher.flushBatch();
+        subscription.dispose();
+
+        assertEquals(buffered + 1, batches.size());
+        assertEquals(List.of("M1=" + status), statuses(batches.get(batches.size() - 1)));
+    }
+}
@@ -0,0 +1,92 @@
+package com.memmcol.hes.infrastructure.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryMeterLockAdapterTest {
+
+    private final InMemoryMeterLockAdapter adapter = new InMemoryMeterLockAdapter();
+
+    @Test
+    void lockIsDroppedOnceNobodyHoldsOrWaitsForIt() throws Exception {
+        assertEquals("ok", adapter.withExclusive("M1", () -> {
+            assertEquals(1, adapter.lockCount());
+            return "ok";
+        }));
+        assertTrue(adapter.tryExclusive("M2", () -> assertEquals(1, adapter.lockCount()), 100));
+
+        assertEquals(0, adapter.lockCount());
+    }
+
+    @Test
+    void lockIsDroppedWhenTheActionFails() {
+        assertThrows(IllegalStateException.class, () -> adapter.withExclusive("M1", () -> {
+            throw new IllegalStateException("read failed");
+        }));
+        assertEquals(0, adapter.lockCount());
+    }
+
+    @Test
+    void waitersKeepSharingOneLockWhileTheHolderReleases() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        try {
+            Future<?>[] futures = new Future<?>[threads];
+            for (int i = 0; i < threads; i++) {
+                futures[i] = pool.submit(() -> {
+                    start.await();
+                    for (int n = 0; n < 200; n++) {
+                        adapter.withExclusive("M1", () -> {
+                            maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                            inside.decrementAndGet();
+                            return null;
+                        });
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, maxInside.get());
+        assertEquals(0, adapter.lockCount());
+    }
+
+    @Test
+    void tryExclusiveTimesOutWhileAnotherThreadHoldsTheLock() throws Exception {
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> adapter.tryExclusive("M1", () -> {
+            held.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 1_000));
+        holder.start();
+        assertTrue(held.await(5, TimeUnit.SECONDS));
+
+        assertFalse(adapter.tryExclusive("M1", () -> fail("must not run"), 20));
+
+        release.countDown();
+        holder.join(5_000);
+        assertEquals(0, adapter.lockCount());
+    }
+}
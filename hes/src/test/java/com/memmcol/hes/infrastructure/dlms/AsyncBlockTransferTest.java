@@ -0,0 +1,113 @@
+package com.memmcol.hes.infrastructure.dlms;
+
+import io.netty.channel.DefaultEventLoop;
+import io.netty.channel.EventLoop;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AsyncBlockTransferTest {
+
+    private static final Executor SAME_THREAD = Runnable::run;
+
+    private static byte[] block(int n) {
+        return new byte[]{(byte) (n >>> 24), (byte) (n >>> 16), (byte) (n >>> 8), (byte) n};
+    }
+
+    private static int number(byte[] frame) {
+        return (frame[0] & 0xFF) << 24 | (frame[1] & 0xFF) << 16 | (frame[2] & 0xFF) << 8 | (frame[3] & 0xFF);
+    }
+
+    @Test
+    void run_synchronousResponsesDoNotNestTheStack() {
+        int blocks = 200_000;
+
+        CompletableFuture<Integer> result = AsyncBlockTransfer.run(
+                request -> CompletableFuture.completedFuture(request),
+                block(1),
+                response -> number(response) < blocks ? block(number(response) + 1) : null,
+                SAME_THREAD);
+
+        assertEquals(blocks, result.join());
+    }
+
+    @Test
+    void run_decodesOffTheEventLoopThatDeliversTheResponse() throws Exception {
+        EventLoop eventLoop = new DefaultEventLoop();
+        ExecutorService decode = Executors.newSingleThreadExecutor(r -> new Thread(r, "decode-test"));
+        try {
+            List<Integer> seen = new ArrayList<>();
+            List<String> handlerThreads = new ArrayList<>();
+            CompletableFuture<Integer> result = AsyncBlockTransfer.run(
+                    // The response is completed by the event loop, as DLMSMeterHandler does
+                    request -> {
+                        CompletableFuture<byte[]> rx = new CompletableFuture<>();
+                        eventLoop.execute(() -> rx.complete(request));
+                        return rx;
+                    },
+                    block(1),
+                    response -> {
+                        assertFalse(eventLoop.inEventLoop(), "decode ran on the event loop");
+                        handlerThreads.add(Thread.currentThread().getName());
+                        seen.add(number(response));
+                        return number(response) < 5 ? block(number(response) + 1) : null;
+                    },
+                    decode);
+            CompletableFuture<Boolean> dependentOnLoop = result.thenApply(blocks -> eventLoop.inEventLoop());
+
+            assertEquals(5, result.get(5, TimeUnit.SECONDS));
+            assertEquals(List.of(1, 2, 3, 4, 5), seen);
+            assertEquals(List.of("decode-test"), handlerThreads.stream().distinct().toList());
+            assertFalse(dependentOnLoop.get(5, TimeUnit.SECONDS), "stages chained on the result ran on the event loop");
+        } finally {
+            eventLoop.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS);
+            decode.shutdownNow();
+        }
+    }
+
+    @Test
+    void run_failsWithTheUnwrappedTransportError() {
+        CompletableFuture<Integer> result = AsyncBlockTransfer.run(
+                request -> number(request) == 3
+                        ? CompletableFuture.failedFuture(new TimeoutException("DLMS read timeout"))
+                        : CompletableFuture.completedFuture(request),
+                block(1),
+                response -> block(number(response) + 1),
+                SAME_THREAD);
+
+        CompletionException e = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(TimeoutException.class, e.getCause());
+    }
+
+    @Test
+    void run_stopsWhenTheHandlerThrows() {
+        int[] sent = {0};
+        CompletableFuture<Integer> result = AsyncBlockTransfer.run(
+                request -> {
+                    sent[0]++;
+                    return CompletableFuture.completedFuture(request);
+                },
+                block(1),
+                response -> {
+                    throw new IllegalStateException("association lost");
+                },
+                SAME_THREAD);
+
+        CompletionException e = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertEquals(1, sent[0]);
+    }
+}
@@ -0,0 +1,89 @@
+package com.memmcol.hes.infrastructure.dlms;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GetWithListPlannerTest {
+
+    private static List<String> registers(int n) {
+        List<String> obis = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            obis.add("3;1.0.1.8." + i + ".255;2;0");
+        }
+        return obis;
+    }
+
+    @Test
+    void fiftyRegistersTakeAHandfulOfRequests() {
+        GetWithListPlanner planner = new GetWithListPlanner(16, 512);
+
+        List<List<String>> chunks = planner.plan("M1", registers(50), Function.identity());
+
+        assertEquals(4, chunks.size());
+        assertEquals(50, chunks.stream().mapToInt(List::size).sum());
+        assertEquals(registers(50), chunks.stream().flatMap(List::stream).toList());
+    }
+
+    @Test
+    void smallPduSplitsBeforeItemLimit() {
+        GetWithListPlanner planner = new GetWithListPlanner(16, 64);
+
+        // (64 - 16) / 11 bytes per register result -> 4 per request
+        List<List<String>> chunks = planner.plan("M1", registers(8), Function.identity());
+
+        assertEquals(2, chunks.size());
+        assertEquals(4, chunks.getFirst().size());
+    }
+
+    @Test
+    void rejectedListHalvesItemsForTheModelOnly() {
+        GetWithListPlanner planner = new GetWithListPlanner(16, 512);
+
+        planner.onListRejected("M1", 16);
+
+        assertEquals(8, planner.capability("M1").maxItems());
+        assertEquals(16, planner.capability("M2").maxItems());
+        assertEquals(7, planner.plan("M1", registers(50), Function.identity()).size());
+    }
+
+    @Test
+    void profileBufferIsReadOnItsOwn() {
+        GetWithListPlanner planner = new GetWithListPlanner(16, 512);
+
+        List<List<String>> chunks = planner.plan("M1",
+                List.of("3;1.0.1.8.0.255;2;0", "7;1.0.99.1.0.255;2;0", "3;1.0.2.8.0.255;2;0"),
+                Function.identity());
+
+        assertEquals(3, chunks.size());
+    }
+
+    @Test
+    void scalerReadsCountAgainstTheBudget() {
+        GetWithListPlanner planner = new GetWithListPlanner(16, 64);
+        List<String> reads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            reads.add("3;1.0.1.8." + i + ".255;3;0");
+            reads.add("3;1.0.1.8." + i + ".255;2;0");
+        }
+
+        // 48 bytes of request budget at 10 per descriptor -> 4 items, i.e. two scaler/value pairs
+        List<List<String>> chunks = planner.plan("M1", reads, Function.identity());
+
+        assertEquals(2, chunks.size());
+        assertEquals(reads.subList(0, 4), chunks.get(0));
+        assertEquals(reads.subList(4, 8), chunks.get(1));
+    }
+
+    @Test
+    void listRejectionIsRecognisedThroughCauses() {
+        assertTrue(GetWithListPlanner.isListRejection(
+                new RuntimeException("read failed", new IllegalStateException("Meter does not support multiple objects reading"))));
+        assertFalse(GetWithListPlanner.isListRejection(new java.util.concurrent.TimeoutException("no reply")));
+        assertFalse(GetWithListPlanner.isListRejection(null));
+    }
+}
@@ -0,0 +1,36 @@
+package com.memmcol.hes.infrastructure.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    void quantilesStayWithinBucketResolution() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            h.record(i);
+        }
+
+        assertEquals(1000, h.count());
+        assertEquals(1000, h.max());
+        assertEquals(500, h.mean());
+        long p50 = h.quantile(0.5);
+        long p99 = h.quantile(0.99);
+        assertTrue(p50 >= 500 && p50 <= 625, "p50=" + p50);
+        assertTrue(p99 >= 990 && p99 <= 1000, "p99=" + p99);
+    }
+
+    @Test
+    void bucketsCoverEveryValueInOrder() {
+        int previous = -1;
+        for (long v = 0; v < 100_000; v++) {
+            int index = LatencyHistogram.indexOf(v);
+            assertTrue(index >= previous, "non-monotonic at " + v);
+            assertTrue(LatencyHistogram.upperBound(index) >= v, "bucket too small at " + v);
+            previous = index;
+        }
+        assertEquals(0, new LatencyHistogram().quantile(0.99));
+    }
+}
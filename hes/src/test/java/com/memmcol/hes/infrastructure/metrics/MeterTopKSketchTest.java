@@ -0,0 +1,34 @@
+package com.memmcol.hes.infrastructure.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MeterTopKSketchTest {
+
+    @Test
+    void keepsHeavyHittersWithinCapacity() {
+        MeterTopKSketch sketch = new MeterTopKSketch(3);
+        for (int i = 0; i < 1000; i++) {
+            sketch.offer("M" + i, 1, null);      // long tail of one-off meters
+            if (i % 10 == 0) sketch.offer("SLOW", 50, "0.0.99.1.0.255");
+        }
+
+        List<MeterTopKSketch.Entry> top = sketch.top(5);
+        assertEquals(3, top.size());
+        assertEquals("SLOW", top.get(0).meterSerial());
+        assertEquals(100, top.get(0).events());
+        assertEquals(50, top.get(0).maxSample());
+        assertTrue(top.get(0).weight() - top.get(0).error() >= 5000);
+    }
+
+    @Test
+    void ignoresNonPositiveWeights() {
+        MeterTopKSketch sketch = new MeterTopKSketch(2);
+        sketch.offer("M1", 0, null);
+        sketch.offer(null, 5, null);
+        assertTrue(sketch.top(10).isEmpty());
+    }
+}
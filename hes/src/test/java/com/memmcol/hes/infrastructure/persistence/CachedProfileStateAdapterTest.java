@@ -0,0 +1,106 @@
+package com.memmcol.hes.infrastructure.persistence;
+
+import com.memmcol.hes.domain.profile.CapturePeriod;
+import com.memmcol.hes.domain.profile.ProfileState;
+import com.memmcol.hes.domain.profile.ProfileTimestamp;
+import com.memmcol.hes.trackByTimestamp.MeterProfileStateService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.jdbc.Work;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CachedProfileStateAdapterTest {
+
+    private static final String SERIAL = "M1";
+    private static final String OBIS = "1.0.99.1.0.255";
+    private static final LocalDateTime T1 = LocalDateTime.of(2025, 8, 1, 0, 15);
+    private static final LocalDateTime T2 = LocalDateTime.of(2025, 8, 1, 0, 30);
+
+    private final JpaProfileStateAdapter delegate = mock(JpaProfileStateAdapter.class);
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("profileState", "lastProfileTimestamp");
+    private final EntityManager em = mock(EntityManager.class);
+    private final Session session = mock(Session.class);
+    private CachedProfileStateAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        when(em.unwrap(Session.class)).thenReturn(session);
+        adapter = new CachedProfileStateAdapter(delegate, cacheManager, em, mock(DataSource.class));
+        ReflectionTestUtils.setField(adapter, "flushMode", "commit");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static ProfileState state(LocalDateTime ts) {
+        return new ProfileState(SERIAL, OBIS, new ProfileTimestamp(ts), new CapturePeriod(900));
+    }
+
+    @Test
+    void missingCursorIsNotCached() {
+        when(delegate.loadState(SERIAL, OBIS)).thenReturn(null, state(T1));
+
+        assertNull(adapter.loadState(SERIAL, OBIS));
+        assertEquals(T1, adapter.loadState(SERIAL, OBIS).lastTimestamp().value());
+        verify(delegate, times(2)).loadState(SERIAL, OBIS);
+    }
+
+    @Test
+    void writeThroughLegacyServiceThenReadReturnsNewCursor() {
+        when(delegate.loadState(SERIAL, OBIS)).thenReturn(state(T1));
+        MeterProfileStateService service = new MeterProfileStateService(adapter);
+
+        assertEquals(T1, adapter.loadState(SERIAL, OBIS).lastTimestamp().value());
+        service.upsertLastTimestamp(SERIAL, OBIS, T2);
+
+        ProfileState read = adapter.loadState(SERIAL, OBIS);
+        assertEquals(T2, read.lastTimestamp().value());
+        assertEquals(900, read.capturePeriod().seconds());
+        assertEquals(T2, cacheManager.getCache("lastProfileTimestamp").get("lastTs::M1::" + OBIS, LocalDateTime.class));
+        verify(delegate).upsertState(SERIAL, OBIS, new ProfileTimestamp(T2), null);
+        verify(delegate, times(1)).loadState(SERIAL, OBIS);
+    }
+
+    @Test
+    void writeInTransactionIsReadBackThereAndPublishedAfterCommit() {
+        when(delegate.loadState(SERIAL, OBIS)).thenReturn(state(T1));
+        adapter.loadState(SERIAL, OBIS);
+        TransactionSynchronizationManager.initSynchronization();
+
+        adapter.upsertState(SERIAL, OBIS, new ProfileTimestamp(T2), null);
+        assertEquals(T2, adapter.loadState(SERIAL, OBIS).lastTimestamp().value());
+
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        verify(session).doWork(any(Work.class));
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.unbindResourceIfPossible(adapter);
+
+        assertEquals(T2, adapter.loadState(SERIAL, OBIS).lastTimestamp().value());
+        verify(delegate, never()).upsertState(any(), any(), any(), any());
+    }
+
+    @Test
+    void legacyCapturePeriodZeroIsStoredAsOneSecond() {
+        new MeterProfileStateService(adapter).upsertCapturePeriod(SERIAL, OBIS, 0);
+
+        verify(delegate).upsertState(SERIAL, OBIS, null, new CapturePeriod(1));
+    }
+}
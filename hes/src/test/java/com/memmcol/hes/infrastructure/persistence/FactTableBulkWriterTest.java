@@ -0,0 +1,109 @@
+package com.memmcol.hes.infrastructure.persistence;
+
+import com.memmcol.hes.entities.EventLog;
+import com.memmcol.hes.entities.ProfileChannelOneHousehold;
+import jakarta.persistence.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FactTableBulkWriterTest {
+
+    enum Phase { L1 }
+
+    @Entity
+    @Table(name = "sample_fact", schema = "public")
+    static class SampleFact {
+        @Id
+        @Column(name = "meter_serial")
+        String meterSerial;
+        @Id
+        @Column(name = "entry_timestamp")
+        LocalDateTime entryTimestamp;
+        @Column(name = "note")
+        String note;
+        Double readingValue;
+        Phase phase;
+        @Column(name = "received_at", insertable = false)
+        LocalDateTime receivedAt;
+        @Transient
+        String scratch;
+        static final int IGNORED = 1;
+    }
+
+    @Entity
+    @Table(name = "no_key")
+    static class NoKey {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+        String value;
+    }
+
+    private static String csv(FactTableBulkWriter.TablePlan plan, Object row) {
+        StringBuilder sb = new StringBuilder();
+        FactTableBulkWriter.appendCsvRow(sb, plan, row);
+        return sb.toString();
+    }
+
+    private static SampleFact sample(String note, Double value) {
+        SampleFact row = new SampleFact();
+        row.meterSerial = "M1";
+        row.entryTimestamp = LocalDateTime.of(2025, 8, 1, 0, 15, 30);
+        row.note = note;
+        row.readingValue = value;
+        row.phase = Phase.L1;
+        return row;
+    }
+
+    @Test
+    void buildPlan_usesIdColumnsAndSkipsTransientStaticAndNonInsertable() {
+        FactTableBulkWriter.TablePlan plan = FactTableBulkWriter.buildPlan(SampleFact.class);
+
+        assertEquals("public.sample_fact", plan.table());
+        assertEquals("meter_serial,entry_timestamp,note,reading_value,phase", plan.columnList());
+        assertEquals("meter_serial,entry_timestamp", plan.conflictTarget());
+        assertEquals("note = EXCLUDED.note,reading_value = EXCLUDED.reading_value,phase = EXCLUDED.phase", plan.updateSet());
+    }
+
+    @Test
+    void buildPlan_householdProfileConflictsOnSerialAndTimestamp() {
+        FactTableBulkWriter.TablePlan plan = FactTableBulkWriter.buildPlan(ProfileChannelOneHousehold.class);
+
+        assertEquals("public.profile_channel_one_hh", plan.table());
+        assertEquals("meter_serial,entry_timestamp", plan.conflictTarget());
+    }
+
+    @Test
+    void buildPlan_eventLogLeavesIdentityToTheDatabaseAndConflictsOnUniqueKey() {
+        FactTableBulkWriter.TablePlan plan = FactTableBulkWriter.buildPlan(EventLog.class);
+
+        assertEquals("event_log", plan.table());
+        assertFalse(List.of(plan.columnList().split(",")).contains("id"));
+        assertEquals("meter_serial,event_code,event_time", plan.conflictTarget());
+    }
+
+    @Test
+    void buildPlan_rejectsGeneratedIdWithoutUniqueConstraint() {
+        assertThrows(IllegalArgumentException.class, () -> FactTableBulkWriter.buildPlan(NoKey.class));
+    }
+
+    @Test
+    void appendCsvRow_quotesTextAndEscapesQuotes() {
+        FactTableBulkWriter.TablePlan plan = FactTableBulkWriter.buildPlan(SampleFact.class);
+
+        assertEquals("\"M1\",2025-08-01T00:15:30,\"say \"\"hi\"\", then,\nbye\",12.5,\"L1\"\n",
+                csv(plan, sample("say \"hi\", then,\nbye", 12.5)));
+    }
+
+    @Test
+    void appendCsvRow_writesNullAsUnquotedEmptyAndEmptyStringQuoted() {
+        FactTableBulkWriter.TablePlan plan = FactTableBulkWriter.buildPlan(SampleFact.class);
+
+        assertEquals("\"M1\",2025-08-01T00:15:30,,,\"L1\"\n", csv(plan, sample(null, null)));
+        assertEquals("\"M1\",2025-08-01T00:15:30,\"\",,\"L1\"\n", csv(plan, sample("", null)));
+    }
+}
@@ -0,0 +1,107 @@
+package com.memmcol.hes.infrastructure.persistence;
+
+import com.memmcol.hes.application.port.out.ProfileStatePort;
+import com.memmcol.hes.domain.profile.CapturePeriod;
+import com.memmcol.hes.domain.profile.ProfileSyncResult;
+import com.memmcol.hes.dto.ProfileChannelOneHouseholdDTO;
+import com.memmcol.hes.dto.ProfileChannelThreeHouseholdDTO;
+import com.memmcol.hes.dto.ProfileChannelTwoHouseholdDTO;
+import com.memmcol.hes.entities.ProfileChannelOneHousehold;
+import com.memmcol.hes.entities.ProfileChannelThreeHousehold;
+import com.memmcol.hes.entities.ProfileChannelTwoHousehold;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * A timestamp repeated within one batch must reach the bulk writer once (last row wins), or
+ * PostgreSQL rejects the whole ON CONFLICT DO UPDATE statement.
+ */
+public class HouseholdProfilePersistAdaptersTest {
+
+    private static final String SERIAL = "62124000001";
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private EntityManager em;
+    private ProfileStatePort statePort;
+    private FactTableBulkWriter bulkWriter;
+    private final List<Object> written = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        em = mock(EntityManager.class);
+        TypedQuery<LocalDateTime> existing = mock(TypedQuery.class);
+        when(em.createQuery(anyString(), eq(LocalDateTime.class))).thenReturn(existing);
+        when(existing.setParameter(anyString(), any())).thenReturn(existing);
+        when(existing.getResultList()).thenReturn(List.of());
+
+        statePort = mock(ProfileStatePort.class);
+        bulkWriter = mock(FactTableBulkWriter.class);
+        when(bulkWriter.modeFor(anyString())).thenReturn(FactTableBulkWriter.WriteMode.BATCH);
+        when(bulkWriter.write(any(), anyList(), eq(true), eq(FactTableBulkWriter.WriteMode.BATCH))).thenAnswer(inv -> {
+            List<?> rows = inv.getArgument(1);
+            written.addAll(rows);
+            return new FactTableBulkWriter.Counts(rows.size(), 0);
+        });
+    }
+
+    @Test
+    void channelOneCollapsesRepeatedTimestamps() {
+        ProfileChannelOneHouseholdPersistAdapter adapter =
+                new ProfileChannelOneHouseholdPersistAdapter(statePort, mock(PartitionRegistry.class), bulkWriter);
+        ReflectionTestUtils.setField(adapter, "entityManager", em);
+
+        ProfileSyncResult result = adapter.saveBatchAndAdvanceCursor(SERIAL, "1.0.99.1.0.255", List.of(
+                ProfileChannelOneHouseholdDTO.builder().meterSerial(SERIAL).entryTimestamp(T0).activeEnergyImport(1.0).build(),
+                ProfileChannelOneHouseholdDTO.builder().meterSerial(SERIAL).entryTimestamp(T0.plusMinutes(30)).activeEnergyImport(2.0).build(),
+                ProfileChannelOneHouseholdDTO.builder().meterSerial(SERIAL).entryTimestamp(T0).activeEnergyImport(3.0).build()),
+                new CapturePeriod(1800));
+
+        assertEquals(3, result.getTotalIncoming());
+        assertEquals(2, result.getInsertedCount());
+        assertEquals(List.of(T0, T0.plusMinutes(30)),
+                written.stream().map(r -> ((ProfileChannelOneHousehold) r).getEntryTimestamp()).toList());
+        assertEquals(3.0, ((ProfileChannelOneHousehold) written.get(0)).getActiveEnergyImport());
+    }
+
+    @Test
+    void channelTwoCollapsesRepeatedTimestamps() {
+        ProfileChannelTwoHouseholdPersistenceAdapter adapter =
+                new ProfileChannelTwoHouseholdPersistenceAdapter(em, statePort, mock(PartitionRegistry.class), bulkWriter);
+
+        ProfileSyncResult result = adapter.saveBatchAndAdvanceCursor(SERIAL, "1.0.99.2.0.255", List.of(
+                ProfileChannelTwoHouseholdDTO.builder().meterSerial(SERIAL).entryTimestamp(T0).voltageL1(220.0).build(),
+                ProfileChannelTwoHouseholdDTO.builder().meterSerial(SERIAL).entryTimestamp(T0).voltageL1(231.0).build()),
+                new CapturePeriod(1800));
+
+        assertEquals(1, result.getInsertedCount());
+        assertEquals(1, written.size());
+        assertEquals(231.0, ((ProfileChannelTwoHousehold) written.get(0)).getVoltageL1());
+    }
+
+    @Test
+    void channelThreeCollapsesRepeatedTimestampsOnDirectWrites() {
+        ProfileChannelThreeHouseholdPersistenceAdapter adapter =
+                new ProfileChannelThreeHouseholdPersistenceAdapter(em, statePort, mock(PartitionRegistry.class), bulkWriter);
+
+        int saved = adapter.persistReadingsByMonth(List.of(
+                ProfileChannelThreeHouseholdDTO.builder().meterSerial(SERIAL).entryTimestamp(T0).activePowerL1(1.0).build(),
+                ProfileChannelThreeHouseholdDTO.builder().meterSerial(SERIAL).entryTimestamp(T0.plusMinutes(30)).activePowerL1(2.0).build(),
+                ProfileChannelThreeHouseholdDTO.builder().meterSerial(SERIAL).entryTimestamp(T0.plusMinutes(30)).activePowerL1(4.0).build()));
+
+        assertEquals(2, saved);
+        assertEquals(List.of(1.0, 4.0),
+                written.stream().map(r -> ((ProfileChannelThreeHousehold) r).getActivePowerL1()).toList());
+    }
+}
@@ -0,0 +1,71 @@
+package com.memmcol.hes.infrastructure.persistence;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.jdbc.Work;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import javax.sql.DataSource;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PartitionRegistryTest {
+
+    private static final String TABLE = "profile_channel_one";
+    private static final YearMonth MONTH = YearMonth.of(2024, 2);
+
+    private final PartitionRegistry registry = new PartitionRegistry(mock(DataSource.class));
+    private final Session session = mock(Session.class);
+
+    @BeforeEach
+    void startTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void endTransaction() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void createdPartitionIsKnownOnlyAfterCommit() {
+        registry.ensureMonthlyPartitions(session, TABLE, List.of(MONTH));
+
+        verify(session).doWork(any(Work.class));
+        assertFalse(registry.isKnown(TABLE, MONTH));
+
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        assertTrue(registry.isKnown(TABLE, MONTH));
+    }
+
+    @Test
+    void rolledBackPartitionStaysUnknownAndIsCreatedAgain() {
+        registry.ensureMonthlyPartitions(session, TABLE, List.of(MONTH));
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertFalse(registry.isKnown(TABLE, MONTH));
+
+        registry.ensureMonthlyPartitions(session, TABLE, List.of(MONTH));
+        verify(session, times(2)).doWork(any(Work.class));
+    }
+
+    @Test
+    void failedDdlIsRethrownAndNotMarkedKnown() {
+        doThrow(new HibernateException("permission denied")).when(session).doWork(any(Work.class));
+
+        assertThrows(HibernateException.class, () -> registry.ensureMonthlyPartitions(session, TABLE, List.of(MONTH)));
+
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+        assertFalse(registry.isKnown(TABLE, MONTH));
+    }
+}
@@ -0,0 +1,39 @@
+package com.memmcol.hes.infrastructure.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimestampUpsertPlanTest {
+
+    private record Row(LocalDateTime ts, String value) {}
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Test
+    void splitsIntoInsertsAndUpdatesAndCollapsesRepeats() {
+        List<Row> rows = Arrays.asList(
+                new Row(T0, "a"),
+                new Row(T0.plusMinutes(15), "b"),
+                new Row(T0.plusMinutes(30), "c"),
+                new Row(T0.plusMinutes(15), "b2"),
+                new Row(null, "no-ts"));
+
+        TimestampUpsertPlan<Row> plan = TimestampUpsertPlan.of(rows, Row::ts, Set.of(T0.plusMinutes(15)));
+
+        assertEquals(List.of(new Row(T0, "a"), new Row(T0.plusMinutes(30), "c")), plan.inserts());
+        assertEquals(List.of(new Row(T0.plusMinutes(15), "b2")), plan.updates());
+    }
+
+    @Test
+    void emptyBatchYieldsEmptyPlan() {
+        TimestampUpsertPlan<Row> plan = TimestampUpsertPlan.of(List.of(), Row::ts, Set.of(T0));
+        assertTrue(plan.inserts().isEmpty());
+        assertTrue(plan.updates().isEmpty());
+    }
+}
@@ -0,0 +1,131 @@
+package com.memmcol.hes.mocks;
+
+import com.memmcol.hes.application.port.out.MeterLockPort;
+import com.memmcol.hes.infrastructure.dlms.DlmsPartialDecoder;
+import com.memmcol.hes.infrastructure.dlms.DlmsReaderUtils;
+import com.memmcol.hes.infrastructure.dlms.DlmsResponseDecoder;
+import com.memmcol.hes.infrastructure.dlms.DlmsTimestampDecoder;
+import com.memmcol.hes.nettyUtils.DlmsLinkStats;
+import com.memmcol.hes.nettyUtils.SessionManagerMultiVendor;
+import com.memmcol.hes.nettyUtils.WireCaptureLog;
+import com.memmcol.hes.repository.MeterRepository;
+import com.memmcol.hes.trackByTimestamp.MeterProfileStateRepository;
+import gurux.dlms.GXDLMSClient;
+import gurux.dlms.GXReplyData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class WireCaptureReplayTest {
+
+    @TempDir
+    Path dir;
+
+    // Wrapper header (8 bytes) + APDU tag, choice, invoke-id-and-priority + payload byte
+    private static byte[] frame(int tag, int invokeId, int payload) {
+        return new byte[]{0x00, 0x01, 0x00, 0x01, 0x00, 0x01, 0x00, 0x05,
+                (byte) tag, 0x01, (byte) (0xC0 | invokeId), 0x00, (byte) payload};
+    }
+
+    private Path capture() throws Exception {
+        Path file = dir.resolve("capture.bin");
+        try (WireCaptureLog capture = WireCaptureLog.open(file, 64 * 1024)) {
+            for (int id = 1; id <= 3; id++) {
+                capture.append(WireCaptureLog.Direction.TX, "a1", "M1", frame(0xC0, id, 0));
+                capture.append(WireCaptureLog.Direction.RX, "a1", "M1", frame(0xC4, id, 10 + id));
+                capture.append(WireCaptureLog.Direction.TX, "b2", "M2", frame(0xC0, id, 0));
+                capture.append(WireCaptureLog.Direction.RX, "b2", "M2", frame(0xC4, id, 20 + id));
+            }
+            capture.append(WireCaptureLog.Direction.RX, "a1", "M1", frame(0xC2, 0, 0));
+        }
+        return file;
+    }
+
+    @Test
+    void sessionsAreGroupedBySerialInCaptureOrder() throws Exception {
+        Map<String, List<WireCaptureLog.Record>> sessions = WireCaptureReplay.sessions(capture());
+
+        assertEquals(List.of("M1", "M2"), List.copyOf(sessions.keySet()));
+        assertEquals(7, sessions.get("M1").size());
+        assertEquals(6, sessions.get("M2").size());
+    }
+
+    @Test
+    void requestsGetTheCapturedResponsesThroughTheCorrelator() throws Exception {
+        List<WireCaptureLog.Record> session = WireCaptureReplay.sessions(capture()).get("M1");
+
+        try (WireCaptureReplay replay = new WireCaptureReplay("M1", session)) {
+            assertEquals(3, replay.remainingResponses());
+            assertArrayEquals(frame(0xC4, 1, 11), replay.sendReceiveWithContext("M1", frame(0xC0, 1, 0), 1000));
+            assertArrayEquals(frame(0xC4, 2, 12), replay.sendReceiveWithContext("M1", frame(0xC0, 2, 0), 1000));
+        }
+        try (WireCaptureReplay replay = new WireCaptureReplay("M1", session)) {
+            assertEquals(3, replay.replay());
+            assertEquals(0, replay.remainingResponses());
+            assertThrows(IllegalStateException.class,
+                    () -> replay.sendReceiveWithContext("M1", frame(0xC0, 4, 0), 1000));
+        }
+    }
+
+    @Test
+    void responsesAreMatchedByInvokeIdNotCaptureOrder() throws Exception {
+        List<WireCaptureLog.Record> session = WireCaptureReplay.sessions(capture()).get("M1");
+
+        try (WireCaptureReplay replay = new WireCaptureReplay("M1", session)) {
+            assertArrayEquals(frame(0xC4, 3, 13), replay.sendReceiveWithContext("M1", frame(0xC0, 3, 0), 1000));
+            assertArrayEquals(frame(0xC4, 1, 11), replay.sendReceiveWithContext("M1", frame(0xC0, 1, 0), 1000));
+            assertArrayEquals(frame(0xC4, 2, 12), replay.sendReceiveWithContext("M1", frame(0xC0, 2, 0), 1000));
+            // Invoke-id 3 was answered once in the capture
+            assertThrows(IllegalStateException.class,
+                    () -> replay.sendReceiveWithContext("M1", frame(0xC0, 3, 0), 1000));
+        }
+    }
+
+    @Test
+    void readerUtilsDecodeTheReplayedResponseThroughTheMeterHandler() throws Exception {
+        List<WireCaptureLog.Record> session = WireCaptureReplay.sessions(capture()).get("M1");
+
+        try (WireCaptureReplay replay = new WireCaptureReplay("M1", session)) {
+            DlmsReaderUtils reader = new DlmsReaderUtils(mock(SessionManagerMultiVendor.class), mock(MeterLockPort.class),
+                    mock(DlmsPartialDecoder.class), mock(DlmsTimestampDecoder.class), replay,
+                    mock(MeterProfileStateRepository.class), mock(MeterRepository.class), mock(DlmsResponseDecoder.class),
+                    new DlmsLinkStats(new SimpleMeterRegistry()), Runnable::run);
+            GXDLMSClient client = mock(GXDLMSClient.class);
+
+            GXReplyData reply = reader.readDataBlock(client, "M1", frame(0xC0, 2, 0));
+
+            assertNotNull(reply);
+            verify(client).getData(aryEq(frame(0xC4, 2, 12)), same(reply), isNull());
+            assertEquals(2, replay.remainingResponses());
+        }
+    }
+
+    @Test
+    void mainReplaysOneMeter() throws Exception {
+        Path file = capture();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream stdout = System.out;
+        System.setOut(new PrintStream(out, true, StandardCharsets.UTF_8));
+        try {
+            WireCaptureReplay.main(new String[]{file.toString(), "M2"});
+        } finally {
+            System.setOut(stdout);
+        }
+
+        String printed = out.toString(StandardCharsets.UTF_8);
+        assertTrue(printed.contains("meter=M2 exchanges=3 unanswered=0"), printed);
+        assertFalse(printed.contains("meter=M1"), printed);
+    }
+}
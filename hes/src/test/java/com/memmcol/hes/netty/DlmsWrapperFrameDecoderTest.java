@@ -0,0 +1,49 @@
+package com.memmcol.hes.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DlmsWrapperFrameDecoderTest {
+
+    private static final byte[] FRAME = {0x00, 0x01, 0x00, 0x01, 0x00, 0x01, 0x00, 0x03, (byte) 0xC4, 0x01, (byte) 0xC1};
+
+    @Test
+    void reassemblesSplitFrame() {
+        EmbeddedChannel channel = new EmbeddedChannel(new DlmsWrapperFrameDecoder(4096));
+        assertFalse(channel.writeInbound(Unpooled.wrappedBuffer(FRAME, 0, 5)));
+        assertTrue(channel.writeInbound(Unpooled.wrappedBuffer(FRAME, 5, FRAME.length - 5)));
+
+        ByteBuf frame = channel.readInbound();
+        assertArrayEquals(FRAME, ByteBufUtil.getBytes(frame));
+        frame.release();
+        assertFalse(channel.finish());
+    }
+
+    @Test
+    void resynchronisesAfterGarbage() {
+        EmbeddedChannel channel = new EmbeddedChannel(new DlmsWrapperFrameDecoder(4096));
+        byte[] garbage = {0x7E, (byte) 0xA0, 0x55, 0x01, 0x00};
+        assertTrue(channel.writeInbound(Unpooled.wrappedBuffer(garbage, FRAME)));
+
+        ByteBuf frame = channel.readInbound();
+        assertArrayEquals(FRAME, ByteBufUtil.getBytes(frame));
+        frame.release();
+        assertNull(channel.readInbound());
+    }
+
+    @Test
+    void rejectsOversizedLength() {
+        EmbeddedChannel channel = new EmbeddedChannel(new DlmsWrapperFrameDecoder(16));
+        byte[] oversized = {0x00, 0x01, 0x11, 0x22, 0x33, 0x44, 0x7F, 0x00};
+        assertTrue(channel.writeInbound(Unpooled.wrappedBuffer(oversized, FRAME)));
+
+        ByteBuf frame = channel.readInbound();
+        assertArrayEquals(FRAME, ByteBufUtil.getBytes(frame));
+        frame.release();
+    }
+}
@@ -0,0 +1,139 @@
+package com.memmcol.hes.nettyUtils;
+
+import com.memmcol.hes.nettyUtils.AssociationAdmissionController.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AssociationAdmissionControllerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private AssociationAdmissionController controller;
+
+    @AfterEach
+    void tearDown() {
+        if (controller != null) {
+            controller.shutdown();
+        }
+    }
+
+    private AssociationAdmissionController controller(double rate, int burst, int maxConcurrent, int capacity, long tickMs) {
+        controller = new AssociationAdmissionController(registry, "platform", rate, burst, maxConcurrent, capacity, tickMs);
+        return controller;
+    }
+
+    private static void waitUntil(CountDownLatch latch) throws InterruptedException {
+        assertTrue(latch.await(5, TimeUnit.SECONDS), "admitted work did not finish in time");
+    }
+
+    @Test
+    void burstIsAdmittedAtOnceThenTheBucketIsEmpty() throws InterruptedException {
+        // 0.1 token/s: nothing refills during the test
+        controller(0.1, 3, 64, 100, 5);
+        AtomicInteger ran = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            controller.submit("M" + i, Priority.LOGIN, ran::incrementAndGet);
+        }
+        Thread.sleep(300);
+
+        assertEquals(3, ran.get());
+        assertEquals(7, controller.queuedCount());
+        assertEquals(3, registry.counter("hes.association.admission.started").count());
+    }
+
+    @Test
+    void bucketRefillsAtTheConfiguredRate() throws InterruptedException {
+        // Burst 1 at 10/s: after the first ticket, one every ~100 ms
+        controller(10, 1, 64, 100, 5);
+        List<Long> startedAt = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(4);
+        for (int i = 0; i < 4; i++) {
+            controller.submit("M" + i, Priority.LOGIN, () -> {
+                startedAt.add(System.nanoTime());
+                done.countDown();
+                return null;
+            });
+        }
+        waitUntil(done);
+
+        long spreadMs = TimeUnit.NANOSECONDS.toMillis(startedAt.get(3) - startedAt.get(0));
+        assertTrue(spreadMs >= 250, "4 tickets at 10/s with burst 1 took only " + spreadMs + " ms");
+        assertTrue(spreadMs < 2_000, "refill too slow: " + spreadMs + " ms");
+    }
+
+    @Test
+    void lostAssociationsGoFirstThenLoginsThenHeartbeats() throws InterruptedException {
+        // First tick after everything is queued; one at a time so the start order is the queue order
+        controller(1_000, 100, 1, 100, 100);
+        List<String> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(5);
+        submitRecording("HB-1", Priority.HEARTBEAT, order, done);
+        submitRecording("LOGIN-1", Priority.LOGIN, order, done);
+        submitRecording("LOST-1", Priority.ASSOCIATION_LOST, order, done);
+        submitRecording("LOGIN-2", Priority.LOGIN, order, done);
+        submitRecording("HB-2", Priority.HEARTBEAT, order, done);
+        waitUntil(done);
+
+        assertEquals(List.of("LOST-1", "LOGIN-1", "LOGIN-2", "HB-1", "HB-2"), order);
+    }
+
+    private void submitRecording(String serial, Priority priority, List<String> order, CountDownLatch done) {
+        assertTrue(controller.submit(serial, priority, () -> {
+            order.add(serial);
+            done.countDown();
+            return null;
+        }));
+    }
+
+    @Test
+    void oneTicketPerMeterAndTheMoreUrgentWins() throws InterruptedException {
+        controller(1_000, 100, 4, 100, 100);
+        List<String> ran = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        assertTrue(controller.submit("M1", Priority.HEARTBEAT, () -> ran.add("heartbeat")));
+        assertTrue(controller.submit("M1", Priority.LOGIN, () -> { ran.add("login"); done.countDown(); return null; }));
+        assertFalse(controller.submit("M1", Priority.HEARTBEAT, () -> ran.add("late heartbeat")));
+        assertEquals(1, controller.queuedCount());
+        waitUntil(done);
+        Thread.sleep(150);
+
+        assertEquals(List.of("login"), ran);
+        assertEquals(0, registry.counter("hes.association.admission.dropped").count());
+    }
+
+    @Test
+    void inFlightIsCappedAtMaxConcurrent() throws InterruptedException {
+        controller(1_000, 100, 2, 100, 5);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 5; i++) {
+            controller.submit("M" + i, Priority.LOGIN, () -> release.await(5, TimeUnit.SECONDS));
+        }
+        Thread.sleep(150);
+
+        assertEquals(2, controller.inFlightCount());
+        assertEquals(3, controller.queuedCount());
+        release.countDown();
+    }
+
+    @Test
+    void fullQueueDropsNewMeters() {
+        controller(0.1, 1, 1, 2, 60_000);
+        assertTrue(controller.submit("M1", Priority.LOGIN, () -> null));
+        assertTrue(controller.submit("M2", Priority.LOGIN, () -> null));
+        assertFalse(controller.submit("M3", Priority.ASSOCIATION_LOST, () -> null));
+        // An upgrade for a meter already queued does not need a new slot
+        assertTrue(controller.submit("M1", Priority.ASSOCIATION_LOST, () -> null));
+
+        assertEquals(1, registry.counter("hes.association.admission.dropped").count());
+        assertFalse(controller.submit(null, Priority.LOGIN, () -> null));
+    }
+}
@@ -0,0 +1,99 @@
+package com.memmcol.hes.nettyUtils;
+
+import com.memmcol.hes.nettyUtils.AssociationAdmissionController.Priority;
+import com.memmcol.hes.service.MeterConnections;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AssociationLivenessTrackerTest {
+
+    private SimpleMeterRegistry registry;
+    private AssociationLivenessTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        tracker = new AssociationLivenessTracker(registry);
+        ReflectionTestUtils.setField(tracker, "enabled", true);
+        ReflectionTestUtils.setField(tracker, "trafficWindowMs", 60_000L);
+        ReflectionTestUtils.setField(tracker, "pendingTimeoutMs", 60_000L);
+        ReflectionTestUtils.setField(tracker, "maxProbesPerSecond", 2);
+    }
+
+    private double skipped(String reason) {
+        return registry.counter("hes.association.keepalive.skipped", "reason", reason).count();
+    }
+
+    @Test
+    void recentTrafficOnTheCurrentSocketSkipsTheProbe() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        MeterConnections.bind(channel, "LT-ALIVE");
+        try {
+            assertTrue(tracker.beginProbe("LT-ALIVE", Priority.HEARTBEAT));
+            tracker.probeSucceeded("LT-ALIVE");
+
+            AssociationLivenessTracker.recordTraffic(channel);
+            assertFalse(tracker.beginProbe("LT-ALIVE", Priority.HEARTBEAT));
+            assertEquals(1, skipped("traffic"));
+
+            // A lost association is probed regardless
+            assertTrue(tracker.beginProbe("LT-ALIVE", Priority.ASSOCIATION_LOST));
+        } finally {
+            MeterConnections.remove(channel);
+        }
+    }
+
+    @Test
+    void pendingProbeIsNotDuplicatedUntilItEnds() {
+        assertTrue(tracker.beginProbe("LT-PENDING", Priority.LOGIN));
+        assertFalse(tracker.beginProbe("LT-PENDING", Priority.HEARTBEAT));
+        assertFalse(tracker.beginProbe("LT-PENDING", Priority.LOGIN));
+        assertEquals(2, skipped("pending"));
+
+        tracker.probeFailed("LT-PENDING");
+        assertTrue(tracker.beginProbe("LT-PENDING", Priority.HEARTBEAT));
+        assertEquals(1, registry.counter("hes.association.keepalive.failed").count());
+    }
+
+    @Test
+    void stalePendingProbeIsReplaced() {
+        ReflectionTestUtils.setField(tracker, "pendingTimeoutMs", 0L);
+        assertTrue(tracker.beginProbe("LT-STALE", Priority.HEARTBEAT));
+        assertTrue(tracker.beginProbe("LT-STALE", Priority.LOGIN));
+    }
+
+    @Test
+    void rateCapSkipsHeartbeatsOnly() {
+        assertTrue(tracker.beginProbe("LT-R1", Priority.HEARTBEAT));
+        assertTrue(tracker.beginProbe("LT-R2", Priority.HEARTBEAT));
+        assertFalse(tracker.beginProbe("LT-R3", Priority.HEARTBEAT));
+        assertEquals(1, skipped("rate"));
+
+        // The skipped heartbeat left nothing pending, so the next one can try again
+        tracker.probeSucceeded("LT-R1");
+        assertFalse(tracker.beginProbe("LT-R3", Priority.HEARTBEAT));
+        assertEquals(2, skipped("rate"));
+        assertEquals(0, skipped("pending"));
+
+        // A LOGIN is never dropped by the cap
+        for (int i = 0; i < 10; i++) {
+            assertTrue(tracker.beginProbe("LT-LOGIN-" + i, Priority.LOGIN));
+        }
+        assertEquals(2, skipped("rate"));
+        assertEquals(12, registry.counter("hes.association.keepalive.sent").count());
+    }
+
+    @Test
+    void disabledTrackerAlwaysProbes() {
+        ReflectionTestUtils.setField(tracker, "enabled", false);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(tracker.beginProbe("LT-OFF", Priority.HEARTBEAT));
+        }
+        assertFalse(tracker.beginProbe(null, Priority.LOGIN));
+    }
+}
@@ -0,0 +1,140 @@
+package com.memmcol.hes.nettyUtils;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.HashedWheelTimer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DlmsInvokeIdCorrelatorTest {
+
+    private final HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS);
+    private final EmbeddedChannel channel = new EmbeddedChannel();
+
+    @AfterEach
+    void tearDown() {
+        timer.stop();
+        channel.close();
+    }
+
+    // Wrapper header (8 bytes) + APDU tag, choice, invoke-id-and-priority + payload
+    private static byte[] frame(int tag, int invokeId) {
+        return new byte[]{0x00, 0x01, 0x00, 0x01, 0x00, 0x01, 0x00, 0x05,
+                (byte) tag, 0x01, (byte) (0xC0 | invokeId), 0x00, 0x01};
+    }
+
+    @Test
+    void responseIsMatchedByInvokeId() throws Exception {
+        DlmsInvokeIdCorrelator correlator = DlmsInvokeIdCorrelator.of(channel);
+        DlmsInvokeIdCorrelator.PendingRequest first = correlator.register("M1", frame(0xC0, 1), 1000, timer);
+        DlmsInvokeIdCorrelator.PendingRequest second = correlator.register("M1", frame(0xC0, 2), 1000, timer);
+
+        byte[] reply2 = frame(0xC4, 2);
+        byte[] reply1 = frame(0xC4, 1);
+        assertTrue(correlator.complete(reply2));
+        assertTrue(correlator.complete(reply1));
+
+        assertSame(reply1, first.await());
+        assertSame(reply2, second.await());
+        assertEquals(0, correlator.pendingCount());
+    }
+
+    @Test
+    void lateReplyDoesNotCompleteNextRequest() throws Exception {
+        DlmsInvokeIdCorrelator correlator = DlmsInvokeIdCorrelator.of(channel);
+        DlmsInvokeIdCorrelator.PendingRequest timedOut = correlator.register("M1", frame(0xC0, 3), 30, timer);
+        assertThrows(TimeoutException.class, timedOut::await);
+
+        // Late reply for the expired request arrives while nothing is waiting
+        assertFalse(correlator.complete(frame(0xC4, 3)));
+
+        DlmsInvokeIdCorrelator.PendingRequest next = correlator.register("M1", frame(0xC0, 4), 1000, timer);
+        assertFalse(correlator.complete(frame(0xC4, 3)));
+        byte[] reply = frame(0xC4, 4);
+        assertTrue(correlator.complete(reply));
+        assertSame(reply, next.await());
+    }
+
+    @Test
+    void untaggedReplyCompletesAssociationRequest() throws Exception {
+        DlmsInvokeIdCorrelator correlator = DlmsInvokeIdCorrelator.of(channel);
+        byte[] aarq = {0x00, 0x01, 0x00, 0x01, 0x00, 0x01, 0x00, 0x03, 0x60, 0x1D, (byte) 0xA1, 0x09};
+        byte[] aare = {0x00, 0x01, 0x00, 0x01, 0x00, 0x01, 0x00, 0x03, 0x61, 0x29, (byte) 0xA1, 0x09};
+        DlmsInvokeIdCorrelator.PendingRequest pending = correlator.register("M1", aarq, 1000, timer);
+
+        CompletableFuture<byte[]> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pending.await();
+            } catch (InterruptedException | TimeoutException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(correlator.complete(aare));
+        assertSame(aare, waiter.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void asyncReplyRecyclesSlotBeforeCallbacks() throws Exception {
+        DlmsInvokeIdCorrelator correlator = DlmsInvokeIdCorrelator.of(channel);
+        DlmsInvokeIdCorrelator.PendingRequest first = correlator.registerAsync("M1", frame(0xC0, 6), 1000, timer);
+
+        // The next block reuses the same invoke-id from inside the completion callback
+        CompletableFuture<byte[]> chained = first.future().thenCompose(rx ->
+                correlator.registerAsync("M1", frame(0xC0, 6), 1000, timer).future());
+
+        assertTrue(correlator.complete(frame(0xC4, 6)));
+        byte[] second = frame(0xC4, 6);
+        assertTrue(correlator.complete(second));
+        assertSame(second, chained.get(1, TimeUnit.SECONDS));
+        assertEquals(0, correlator.pendingCount());
+    }
+
+    @Test
+    void asyncRequestTimesOut() {
+        DlmsInvokeIdCorrelator correlator = DlmsInvokeIdCorrelator.of(channel);
+        DlmsInvokeIdCorrelator.PendingRequest pending = correlator.registerAsync("M1", frame(0xC0, 7), 30, timer);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> pending.future().get(1, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+    }
+
+    @Test
+    void failAllReleasesWaiters() {
+        DlmsInvokeIdCorrelator correlator = DlmsInvokeIdCorrelator.of(channel);
+        DlmsInvokeIdCorrelator.PendingRequest pending = correlator.register("M1", frame(0xC0, 5), 5000, timer);
+        correlator.failAll(new IllegalStateException("channel closed"));
+        assertThrows(IllegalStateException.class, pending::await);
+    }
+
+    @Test
+    void uncollectedReplyIsNotOverwrittenByReuseOfItsInvokeId() throws Exception {
+        DlmsInvokeIdCorrelator correlator = DlmsInvokeIdCorrelator.of(channel);
+        DlmsInvokeIdCorrelator.PendingRequest answered = correlator.register("M1", frame(0xC0, 6), 1000, timer);
+        byte[] reply = frame(0xC4, 6);
+        assertTrue(correlator.complete(reply));
+
+        // The waiter has not collected its reply yet: the slot refuses a new request
+        assertThrows(IllegalStateException.class, () -> correlator.register("M1", frame(0xC0, 6), 1000, timer));
+        assertSame(reply, answered.await());
+
+        DlmsInvokeIdCorrelator.PendingRequest next = correlator.register("M1", frame(0xC0, 6), 1000, timer);
+        byte[] nextReply = frame(0xC4, 6);
+        assertTrue(correlator.complete(nextReply));
+        assertSame(nextReply, next.await());
+    }
+
+    @Test
+    void interruptedWaiterFreesItsSlot() {
+        DlmsInvokeIdCorrelator correlator = DlmsInvokeIdCorrelator.of(channel);
+        DlmsInvokeIdCorrelator.PendingRequest pending = correlator.register("M1", frame(0xC0, 8), 5000, timer);
+        Thread.currentThread().interrupt();
+        assertThrows(InterruptedException.class, pending::await);
+
+        assertDoesNotThrow(() -> correlator.register("M1", frame(0xC0, 8), 5000, timer));
+    }
+}
@@ -0,0 +1,225 @@
+package com.memmcol.hes.nettyUtils;
+
+import com.memmcol.hes.exception.MeterCircuitOpenException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DlmsTimeoutPolicyTest {
+
+    private static final String SERIAL = "M1";
+    private static final long OPEN_MS = 30;
+
+    private DlmsLinkStats linkStats;
+    private DlmsTimeoutPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        linkStats = new DlmsLinkStats(registry);
+        policy = new DlmsTimeoutPolicy(linkStats, registry);
+        ReflectionTestUtils.setField(policy, "adaptive", true);
+        ReflectionTestUtils.setField(policy, "defaultTimeoutMs", 20_000L);
+        ReflectionTestUtils.setField(policy, "minTimeoutMs", 100L);
+        ReflectionTestUtils.setField(policy, "maxTimeoutMs", 20_000L);
+        ReflectionTestUtils.setField(policy, "minSamples", 1);
+        ReflectionTestUtils.setField(policy, "retryBaseDelayMs", 200L);
+        ReflectionTestUtils.setField(policy, "retryMaxDelayMs", 5_000L);
+        ReflectionTestUtils.setField(policy, "breakerEnabled", true);
+        ReflectionTestUtils.setField(policy, "failureThreshold", 3);
+        ReflectionTestUtils.setField(policy, "openMs", OPEN_MS);
+        ReflectionTestUtils.setField(policy, "maxOpenMs", 1_000L);
+        ReflectionTestUtils.setField(policy, "idleEvictMs", 3_600_000L);
+    }
+
+    private void rx(long millis) {
+        linkStats.recordRx(SERIAL, TimeUnit.MILLISECONDS.toNanos(millis), 10);
+    }
+
+    private void trip() {
+        for (int i = 0; i < 3; i++) {
+            policy.onTimeout(SERIAL);
+        }
+    }
+
+    @Test
+    void defaultTimeoutUntilEnoughSamples() {
+        ReflectionTestUtils.setField(policy, "minSamples", 2);
+        rx(100);
+        assertEquals(20_000, policy.timeoutFor(SERIAL));
+        rx(100);
+        assertNotEquals(20_000, policy.timeoutFor(SERIAL));
+    }
+
+    @Test
+    void srttAndRttVarFollowRfc6298() {
+        rx(100);
+        // First sample: SRTT = R, RTTVAR = R/2, RTO = SRTT + 4·RTTVAR
+        DlmsLinkStats.MeterView view = linkStats.meter(SERIAL).orElseThrow();
+        assertEquals(100, view.srttMs());
+        assertEquals(50, view.rttVarMs());
+        assertEquals(300, policy.timeoutFor(SERIAL));
+
+        rx(200);
+        // RTTVAR = 3/4·50 + 1/4·|100 - 200| = 62.5, SRTT = 7/8·100 + 1/8·200 = 112.5
+        view = linkStats.meter(SERIAL).orElseThrow();
+        assertEquals(112, view.srttMs());
+        assertEquals(62, view.rttVarMs());
+        assertEquals(362, policy.timeoutFor(SERIAL));
+    }
+
+    @Test
+    void timeoutBacksOffUntilAnInTimeReply() {
+        rx(100);
+        assertEquals(300, policy.timeoutFor(SERIAL));
+
+        policy.onTimeout(SERIAL);
+        assertEquals(600, policy.timeoutFor(SERIAL));
+        policy.onTimeout(SERIAL);
+        assertEquals(1_200, policy.timeoutFor(SERIAL));
+
+        // Karn: a late reply proves nothing about the RTT, so the back-off stays
+        policy.onLateReply(SERIAL);
+        assertEquals(1_200, policy.timeoutFor(SERIAL));
+        assertEquals(2, policy.consecutiveTimeouts(SERIAL));
+
+        policy.onSuccess(SERIAL);
+        assertEquals(300, policy.timeoutFor(SERIAL));
+    }
+
+    @Test
+    void backOffIsClampedToMax() {
+        rx(100);
+        for (int i = 0; i < 10; i++) {
+            policy.onTimeout(SERIAL);
+            policy.onLateReply(SERIAL);
+        }
+        assertEquals(19_200, policy.timeoutFor(SERIAL));
+        ReflectionTestUtils.setField(policy, "maxTimeoutMs", 5_000L);
+        assertEquals(5_000, policy.timeoutFor(SERIAL));
+    }
+
+    @Test
+    void breakerOpensAfterThresholdAndRejects() {
+        policy.onTimeout(SERIAL);
+        policy.onTimeout(SERIAL);
+        policy.acquire(SERIAL);
+        assertFalse(policy.isOpen(SERIAL));
+
+        policy.onTimeout(SERIAL);
+        assertTrue(policy.isOpen(SERIAL));
+        MeterCircuitOpenException e = assertThrows(MeterCircuitOpenException.class, () -> policy.acquire(SERIAL));
+        assertTrue(e.getRetryAfterMs() <= OPEN_MS);
+    }
+
+    @Test
+    void halfOpenLetsOneProbeThroughAndItsReplyCloses() throws InterruptedException {
+        trip();
+        Thread.sleep(OPEN_MS + 20);
+
+        policy.acquire(SERIAL);
+        assertThrows(MeterCircuitOpenException.class, () -> policy.acquire(SERIAL));
+
+        policy.onSuccess(SERIAL);
+        policy.acquire(SERIAL);
+        policy.acquire(SERIAL);
+        assertFalse(policy.isOpen(SERIAL));
+    }
+
+    @Test
+    void failedProbeReopensForLonger() throws InterruptedException {
+        trip();
+        Thread.sleep(OPEN_MS + 20);
+
+        policy.acquire(SERIAL);
+        policy.onTimeout(SERIAL);
+        assertTrue(policy.isOpen(SERIAL));
+        MeterCircuitOpenException e = assertThrows(MeterCircuitOpenException.class, () -> policy.acquire(SERIAL));
+        assertTrue(e.getRetryAfterMs() > OPEN_MS, "second trip should double the open period");
+    }
+
+    @Test
+    void abandonedProbeReleasesHalfOpenSlot() throws InterruptedException {
+        trip();
+        Thread.sleep(OPEN_MS + 20);
+
+        policy.acquire(SERIAL);
+        policy.onAbandoned(SERIAL);
+        policy.acquire(SERIAL);
+    }
+
+    @Test
+    void lateReplyClosesOpenBreakerAndRestartsFailureCount() {
+        trip();
+        assertTrue(policy.isOpen(SERIAL));
+
+        policy.onLateReply(SERIAL);
+        assertFalse(policy.isOpen(SERIAL));
+        policy.acquire(SERIAL);
+
+        // Two more timeouts are below the threshold again
+        policy.onTimeout(SERIAL);
+        policy.onTimeout(SERIAL);
+        assertFalse(policy.isOpen(SERIAL));
+        policy.onTimeout(SERIAL);
+        assertTrue(policy.isOpen(SERIAL));
+    }
+
+    @Test
+    void disabledBreakerNeverRejects() {
+        ReflectionTestUtils.setField(policy, "breakerEnabled", false);
+        trip();
+        assertFalse(policy.isOpen(SERIAL));
+        policy.acquire(SERIAL);
+    }
+
+    @Test
+    void inTimeReplyDropsTheMetersEntry() {
+        policy.onTimeout(SERIAL);
+        assertEquals(1, policy.trackedCount());
+
+        policy.onSuccess(SERIAL);
+
+        assertEquals(0, policy.trackedCount());
+        assertEquals(0, policy.consecutiveTimeouts(SERIAL));
+        policy.acquire(SERIAL);
+    }
+
+    @Test
+    void idleEvictionKeepsOpenAndRecentBreakers() throws InterruptedException {
+        trip();
+        policy.onTimeout("M2");
+
+        policy.evictIdle();
+        assertEquals(2, policy.trackedCount(), "both saw a timeout within idle-evict-ms");
+
+        ReflectionTestUtils.setField(policy, "idleEvictMs", 0L);
+        policy.evictIdle();
+        assertEquals(1, policy.trackedCount(), "M1 is still open");
+        assertTrue(policy.isOpen(SERIAL));
+
+        Thread.sleep(OPEN_MS + 20);
+        policy.evictIdle();
+        assertEquals(0, policy.trackedCount());
+        policy.acquire(SERIAL);
+        assertFalse(policy.isOpen(SERIAL));
+    }
+
+    @Test
+    void idleEvictionSparesAnOutstandingProbe() throws InterruptedException {
+        trip();
+        Thread.sleep(OPEN_MS + 20);
+        policy.acquire(SERIAL);
+
+        ReflectionTestUtils.setField(policy, "idleEvictMs", 0L);
+        policy.evictIdle();
+
+        assertEquals(1, policy.trackedCount());
+        assertThrows(MeterCircuitOpenException.class, () -> policy.acquire(SERIAL));
+    }
+}
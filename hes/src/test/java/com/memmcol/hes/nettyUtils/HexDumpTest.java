@@ -0,0 +1,36 @@
+package com.memmcol.hes.nettyUtils;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HexDumpTest {
+
+    @Test
+    void matchesPerByteFormat() {
+        byte[] frame = {0x00, 0x01, (byte) 0xC4, (byte) 0xFF, 0x7F};
+        StringBuilder expected = new StringBuilder();
+        for (byte b : frame) {
+            expected.append(String.format("%02X ", b));
+        }
+        assertEquals(expected.toString().trim(), HexDump.of(frame).toString());
+        assertEquals("C4 FF", HexDump.of(Unpooled.wrappedBuffer(frame, 2, 2)).toString());
+        assertEquals("", HexDump.of(new byte[0]).toString());
+    }
+
+    @Test
+    void sampledModeKeepsListedMetersAndCapsOthers() {
+        try {
+            WireTrace.configure("sampled", "M1", 2);
+            for (int i = 0; i < 10; i++) {
+                assertTrue(WireTrace.shouldTrace("M1"));
+            }
+            assertTrue(WireTrace.shouldTrace("M2"));
+            assertTrue(WireTrace.shouldTrace("M2"));
+            assertFalse(WireTrace.shouldTrace("M2"));
+        } finally {
+            WireTrace.configure("all", "", 20);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.memmcol.hes.nettyUtils;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InboundFrameRingTest {
+
+    @Test
+    void fullRingOverwritesOldestAndDrainsInOrder() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        InboundFrameRing ring = InboundFrameRing.install(channel, 3);
+        long bytesBefore = InboundFrameRing.retainedBytes();
+
+        for (int i = 1; i <= 5; i++) {
+            ring.offer(new byte[]{(byte) i, 0});
+        }
+
+        assertEquals(3, ring.size());
+        assertEquals(bytesBefore + 6, InboundFrameRing.retainedBytes());
+        List<byte[]> drained = ring.drain();
+        assertEquals(List.of(3, 4, 5), drained.stream().map(f -> (int) f[0]).toList());
+        assertEquals(0, ring.size());
+        assertEquals(bytesBefore, InboundFrameRing.retainedBytes());
+    }
+
+    @Test
+    void closingChannelReleasesRetainedFrames() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        long bytesBefore = InboundFrameRing.retainedBytes();
+        InboundFrameRing.of(channel).offer(new byte[16]);
+        assertSame(InboundFrameRing.of(channel), InboundFrameRing.of(channel));
+
+        channel.close();
+
+        assertEquals(bytesBefore, InboundFrameRing.retainedBytes());
+    }
+}
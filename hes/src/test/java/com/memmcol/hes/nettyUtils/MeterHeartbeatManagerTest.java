@@ -0,0 +1,122 @@
+package com.memmcol.hes.nettyUtils;
+
+import com.memmcol.hes.gridflex.sse.MeterStatusEvent;
+import com.memmcol.hes.gridflex.sse.MeterStatusSsePublisher;
+import com.memmcol.hes.repository.MetersConnectionEventBatchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class MeterHeartbeatManagerTest {
+
+    private MetersConnectionEventBatchRepository repository;
+    private MeterStatusSsePublisher publisher;
+    private MeterHeartbeatManager manager;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(MetersConnectionEventBatchRepository.class);
+        publisher = mock(MeterStatusSsePublisher.class);
+        manager = new MeterHeartbeatManager(repository, publisher);
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.shutdown();
+    }
+
+    private void sweep() {
+        ReflectionTestUtils.invokeMethod(manager, "detectOfflineMeters");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> liveMeters() {
+        return (Set<String>) ReflectionTestUtils.getField(manager, "liveMeters");
+    }
+
+    @SuppressWarnings("unchecked")
+    private String status(String meterId) {
+        Map<String, MeterHeartbeatManager.MeterState> states =
+                (Map<String, MeterHeartbeatManager.MeterState>) ReflectionTestUtils.getField(manager, "stateMap");
+        return states.get(meterId).status;
+    }
+
+    @Test
+    void dueDeadlineOfASilentMeterMarksItOffline() {
+        manager.handleStatus("M1", "ONLINE", LocalDateTime.now().minusMinutes(3));
+        assertEquals(Set.of("M1"), liveMeters());
+
+        sweep();
+
+        assertEquals("OFFLINE", status("M1"));
+        assertTrue(liveMeters().isEmpty());
+        ArgumentCaptor<MeterStatusEvent> event = ArgumentCaptor.forClass(MeterStatusEvent.class);
+        verify(publisher).publish(event.capture());
+        assertEquals("M1", event.getValue().getMeterNo());
+        assertEquals("OFFLINE", event.getValue().getStatus());
+    }
+
+    @Test
+    void meterHeardSinceItsDeadlineWasArmedIsReArmedNotFlipped() {
+        manager.handleStatus("M1", "ONLINE", LocalDateTime.now().minusMinutes(3));
+        manager.handleStatus("M1", "ONLINE", LocalDateTime.now());
+
+        sweep();
+
+        assertEquals("ONLINE", status("M1"));
+        assertEquals(Set.of("M1"), liveMeters());
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void deadlinesNotYetDueAreLeftAlone() {
+        manager.handleStatus("M1", "ONLINE", LocalDateTime.now());
+
+        sweep();
+
+        assertEquals("ONLINE", status("M1"));
+        assertEquals(Set.of("M1"), liveMeters());
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void meterComingBackAfterTimeoutIsLiveAgain() {
+        manager.handleStatus("M1", "ONLINE", LocalDateTime.now().minusMinutes(3));
+        sweep();
+        assertTrue(liveMeters().isEmpty());
+
+        manager.handleStatus("M1", "ONLINE", LocalDateTime.now());
+
+        assertEquals("ONLINE", status("M1"));
+        assertEquals(Set.of("M1"), liveMeters());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void staleRowSweepExcludesOnlyTheMetersStillLive() {
+        manager.handleStatus("LIVE", "ONLINE", LocalDateTime.now());
+        manager.handleStatus("SILENT", "ONLINE", LocalDateTime.now().minusMinutes(3));
+        sweep();
+
+        ReflectionTestUtils.invokeMethod(manager, "reconcileStaleRows");
+
+        ArgumentCaptor<Collection<String>> recent = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<LocalDateTime> staleBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> offlineTime = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository).markStaleOnlineMetersOffline(staleBefore.capture(), offlineTime.capture(), recent.capture());
+        assertEquals(List.of("LIVE"), List.copyOf(recent.getValue()));
+        assertEquals(offlineTime.getValue().minusMinutes(2), staleBefore.getValue());
+    }
+}
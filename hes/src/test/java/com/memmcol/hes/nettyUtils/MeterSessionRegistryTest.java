@@ -0,0 +1,124 @@
+package com.memmcol.hes.nettyUtils;
+
+import com.memmcol.hes.service.MeterSession;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.HashedWheelTimer;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MeterSessionRegistryTest {
+
+    private static MeterSession associated(String serial) {
+        MeterSession session = new MeterSession(serial, null, null, null);
+        session.setAssociated(true);
+        return session;
+    }
+
+    @Test
+    void concurrentCallersShareOneHandshake() {
+        MeterSessionRegistry registry = new MeterSessionRegistry();
+        AtomicInteger handshakes = new AtomicInteger();
+        CompletableFuture<MeterSession> aare = new CompletableFuture<>();
+
+        CompletableFuture<MeterSession> first = registry.acquire("M1", () -> { handshakes.incrementAndGet(); return aare; });
+        CompletableFuture<MeterSession> second = registry.acquire("M1", () -> { handshakes.incrementAndGet(); return aare; });
+        registry.acquire("M2", () -> { handshakes.incrementAndGet(); return new CompletableFuture<>(); });
+
+        assertEquals(2, handshakes.get());
+        assertEquals(2, registry.pendingCount());
+        assertFalse(first.isDone());
+
+        MeterSession session = associated("M1");
+        aare.complete(session);
+
+        assertSame(session, first.join());
+        assertSame(session, second.join());
+        assertSame(session, registry.acquire("M1", () -> fail("already associated")).join());
+        assertEquals(1, registry.pendingCount());
+    }
+
+    @Test
+    void failedHandshakeIsRetriedByNextCaller() {
+        MeterSessionRegistry registry = new MeterSessionRegistry();
+        CompletableFuture<MeterSession> failed = registry.acquire("M1",
+                () -> CompletableFuture.failedFuture(new IllegalStateException("no AARE")));
+
+        assertTrue(failed.isCompletedExceptionally());
+        assertNull(registry.get("M1"));
+        assertEquals(0, registry.pendingCount());
+
+        MeterSession session = associated("M1");
+        assertSame(session, registry.acquire("M1", () -> CompletableFuture.completedFuture(session)).join());
+    }
+
+    @Test
+    void evictIdleRemovesExpiredSessionsOnly() {
+        MeterSessionRegistry registry = new MeterSessionRegistry();
+        registry.acquire("M1", () -> CompletableFuture.completedFuture(associated("M1"))).join();
+        AtomicInteger disconnected = new AtomicInteger();
+
+        assertEquals(0, registry.evictIdle(Duration.ofMinutes(5), s -> disconnected.incrementAndGet()));
+        assertEquals(1, registry.evictIdle(Duration.ZERO.minusMillis(1), s -> disconnected.incrementAndGet()));
+        assertEquals(1, disconnected.get());
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void evictIdleSkipsSessionsInUseAndRestartsTheirIdleClock() throws InterruptedException {
+        MeterSessionRegistry registry = new MeterSessionRegistry();
+        MeterSession busy = registry.acquire("M1", () -> CompletableFuture.completedFuture(associated("M1"))).join();
+        registry.acquire("M2", () -> CompletableFuture.completedFuture(associated("M2"))).join();
+        Thread.sleep(20);
+        AtomicInteger disconnected = new AtomicInteger();
+
+        assertEquals(1, registry.evictIdle(Duration.ofMillis(10), s -> s == busy, s -> disconnected.incrementAndGet()));
+        assertSame(busy, registry.get("M1"));
+        assertNull(registry.get("M2"));
+        assertFalse(busy.isExpired(Duration.ofMillis(10)), "skipped session gets a fresh idle window");
+
+        // Request returned: evicted once it has been idle again
+        Thread.sleep(20);
+        assertEquals(1, registry.evictIdle(Duration.ofMillis(10), s -> false, s -> disconnected.incrementAndGet()));
+        assertEquals(2, disconnected.get());
+    }
+
+    @Test
+    void requestStartingDuringEvictionPutsSessionBack() {
+        MeterSessionRegistry registry = new MeterSessionRegistry();
+        MeterSession session = registry.acquire("M1", () -> CompletableFuture.completedFuture(associated("M1"))).join();
+        AtomicInteger checks = new AtomicInteger();
+
+        // Idle at the first check, busy by the time it is out of the map
+        int evicted = registry.evictIdle(Duration.ZERO.minusMillis(1), s -> checks.incrementAndGet() > 1, s -> fail("must not disconnect"));
+
+        assertEquals(0, evicted);
+        assertSame(session, registry.get("M1"));
+    }
+
+    @Test
+    void pendingCorrelatorRequestCountsAsInFlight() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        MeterSession session = new MeterSession("M-PENDING", channel, null, null);
+        assertFalse(MeterSessionRegistry.hasRequestInFlight(session));
+
+        HashedWheelTimer timer = new HashedWheelTimer();
+        try {
+            byte[] get = {0x00, 0x01, 0x00, 0x01, 0x00, 0x01, 0x00, 0x05, (byte) 0xC0, 0x01, (byte) 0xC1, 0x00, 0x00};
+            DlmsInvokeIdCorrelator.PendingRequest pending =
+                    DlmsInvokeIdCorrelator.of(channel).register("M-PENDING", get, 1_000, timer);
+            assertTrue(MeterSessionRegistry.hasRequestInFlight(session));
+
+            pending.cancel(new IllegalStateException("test"));
+            assertThrows(IllegalStateException.class, pending::await);
+            assertFalse(MeterSessionRegistry.hasRequestInFlight(session));
+        } finally {
+            timer.stop();
+            channel.finishAndReleaseAll();
+        }
+    }
+}
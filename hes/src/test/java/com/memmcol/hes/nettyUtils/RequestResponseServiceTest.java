@@ -0,0 +1,63 @@
+package com.memmcol.hes.nettyUtils;
+
+import com.memmcol.hes.exception.MeterCircuitOpenException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class RequestResponseServiceTest {
+
+    private static final byte[] COMMAND = {0x00, 0x01};
+
+    private DlmsTimeoutPolicy timeoutPolicy;
+    private RequestResponseService service;
+
+    @BeforeEach
+    void setUp() {
+        timeoutPolicy = mock(DlmsTimeoutPolicy.class);
+        when(timeoutPolicy.retryDelayMs(anyLong(), anyInt())).thenReturn(0L);
+        service = spy(new RequestResponseService(new DlmsLinkStats(new SimpleMeterRegistry()), timeoutPolicy));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stopResponseTimer();
+    }
+
+    @Test
+    void retriesWaitBetweenAttemptsButNotAfterTheLast() {
+        doThrow(ReadTimeoutException.INSTANCE).when(service).sendCommand(eq("M1"), any());
+
+        assertThrows(IllegalStateException.class, () -> service.sendCommandWithRetry("M1", COMMAND, 3, 100));
+
+        verify(service, times(3)).sendCommand("M1", COMMAND);
+        verify(timeoutPolicy).retryDelayMs(100, 1);
+        verify(timeoutPolicy).retryDelayMs(100, 2);
+        verify(timeoutPolicy, never()).retryDelayMs(100, 3);
+    }
+
+    @Test
+    void retryReturnsTheFirstAnswer() {
+        byte[] reply = {0x0C};
+        doThrow(ReadTimeoutException.INSTANCE).doReturn(reply).when(service).sendCommand(eq("M1"), any());
+
+        assertArrayEquals(reply, service.sendCommandWithRetry("M1", COMMAND, 3, 100));
+        verify(timeoutPolicy, times(1)).retryDelayMs(anyLong(), anyInt());
+    }
+
+    @Test
+    void openCircuitIsNotRetried() {
+        doThrow(new MeterCircuitOpenException("M1", 1_000)).when(service).sendCommand(eq("M1"), any());
+
+        assertThrows(MeterCircuitOpenException.class, () -> service.sendCommandWithRetry("M1", COMMAND, 3, 100));
+
+        verify(service, times(1)).sendCommand("M1", COMMAND);
+        verify(timeoutPolicy, never()).retryDelayMs(anyLong(), anyInt());
+    }
+}
@@ -0,0 +1,125 @@
+package com.memmcol.hes.nettyUtils;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WireCaptureLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void ringKeepsNewestRecordsInOrder() throws Exception {
+        Path file = dir.resolve("capture.bin");
+        try (WireCaptureLog capture = WireCaptureLog.open(file, 1024)) {
+            for (int i = 0; i < 100; i++) {
+                byte[] frame = {0x00, 0x01, 0x00, 0x01, 0x00, 0x01, 0x00, 0x01, (byte) i};
+                capture.append(i % 2 == 0 ? WireCaptureLog.Direction.TX : WireCaptureLog.Direction.RX,
+                        "ch-" + (i % 3), "M" + i, frame);
+            }
+        }
+
+        List<WireCaptureLog.Record> records = WireCaptureLog.read(file);
+        assertFalse(records.isEmpty());
+        assertTrue(records.size() < 100);
+
+        WireCaptureLog.Record newest = records.getLast();
+        assertEquals(99, newest.seq());
+        assertEquals("M99", newest.serial());
+        assertEquals(99, newest.frame()[8]);
+        for (int i = 1; i < records.size(); i++) {
+            assertEquals(records.get(i - 1).seq() + 1, records.get(i).seq());
+        }
+    }
+
+    @Test
+    void reopenAppendsToExistingCapture() throws Exception {
+        Path file = dir.resolve("reopen.bin");
+        try (WireCaptureLog capture = WireCaptureLog.open(file, 4096)) {
+            capture.append(WireCaptureLog.Direction.RX, "ch", "M1", new byte[]{1, 2, 3});
+        }
+        try (WireCaptureLog capture = WireCaptureLog.open(file, 4096)) {
+            capture.append(WireCaptureLog.Direction.TX, "ch", "M1", new byte[]{4});
+        }
+        List<WireCaptureLog.Record> records = WireCaptureLog.read(file);
+        assertEquals(2, records.size());
+        assertArrayEquals(new byte[]{4}, records.get(1).frame());
+        assertEquals(WireCaptureLog.Direction.TX, records.get(1).direction());
+    }
+
+    @Test
+    void concurrentAppendersKeepEveryRecordAndTheirOwnOrder() throws Exception {
+        Path file = dir.resolve("concurrent.bin");
+        int threads = 8;
+        int perThread = 2_000;
+        try (WireCaptureLog capture = WireCaptureLog.open(file, 4 * 1024 * 1024)) {
+            List<Thread> appenders = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String channelId = "ch-" + t;
+                appenders.add(Thread.ofPlatform().start(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        capture.append(WireCaptureLog.Direction.RX, channelId, "M" + channelId,
+                                new byte[]{(byte) (i >>> 8), (byte) i});
+                    }
+                }));
+            }
+            for (Thread appender : appenders) {
+                appender.join();
+            }
+            assertEquals((long) threads * perThread, capture.written());
+        }
+
+        List<WireCaptureLog.Record> records = WireCaptureLog.read(file);
+        assertEquals(threads * perThread, records.size());
+        Set<Long> seqs = new HashSet<>();
+        Map<String, Integer> lastPerChannel = new HashMap<>();
+        for (WireCaptureLog.Record record : records) {
+            assertTrue(seqs.add(record.seq()));
+            assertEquals("M" + record.channelId(), record.serial());
+            int value = (record.frame()[0] & 0xFF) << 8 | (record.frame()[1] & 0xFF);
+            assertEquals(lastPerChannel.getOrDefault(record.channelId(), -1) + 1, value);
+            lastPerChannel.put(record.channelId(), value);
+        }
+    }
+
+    @Test
+    void byteBufIsCopiedFromItsReaderIndexWithoutConsumingIt() throws Exception {
+        Path file = dir.resolve("bytebuf.bin");
+        ByteBuf direct = Unpooled.directBuffer(8).writeBytes(new byte[]{9, 9, 1, 2, 3});
+        direct.readerIndex(2);
+        try (WireCaptureLog capture = WireCaptureLog.open(file, 4096)) {
+            capture.append(WireCaptureLog.Direction.RX, "ch", "M1", direct);
+            capture.append(WireCaptureLog.Direction.TX, "ch", "M1", new byte[]{4});
+        } finally {
+            assertEquals(2, direct.readerIndex());
+            direct.release();
+        }
+
+        List<WireCaptureLog.Record> records = WireCaptureLog.read(file);
+        assertArrayEquals(new byte[]{1, 2, 3}, records.get(0).frame());
+        assertArrayEquals(new byte[]{4}, records.get(1).frame());
+    }
+
+    @Test
+    void recordLargerThanASegmentIsDropped() throws Exception {
+        Path file = dir.resolve("large.bin");
+        try (WireCaptureLog capture = WireCaptureLog.open(file, 1024)) {
+            capture.append(WireCaptureLog.Direction.RX, "ch", "M1", new byte[512]);
+            assertEquals(1, capture.dropped());
+            assertEquals(0, capture.written());
+        }
+        assertTrue(WireCaptureLog.read(file).isEmpty());
+    }
+}
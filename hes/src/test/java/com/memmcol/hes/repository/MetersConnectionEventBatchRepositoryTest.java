@@ -0,0 +1,72 @@
+package com.memmcol.hes.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class MetersConnectionEventBatchRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private Connection connection;
+    private PreparedStatement ps;
+    private MetersConnectionEventBatchRepository repository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        connection = mock(Connection.class);
+        ps = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString())).thenReturn(ps);
+        when(connection.createArrayOf(eq("text"), any())).thenReturn(mock(Array.class));
+        repository = new MetersConnectionEventBatchRepository(jdbcTemplate);
+    }
+
+    private String runStatement() throws Exception {
+        ArgumentCaptor<PreparedStatementCreator> creator = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate).update(creator.capture());
+        creator.getValue().createPreparedStatement(connection);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(connection).prepareStatement(sql.capture());
+        return sql.getValue();
+    }
+
+    @Test
+    void staleSweepBindsLiveMetersAsOneTextArray() throws Exception {
+        when(jdbcTemplate.update(any(PreparedStatementCreator.class))).thenReturn(4);
+
+        int updated = repository.markStaleOnlineMetersOffline(NOW.minusMinutes(2), NOW, List.of("M1", "M2"));
+
+        assertEquals(4, updated);
+        String sql = runStatement();
+        assertTrue(sql.contains("meter_no <> ALL(?)"));
+        assertTrue(sql.contains("connection_type = 'ONLINE'"));
+        verify(ps, times(2)).setTimestamp(intThat(i -> i == 1 || i == 2), eq(Timestamp.valueOf(NOW)));
+        verify(ps).setTimestamp(3, Timestamp.valueOf(NOW.minusMinutes(2)));
+        verify(connection).createArrayOf("text", new String[]{"M1", "M2"});
+        verify(ps).setArray(eq(4), any(Array.class));
+    }
+
+    @Test
+    void noLiveMetersBindsAnEmptyArraySoEveryStaleRowQualifies() throws Exception {
+        repository.markStaleOnlineMetersOffline(NOW.minusMinutes(2), NOW, null);
+
+        runStatement();
+        verify(connection).createArrayOf("text", new String[0]);
+        verify(ps).setArray(eq(4), any(Array.class));
+    }
+}
@@ -0,0 +1,93 @@
+package com.memmcol.hes.service;
+
+import io.netty.channel.DefaultChannelId;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MeterConnectionsTest {
+
+    @Test
+    void rebindToNewChannelKeepsCountAndIgnoresStaleClose() {
+        int before = MeterConnections.onlineCount();
+        EmbeddedChannel first = new EmbeddedChannel();
+        EmbeddedChannel second = new EmbeddedChannel();
+
+        MeterConnections.bind(first, "MC-TEST-1");
+        MeterConnections.bind(first, "MC-TEST-1");
+        assertEquals(before + 1, MeterConnections.onlineCount());
+        assertEquals("MC-TEST-1", MeterConnections.getSerial(first));
+
+        MeterConnections.bind(second, "MC-TEST-1");
+        assertEquals(before + 1, MeterConnections.onlineCount());
+        assertNull(MeterConnections.getSerial(first));
+        assertFalse(first.isOpen());
+
+        // Late teardown of the stale socket must not drop the live binding
+        MeterConnections.remove(first);
+        assertTrue(MeterConnections.isCurrentChannel("MC-TEST-1", second));
+        assertEquals(before + 1, MeterConnections.onlineCount());
+
+        MeterConnections.remove(second);
+        assertEquals(before, MeterConnections.onlineCount());
+        assertNull(MeterConnections.getChannel("MC-TEST-1"));
+    }
+
+    @Test
+    void channelReportingNewSerialReleasesOldOne() {
+        int before = MeterConnections.onlineCount();
+        EmbeddedChannel channel = new EmbeddedChannel();
+
+        MeterConnections.bind(channel, "MC-TEST-2");
+        MeterConnections.bind(channel, "MC-TEST-3");
+
+        assertEquals(before + 1, MeterConnections.onlineCount());
+        assertFalse(MeterConnections.isCurrentChannel("MC-TEST-2", channel));
+        assertTrue(MeterConnections.isCurrentChannel("MC-TEST-3", channel));
+
+        MeterConnections.remove(channel);
+        assertEquals(before, MeterConnections.onlineCount());
+    }
+
+    @Test
+    void heartbeatUpdatesSessionStateOnTheChannel() throws InterruptedException {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        MeterConnections.bind(channel, "MC-TEST-4");
+        MeterConnections.MeterBinding binding = MeterConnections.getBinding(channel);
+        long boundAt = binding.boundAtMillis();
+        Thread.sleep(5);
+
+        MeterConnections.bind(channel, "MC-TEST-4");
+
+        assertSame(binding, MeterConnections.getBinding(channel));
+        assertEquals(boundAt, binding.boundAtMillis());
+        assertTrue(binding.lastSeenMillis() > boundAt);
+        assertTrue(MeterConnections.isCurrentChannel("MC-TEST-4", channel));
+
+        MeterConnections.remove(channel);
+        assertNull(MeterConnections.getBinding(channel));
+    }
+
+    @Test
+    void connectedCountIncludesUnidentifiedSocketsAndDropsClosedOnes() {
+        int connected = MeterConnections.connectedCount();
+        int online = MeterConnections.onlineCount();
+        // Channel groups key on the id, and embedded channels share one by default
+        EmbeddedChannel identified = new EmbeddedChannel(DefaultChannelId.newInstance());
+        EmbeddedChannel anonymous = new EmbeddedChannel(DefaultChannelId.newInstance());
+
+        MeterConnections.register(identified);
+        MeterConnections.register(anonymous);
+        MeterConnections.bind(identified, "MC-TEST-5");
+        assertEquals(connected + 2, MeterConnections.connectedCount());
+        assertEquals(online + 1, MeterConnections.onlineCount());
+
+        anonymous.close();
+        assertEquals(connected + 1, MeterConnections.connectedCount());
+
+        MeterConnections.remove(identified);
+        assertEquals(connected, MeterConnections.connectedCount());
+        assertEquals(online, MeterConnections.onlineCount());
+    }
+}
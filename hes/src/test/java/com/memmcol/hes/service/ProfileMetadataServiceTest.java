@@ -0,0 +1,106 @@
+package com.memmcol.hes.service;
+
+import com.memmcol.hes.cache.CaffeineCacheConfig;
+import com.memmcol.hes.domain.profile.ObisMappingService;
+import com.memmcol.hes.infrastructure.dlms.DlmsReaderUtils;
+import com.memmcol.hes.model.ModelProfileMetadata;
+import com.memmcol.hes.nettyUtils.SessionManager;
+import com.memmcol.hes.repository.ModelProfileMetadataRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ProfileMetadataServiceTest {
+
+    private static final String MODEL = "MMX-313-CT";
+    private static final String PROFILE = "1.0.99.1.0.255";
+
+    private ModelProfileMetadataRepository repo;
+    private SimpleMeterRegistry registry;
+    private ProfileMetadataService service;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(ModelProfileMetadataRepository.class);
+        registry = new SimpleMeterRegistry();
+        service = new ProfileMetadataService(new CaffeineCacheConfig().cacheManager(), repo,
+                mock(SessionManager.class), mock(DlmsReaderUtils.class), mock(ObisMappingService.class), registry);
+    }
+
+    private double lookups(String result) {
+        return registry.counter("hes.metadata.cache.lookups", "result", result).count();
+    }
+
+    private static List<ModelProfileMetadata> clockColumn() {
+        return List.of(ModelProfileMetadata.builder()
+                .meterModel(MODEL).profileObis(PROFILE)
+                .captureObis("0.0.1.0.0.255").classId(8).attributeIndex(2)
+                .captureIndex(0).columnName("entry_timestamp")
+                .build());
+    }
+
+    @Test
+    void concurrentMissesForOneModelAndProfileLoadOnce() throws Exception {
+        int callers = 8;
+        List<ModelProfileMetadata> rows = clockColumn();
+        // The loader holds the slot until every other caller is parked on its future
+        when(repo.findByMeterModelAndProfileObisOrderByCaptureIndexAsc(MODEL, PROFILE)).thenAnswer(inv -> {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (lookups("coalesced") < callers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            return rows;
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<ModelProfileMetadata>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                String serial = "6212400000" + i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return service.getOrLoadMetadata(MODEL, PROFILE, serial);
+                }));
+            }
+            start.countDown();
+            for (Future<List<ModelProfileMetadata>> result : results) {
+                assertEquals(rows, result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(repo, times(1)).findByMeterModelAndProfileObisOrderByCaptureIndexAsc(MODEL, PROFILE);
+        assertEquals(1, lookups("miss"));
+        assertEquals(callers - 1, lookups("coalesced"));
+        assertEquals(0, lookups("hit"));
+
+        assertEquals(rows, service.getOrLoadMetadata(MODEL, PROFILE, "62124000000"));
+        assertEquals(1, lookups("hit"));
+        verify(repo, times(1)).findByMeterModelAndProfileObisOrderByCaptureIndexAsc(MODEL, PROFILE);
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        when(repo.findByMeterModelAndProfileObisOrderByCaptureIndexAsc(MODEL, PROFILE))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenReturn(clockColumn());
+
+        assertThrows(IllegalStateException.class, () -> service.getOrLoadMetadata(MODEL, PROFILE, "62124000000"));
+
+        assertEquals(clockColumn(), service.getOrLoadMetadata(MODEL, PROFILE, "62124000000"));
+        assertEquals(2, lookups("miss"));
+    }
+}